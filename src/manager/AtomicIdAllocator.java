@@ -0,0 +1,33 @@
+package manager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Генератор идентификаторов на атомарном счетчике: id выдаются подряд без блокировок
+ *
+ * @author Николаев Д.В.
+ * @version 1.0
+ */
+public class AtomicIdAllocator implements IdAllocator {
+    /**
+     * Поле последнего выданного или занятого id
+     */
+    private final AtomicInteger lastId = new AtomicInteger();
+
+    @Override
+    public int nextId() {
+        return lastId.incrementAndGet();
+    }
+
+    @Override
+    public void reserve(int id) {
+        lastId.accumulateAndGet(id, Math::max);
+    }
+
+    @Override
+    public String toString() {
+        return "AtomicIdAllocator{" +
+                "lastId=" + lastId +
+                '}';
+    }
+}
@@ -0,0 +1,395 @@
+package manager;
+
+import task.Epic;
+import task.RecurringTask;
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Потокобезопасный менеджер задач - реализация интерфейса {@link TaskManager} поверх {@link InMemoryTaskManager}.
+ * Операции чтения выполняются под общей блокировкой чтения и не мешают друг другу, изменения - под блокировкой
+ * записи. Блокировка записи общая для всех эпиков, т.к. любое изменение времени выполнения проверяется на пересечение
+ * со всем расписанием. История просмотра, которую дополняют и операции чтения, защищена отдельно
+ * через {@link SynchronizedHistoryManager}, а id выдаются атомарным счетчиком без блокировок.
+ * Списки задач, подзадач, эпиков и расписания читаются вовсе без блокировок, если менеджер уже опубликовал их
+ * неизменяемую версию после последнего изменения; список эпиков публикуется из их копий.
+ * Слушатели событий вызываются под блокировкой записи, поэтому получают события строго в порядке версий.
+ * Эпики менеджер меняет на месте при изменении их подзадач, поэтому читателям они отдаются копиями, снятыми под
+ * блокировкой чтения, см. {@link Epic#Epic(Epic)}.
+ *
+ * @author Николаев Д.В.
+ * @version 1.14
+ */
+public class ConcurrentTaskManager implements TaskManager {
+    /**
+     * Поле менеджера, выполняющего операции
+     */
+    private final InMemoryTaskManager taskManager;
+
+    /**
+     * Поле блокировки хранилищ и расписания менеджера
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Конструктор потокобезопасного менеджера в памяти
+     */
+    public ConcurrentTaskManager() {
+        this(new InMemoryTaskManager(new SynchronizedHistoryManager(Managers.getDefaultHistory())));
+    }
+
+    /**
+     * Конструктор потокобезопасного менеджера поверх заданного. Переданный менеджер не должен использоваться в обход
+     * этого, а его менеджер истории должен быть потокобезопасным.
+     *
+     * @param taskManager менеджер, выполняющий операции
+     */
+    public ConcurrentTaskManager(InMemoryTaskManager taskManager) {
+        this.taskManager = taskManager;
+    }
+
+    @Override
+    public String toString() {
+        return read(() -> "ConcurrentTaskManager{" +
+                "taskManager=" + taskManager +
+                '}');
+    }
+
+    /**
+     * Метод выполнения операции чтения под блокировкой чтения
+     *
+     * @param operation операция
+     * @return результат операции
+     */
+    private <T> T read(Supplier<T> operation) {
+        return locked(lock.readLock(), operation);
+    }
+
+    /**
+     * Метод выполнения изменяющей операции под блокировкой записи
+     *
+     * @param operation операция
+     * @return результат операции
+     */
+    private <T> T write(Supplier<T> operation) {
+        return locked(lock.writeLock(), operation);
+    }
+
+    /**
+     * Метод выполнения изменяющей операции без результата под блокировкой записи
+     *
+     * @param operation операция
+     */
+    private void write(Runnable operation) {
+        locked(lock.writeLock(), () -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /**
+     * Метод выполнения операции под заданной блокировкой
+     *
+     * @param operationLock блокировка
+     * @param operation     операция
+     * @return результат операции
+     */
+    private static <T> T locked(Lock operationLock, Supplier<T> operation) {
+        operationLock.lock();
+        try {
+            return operation.get();
+        } finally {
+            operationLock.unlock();
+        }
+    }
+
+    /**
+     * Метод получения опубликованного списка без блокировок, а если после изменения он еще не построен -
+     * построения его под блокировкой чтения
+     *
+     * @param published опубликованный список или null
+     * @param operation операция построения списка
+     * @return неизменяемый список
+     */
+    private <T> List<T> snapshot(List<T> published, Supplier<List<T>> operation) {
+        return (published != null) ? published : read(operation);
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+        return snapshot(taskManager.getPublishedTasks(), taskManager::getAllTasks);
+    }
+
+    @Override
+    public List<Subtask> getAllSubtasks() {
+        return snapshot(taskManager.getPublishedSubtasks(), taskManager::getAllSubtasks);
+    }
+
+    @Override
+    public List<Epic> getAllEpics() {
+        return snapshot(taskManager.getPublishedEpics(), taskManager::getEpicCopies);
+    }
+
+    @Override
+    public List<Task> getAllTasks(int afterId, int limit) {
+        return TaskUtil.pageById(getAllTasks(), afterId, limit);
+    }
+
+    @Override
+    public List<Subtask> getAllSubtasks(int afterId, int limit) {
+        return TaskUtil.pageById(getAllSubtasks(), afterId, limit);
+    }
+
+    @Override
+    public List<Epic> getAllEpics(int afterId, int limit) {
+        return TaskUtil.pageById(getAllEpics(), afterId, limit);
+    }
+
+    @Override
+    public void clearAllTasks() {
+        write(taskManager::clearAllTasks);
+    }
+
+    @Override
+    public void clearAllSubtasks() {
+        write(taskManager::clearAllSubtasks);
+    }
+
+    @Override
+    public void clearAllEpics() {
+        write(taskManager::clearAllEpics);
+    }
+
+    @Override
+    public Task getTask(int taskId) {
+        return read(() -> taskManager.getTask(taskId));
+    }
+
+    @Override
+    public Subtask getSubtask(int subtaskId) {
+        return read(() -> taskManager.getSubtask(subtaskId));
+    }
+
+    @Override
+    public Epic getEpic(int epicId) {
+        return read(() -> new Epic(taskManager.getEpic(epicId)));
+    }
+
+    @Override
+    public Task createTask(Task task) {
+        return write(() -> taskManager.createTask(task));
+    }
+
+    @Override
+    public Subtask createSubtask(Subtask subtask) {
+        return write(() -> taskManager.createSubtask(subtask));
+    }
+
+    @Override
+    public Epic createEpic(Epic epic) {
+        return write(() -> taskManager.createEpic(epic));
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        write(() -> taskManager.updateTask(task));
+    }
+
+    @Override
+    public void updateSubtask(Subtask subtask) {
+        write(() -> taskManager.updateSubtask(subtask));
+    }
+
+    @Override
+    public void updateEpic(Epic epic) {
+        write(() -> taskManager.updateEpic(epic));
+    }
+
+    @Override
+    public void removeTask(int taskId) {
+        write(() -> taskManager.removeTask(taskId));
+    }
+
+    @Override
+    public void removeSubtask(int subtaskId) {
+        write(() -> taskManager.removeSubtask(subtaskId));
+    }
+
+    @Override
+    public void removeEpic(int epicId) {
+        write(() -> taskManager.removeEpic(epicId));
+    }
+
+    @Override
+    public List<Task> createBatch(List<? extends Task> batch) {
+        return write(() -> taskManager.createBatch(batch));
+    }
+
+    @Override
+    public void updateBatch(List<? extends Task> batch) {
+        write(() -> taskManager.updateBatch(batch));
+    }
+
+    @Override
+    public void removeBatch(List<Integer> ids) {
+        write(() -> taskManager.removeBatch(ids));
+    }
+
+    @Override
+    public List<Task> scheduleTasks(List<Integer> ids, LocalDateTime notBefore) {
+        return write(() -> taskManager.scheduleTasks(ids, notBefore));
+    }
+
+    @Override
+    public RecurringTask createRecurringTask(RecurringTask task) {
+        return write(() -> taskManager.createRecurringTask(task));
+    }
+
+    @Override
+    public RecurringTask getRecurringTask(int id) {
+        return read(() -> taskManager.getRecurringTask(id));
+    }
+
+    @Override
+    public List<RecurringTask> getAllRecurringTasks() {
+        return read(taskManager::getAllRecurringTasks);
+    }
+
+    @Override
+    public void removeRecurringTask(int id) {
+        write(() -> taskManager.removeRecurringTask(id));
+    }
+
+    @Override
+    public List<Subtask> getSubtasksByEpicId(int epicId) {
+        return read(() -> taskManager.getSubtasksByEpicId(epicId));
+    }
+
+    @Override
+    public List<Subtask> getSubtasksByEpic(Epic epic) {
+        return read(() -> taskManager.getSubtasksByEpic(epic));
+    }
+
+    @Override
+    public List<Task> getTasksByStatus(TaskStatus status) {
+        return read(() -> taskManager.getTasksByStatus(status));
+    }
+
+    @Override
+    public List<Subtask> getSubtasksByStatus(TaskStatus status) {
+        return read(() -> taskManager.getSubtasksByStatus(status));
+    }
+
+    @Override
+    public List<Epic> getEpicsByStatus(TaskStatus status) {
+        return read(() -> TaskUtil.detach(taskManager.getEpicsByStatus(status)));
+    }
+
+    @Override
+    public Map<TaskStatus, List<Task>> getBoard() {
+        return read(() -> {
+            Map<TaskStatus, List<Task>> board = taskManager.getBoard();
+            board.replaceAll((status, column) -> TaskUtil.detach(column));
+            return board;
+        });
+    }
+
+    @Override
+    public List<Task> search(String query) {
+        return read(() -> TaskUtil.detach(taskManager.search(query)));
+    }
+
+    @Override
+    public List<Task> query(TaskQuery query) {
+        return read(() -> TaskUtil.detach(taskManager.query(query)));
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return read(() -> TaskUtil.detach(taskManager.getHistory()));
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return snapshot(taskManager.getPublishedPrioritizedTasks(), taskManager::getPrioritizedTasks);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime after, int limit) {
+        return read(() -> taskManager.getPrioritizedTasks(after, limit));
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to) {
+        return read(() -> taskManager.getPrioritizedTasks(from, to));
+    }
+
+    @Override
+    public List<LocalDateTime> findFreeSlots(LocalDateTime notBefore, long durationMinutes, int count) {
+        return read(() -> taskManager.findFreeSlots(notBefore, durationMinutes, count));
+    }
+
+    @Override
+    public boolean isValid(Task task) {
+        return read(() -> taskManager.isValid(task));
+    }
+
+    @Override
+    public void addDependency(int blockerId, int blockedId) {
+        write(() -> taskManager.addDependency(blockerId, blockedId));
+    }
+
+    @Override
+    public void removeDependency(int blockerId, int blockedId) {
+        write(() -> taskManager.removeDependency(blockerId, blockedId));
+    }
+
+    @Override
+    public List<Task> getBlockers(int taskId) {
+        return read(() -> taskManager.getBlockers(taskId));
+    }
+
+    @Override
+    public LocalDateTime getEarliestStart(int taskId) {
+        return read(() -> taskManager.getEarliestStart(taskId));
+    }
+
+    @Override
+    public List<Task> getCriticalPath(int taskId) {
+        return read(() -> taskManager.getCriticalPath(taskId));
+    }
+
+    @Override
+    public List<Task> getCriticalPath() {
+        return read(taskManager::getCriticalPath);
+    }
+
+    @Override
+    public void clearHistory() {
+        taskManager.clearHistory();
+    }
+
+    @Override
+    public void addListener(TaskListener listener) {
+        taskManager.addListener(listener);
+    }
+
+    @Override
+    public void removeListener(TaskListener listener) {
+        taskManager.removeListener(listener);
+    }
+
+    @Override
+    public long getVersion() {
+        return taskManager.getVersion();
+    }
+}
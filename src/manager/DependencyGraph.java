@@ -0,0 +1,502 @@
+package manager;
+
+import task.Task;
+import util.IntLinkedSet;
+import util.IntObjectMap;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * Граф зависимостей задач и подзадач "блокирует - заблокирована" с поддержкой раннего начала и критического пути.
+ * Раннее начало задачи - наибольшее из ее собственной даты/времени начала и ранних окончаний блокирующих задач,
+ * раннее окончание - раннее начало плюс продолжительность. Критический путь задачи - цепочка блокирующих задач,
+ * определивших ее раннее начало.
+ * Граф всегда ацикличен: узлы держат топологический порядок, который при добавлении зависимости против порядка
+ * перестраивается только на участке между двумя узлами (алгоритм Пирса - Келли), там же обнаруживается и цикл.
+ * После изменения пересчитываются только узлы ниже измененного и только пока их сроки меняются - в топологическом
+ * порядке через очередь с приоритетом. Граф слушает события менеджера {@link TaskEvent} и сам следит за изменением
+ * сроков и удалением задач.
+ *
+ * @author Николаев Д.В.
+ * @version 1.0
+ */
+public class DependencyGraph implements TaskListener {
+    /**
+     * Порядок узлов по раннему окончанию, при совпадении - по id
+     */
+    private static final Comparator<Node> BY_FINISH = Comparator.comparing((Node node) -> node.earliestFinish)
+            .thenComparingInt(node -> node.id);
+
+    /**
+     * Поле узлов по id задач
+     */
+    private final IntObjectMap<Node> nodes = new IntObjectMap<>();
+
+    /**
+     * Поле узлов с рассчитанным ранним окончанием, упорядоченных по нему
+     */
+    private final NavigableSet<Node> byFinish = new TreeSet<>(BY_FINISH);
+
+    /**
+     * Поле следующего номера в конце топологического порядка
+     */
+    private int nextOrder;
+
+    /**
+     * Поле первого занятого номера в начале топологического порядка
+     */
+    private int firstOrder;
+
+    /**
+     * Класс узла графа - задачи (подзадачи) с ее зависимостями и рассчитанными сроками
+     */
+    private static final class Node {
+        /**
+         * Поле id задачи
+         */
+        private final int id;
+        /**
+         * Поле типа задачи
+         */
+        private final TaskType type;
+        /**
+         * Поле номера в топологическом порядке: блокирующая задача всегда раньше заблокированной
+         */
+        private int order;
+        /**
+         * Поле собственной даты/времени начала задачи
+         */
+        private LocalDateTime ownStart;
+        /**
+         * Поле продолжительности задачи в минутах
+         */
+        private long durationMinutes;
+        /**
+         * Поле раннего начала; null - не определено
+         */
+        private LocalDateTime earliestStart;
+        /**
+         * Поле раннего окончания; null - не определено
+         */
+        private LocalDateTime earliestFinish;
+        /**
+         * Поле id блокирующей задачи, определившей раннее начало; 0 - его определило собственное начало
+         */
+        private int criticalBlocker;
+        /**
+         * Поле id блокирующих задач
+         */
+        private final IntLinkedSet blockers = new IntLinkedSet();
+        /**
+         * Поле id заблокированных задач
+         */
+        private final IntLinkedSet dependents = new IntLinkedSet();
+
+        private Node(int id, TaskType type, int order) {
+            this.id = id;
+            this.type = type;
+            this.order = order;
+        }
+
+        /**
+         * Метод обновления собственных сроков по задаче
+         *
+         * @param task задача (подзадача)
+         * @return true - сроки изменились
+         */
+        private boolean setTimes(Task task) {
+            LocalDateTime start = task.getStartTime();
+            long duration = (task.getDuration() != null) ? task.getDuration().toMinutes() : 0;
+            if (Objects.equals(start, ownStart) && duration == durationMinutes) {
+                return false;
+            }
+            ownStart = start;
+            durationMinutes = duration;
+            return true;
+        }
+    }
+
+    /**
+     * Метод добавления зависимости. Повторное добавление существующей зависимости ничего не меняет.
+     *
+     * @param blocker блокирующая задача (подзадача)
+     * @param blocked заблокированная задача (подзадача)
+     * @throws InvalidTaskException если зависимость образует цикл
+     */
+    public void addDependency(Task blocker, Task blocked) {
+        if (blocker.getId() == blocked.getId()) {
+            throw new InvalidTaskException("Задача не может блокировать сама себя: " + blocker.getId());
+        }
+        Node from = nodes.get(blocker.getId());
+        Node to = nodes.get(blocked.getId());
+        if (from != null && to != null) {
+            if (from.dependents.contains(to.id)) {
+                return;
+            }
+            if (from.order > to.order) {
+                reorder(from, to);
+            }
+        }
+        // У нового узла нет других зависимостей: блокирующий ставится в начало порядка, заблокированный - в конец
+        if (from == null) {
+            from = addNode(blocker, --firstOrder);
+        }
+        if (to == null) {
+            to = addNode(blocked, nextOrder++);
+        }
+        from.dependents.add(to.id);
+        to.blockers.add(from.id);
+        propagate(List.of(to));
+    }
+
+    /**
+     * Метод удаления зависимости
+     *
+     * @param blockerId id блокирующей задачи
+     * @param blockedId id заблокированной задачи
+     * @return true - зависимость была и удалена
+     */
+    public boolean removeDependency(int blockerId, int blockedId) {
+        Node from = nodes.get(blockerId);
+        Node to = nodes.get(blockedId);
+        if (from == null || to == null || !from.dependents.remove(blockedId)) {
+            return false;
+        }
+        to.blockers.remove(blockerId);
+        propagate(List.of(to));
+        return true;
+    }
+
+    /**
+     * Метод проверки участия задачи в зависимостях
+     *
+     * @param id id задачи
+     * @return true - задача есть в графе
+     */
+    public boolean contains(int id) {
+        return nodes.containsKey(id);
+    }
+
+    /**
+     * Метод получения id блокирующих задач
+     *
+     * @param id id задачи
+     * @return int[] id в порядке добавления зависимостей
+     */
+    public int[] getBlockers(int id) {
+        Node node = nodes.get(id);
+        return (node != null) ? node.blockers.toArray() : new int[0];
+    }
+
+    /**
+     * Метод получения id задач, заблокированных данной
+     *
+     * @param id id задачи
+     * @return int[] id в порядке добавления зависимостей
+     */
+    public int[] getDependents(int id) {
+        Node node = nodes.get(id);
+        return (node != null) ? node.dependents.toArray() : new int[0];
+    }
+
+    /**
+     * Метод получения раннего начала задачи
+     *
+     * @param id id задачи из графа
+     * @return раннее начало или null, если оно не определено
+     */
+    public LocalDateTime getEarliestStart(int id) {
+        Node node = nodes.get(id);
+        return (node != null) ? node.earliestStart : null;
+    }
+
+    /**
+     * Метод получения раннего окончания задачи
+     *
+     * @param id id задачи из графа
+     * @return раннее окончание или null, если оно не определено
+     */
+    public LocalDateTime getEarliestFinish(int id) {
+        Node node = nodes.get(id);
+        return (node != null) ? node.earliestFinish : null;
+    }
+
+    /**
+     * Метод получения критического пути задачи
+     *
+     * @param id id задачи
+     * @return int[] id задач пути от первой до данной; для задачи вне графа - только она сама
+     */
+    public int[] getCriticalPath(int id) {
+        Node node = nodes.get(id);
+        return (node != null) ? pathTo(node) : new int[]{id};
+    }
+
+    /**
+     * Метод получения критического пути графа - пути задачи с самым поздним ранним окончанием
+     *
+     * @return int[] id задач пути; пустой - сроки не определены ни у одной задачи
+     */
+    public int[] getCriticalPath() {
+        return byFinish.isEmpty() ? new int[0] : pathTo(byFinish.last());
+    }
+
+    /**
+     * Метод получения количества задач в графе
+     *
+     * @return количество задач
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Метод обработки события менеджера: изменение сроков задачи пересчитывает ее и задачи ниже, удаление и
+     * очистка исключают задачи из графа вместе с их зависимостями
+     *
+     * @param event событие изменения
+     */
+    @Override
+    public void onEvent(TaskEvent event) {
+        switch (event.getKind()) {
+            case UPDATE -> {
+                Node node = nodes.get(event.getId());
+                if (node != null && node.setTimes(event.getAfter())) {
+                    propagate(List.of(node));
+                }
+            }
+            case REMOVE -> removeNodes(List.of(event.getId()));
+            case CLEAR -> {
+                List<Integer> ids = new ArrayList<>();
+                nodes.forEach(node -> {
+                    if (node.type == event.getTaskType()) {
+                        ids.add(node.id);
+                    }
+                });
+                removeNodes(ids);
+            }
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Метод очистки графа
+     */
+    public void clear() {
+        nodes.clear();
+        byFinish.clear();
+        nextOrder = 0;
+        firstOrder = 0;
+    }
+
+    /**
+     * Метод добавления узла задачи без зависимостей
+     *
+     * @param task  задача (подзадача)
+     * @param order свободный номер узла в начале или в конце порядка
+     * @return новый узел
+     */
+    private Node addNode(Task task, int order) {
+        Node node = new Node(task.getId(), TaskQuery.typeOf(task), order);
+        node.setTimes(task);
+        nodes.put(node.id, node);
+        recompute(node);
+        return node;
+    }
+
+    /**
+     * Метод исключения узлов вместе с их зависимостями и пересчета задач, которые они блокировали
+     *
+     * @param ids id задач
+     */
+    private void removeNodes(Collection<Integer> ids) {
+        List<Node> affected = new ArrayList<>();
+        for (int id : ids) {
+            Node node = nodes.remove(id);
+            if (node == null) {
+                continue;
+            }
+            if (node.earliestFinish != null) {
+                byFinish.remove(node);
+            }
+            node.blockers.forEach(blockerId -> {
+                Node blocker = nodes.get(blockerId);
+                if (blocker != null) {
+                    blocker.dependents.remove(id);
+                }
+            });
+            node.dependents.forEach(dependentId -> {
+                Node dependent = nodes.get(dependentId);
+                if (dependent != null) {
+                    dependent.blockers.remove(id);
+                    affected.add(dependent);
+                }
+            });
+        }
+        affected.removeIf(node -> !nodes.containsKey(node.id));
+        propagate(affected);
+    }
+
+    /**
+     * Метод восстановления топологического порядка перед добавлением зависимости from -> to, где from стоит позже
+     * to. Затрагиваются только узлы с номерами между ними: достижимые из to и ведущие в from. Если from достижим
+     * из to, зависимость образует цикл.
+     *
+     * @param from блокирующий узел
+     * @param to   заблокированный узел
+     */
+    private void reorder(Node from, Node to) {
+        List<Node> forward = new ArrayList<>();
+        Deque<Node> stack = new ArrayDeque<>();
+        IntLinkedSet visited = new IntLinkedSet();
+        stack.push(to);
+        visited.add(to.id);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            forward.add(node);
+            for (int id : node.dependents.toArray()) {
+                Node next = nodes.get(id);
+                if (next == from) {
+                    throw new InvalidTaskException("Зависимость образует цикл: " + from.id + " -> " + to.id);
+                }
+                if (next.order < from.order && visited.add(id)) {
+                    stack.push(next);
+                }
+            }
+        }
+
+        List<Node> backward = new ArrayList<>();
+        stack.push(from);
+        visited.add(from.id);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            backward.add(node);
+            for (int id : node.blockers.toArray()) {
+                Node prev = nodes.get(id);
+                if (prev.order > to.order && visited.add(id)) {
+                    stack.push(prev);
+                }
+            }
+        }
+
+        // Освободившиеся номера раздаются заново: сначала ведущим в from, затем достижимым из to
+        Comparator<Node> byOrder = Comparator.comparingInt(node -> node.order);
+        backward.sort(byOrder);
+        forward.sort(byOrder);
+        int[] orders = new int[backward.size() + forward.size()];
+        int i = 0;
+        for (Node node : backward) {
+            orders[i++] = node.order;
+        }
+        for (Node node : forward) {
+            orders[i++] = node.order;
+        }
+        Arrays.sort(orders);
+        i = 0;
+        for (Node node : backward) {
+            node.order = orders[i++];
+        }
+        for (Node node : forward) {
+            node.order = orders[i++];
+        }
+    }
+
+    /**
+     * Метод пересчета сроков узлов и всех узлов ниже, пока сроки меняются. Узлы обрабатываются в топологическом
+     * порядке, поэтому каждый пересчитывается один раз - после всех своих блокирующих.
+     *
+     * @param changed узлы, сроки или зависимости которых изменились
+     */
+    private void propagate(Collection<Node> changed) {
+        PriorityQueue<Node> queue = new PriorityQueue<>(Comparator.comparingInt(node -> node.order));
+        IntLinkedSet queued = new IntLinkedSet();
+        for (Node node : changed) {
+            if (queued.add(node.id)) {
+                queue.add(node);
+            }
+        }
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            if (recompute(node)) {
+                node.dependents.forEach(id -> {
+                    if (queued.add(id)) {
+                        queue.add(nodes.get(id));
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Метод пересчета сроков узла по его собственному началу и ранним окончаниям блокирующих
+     *
+     * @param node узел
+     * @return true - раннее начало или окончание изменилось
+     */
+    private boolean recompute(Node node) {
+        LocalDateTime start = node.ownStart;
+        int critical = 0;
+        for (int id : node.blockers.toArray()) {
+            LocalDateTime blockerFinish = nodes.get(id).earliestFinish;
+            if (blockerFinish != null && (start == null || blockerFinish.isAfter(start))) {
+                start = blockerFinish;
+                critical = id;
+            }
+        }
+        node.criticalBlocker = critical;
+        LocalDateTime finish = (start != null) ? start.plusMinutes(node.durationMinutes) : null;
+        if (Objects.equals(start, node.earliestStart) && Objects.equals(finish, node.earliestFinish)) {
+            return false;
+        }
+        if (node.earliestFinish != null) {
+            byFinish.remove(node);
+        }
+        node.earliestStart = start;
+        node.earliestFinish = finish;
+        if (finish != null) {
+            byFinish.add(node);
+        }
+        return true;
+    }
+
+    /**
+     * Метод сборки пути по блокирующим, определившим ранние начала
+     *
+     * @param node последний узел пути
+     * @return int[] id задач пути от первой до данной
+     */
+    private int[] pathTo(Node node) {
+        IntLinkedSet path = new IntLinkedSet();
+        for (Node current = node; current != null; ) {
+            path.add(current.id);
+            current = (current.criticalBlocker != 0) ? nodes.get(current.criticalBlocker) : null;
+        }
+        int[] ids = path.toArray();
+        for (int i = 0, j = ids.length - 1; i < j; i++, j--) {
+            int id = ids[i];
+            ids[i] = ids[j];
+            ids[j] = id;
+        }
+        return ids;
+    }
+
+    @Override
+    public String toString() {
+        return "DependencyGraph{" +
+                "nodes=" + nodes.size() +
+                ", criticalPath=" + Arrays.toString(getCriticalPath()) +
+                '}';
+    }
+}
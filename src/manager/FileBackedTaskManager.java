@@ -1,66 +1,313 @@
 package manager;
 
 import task.Epic;
+import task.RecurringTask;
 import task.Subtask;
 import task.Task;
 import task.TaskStatus;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Менеджер задач с автосохранением в файл и восстановлением из него - потомок {@link InMemoryTaskManager}
- * с реализацией интерфейса {@link TaskManager}.
+ * с реализацией интерфейса {@link TaskManager}. Повторяющиеся задачи сохраняются одной строкой правила с типом
+ * {@link FileBackedTaskManager#RECURRING} и дополнительными полями period и until, без повторений. Зависимости
+ * задач сохраняются после всех объектов строками {@code DEPENDS,<id блокирующей>,<id заблокированной>}.
+ * <p>
+ * В режиме журнала файл не переписывается целиком при каждом изменении: после снимка состояния в него дописываются
+ * записи журнала - по одной на каждое событие {@link TaskEvent} (и на изменение повторяющихся задач, у которых
+ * событий нет): {@code PUT,<строка объекта>}, {@code REMOVE,<тип>,<id>}, {@code CLEAR,<тип>}, а для зависимостей -
+ * {@code DEPENDS,<id блокирующей>,<id заблокированной>} и {@code UNDEPENDS,<id блокирующей>,<id заблокированной>}.
+ * Изменение из нескольких
+ * событий (пакет, удаление эпика с подзадачами) дописывается одной записью за раз с заголовком {@code BEGIN,<число>}
+ * и при обрыве записи не повторяется частично. Когда записей журнала становится больше, чем объектов в снимке,
+ * файл заменяется новым снимком, так что стоимость записи в среднем не зависит от числа задач.
  *
  * @author Николаев Д.В.
- * @version 1.1
+ * @version 1.10
  */
 public class FileBackedTaskManager extends InMemoryTaskManager {
+    /**
+     * Тип строки повторяющейся задачи в файле. Правила - не объекты учета {@link TaskType}, поэтому тип отдельный.
+     */
+    private static final String RECURRING = "RECURRING";
+
+    /**
+     * Тип строки зависимости в файле
+     */
+    private static final String DEPENDS = "DEPENDS";
+
+    /**
+     * Тип записи журнала об удалении зависимости
+     */
+    private static final String UNDEPENDS = "UNDEPENDS";
+
+    /**
+     * Минимальное число записей журнала, после которого файл заменяется снимком
+     */
+    private static final int MIN_JOURNAL_RECORDS = 1024;
+
     /**
      * Поле файл резервной копии.
      */
     private final File file;
 
+    /**
+     * Поле признака режима журнала
+     */
+    private final boolean journaling;
+
+    /**
+     * Поле записей журнала текущего изменения, еще не дописанных в файл
+     */
+    private final List<String> pendingRecords = new ArrayList<>();
+
+    /**
+     * Поле числа записей журнала в файле после снимка
+     */
+    private int journalRecords;
+
+    /**
+     * Поле числа объектов в снимке файла; -1 - снимок еще не записан
+     */
+    private int snapshotSize = -1;
+
+    /**
+     * Поле признака подписки {@link FileBackedTaskManager#journal(TaskEvent)} на события менеджера
+     */
+    private boolean journalListening;
+
     /**
      * Конструктор менеджера с возможностью автосохранения/восстановления.
      *
      * @param file файл резервной копии
      */
     public FileBackedTaskManager(File file) {
+        this(file, new AtomicIdAllocator());
+    }
+
+    /**
+     * Конструктор менеджера с возможностью автосохранения/восстановления и заданным генератором id.
+     *
+     * @param file        файл резервной копии
+     * @param idAllocator генератор идентификаторов
+     */
+    public FileBackedTaskManager(File file, IdAllocator idAllocator) {
+        this(file, idAllocator, false);
+    }
+
+    /**
+     * Конструктор менеджера с возможностью автосохранения/восстановления, заданным генератором id и выбором режима
+     * журнала.
+     *
+     * @param file        файл резервной копии
+     * @param idAllocator генератор идентификаторов
+     * @param journaling  true - дописывать изменения в журнал, false - переписывать файл целиком
+     */
+    public FileBackedTaskManager(File file, IdAllocator idAllocator, boolean journaling) {
+        super(Managers.getDefaultHistory(), new HeapTaskStore<>(), new HeapTaskStore<>(), idAllocator);
         this.file = file;
+        this.journaling = journaling;
     }
 
     /**
-     * Метод сохранения текущего состояния менеджера в {@link FileBackedTaskManager#file}.
+     * Метод сохранения изменения в {@link FileBackedTaskManager#file}: в режиме журнала - дописыванием его записей,
+     * иначе - снимком всего состояния. Записи изменения не переходят к следующему: после сбоя файл может не содержать
+     * изменения или содержать часть его записей, поэтому следующее изменение сохраняется только снимком.
      */
     private void save() {
-        try (BufferedWriter fileWriter = new BufferedWriter(new FileWriter(file, StandardCharsets.UTF_8))) {
-            String format = "id,type,name,status,description,epic,duration,startTime\n";
-            fileWriter.write(format);
-        } catch (IOException e) {
-            throw new ManagerSaveException("Произошла ошибка во время записи формата файла.");
+        try {
+            if (journaling && snapshotSize >= 0
+                    && journalRecords + pendingRecords.size() <= Math.max(MIN_JOURNAL_RECORDS, snapshotSize)) {
+                appendJournal();
+            } else {
+                saveSnapshot();
+            }
+        } catch (ManagerSaveException e) {
+            snapshotSize = -1;
+            throw e;
+        } finally {
+            pendingRecords.clear();
         }
+    }
 
-        try (BufferedWriter fileWriter = new BufferedWriter(new FileWriter(file, StandardCharsets.UTF_8, true))) {
-            for (Epic epic : getAllEpics()) {
+    /**
+     * Метод сохранения снимка текущего состояния менеджера в {@link FileBackedTaskManager#file}. Снимок пишется
+     * во временный файл, который затем заменяет прежний, поэтому сбой при записи не портит сохраненное состояние.
+     */
+    private void saveSnapshot() {
+        File tmpFile = new File(file.getPath() + ".tmp");
+        List<Epic> epics = getAllEpics();
+        List<Subtask> subtasks = getAllSubtasks();
+        List<Task> tasks = getAllTasks();
+        List<RecurringTask> recurringTasks = getAllRecurringTasks();
+        int dependencies = 0;
+        try (BufferedWriter fileWriter = new BufferedWriter(new FileWriter(tmpFile, StandardCharsets.UTF_8))) {
+            String format = "id,type,name,status,description,epic,duration,startTime,period,until\n";
+            fileWriter.write(format);
+
+            for (Epic epic : epics) {
                 String epicLine = toString(epic);
                 fileWriter.write(epicLine);
             }
 
-            for (Subtask subtask : getAllSubtasks()) {
+            for (Subtask subtask : subtasks) {
                 String subtaskLine = toString(subtask);
                 fileWriter.write(subtaskLine);
             }
 
-            for (Task task : getAllTasks()) {
+            for (Task task : tasks) {
                 String taskLine = toString(task);
                 fileWriter.write(taskLine);
             }
+
+            for (RecurringTask task : recurringTasks) {
+                String taskLine = toString(task);
+                fileWriter.write(taskLine);
+            }
+
+            for (Subtask subtask : subtasks) {
+                dependencies += writeDependencies(fileWriter, subtask.getId());
+            }
+
+            for (Task task : tasks) {
+                dependencies += writeDependencies(fileWriter, task.getId());
+            }
         } catch (IOException e) {
             throw new ManagerSaveException("Произошла ошибка во время записи файла.");
         }
+
+        try {
+            try {
+                Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Произошла ошибка во время замены файла.");
+        }
+        journalRecords = 0;
+        snapshotSize = epics.size() + subtasks.size() + tasks.size() + recurringTasks.size() + dependencies;
+        // Журнал дописывается к снимку, поэтому события нужны только после первого снимка. Подписка здесь, а не
+        // в конструкторе: конструктор не должен публиковать еще не созданный объект.
+        if (journaling && !journalListening) {
+            addListener(this::journal);
+            journalListening = true;
+        }
+    }
+
+    /**
+     * Метод записи зависимостей задачи (подзадачи) от блокирующих ее задач строками {@code DEPENDS}
+     *
+     * @param fileWriter поток записи файла
+     * @param blockedId  id заблокированной задачи (подзадачи)
+     * @return число записанных зависимостей
+     * @throws IOException при ошибке записи
+     */
+    private int writeDependencies(Writer fileWriter, int blockedId) throws IOException {
+        List<Task> blockers = getBlockers(blockedId);
+        for (Task blocker : blockers) {
+            fileWriter.write(toDependencyString(DEPENDS, blocker.getId(), blockedId));
+        }
+        return blockers.size();
+    }
+
+    /**
+     * Метод формирования строки зависимости
+     *
+     * @param kind      тип строки: {@link FileBackedTaskManager#DEPENDS} или {@link FileBackedTaskManager#UNDEPENDS}
+     * @param blockerId id блокирующей задачи (подзадачи)
+     * @param blockedId id заблокированной задачи (подзадачи)
+     * @return String строка в CSV
+     */
+    private static String toDependencyString(String kind, int blockerId, int blockedId) {
+        return kind + "," + blockerId + "," + blockedId + "\n";
+    }
+
+    /**
+     * Метод дописывания записей журнала текущего изменения в конец {@link FileBackedTaskManager#file} одной
+     * операцией записи. Несколько записей предваряются заголовком группы с их числом.
+     */
+    private void appendJournal() {
+        if (pendingRecords.isEmpty()) {
+            return;
+        }
+        StringBuilder records = new StringBuilder();
+        if (pendingRecords.size() > 1) {
+            records.append("BEGIN,").append(pendingRecords.size()).append('\n');
+        }
+        for (String record : pendingRecords) {
+            records.append(record);
+        }
+        try (OutputStream out = new FileOutputStream(file, true)) {
+            out.write(records.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new ManagerSaveException("Произошла ошибка во время записи журнала.");
+        }
+        journalRecords += pendingRecords.size();
+    }
+
+    /**
+     * Метод формирования записи журнала по событию изменения. Строка объекта формируется сразу: хранимый эпик
+     * меняется и после события.
+     *
+     * @param event событие изменения
+     */
+    private void journal(TaskEvent event) {
+        switch (event.getKind()) {
+            case CREATE, UPDATE -> pendingRecords.add("PUT," + toString(event.getAfter()));
+            case REMOVE -> pendingRecords.add("REMOVE," + event.getTaskType() + "," + event.getId() + "\n");
+            case CLEAR -> pendingRecords.add("CLEAR," + event.getTaskType() + "\n");
+        }
+    }
+
+    /**
+     * Метод повтора записи журнала или строки зависимости снимка
+     *
+     * @param record запись журнала
+     */
+    private void replay(String record) {
+        String[] attrFromString = record.split(",", 3);
+        switch (attrFromString[0]) {
+            case "PUT" -> {
+                Task task = parse(attrFromString[1] + "," + attrFromString[2]);
+                if (task instanceof RecurringTask recurringTask) {
+                    super.createRecurringTask(recurringTask, true);
+                } else {
+                    restoreTask(task);
+                }
+            }
+            case "REMOVE" -> {
+                int id = Integer.parseInt(attrFromString[2]);
+                switch (attrFromString[1]) {
+                    case RECURRING -> super.removeRecurringTask(id);
+                    case "TASK" -> super.removeTask(id);
+                    case "SUBTASK" -> super.removeSubtask(id);
+                    case "EPIC" -> super.removeEpic(id);
+                    default -> throw new ManagerSaveException("Неизвестный тип записи журнала: " + record);
+                }
+            }
+            case "CLEAR" -> {
+                switch (TaskType.valueOf(attrFromString[1])) {
+                    case TASK -> super.clearAllTasks();
+                    case SUBTASK -> super.clearAllSubtasks();
+                    case EPIC -> super.clearAllEpics();
+                }
+            }
+            case DEPENDS -> super.addDependency(Integer.parseInt(attrFromString[1]),
+                    Integer.parseInt(attrFromString[2]));
+            case UNDEPENDS -> super.removeDependency(Integer.parseInt(attrFromString[1]),
+                    Integer.parseInt(attrFromString[2]));
+            default -> throw new ManagerSaveException("Неизвестная запись журнала: " + record);
+        }
     }
 
     /**
@@ -87,6 +334,12 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
             case "task.Epic":
                 timeAttr = ",,";
                 result = task.getId() + "," + TaskType.EPIC + "," + commonAttr + "," + timeAttr + "\n";
+                break;
+            case "task.RecurringTask":
+                RecurringTask recurringTask = (RecurringTask) task;
+                result = task.getId() + "," + RECURRING + "," + commonAttr + "," + timeAttr + ","
+                        + recurringTask.getPeriodMinutes() + ","
+                        + ((recurringTask.getUntil() != null) ? recurringTask.getUntil() : "") + "\n";
         }
         return result;
     }
@@ -98,10 +351,35 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
      * @return {@link Task} созданный объект
      */
     private Task fromString(String value) {
+        Task task = parse(value);
+        if (task instanceof RecurringTask recurringTask) {
+            return super.createRecurringTask(recurringTask, true);
+        } else if (task instanceof Subtask subtask) {
+            return super.createSubtask(subtask, true);
+        } else if (task instanceof Epic epic) {
+            return super.createEpic(epic, true);
+        }
+        return (task != null) ? super.createTask(task, true) : null;
+    }
+
+    /**
+     * Метод разбора строки в CSV-формате в объект задачи/подзадачи/эпика/повторяющейся задачи без занесения
+     * в менеджер.
+     *
+     * @param value строка в CSV со значениями полей
+     * @return {@link Task} объект
+     */
+    private Task parse(String value) {
         String[] attrFromString = value.split(",");
         TaskStatus status = TaskStatus.valueOf(attrFromString[3]);
-        TaskType type = TaskType.valueOf(attrFromString[1]);
         int id = Integer.parseInt(attrFromString[0]);
+        if (attrFromString[1].equals(RECURRING)) {
+            LocalDateTime until = (attrFromString.length > 9) ? LocalDateTime.parse(attrFromString[9]) : null;
+            return new RecurringTask(attrFromString[2], attrFromString[4], id, status,
+                    Long.parseLong(attrFromString[6]), LocalDateTime.parse(attrFromString[7]),
+                    Long.parseLong(attrFromString[8]), until);
+        }
+        TaskType type = TaskType.valueOf(attrFromString[1]);
 
         Long duration = null;
         LocalDateTime startTime = null;
@@ -112,18 +390,18 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
                     duration = Long.parseLong(attrFromString[6]);
                     startTime = LocalDateTime.parse(attrFromString[7]);
                 }
-                result = super.createTask(new Task(attrFromString[2], attrFromString[4], id, status, duration, startTime), true);
+                result = new Task(attrFromString[2], attrFromString[4], id, status, duration, startTime);
                 break;
             case TaskType.SUBTASK:
                 if (attrFromString.length > 6) {
                     duration = Long.parseLong(attrFromString[6]);
                     startTime = LocalDateTime.parse(attrFromString[7]);
                 }
-                result = super.createSubtask(new Subtask(attrFromString[2], attrFromString[4], id, status,
-                        Integer.parseInt(attrFromString[5]), duration, startTime), true);
+                result = new Subtask(attrFromString[2], attrFromString[4], id, status,
+                        Integer.parseInt(attrFromString[5]), duration, startTime);
                 break;
             case TaskType.EPIC:
-                result = super.createEpic(new Epic(attrFromString[2], attrFromString[4], id), true);
+                result = new Epic(attrFromString[2], attrFromString[4], id);
                 break;
             default:
                 result = null;
@@ -138,19 +416,64 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
      * @return {@link FileBackedTaskManager} созданный менеджер
      */
     public static FileBackedTaskManager loadFromFile(File file) {
-        FileBackedTaskManager fileBackedTaskManager = new FileBackedTaskManager(file);
+        return loadFromFile(file, new AtomicIdAllocator());
+    }
+
+    /**
+     * Метод создания объекта менеджера путем загрузки из заданного CSV-файла с заданным генератором id.
+     * Загруженные id учитываются генератором по ходу чтения, отдельного поиска максимального id не требуется.
+     *
+     * @param file        CSV-файл со значениями полей объектов менеджера
+     * @param idAllocator генератор идентификаторов
+     * @return {@link FileBackedTaskManager} созданный менеджер
+     */
+    public static FileBackedTaskManager loadFromFile(File file, IdAllocator idAllocator) {
+        return loadFromFile(file, idAllocator, false);
+    }
+
+    /**
+     * Метод создания объекта менеджера путем загрузки из заданного CSV-файла с заданным генератором id и выбором
+     * режима журнала. Записи журнала после снимка повторяются по порядку; оборванная последняя строка и неполная
+     * группа записей отбрасываются. В режиме журнала загруженное состояние сразу сохраняется новым снимком.
+     *
+     * @param file        CSV-файл со значениями полей объектов менеджера
+     * @param idAllocator генератор идентификаторов
+     * @param journaling  true - дописывать изменения в журнал, false - переписывать файл целиком
+     * @return {@link FileBackedTaskManager} созданный менеджер
+     */
+    public static FileBackedTaskManager loadFromFile(File file, IdAllocator idAllocator, boolean journaling) {
+        FileBackedTaskManager fileBackedTaskManager = new FileBackedTaskManager(file, idAllocator, journaling);
 
         try (BufferedReader fileReader = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
-            if (fileReader.ready()) {
-                fileReader.readLine(); // Прочитали первую строку с форматом полей CSV
-            }
-            int idMax = 0;
-            while (fileReader.ready()) {
-                String line = fileReader.readLine();
-                Task task = fileBackedTaskManager.fromString(line);
-                idMax = Integer.max(idMax, task.getId());
+            boolean tornTail = isTornTail(file);
+            fileReader.readLine(); // Прочитали первую строку с форматом полей CSV
+            List<String> group = new ArrayList<>();
+            int groupSize = 0;
+            String line = fileReader.readLine();
+            while (line != null) {
+                String next = fileReader.readLine();
+                if (next == null && tornTail && !line.isEmpty() && !Character.isDigit(line.charAt(0))) {
+                    break; // Оборванная при сбое запись журнала
+                }
+                if (line.isEmpty()) {
+                    // Пустые строки пропускаем
+                } else if (Character.isDigit(line.charAt(0))) {
+                    fileBackedTaskManager.fromString(line);
+                } else if (line.startsWith("BEGIN,")) {
+                    group.clear();
+                    groupSize = Integer.parseInt(line.substring("BEGIN,".length()));
+                } else if (groupSize > 0) {
+                    group.add(line);
+                    if (group.size() == groupSize) {
+                        group.forEach(fileBackedTaskManager::replay);
+                        group.clear();
+                        groupSize = 0;
+                    }
+                } else {
+                    fileBackedTaskManager.replay(line);
+                }
+                line = next;
             }
-            fileBackedTaskManager.idCounter = idMax;
         } catch (FileNotFoundException e) {
             System.out.println("Файл не найден.");
             e.printStackTrace();
@@ -159,9 +482,30 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
             e.printStackTrace();
         }
 
+        if (journaling) {
+            fileBackedTaskManager.saveSnapshot();
+        }
         return fileBackedTaskManager;
     }
 
+    /**
+     * Метод проверки, что последняя строка файла оборвана - не заканчивается переводом строки
+     *
+     * @param file файл
+     * @return true - последняя строка оборвана
+     * @throws IOException при ошибке чтения
+     */
+    private static boolean isTornTail(File file) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            long length = randomAccessFile.length();
+            if (length == 0) {
+                return false;
+            }
+            randomAccessFile.seek(length - 1);
+            return randomAccessFile.read() != '\n';
+        }
+    }
+
     @Override
     public Task createTask(Task task) {
         Task taskResult = super.createTask(task);
@@ -219,6 +563,69 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
         save();
     }
 
+    @Override
+    public List<Task> createBatch(List<? extends Task> batch) {
+        List<Task> created = super.createBatch(batch);
+        save();
+        return created;
+    }
+
+    @Override
+    public void updateBatch(List<? extends Task> batch) {
+        super.updateBatch(batch);
+        save();
+    }
+
+    @Override
+    public void removeBatch(List<Integer> ids) {
+        super.removeBatch(ids);
+        save();
+    }
+
+    @Override
+    public List<Task> scheduleTasks(List<Integer> ids, LocalDateTime notBefore) {
+        List<Task> scheduled = super.scheduleTasks(ids, notBefore);
+        save();
+        return scheduled;
+    }
+
+    @Override
+    public RecurringTask createRecurringTask(RecurringTask task) {
+        RecurringTask taskResult = super.createRecurringTask(task);
+        if (journaling) {
+            pendingRecords.add("PUT," + toString(taskResult));
+        }
+        save();
+        return taskResult;
+    }
+
+    @Override
+    public void removeRecurringTask(int id) {
+        super.removeRecurringTask(id);
+        if (journaling) {
+            pendingRecords.add("REMOVE," + RECURRING + "," + id + "\n");
+        }
+        save();
+    }
+
+    @Override
+    public void addDependency(int blockerId, int blockedId) {
+        super.addDependency(blockerId, blockedId);
+        if (journaling) {
+            pendingRecords.add(toDependencyString(DEPENDS, blockerId, blockedId));
+        }
+        save();
+    }
+
+    @Override
+    public void removeDependency(int blockerId, int blockedId) {
+        super.removeDependency(blockerId, blockedId);
+        if (journaling) {
+            pendingRecords.add(toDependencyString(UNDEPENDS, blockerId, blockedId));
+        }
+        save();
+    }
+
     @Override
     public void clearAllTasks() {
         super.clearAllTasks();
@@ -0,0 +1,71 @@
+package manager;
+
+import task.Task;
+import util.IntObjectMap;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Хранилище задач (подзадач) в куче - объекты хранятся как есть в {@link IntObjectMap}
+ *
+ * @param <T> тип хранимых задач
+ * @author Николаев Д.В.
+ * @version 1.0
+ */
+public class HeapTaskStore<T extends Task> implements TaskStore<T> {
+    /**
+     * Поле таблицы задач по id
+     */
+    private final IntObjectMap<T> map = new IntObjectMap<>();
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(int id) {
+        return map.containsKey(id);
+    }
+
+    @Override
+    public T get(int id) {
+        return map.get(id);
+    }
+
+    @Override
+    public T put(int id, T task) {
+        return map.put(id, task);
+    }
+
+    @Override
+    public T remove(int id) {
+        return map.remove(id);
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        map.forEach(action);
+    }
+
+    @Override
+    public List<T> values() {
+        return map.values();
+    }
+
+    @Override
+    public String toString() {
+        return map.toString();
+    }
+}
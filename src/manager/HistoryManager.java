@@ -2,12 +2,13 @@ package manager;
 
 import task.Task;
 import java.util.List;
+import java.util.function.IntPredicate;
 
 /**
  * Интерфейс менеджеров истории просмотра объектов учета (задач, подзадач, эпиков)
  *
  * @author Николаев Д.В.
- * @version 2.0
+ * @version 2.1
  */
 public interface HistoryManager {
     void add(Task task);
@@ -16,5 +17,12 @@ public interface HistoryManager {
 
     void remove(int id);
 
+    /**
+     * Метод удаления из истории всех объектов, чьи id удовлетворяют условию, за один проход по истории
+     *
+     * @param idFilter условие удаления по id
+     */
+    void removeIf(IntPredicate idFilter);
+
     void clear();
 }
@@ -0,0 +1,23 @@
+package manager;
+
+/**
+ * Интерфейс генераторов идентификаторов объектов учета (задач, подзадач, эпиков) для {@link InMemoryTaskManager}
+ *
+ * @author Николаев Д.В.
+ * @version 1.0
+ */
+public interface IdAllocator {
+    /**
+     * Метод выдачи нового идентификатора; повторно один и тот же id не выдается
+     *
+     * @return int новый id > 0
+     */
+    int nextId();
+
+    /**
+     * Метод учета id, занятого в обход генератора (например, при загрузке из файла), чтобы он не был выдан повторно
+     *
+     * @param id занятый id
+     */
+    void reserve(int id);
+}
@@ -1,15 +1,16 @@
 package manager;
 
 import task.Task;
-
+import util.IntObjectMap;
 
 import java.util.*;
+import java.util.function.IntPredicate;
 
 /**
  * Менеджер истории просмотра объектов учета (задач, подзадач, эпиков) - реализация интерфейса {@link HistoryManager}
  *
  * @author Николаев Д.В.
- * @version 2.0
+ * @version 2.2
  */
 public class InMemoryHistoryManager implements HistoryManager {
     /**
@@ -24,7 +25,7 @@ public class InMemoryHistoryManager implements HistoryManager {
      * Поле таблица истории просмотренных задач, выстроенной согласно порядку обращения к ним через get-методы.
      * Ключ - id задачи; значение - узел в двусвязном списке просмотренных задач.
      */
-    private Map<Integer, Node> taskHistory = new HashMap<>();
+    private IntObjectMap<Node> taskHistory = new IntObjectMap<>();
 
     /**
      * Класс узлов двусвязного списка просмотра задач
@@ -90,7 +91,7 @@ public class InMemoryHistoryManager implements HistoryManager {
     @Override
     public void add(Task task) {
         if (task != null) {
-            Integer taskId = task.getId();
+            int taskId = task.getId();
             Node node = taskHistory.get(taskId);
             removeNode(node);
             linkLast(task);
@@ -176,6 +177,26 @@ public class InMemoryHistoryManager implements HistoryManager {
         }
     }
 
+    /**
+     * Метод удаления из истории просмотра всех задач, чьи id удовлетворяют условию. Список обходится один раз,
+     * подходящие узлы выцепляются по ходу обхода.
+     *
+     * @param idFilter условие удаления по id задачи (подзадачи, эпика)
+     */
+    @Override
+    public void removeIf(IntPredicate idFilter) {
+        Node node = first;
+        while (node != null) {
+            Node next = node.next;
+            int taskId = node.task.getId();
+            if (idFilter.test(taskId)) {
+                removeNode(node);
+                taskHistory.remove(taskId);
+            }
+            node = next;
+        }
+    }
+
     /**
      * Метод очистки из истории просмотра
      */
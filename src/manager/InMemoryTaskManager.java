@@ -1,50 +1,227 @@
 package manager;
 
 import task.Epic;
+import task.RecurringTask;
 import task.Subtask;
 import task.Task;
+import task.TaskStatus;
+import util.IntLinkedSet;
+import util.IntObjectMap;
 
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
 
 /**
  * Менеджер задач - реализация интерфейса {@link TaskManager}
  *
  * @author Николаев Д.В.
- * @version 3.4
+ * @version 3.26
  */
 public class InMemoryTaskManager implements TaskManager {
     /**
-     * Поле счетчика для генерации идентификаторов методом {@link InMemoryTaskManager#getNextId()}
+     * Порядок опубликованных списков задач, подзадач и эпиков - по id, чтобы по ним можно было листать страницами
      */
-    protected int idCounter;
+    private static final Comparator<Task> BY_ID = TaskUtil.BY_ID;
+
+    /**
+     * Источники кандидатов выборки {@link InMemoryTaskManager#query(TaskQuery)}: подзадачи эпика, индекс статусов,
+     * полнотекстовый индекс, расписание по дате/времени начала или все хранилища
+     */
+    private enum QuerySource {
+        EPIC,
+        STATUS,
+        TEXT,
+        SCHEDULE,
+        SCAN
+    }
+
+    /**
+     * Поле генератора идентификаторов для метода {@link InMemoryTaskManager#getNextId()}.
+     * По умолчанию - атомарный {@link AtomicIdAllocator}, чтобы выдача id не требовала блокировок.
+     */
+    private final IdAllocator idAllocator;
+
+    /**
+     * Поле версии менеджера - номера последнего разосланного события {@link TaskEvent}
+     */
+    private final AtomicLong version;
+
+    /**
+     * Поле слушателей событий изменения. Список копируется при записи, поэтому рассылка идет без блокировок.
+     */
+    private final List<TaskListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Поле графа зависимостей задач и подзадач. Получает события раньше слушателей, чтобы те видели уже
+     * пересчитанные сроки.
+     */
+    private final DependencyGraph dependencies = new DependencyGraph();
     /**
-     * Поле хранилище задач
+     * Поле хранилище задач по id
      */
-    private Map<Integer, Task> tasks = new HashMap<>();
+    private final TaskStore<Task> tasks;
     /**
-     * Поле хранилище подзадач
+     * Поле хранилище подзадач по id
      */
-    private Map<Integer, Subtask> subtasks = new HashMap<>();
+    private final TaskStore<Subtask> subtasks;
     /**
-     * Поле хранилище эпиков
+     * Поле хранилище эпиков по id
      */
-    private Map<Integer, Epic> epics = new HashMap<>();
+    private IntObjectMap<Epic> epics = new IntObjectMap<>();
 
     /**
      * Поле менеджера истории просмотра объектов учета (задач, подзадач, эпиков)
      */
-    private HistoryManager historyManager = Managers.getDefaultHistory();
+    private HistoryManager historyManager;
+
+    /**
+     * Поле множества задач и подзадач, упорядоченных по приоритету даты/времени начала выполнения, при совпадении -
+     * по id: на время изменения пакета две задачи могут начинаться одновременно
+     */
+    private NavigableSet<Task> tasksByStartTime = new TreeSet<>(((Comparator<Task>) Task::compareStartTo)
+            .thenComparingInt(Task::getId));
+
+    /**
+     * Поле индекса интервалов выполнения задач и подзадач для проверки пересечений по времени в
+     * {@link InMemoryTaskManager#isValid(Task)}. Ведется вместе с {@link InMemoryTaskManager#tasksByStartTime}.
+     */
+    private IntervalIndex tasksByInterval = new IntervalIndex();
+
+    /**
+     * Поле расписания повторяющихся задач. Их повторения не хранятся: в проверке пересечений и поиске свободного
+     * времени они учитываются по правилам, а в выборки по окну времени попадают только повторения из этого окна.
+     */
+    private final RecurringSchedule recurringTasks = new RecurringSchedule();
+
+    /**
+     * Поле индекса id задач по статусу
+     */
+    private final StatusIndex taskIdsByStatus = new StatusIndex();
+
+    /**
+     * Поле индекса id подзадач по статусу
+     */
+    private final StatusIndex subtaskIdsByStatus = new StatusIndex();
+
+    /**
+     * Поле индекса id эпиков по статусу. Обновляется при каждом пересчете статуса эпика по его подзадачам.
+     */
+    private final StatusIndex epicIdsByStatus = new StatusIndex();
+
+    /**
+     * Поле полнотекстового индекса задач
+     */
+    private final TextIndex taskText = new TextIndex();
+
+    /**
+     * Поле полнотекстового индекса подзадач
+     */
+    private final TextIndex subtaskText = new TextIndex();
+
+    /**
+     * Поле полнотекстового индекса эпиков
+     */
+    private final TextIndex epicText = new TextIndex();
+
+    /**
+     * Поле опубликованного неизменяемого списка задач. Сбрасывается при изменении состава
+     * {@link InMemoryTaskManager#tasks} и строится заново при первом чтении после этого, поэтому между изменениями
+     * все читатели получают одну и ту же ссылку без копирования.
+     */
+    private volatile List<Task> tasksView;
+
+    /**
+     * Поле опубликованного неизменяемого списка подзадач - аналог {@link InMemoryTaskManager#tasksView}
+     */
+    private volatile List<Subtask> subtasksView;
+
+    /**
+     * Поле опубликованного неизменяемого списка эпиков - аналог {@link InMemoryTaskManager#tasksView}
+     */
+    private volatile List<Epic> epicsView;
+
+    /**
+     * Поле опубликованного неизменяемого списка копий эпиков для чтения без блокировок. Эпики меняются на месте при
+     * изменении их подзадач, поэтому список сбрасывается при любом событии эпиков и подзадач, а не только при
+     * изменении состава {@link InMemoryTaskManager#epics}.
+     */
+    private volatile List<Epic> epicCopiesView;
+
+    /**
+     * Поле опубликованного неизменяемого списка задач и подзадач по приоритету - аналог
+     * {@link InMemoryTaskManager#tasksView} для {@link InMemoryTaskManager#tasksByStartTime}
+     */
+    private volatile List<Task> prioritizedView;
+
+    /**
+     * Конструктор менеджера с менеджером истории по умолчанию {@link Managers#getDefaultHistory()}
+     */
+    public InMemoryTaskManager() {
+        this(Managers.getDefaultHistory());
+    }
+
+    /**
+     * Конструктор менеджера с заданным менеджером истории
+     *
+     * @param historyManager менеджер истории просмотра объектов учета
+     */
+    public InMemoryTaskManager(HistoryManager historyManager) {
+        this(historyManager, new HeapTaskStore<>(), new HeapTaskStore<>());
+    }
+
+    /**
+     * Конструктор менеджера с заданными менеджером истории и хранилищами задач и подзадач. Хранилище вне кучи
+     * {@link OffHeapTaskStore} выдает при каждом чтении новый объект, поэтому изменение полученной задачи без
+     * {@link InMemoryTaskManager#updateTask(Task)} на хранимую версию не влияет.
+     *
+     * @param historyManager менеджер истории просмотра объектов учета
+     * @param tasks          пустое хранилище задач
+     * @param subtasks       пустое хранилище подзадач
+     */
+    public InMemoryTaskManager(HistoryManager historyManager, TaskStore<Task> tasks, TaskStore<Subtask> subtasks) {
+        this(historyManager, tasks, subtasks, new AtomicIdAllocator());
+    }
+
+    /**
+     * Конструктор менеджера с заданными менеджером истории, хранилищами задач и подзадач и генератором id
+     *
+     * @param historyManager менеджер истории просмотра объектов учета
+     * @param tasks          пустое хранилище задач
+     * @param subtasks       пустое хранилище подзадач
+     * @param idAllocator    генератор идентификаторов
+     */
+    public InMemoryTaskManager(HistoryManager historyManager, TaskStore<Task> tasks, TaskStore<Subtask> subtasks,
+                               IdAllocator idAllocator) {
+        this(historyManager, tasks, subtasks, idAllocator, new AtomicLong());
+    }
 
     /**
-     * Поле множества задач и подзадач, упорядоченных по приоритету даты/времени начала выполнения
+     * Конструктор менеджера с общим с другими менеджерами счетчиком версий - для шардов {@link ShardedTaskManager},
+     * чтобы события всех шардов нумеровались подряд
+     *
+     * @param historyManager менеджер истории просмотра объектов учета
+     * @param tasks          пустое хранилище задач
+     * @param subtasks       пустое хранилище подзадач
+     * @param idAllocator    генератор идентификаторов
+     * @param version        счетчик версий
      */
-    private Set<Task> tasksByStartTime = new TreeSet<>(Comparator.comparing(Task::getStartTime));
+    InMemoryTaskManager(HistoryManager historyManager, TaskStore<Task> tasks, TaskStore<Subtask> subtasks,
+                        IdAllocator idAllocator, AtomicLong version) {
+        this.historyManager = historyManager;
+        this.tasks = tasks;
+        this.subtasks = subtasks;
+        this.idAllocator = idAllocator;
+        this.version = version;
+    }
 
     @Override
     public String toString() {
         return "InMemoryTaskManager{" +
-                "idCounter=" + idCounter +
+                "idAllocator=" + idAllocator +
                 ", tasks=" + tasks +
                 ", subtasks=" + subtasks +
                 ", epics=" + epics +
@@ -52,43 +229,269 @@ public class InMemoryTaskManager implements TaskManager {
     }
 
     /**
-     * Метод сквозной генерации идентификаторов объектов учета (задач, подзадач, эпиков), используя поле {@link InMemoryTaskManager#idCounter}
+     * Метод подписки слушателя на события изменения объектов учета
+     *
+     * @param listener слушатель
+     */
+    @Override
+    public void addListener(TaskListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Метод отписки слушателя от событий изменения объектов учета
+     *
+     * @param listener слушатель
+     */
+    @Override
+    public void removeListener(TaskListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Метод получения версии менеджера - номера последнего события изменения
+     *
+     * @return версия
+     */
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Метод рассылки события об уже выполненном изменении. Подзадачи эпика меняют его статус и время выполнения -
+     * об этом отдельного события нет, оно следует из событий подзадач. У эпиков в событиях изменения версия "до"
+     * несет только название и описание - то, что меняет {@link InMemoryTaskManager#updateEpic(Epic)}.
+     *
+     * @param kind     вид изменения
+     * @param taskType тип объекта
+     * @param before   версия объекта до изменения
+     * @param after    версия объекта после изменения
+     */
+    private void publish(TaskEvent.Kind kind, TaskType taskType, Task before, Task after) {
+        TaskEvent event = new TaskEvent(version.incrementAndGet(), kind, taskType, before, after);
+        if (taskType != TaskType.TASK) {
+            epicCopiesView = null;
+        }
+        dependencies.onEvent(event);
+        for (TaskListener listener : listeners) {
+            listener.onEvent(event);
+        }
+    }
+
+    /**
+     * Метод сквозной генерации идентификаторов объектов учета (задач, подзадач, эпиков), используя поле {@link InMemoryTaskManager#idAllocator}
      *
      * @return int целочисленный идентификатор
      */
     private int getNextId() {
-        return ++idCounter;
+        return idAllocator.nextId();
+    }
+
+    /**
+     * Метод выставления id объекта учета при добавлении: форсированно - заданный, если он > 0 (он учитывается
+     * генератором, чтобы не быть выданным повторно), иначе - новый
+     *
+     * @param task    задача, подзадача или эпик
+     * @param forceId флаг (true) использования заданного id, если он > 0, иначе (false) - генерация нового id
+     */
+    private void assignId(Task task, boolean forceId) {
+        if (forceId && task.getId() != 0) {
+            idAllocator.reserve(task.getId());
+        } else {
+            task.setId(getNextId());
+        }
+    }
+
+    /**
+     * Метод включения задачи (подзадачи) в расписание: {@link InMemoryTaskManager#tasksByStartTime} и
+     * {@link InMemoryTaskManager#tasksByInterval}. Задачи без даты/времени начала в расписание не попадают.
+     *
+     * @param task задача (подзадача) для включения
+     */
+    private void addToSchedule(Task task) {
+        if (task.hasStartTime()) {
+            tasksByStartTime.add(task);
+            tasksByInterval.add(task);
+            prioritizedView = null;
+        }
+    }
+
+    /**
+     * Метод исключения задачи (подзадачи) из расписания: {@link InMemoryTaskManager#tasksByStartTime} и
+     * {@link InMemoryTaskManager#tasksByInterval}.
+     *
+     * @param task ранее включенная в расписание версия задачи (подзадачи)
+     */
+    private void removeFromSchedule(Task task) {
+        if (task.hasStartTime()) {
+            tasksByStartTime.remove(task);
+            tasksByInterval.remove(task);
+            prioritizedView = null;
+        }
+    }
+
+    /**
+     * Метод исключения из расписания всех задач (подзадач), удовлетворяющих условию, - для очисток хранилищ.
+     * Индексы расписания строятся заново из оставшихся задач за один проход, без поэлементного удаления.
+     *
+     * @param filter условие исключения
+     */
+    private void removeFromSchedule(Predicate<Task> filter) {
+        if (tasksByInterval.removeIf(filter) > 0) {
+            tasksByStartTime = TaskUtil.filterSorted(tasksByStartTime, filter.negate());
+            prioritizedView = null;
+        }
     }
 
     /**
-     * Метод получения списка задач {@link InMemoryTaskManager#tasks}
+     * Метод получения списка задач {@link InMemoryTaskManager#tasks}, упорядоченного по id
      *
-     * @return ArrayList<Task>
+     * @return неизменяемый List<Task>, опубликованный в {@link InMemoryTaskManager#tasksView}
      */
     @Override
     public List<Task> getAllTasks() {
-        return new ArrayList<>(tasks.values());
+        List<Task> view = tasksView;
+        if (view == null) {
+            List<Task> list = tasks.values();
+            list.sort(BY_ID);
+            view = Collections.unmodifiableList(list);
+            tasksView = view;
+        }
+        return view;
     }
 
     /**
-     * Метод получения списка подзадач {@link InMemoryTaskManager#subtasks}
+     * Метод получения списка подзадач {@link InMemoryTaskManager#subtasks}, упорядоченного по id
      *
-     * @return ArrayList<Subtask>
+     * @return неизменяемый List<Subtask>, опубликованный в {@link InMemoryTaskManager#subtasksView}
      */
     @Override
     public List<Subtask> getAllSubtasks() {
-        return new ArrayList<>(subtasks.values());
+        List<Subtask> view = subtasksView;
+        if (view == null) {
+            List<Subtask> list = subtasks.values();
+            list.sort(BY_ID);
+            view = Collections.unmodifiableList(list);
+            subtasksView = view;
+        }
+        return view;
     }
 
     /**
-     * Метод получения списка эпиков {@link InMemoryTaskManager#epics}
+     * Метод получения списка эпиков {@link InMemoryTaskManager#epics}, упорядоченного по id
      *
-     * @return ArrayList<Epic>
+     * @return неизменяемый List<Epic>, опубликованный в {@link InMemoryTaskManager#epicsView}
      */
     @Override
     public List<Epic> getAllEpics() {
-        return new ArrayList<>(epics.values());
+        List<Epic> view = epicsView;
+        if (view == null) {
+            List<Epic> list = epics.values();
+            list.sort(BY_ID);
+            view = Collections.unmodifiableList(list);
+            epicsView = view;
+        }
+        return view;
+    }
+
+    /**
+     * Метод получения страницы списка задач, упорядоченного по id
+     *
+     * @param afterId курсор - id последней задачи предыдущей страницы; 0 - первая страница
+     * @param limit   максимальное количество задач на странице
+     * @return List<Task> страница задач
+     */
+    @Override
+    public List<Task> getAllTasks(int afterId, int limit) {
+        return TaskUtil.pageById(getAllTasks(), afterId, limit);
+    }
+
+    /**
+     * Метод получения страницы списка подзадач, упорядоченного по id
+     *
+     * @param afterId курсор - id последней подзадачи предыдущей страницы; 0 - первая страница
+     * @param limit   максимальное количество подзадач на странице
+     * @return List<Subtask> страница подзадач
+     */
+    @Override
+    public List<Subtask> getAllSubtasks(int afterId, int limit) {
+        return TaskUtil.pageById(getAllSubtasks(), afterId, limit);
+    }
+
+    /**
+     * Метод получения страницы списка эпиков, упорядоченного по id
+     *
+     * @param afterId курсор - id последнего эпика предыдущей страницы; 0 - первая страница
+     * @param limit   максимальное количество эпиков на странице
+     * @return List<Epic> страница эпиков
+     */
+    @Override
+    public List<Epic> getAllEpics(int afterId, int limit) {
+        return TaskUtil.pageById(getAllEpics(), afterId, limit);
+    }
+
+    /**
+     * Метод получения опубликованных списков без их построения - для чтения без блокировок в
+     * {@link ConcurrentTaskManager}. Пока список не построен после очередного изменения, возвращается null.
+     *
+     * @return опубликованный список или null
+     */
+    List<Task> getPublishedTasks() {
+        return tasksView;
+    }
+
+    /**
+     * Метод получения опубликованного списка подзадач - аналог {@link InMemoryTaskManager#getPublishedTasks()}
+     *
+     * @return опубликованный список или null
+     */
+    List<Subtask> getPublishedSubtasks() {
+        return subtasksView;
+    }
+
+    /**
+     * Метод получения списка копий эпиков, упорядоченного по id, - для чтения без блокировок в потокобезопасных
+     * менеджерах. Вызывается под блокировкой чтения; построенный список публикуется
+     * в {@link InMemoryTaskManager#epicCopiesView}.
+     *
+     * @return неизменяемый List<Epic> копий эпиков
+     */
+    List<Epic> getEpicCopies() {
+        List<Epic> view = epicCopiesView;
+        if (view == null) {
+            view = Collections.unmodifiableList(TaskUtil.detach(getAllEpics()));
+            epicCopiesView = view;
+        }
+        return view;
+    }
+
+    /**
+     * Метод получения опубликованного списка копий эпиков - аналог {@link InMemoryTaskManager#getPublishedTasks()}
+     *
+     * @return опубликованный список или null
+     */
+    List<Epic> getPublishedEpics() {
+        return epicCopiesView;
+    }
+
+    /**
+     * Метод проверки наличия задачи, подзадачи или эпика по id без записи в историю просмотра
+     *
+     * @param id id объекта учета
+     * @return true - объект есть в одном из хранилищ
+     */
+    boolean contains(int id) {
+        return tasks.containsKey(id) || subtasks.containsKey(id) || epics.containsKey(id);
+    }
 
+    /**
+     * Метод получения опубликованного списка по приоритету - аналог {@link InMemoryTaskManager#getPublishedTasks()}
+     *
+     * @return опубликованный список или null
+     */
+    List<Task> getPublishedPrioritizedTasks() {
+        return prioritizedView;
     }
 
     /**
@@ -96,13 +499,18 @@ public class InMemoryTaskManager implements TaskManager {
      */
     @Override
     public void clearAllTasks() {
-        for (Map.Entry<Integer, Task> entry : tasks.entrySet()) {
-            historyManager.remove(entry.getKey());
-            if (entry.getValue().getStartTime() != null) {
-                tasksByStartTime.remove(entry.getValue());
-            }
+        boolean wasEmpty = tasks.isEmpty();
+        if (!wasEmpty) {
+            historyManager.removeIf(tasks::containsKey);
+            removeFromSchedule(task -> !(task instanceof Subtask));
         }
         tasks.clear();
+        taskIdsByStatus.clear();
+        taskText.clear();
+        tasksView = null;
+        if (!wasEmpty) {
+            publish(TaskEvent.Kind.CLEAR, TaskType.TASK, null, null);
+        }
     }
 
     /**
@@ -111,16 +519,17 @@ public class InMemoryTaskManager implements TaskManager {
     @Override
     public void clearAllSubtasks() {
         if (!subtasks.isEmpty()) {
-            for (Epic epic : epics.values()) {
+            epics.forEach(epic -> {
                 epic.clearSubtasks();
-            }
-            for (Map.Entry<Integer, Subtask> entry : subtasks.entrySet()) {
-                historyManager.remove(entry.getKey());
-                if (entry.getValue().getStartTime() != null) {
-                    tasksByStartTime.remove(entry.getValue());
-                }
-            }
+                epicIdsByStatus.put(epic.getId(), epic.getStatus());
+            });
+            historyManager.removeIf(subtasks::containsKey);
+            removeFromSchedule(Subtask.class::isInstance);
             subtasks.clear();
+            subtaskIdsByStatus.clear();
+            subtaskText.clear();
+            subtasksView = null;
+            publish(TaskEvent.Kind.CLEAR, TaskType.SUBTASK, null, null);
         }
     }
 
@@ -129,18 +538,24 @@ public class InMemoryTaskManager implements TaskManager {
      */
     @Override
     public void clearAllEpics() {
-        for (Integer epicId : epics.keySet()) {
-            historyManager.remove(epicId);
+        boolean wasEmpty = epics.isEmpty();
+        if (!wasEmpty) {
+            historyManager.removeIf(id -> epics.containsKey(id) || subtasks.containsKey(id));
+            removeFromSchedule(Subtask.class::isInstance);
         }
         epics.clear();
+        epicIdsByStatus.clear();
+        epicText.clear();
+        epicsView = null;
 
-        for (Map.Entry<Integer, Subtask> entry : subtasks.entrySet()) {
-            historyManager.remove(entry.getKey());
-            if (entry.getValue().getStartTime() != null) {
-                tasksByStartTime.remove(entry.getValue());
-            }
-        }
         subtasks.clear();
+        subtaskIdsByStatus.clear();
+        subtaskText.clear();
+        subtasksView = null;
+        if (!wasEmpty) {
+            publish(TaskEvent.Kind.CLEAR, TaskType.SUBTASK, null, null);
+            publish(TaskEvent.Kind.CLEAR, TaskType.EPIC, null, null);
+        }
     }
 
     /**
@@ -151,9 +566,10 @@ public class InMemoryTaskManager implements TaskManager {
      */
     @Override
     public Task getTask(int taskId) {
-        if (tasks.containsKey(taskId)) {
-            historyManager.add(tasks.get(taskId));
-            return tasks.get(taskId);
+        Task task = tasks.get(taskId);
+        if (task != null) {
+            historyManager.add(task);
+            return task;
         } else {
             throw new NotFoundException("Задача не найдена.");
         }
@@ -167,9 +583,10 @@ public class InMemoryTaskManager implements TaskManager {
      */
     @Override
     public Subtask getSubtask(int subtaskId) {
-        if (subtasks.containsKey(subtaskId)) {
-            historyManager.add(subtasks.get(subtaskId));
-            return subtasks.get(subtaskId);
+        Subtask subtask = subtasks.get(subtaskId);
+        if (subtask != null) {
+            historyManager.add(subtask);
+            return subtask;
         } else {
             throw new NotFoundException("Подзадача не найдена.");
         }
@@ -183,9 +600,10 @@ public class InMemoryTaskManager implements TaskManager {
      */
     @Override
     public Epic getEpic(int epicId) {
-        if (epics.containsKey(epicId)) {
-            historyManager.add(epics.get(epicId));
-            return epics.get(epicId);
+        Epic epic = epics.get(epicId);
+        if (epic != null) {
+            historyManager.add(epic);
+            return epic;
         } else {
             throw new NotFoundException("Эпик не найден.");
         }
@@ -212,21 +630,27 @@ public class InMemoryTaskManager implements TaskManager {
      */
     protected Task createTask(Task task, Boolean forceId) {
         if (task != null && isValid(task)) {
-            if (forceId) {
-                if (task.getId() == 0) {
-                    task.setId(getNextId());
-                }
-            } else {
-                task.setId(getNextId());
-            }
-            tasks.put(task.getId(), task);
-            if (task.getStartTime() != null) {
-                tasksByStartTime.add(task);
-            }
+            putTask(task, forceId);
         }
         return task;
     }
 
+    /**
+     * Метод занесения уже проверенной задачи в хранилище {@link InMemoryTaskManager#tasks} и в расписание
+     *
+     * @param task    задача для добавления
+     * @param forceId флаг (true) использования заданного id задачи, если он > 0, иначе (false) - генерация нового id
+     */
+    private void putTask(Task task, boolean forceId) {
+        assignId(task, forceId);
+        tasks.put(task.getId(), task);
+        taskIdsByStatus.put(task.getId(), task.getStatus());
+        taskText.put(task);
+        tasksView = null;
+        addToSchedule(task);
+        publish(TaskEvent.Kind.CREATE, TaskType.TASK, null, task);
+    }
+
     /**
      * Метод добавления подзадачи в хранилище {@link InMemoryTaskManager#subtasks} с занесением в список у назначеннго эпика
      *
@@ -250,23 +674,32 @@ public class InMemoryTaskManager implements TaskManager {
         if (subtask != null) {
             Epic epic = epics.get(subtask.getEpicId());
             if (epic != null && isValid(subtask)) {
-                if (forceId) {
-                    if (subtask.getId() == 0) {
-                        subtask.setId(getNextId());
-                    }
-                } else {
-                    subtask.setId(getNextId());
-                }
-                subtasks.put(subtask.getId(), subtask);
-                epic.addSubtask(subtask, subtasks);
-                if (subtask.getStartTime() != null) {
-                    tasksByStartTime.add(subtask);
-                }
+                putSubtask(subtask, epic, forceId);
             }
         }
         return subtask;
     }
 
+    /**
+     * Метод занесения уже проверенной подзадачи в хранилище {@link InMemoryTaskManager#subtasks}, в список у эпика
+     * и в расписание
+     *
+     * @param subtask подзадача для добавления
+     * @param epic    эпик подзадачи
+     * @param forceId флаг (true) использования заданного id подзадачи, если он > 0, иначе (false) - генерация нового id
+     */
+    private void putSubtask(Subtask subtask, Epic epic, boolean forceId) {
+        assignId(subtask, forceId);
+        subtasks.put(subtask.getId(), subtask);
+        subtaskIdsByStatus.put(subtask.getId(), subtask.getStatus());
+        subtaskText.put(subtask);
+        subtasksView = null;
+        epic.addSubtask(subtask);
+        epicIdsByStatus.put(epic.getId(), epic.getStatus());
+        addToSchedule(subtask);
+        publish(TaskEvent.Kind.CREATE, TaskType.SUBTASK, null, subtask);
+    }
+
     /**
      * Метод добавления эпика в хранилище {@link InMemoryTaskManager#epics}
      *
@@ -289,14 +722,12 @@ public class InMemoryTaskManager implements TaskManager {
     protected Epic createEpic(Epic epic, Boolean forceId) {
         if (epic != null) {
             epic.clearSubtasks();
-            if (forceId) {
-                if (epic.getId() == 0) {
-                    epic.setId(getNextId());
-                }
-            } else {
-                epic.setId(getNextId());
-            }
+            assignId(epic, forceId);
             epics.put(epic.getId(), epic);
+            epicIdsByStatus.put(epic.getId(), epic.getStatus());
+            epicText.put(epic);
+            epicsView = null;
+            publish(TaskEvent.Kind.CREATE, TaskType.EPIC, null, epic);
         }
         return epic;
     }
@@ -310,23 +741,32 @@ public class InMemoryTaskManager implements TaskManager {
     public void updateTask(Task task) {
         if (task != null && tasks.containsKey(task.getId())) {
             if (isValid(task)) {
-                // Изменение работает через новый объект - надо заменить его в множестве.
-                // Плюс если время начала убрано, то убираем объект из множества.
-                Task taskPrev = tasks.get(task.getId());
-                if (taskPrev.getStartTime() != null) {
-                    tasksByStartTime.remove(taskPrev);
-                }
-                if (task.getStartTime() != null) {
-                    tasksByStartTime.add(task);
-                }
-
-                tasks.put(task.getId(), task);
+                replaceTask(task);
             }
         } else {
             throw new NotFoundException("Задача не найдена.");
         }
     }
 
+    /**
+     * Метод замены задачи в хранилище {@link InMemoryTaskManager#tasks} уже проверенной новой версией
+     *
+     * @param task задача с обновленными атрибутами
+     */
+    private void replaceTask(Task task) {
+        // Изменение работает через новый объект - надо заменить его в множестве.
+        // Плюс если время начала убрано, то убираем объект из множества.
+        Task taskPrev = tasks.get(task.getId());
+        removeFromSchedule(taskPrev);
+        addToSchedule(task);
+
+        tasks.put(task.getId(), task);
+        taskIdsByStatus.put(task.getId(), task.getStatus());
+        taskText.put(task);
+        tasksView = null;
+        publish(TaskEvent.Kind.UPDATE, TaskType.TASK, taskPrev, task);
+    }
+
     /**
      * Метод изменения подзадачи в хранилище {@link InMemoryTaskManager#subtasks}
      *
@@ -336,24 +776,35 @@ public class InMemoryTaskManager implements TaskManager {
     public void updateSubtask(Subtask subtask) {
         if (subtask != null && subtasks.containsKey(subtask.getId())) {
             if (isValid(subtask)) {
-                Subtask subtaskPrev = subtasks.get(subtask.getId());
-                Epic epic = epics.get(subtask.getEpicId());
-                if (epic != null && subtaskPrev.getEpicId() == subtask.getEpicId()) {
-                    if (subtaskPrev.getStartTime() != null) {
-                        tasksByStartTime.remove(subtaskPrev);
-                    }
-                    if (subtask.getStartTime() != null) {
-                        tasksByStartTime.add(subtask);
-                    }
-                    subtasks.put(subtask.getId(), subtask);
-                    epic.addSubtask(subtask, subtasks); // Вызов для обновления статуса эпика
-                }
+                replaceSubtask(subtask);
             }
         } else {
             throw new NotFoundException("Подзадача не найдена.");
         }
     }
 
+    /**
+     * Метод замены подзадачи в хранилище {@link InMemoryTaskManager#subtasks} уже проверенной новой версией.
+     * Перенос подзадачи в другой эпик не поддерживается и игнорируется.
+     *
+     * @param subtask подзадача с обновленными атрибутами
+     */
+    private void replaceSubtask(Subtask subtask) {
+        Subtask subtaskPrev = subtasks.get(subtask.getId());
+        Epic epic = epics.get(subtask.getEpicId());
+        if (epic != null && subtaskPrev.getEpicId() == subtask.getEpicId()) {
+            removeFromSchedule(subtaskPrev);
+            addToSchedule(subtask);
+            subtasks.put(subtask.getId(), subtask);
+            subtaskIdsByStatus.put(subtask.getId(), subtask.getStatus());
+            subtaskText.put(subtask);
+            subtasksView = null;
+            epic.updateSubtask(subtaskPrev, subtask);
+            epicIdsByStatus.put(epic.getId(), epic.getStatus());
+            publish(TaskEvent.Kind.UPDATE, TaskType.SUBTASK, subtaskPrev, subtask);
+        }
+    }
+
     /**
      * Метод изменения эпика в хранилище {@link InMemoryTaskManager#epics}.
      * Не затрагивает его статус и список подзадач.
@@ -363,14 +814,57 @@ public class InMemoryTaskManager implements TaskManager {
     @Override
     public void updateEpic(Epic epic) {
         if (epic != null && epics.containsKey(epic.getId())) {
-            Epic epicTarget = epics.get(epic.getId());
-            epicTarget.setName(epic.getName());
-            epicTarget.setDescription(epic.getDescription());
+            replaceEpic(epic);
         } else {
             throw new NotFoundException("Эпик не найден.");
         }
     }
 
+    /**
+     * Метод переноса названия и описания эпика в хранимый в {@link InMemoryTaskManager#epics} объект
+     *
+     * @param epic эпик с обновленными атрибутами
+     */
+    private void replaceEpic(Epic epic) {
+        Epic epicTarget = epics.get(epic.getId());
+        Epic epicPrev = new Epic(epicTarget.getName(), epicTarget.getDescription(), epicTarget.getId());
+        epicTarget.setName(epic.getName());
+        epicTarget.setDescription(epic.getDescription());
+        epicText.put(epicTarget);
+        publish(TaskEvent.Kind.UPDATE, TaskType.EPIC, epicPrev, epicTarget);
+    }
+
+    /**
+     * Метод восстановления задачи, подзадачи или эпика (по классу объекта) с заданным id без проверок пересечений:
+     * существующий объект заменяется, отсутствующий добавляется. Нужен для повтора журнала изменений, где версии
+     * объектов уже прошли проверки в исходном порядке, а промежуточные состояния пакетов могут их не проходить.
+     *
+     * @param task задача, подзадача, эпик с атрибутами и id
+     */
+    protected void restoreTask(Task task) {
+        if (task instanceof Subtask subtask) {
+            if (subtasks.containsKey(subtask.getId())) {
+                replaceSubtask(subtask);
+            } else {
+                Epic epic = epics.get(subtask.getEpicId());
+                if (epic == null) {
+                    throw new NotFoundException("Эпик подзадачи не найден: " + subtask);
+                }
+                putSubtask(subtask, epic, true);
+            }
+        } else if (task instanceof Epic epic) {
+            if (epics.containsKey(epic.getId())) {
+                replaceEpic(epic);
+            } else {
+                createEpic(epic, true);
+            }
+        } else if (tasks.containsKey(task.getId())) {
+            replaceTask(task);
+        } else {
+            putTask(task, true);
+        }
+    }
+
     /**
      * Метод удаления задачи из хранилища {@link InMemoryTaskManager#tasks} по идентификатору
      *
@@ -379,11 +873,7 @@ public class InMemoryTaskManager implements TaskManager {
     @Override
     public void removeTask(int taskId) {
         if (tasks.containsKey(taskId)) {
-            Task task = tasks.remove(taskId);
-            if (task.getStartTime() != null) {
-                tasksByStartTime.remove(task);
-            }
-            historyManager.remove(taskId);
+            dropTask(taskId);
         } else {
             throw new NotFoundException("Задача не найдена.");
         }
@@ -397,16 +887,7 @@ public class InMemoryTaskManager implements TaskManager {
     @Override
     public void removeSubtask(int subtaskId) {
         if (subtasks.containsKey(subtaskId)) {
-            Subtask subtask = subtasks.get(subtaskId);
-            Epic epic = epics.get(subtask.getEpicId());
-            if (epic != null) {
-                subtasks.remove(subtaskId);
-                epic.removeSubtask(subtaskId, subtasks);
-                historyManager.remove(subtaskId);
-                if (subtask.getStartTime() != null) {
-                    tasksByStartTime.remove(subtask);
-                }
-            }
+            dropSubtask(subtasks.get(subtaskId));
         } else {
             throw new NotFoundException("Подзадача не найдена.");
         }
@@ -420,34 +901,242 @@ public class InMemoryTaskManager implements TaskManager {
     @Override
     public void removeEpic(int epicId) {
         if (epics.containsKey(epicId)) {
-            Epic epic = epics.get(epicId);
-            for (Integer subtaskId : epic.getSubtaskList()) {
-                Subtask subtask = subtasks.remove(subtaskId);
-                if (subtask.getStartTime() != null) {
-                    tasksByStartTime.remove(subtask);
-                }
-                historyManager.remove(subtaskId);
-            }
-            epics.remove(epicId);
-            historyManager.remove(epicId);
+            dropEpic(epics.get(epicId));
         } else {
             throw new NotFoundException("Эпик не найден.");
         }
     }
 
     /**
-     * Метод получения списка подзадач эпика по его идентификатору {@link Epic#getId()}
+     * Метод удаления имеющейся задачи из хранилища, расписания и истории
+     *
+     * @param taskId id удаляемой задачи
+     */
+    private void dropTask(int taskId) {
+        Task task = tasks.remove(taskId);
+        taskIdsByStatus.remove(taskId);
+        taskText.remove(taskId);
+        tasksView = null;
+        removeFromSchedule(task);
+        historyManager.remove(taskId);
+        publish(TaskEvent.Kind.REMOVE, TaskType.TASK, task, null);
+    }
+
+    /**
+     * Метод удаления имеющейся подзадачи из хранилища, у своего эпика, из расписания и истории
+     *
+     * @param subtask удаляемая подзадача
+     */
+    private void dropSubtask(Subtask subtask) {
+        Epic epic = epics.get(subtask.getEpicId());
+        if (epic != null) {
+            subtasks.remove(subtask.getId());
+            subtaskIdsByStatus.remove(subtask.getId());
+            subtaskText.remove(subtask.getId());
+            subtasksView = null;
+            epic.removeSubtask(subtask);
+            epicIdsByStatus.put(epic.getId(), epic.getStatus());
+            historyManager.remove(subtask.getId());
+            removeFromSchedule(subtask);
+            publish(TaskEvent.Kind.REMOVE, TaskType.SUBTASK, subtask, null);
+        }
+    }
+
+    /**
+     * Метод удаления имеющегося эпика вместе с его подзадачами
+     *
+     * @param epic удаляемый эпик
+     */
+    private void dropEpic(Epic epic) {
+        for (int subtaskId : epic.getSubtaskIds()) {
+            Subtask subtask = subtasks.remove(subtaskId);
+            subtaskIdsByStatus.remove(subtaskId);
+            subtaskText.remove(subtaskId);
+            removeFromSchedule(subtask);
+            historyManager.remove(subtaskId);
+            publish(TaskEvent.Kind.REMOVE, TaskType.SUBTASK, subtask, null);
+        }
+        subtasksView = null;
+        epics.remove(epic.getId());
+        epicIdsByStatus.remove(epic.getId());
+        epicText.remove(epic.getId());
+        epicsView = null;
+        historyManager.remove(epic.getId());
+        publish(TaskEvent.Kind.REMOVE, TaskType.EPIC, epic, null);
+    }
+
+    /**
+     * Метод пакетного добавления задач, подзадач и эпиков (по классу объекта). Весь пакет проверяется заранее
+     * и целиком - на пересечения и с расписанием, и внутри себя, - и при ошибке не добавляется ничего.
+     *
+     * @param batch задачи, подзадачи, эпики с атрибутами для добавления
+     * @return List<Task> созданные объекты в порядке пакета
+     */
+    @Override
+    public List<Task> createBatch(List<? extends Task> batch) {
+        validateBatch(batch, false);
+        List<Task> created = new ArrayList<>(batch.size());
+        for (Task task : batch) {
+            if (task instanceof Subtask subtask) {
+                putSubtask(subtask, epics.get(subtask.getEpicId()), false);
+            } else if (task instanceof Epic epic) {
+                createEpic(epic, false);
+            } else if (task != null) {
+                putTask(task, false);
+            } else {
+                continue;
+            }
+            created.add(task);
+        }
+        return created;
+    }
+
+    /**
+     * Метод пакетного изменения задач, подзадач и эпиков (по классу объекта) с предварительной проверкой всего пакета,
+     * как в {@link InMemoryTaskManager#createBatch(List)}. Задачи пакета могут меняться местами по времени.
+     *
+     * @param batch задачи, подзадачи, эпики с обновленными атрибутами
+     */
+    @Override
+    public void updateBatch(List<? extends Task> batch) {
+        validateBatch(batch, true);
+        for (Task task : batch) {
+            if (task instanceof Subtask subtask) {
+                replaceSubtask(subtask);
+            } else if (task instanceof Epic epic) {
+                replaceEpic(epic);
+            } else if (task != null) {
+                replaceTask(task);
+            }
+        }
+    }
+
+    /**
+     * Метод пакетного удаления задач, подзадач и эпиков по id. Если какой-то id не найден, не удаляется ничего.
+     *
+     * @param ids идентификаторы удаляемых объектов
+     */
+    @Override
+    public void removeBatch(List<Integer> ids) {
+        for (int id : ids) {
+            if (!tasks.containsKey(id) && !subtasks.containsKey(id) && !epics.containsKey(id)) {
+                throw new NotFoundException("Задача не найдена: " + id);
+            }
+        }
+        for (int id : ids) {
+            // Подзадача могла уйти вместе с удаленным ранее в этом же пакете эпиком
+            if (tasks.containsKey(id)) {
+                dropTask(id);
+            } else if (subtasks.containsKey(id)) {
+                dropSubtask(subtasks.get(id));
+            } else if (epics.containsKey(id)) {
+                dropEpic(epics.get(id));
+            }
+        }
+    }
+
+    /**
+     * Метод проверки пакета до внесения изменений: наличия изменяемых объектов и эпиков подзадач, отсутствия повторов
+     * и пересечений по времени - с расписанием и между задачами пакета. На время проверки изменяемые задачи
+     * исключаются из индекса {@link InMemoryTaskManager#tasksByInterval}, чтобы их прежнее время не мешало перестановкам.
+     * Доступен в пакете, чтобы {@link ShardedTaskManager} мог проверить пакет во всех шардах до изменений.
+     *
+     * @param batch    пакет задач, подзадач, эпиков
+     * @param isUpdate true - пакет изменений, false - пакет добавлений
+     */
+    void validateBatch(List<? extends Task> batch, boolean isUpdate) {
+        IntLinkedSet batchIds = new IntLinkedSet();
+        for (Task task : batch) {
+            if (task instanceof Subtask subtask && !epics.containsKey(subtask.getEpicId())) {
+                throw new NotFoundException("Эпик подзадачи не найден: " + subtask);
+            }
+            if (isUpdate && task != null) {
+                boolean exists = (task instanceof Subtask) ? subtasks.containsKey(task.getId())
+                        : (task instanceof Epic) ? epics.containsKey(task.getId()) : tasks.containsKey(task.getId());
+                if (!exists) {
+                    throw new NotFoundException("Задача не найдена: " + task);
+                }
+                if (!batchIds.add(task.getId())) {
+                    throw new InvalidTaskException("Задача повторяется в пакете: " + task);
+                }
+            }
+        }
+
+        List<Task> detached = isUpdate ? detachScheduled(batch) : List.of();
+        try {
+            // Новые задачи еще без id, поэтому внутри пакета сверяем их копии с временными отрицательными id
+            IntervalIndex batchIndex = new IntervalIndex();
+            Map<Task, Task> originals = new IdentityHashMap<>();
+            int probeId = 0;
+            for (Task task : batch) {
+                if (task == null || task instanceof Epic || !task.hasStartTime()) {
+                    continue;
+                }
+                Long minutes = (task.getDuration() != null) ? task.getDuration().toMinutes() : null;
+                Task probe = new Task(task.getName(), task.getDescription(), isUpdate ? task.getId() : --probeId,
+                        minutes, task.getStartTime());
+                isValid(probe);
+                Optional<Task> crossing = batchIndex.findCrossing(probe);
+                if (crossing.isPresent()) {
+                    throw new InvalidTaskException("Задачи пакета пересекаются по времени: " + task + " и "
+                            + originals.get(crossing.get()));
+                }
+                batchIndex.add(probe);
+                originals.put(probe, task);
+            }
+        } finally {
+            attachScheduled(detached);
+        }
+    }
+
+    /**
+     * Метод временного исключения прежних версий изменяемых задач пакета из индекса
+     * {@link InMemoryTaskManager#tasksByInterval}. Исключенные задачи нужно вернуть
+     * {@link InMemoryTaskManager#attachScheduled(List)} до снятия блокировки.
+     *
+     * @param batch пакет изменений задач, подзадач, эпиков
+     * @return List<Task> исключенные задачи
+     */
+    List<Task> detachScheduled(List<? extends Task> batch) {
+        List<Task> detached = new ArrayList<>();
+        for (Task task : batch) {
+            Task taskPrev = (task instanceof Subtask) ? subtasks.get(task.getId())
+                    : (task instanceof Epic || task == null) ? null : tasks.get(task.getId());
+            if (taskPrev != null && taskPrev.hasStartTime()) {
+                tasksByInterval.remove(taskPrev);
+                detached.add(taskPrev);
+            }
+        }
+        return detached;
+    }
+
+    /**
+     * Метод возврата в индекс {@link InMemoryTaskManager#tasksByInterval} задач, исключенных
+     * {@link InMemoryTaskManager#detachScheduled(List)}
+     *
+     * @param detached исключенные задачи
+     */
+    void attachScheduled(List<Task> detached) {
+        detached.forEach(tasksByInterval::add);
+    }
+
+    /**
+     * Метод получения списка подзадач эпика по его идентификатору {@link Epic#getId()}. Подзадачи выбираются по
+     * списку id у самого эпика, а не перебором всего хранилища {@link InMemoryTaskManager#subtasks}.
      *
      * @param epicId эпик для обработки
      * @return ArrayList<task.Subtask> список подзадач
      */
     @Override
     public List<Subtask> getSubtasksByEpicId(int epicId) {
-        if (epics.containsKey(epicId)) {
-            return subtasks.entrySet().stream()
-                    .filter(entry -> entry.getValue().getEpicId() == epicId)
-                    .map(Map.Entry::getValue)
-                    .collect(Collectors.toList());
+        Epic epic = epics.get(epicId);
+        if (epic != null) {
+            int[] subtaskIds = epic.getSubtaskIds();
+            List<Subtask> result = new ArrayList<>(subtaskIds.length);
+            for (int subtaskId : subtaskIds) {
+                result.add(subtasks.get(subtaskId));
+            }
+            return result;
         } else {
             throw new NotFoundException("Эпик не найден.");
         }
@@ -468,6 +1157,378 @@ public class InMemoryTaskManager implements TaskManager {
         return result;
     }
 
+    /**
+     * Метод получения списка задач с заданным статусом по индексу {@link InMemoryTaskManager#taskIdsByStatus}
+     *
+     * @param status статус
+     * @return List<Task> задачи, упорядоченные по id
+     */
+    @Override
+    public List<Task> getTasksByStatus(TaskStatus status) {
+        return collect(taskIdsByStatus.getIds(status), tasks::get);
+    }
+
+    /**
+     * Метод получения списка подзадач с заданным статусом по индексу {@link InMemoryTaskManager#subtaskIdsByStatus}
+     *
+     * @param status статус
+     * @return List<Subtask> подзадачи, упорядоченные по id
+     */
+    @Override
+    public List<Subtask> getSubtasksByStatus(TaskStatus status) {
+        return collect(subtaskIdsByStatus.getIds(status), subtasks::get);
+    }
+
+    /**
+     * Метод получения списка эпиков с заданным статусом по индексу {@link InMemoryTaskManager#epicIdsByStatus}
+     *
+     * @param status статус
+     * @return List<Epic> эпики, упорядоченные по id
+     */
+    @Override
+    public List<Epic> getEpicsByStatus(TaskStatus status) {
+        return collect(epicIdsByStatus.getIds(status), epics::get);
+    }
+
+    /**
+     * Метод получения канбан-доски: задач, подзадач и эпиков, разложенных по колонкам-статусам
+     *
+     * @return Map<TaskStatus, List<Task>> колонки по всем статусам в порядке {@link TaskStatus}, внутри колонки -
+     * задачи, эпики и подзадачи вперемешку по id
+     */
+    @Override
+    public Map<TaskStatus, List<Task>> getBoard() {
+        Map<TaskStatus, List<Task>> board = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            List<Task> column = new ArrayList<>(taskIdsByStatus.size(status) + subtaskIdsByStatus.size(status)
+                    + epicIdsByStatus.size(status));
+            column.addAll(getTasksByStatus(status));
+            column.addAll(getEpicsByStatus(status));
+            column.addAll(getSubtasksByStatus(status));
+            column.sort(BY_ID);
+            board.put(status, column);
+        }
+        return board;
+    }
+
+    /**
+     * Метод полнотекстового поиска задач, подзадач и эпиков по словам названия и описания через индексы
+     * {@link InMemoryTaskManager#taskText}, {@link InMemoryTaskManager#subtaskText},
+     * {@link InMemoryTaskManager#epicText}. Подходит объект хотя бы с одним словом запроса; выше стоят объекты
+     * с большим числом совпадений, причем совпадение в названии весит больше, чем в описании.
+     *
+     * @param query строка запроса
+     * @return List<Task> найденные объекты по убыванию релевантности, при равенстве - по id
+     */
+    @Override
+    public List<Task> search(String query) {
+        Set<String> terms = TextIndex.tokenize(query);
+        IntObjectMap<int[]> scores = new IntObjectMap<>();
+        taskText.score(terms, scores);
+        subtaskText.score(terms, scores);
+        epicText.score(terms, scores);
+
+        // Очки и id упаковываются в long, чтобы отсортировать их без упаковки в объекты
+        int[] ids = scores.keys();
+        long[] ranked = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            ranked[i] = ((long) (Integer.MAX_VALUE - scores.get(ids[i])[0]) << 32) | ids[i];
+        }
+        Arrays.sort(ranked);
+
+        List<Task> result = new ArrayList<>(ranked.length);
+        for (long rank : ranked) {
+            int id = (int) rank;
+            Task task = tasks.get(id);
+            if (task == null) {
+                task = subtasks.get(id);
+            }
+            result.add((task != null) ? task : epics.get(id));
+        }
+        return result;
+    }
+
+    /**
+     * Метод выборки задач, подзадач и эпиков по составному запросу. Кандидаты берутся из самого узкого из
+     * поддерживаемых индексов - списка подзадач эпика, индекса статусов, полнотекстового индекса (по самому редкому
+     * слову) или расписания, - а остальные условия проверяются уже на них. Для окна расписания размер считается
+     * только до размера лучшего из прочих кандидатов. Эпиков нет в расписании, поэтому при выборке из него они
+     * проверяются перебором. Если ни одно условие индексом не поддержано, перебираются хранилища запрошенных типов.
+     *
+     * @param query запрос
+     * @return List<Task> объекты учета по id или по дате/времени начала, см. {@link TaskQuery#orderByStartTime}
+     */
+    @Override
+    public List<Task> query(TaskQuery query) {
+        List<String> terms = List.copyOf(TextIndex.tokenize(query.getText()));
+        List<TaskType> types = new ArrayList<>();
+        for (TaskType type : TaskType.values()) {
+            if (query.includes(type)) {
+                types.add(type);
+            }
+        }
+
+        QuerySource source = QuerySource.SCAN;
+        int best = 0;
+        for (TaskType type : types) {
+            best += storeSize(type);
+        }
+        int[] epicSubtaskIds = null;
+        if (query.getEpicId() != null) {
+            Epic epic = epics.get(query.getEpicId());
+            if (epic == null) {
+                return List.of();
+            }
+            epicSubtaskIds = epic.getSubtaskIds();
+            if (epicSubtaskIds.length < best) {
+                source = QuerySource.EPIC;
+                best = epicSubtaskIds.length;
+            }
+        }
+        if (query.getStatus() != null) {
+            int estimate = 0;
+            for (TaskType type : types) {
+                estimate += statusIndexOf(type).size(query.getStatus());
+            }
+            if (estimate < best) {
+                source = QuerySource.STATUS;
+                best = estimate;
+            }
+        }
+        String rarestTerm = null;
+        for (String term : terms) {
+            int estimate = 0;
+            for (TaskType type : types) {
+                estimate += textIndexOf(type).count(term);
+            }
+            if (estimate < best) {
+                source = QuerySource.TEXT;
+                best = estimate;
+                rarestTerm = term;
+            }
+        }
+        if (query.hasWindow()) {
+            int estimate = types.contains(TaskType.EPIC) ? epics.size() : 0;
+            Iterator<Task> window = scheduleWindow(query.getFrom(), query.getTo()).iterator();
+            while (estimate < best && window.hasNext()) {
+                window.next();
+                estimate++;
+            }
+            if (estimate < best) {
+                source = QuerySource.SCHEDULE;
+            }
+        }
+
+        List<Task> candidates = new ArrayList<>();
+        switch (source) {
+            case EPIC -> {
+                for (int subtaskId : epicSubtaskIds) {
+                    candidates.add(subtasks.get(subtaskId));
+                }
+            }
+            case STATUS -> {
+                for (TaskType type : types) {
+                    for (int id : statusIndexOf(type).getIds(query.getStatus())) {
+                        candidates.add(getStored(type, id));
+                    }
+                }
+            }
+            case TEXT -> {
+                for (TaskType type : types) {
+                    String term = rarestTerm;
+                    textIndexOf(type).forEach(term, id -> candidates.add(getStored(type, id)));
+                }
+            }
+            case SCHEDULE -> {
+                candidates.addAll(scheduleWindow(query.getFrom(), query.getTo()));
+                if (types.contains(TaskType.EPIC)) {
+                    candidates.addAll(epics.values());
+                }
+            }
+            case SCAN -> {
+                for (TaskType type : types) {
+                    switch (type) {
+                        case TASK -> candidates.addAll(tasks.values());
+                        case SUBTASK -> candidates.addAll(subtasks.values());
+                        case EPIC -> candidates.addAll(epics.values());
+                    }
+                }
+            }
+        }
+
+        List<Task> result = new ArrayList<>();
+        for (Task task : candidates) {
+            if (query.matches(task) && containsAll(task, terms)) {
+                result.add(task);
+            }
+        }
+        result.sort(query.isOrderByStartTime() ? TaskUtil.BY_START_TIME : BY_ID);
+        return result;
+    }
+
+    /**
+     * Метод проверки наличия всех слов в названии или описании объекта учета по полнотекстовому индексу
+     *
+     * @param task  задача, подзадача или эпик
+     * @param terms слова
+     * @return true - все слова есть у объекта
+     */
+    private boolean containsAll(Task task, List<String> terms) {
+        TextIndex textIndex = textIndexOf(TaskQuery.typeOf(task));
+        for (String term : terms) {
+            if (!textIndex.contains(task.getId(), term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int storeSize(TaskType type) {
+        return switch (type) {
+            case TASK -> tasks.size();
+            case SUBTASK -> subtasks.size();
+            case EPIC -> epics.size();
+        };
+    }
+
+    private StatusIndex statusIndexOf(TaskType type) {
+        return switch (type) {
+            case TASK -> taskIdsByStatus;
+            case SUBTASK -> subtaskIdsByStatus;
+            case EPIC -> epicIdsByStatus;
+        };
+    }
+
+    private TextIndex textIndexOf(TaskType type) {
+        return switch (type) {
+            case TASK -> taskText;
+            case SUBTASK -> subtaskText;
+            case EPIC -> epicText;
+        };
+    }
+
+    private Task getStored(TaskType type, int id) {
+        return switch (type) {
+            case TASK -> tasks.get(id);
+            case SUBTASK -> subtasks.get(id);
+            case EPIC -> epics.get(id);
+        };
+    }
+
+    /**
+     * Метод выборки объектов учета из хранилища по списку id
+     *
+     * @param ids   id объектов
+     * @param store функция получения объекта по id
+     * @return ArrayList<T> объекты в порядке id
+     */
+    private static <T> List<T> collect(int[] ids, IntFunction<T> store) {
+        List<T> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add(store.apply(id));
+        }
+        return result;
+    }
+
+    /**
+     * Метод добавления зависимости: задача (подзадача) blockerId блокирует задачу (подзадачу) blockedId.
+     * Раннее начало заблокированной задачи и всех задач ниже пересчитывается, см. {@link DependencyGraph}.
+     *
+     * @param blockerId id блокирующей задачи (подзадачи)
+     * @param blockedId id заблокированной задачи (подзадачи)
+     */
+    @Override
+    public void addDependency(int blockerId, int blockedId) {
+        dependencies.addDependency(getDependencyTask(blockerId), getDependencyTask(blockedId));
+    }
+
+    /**
+     * Метод удаления зависимости
+     *
+     * @param blockerId id блокирующей задачи (подзадачи)
+     * @param blockedId id заблокированной задачи (подзадачи)
+     */
+    @Override
+    public void removeDependency(int blockerId, int blockedId) {
+        if (!dependencies.removeDependency(blockerId, blockedId)) {
+            throw new NotFoundException("Зависимость не найдена: " + blockerId + " -> " + blockedId);
+        }
+    }
+
+    /**
+     * Метод получения задач (подзадач), блокирующих данную
+     *
+     * @param taskId id задачи (подзадачи)
+     * @return List<Task> блокирующие задачи в порядке добавления зависимостей
+     */
+    @Override
+    public List<Task> getBlockers(int taskId) {
+        getDependencyTask(taskId);
+        return collect(dependencies.getBlockers(taskId), this::findTaskOrSubtask);
+    }
+
+    /**
+     * Метод получения раннего начала задачи (подзадачи) с учетом блокирующих ее задач
+     *
+     * @param taskId id задачи (подзадачи)
+     * @return раннее начало; для задачи без зависимостей - ее дата/время начала; null - не определено
+     */
+    @Override
+    public LocalDateTime getEarliestStart(int taskId) {
+        Task task = getDependencyTask(taskId);
+        return dependencies.contains(taskId) ? dependencies.getEarliestStart(taskId) : task.getStartTime();
+    }
+
+    /**
+     * Метод получения критического пути задачи (подзадачи) - цепочки блокирующих задач, определивших ее раннее начало
+     *
+     * @param taskId id задачи (подзадачи)
+     * @return List<Task> задачи пути от первой до данной
+     */
+    @Override
+    public List<Task> getCriticalPath(int taskId) {
+        getDependencyTask(taskId);
+        return collect(dependencies.getCriticalPath(taskId), this::findTaskOrSubtask);
+    }
+
+    /**
+     * Метод получения критического пути всех зависимостей - пути задачи с самым поздним ранним окончанием
+     *
+     * @return List<Task> задачи пути; пустой - зависимостей со сроками нет
+     */
+    @Override
+    public List<Task> getCriticalPath() {
+        return collect(dependencies.getCriticalPath(), this::findTaskOrSubtask);
+    }
+
+    /**
+     * Метод получения задачи или подзадачи по id без записи в историю
+     *
+     * @param id id задачи (подзадачи)
+     * @return задача, подзадача или null, если их нет
+     */
+    Task findTaskOrSubtask(int id) {
+        Task task = tasks.get(id);
+        return (task != null) ? task : subtasks.get(id);
+    }
+
+    /**
+     * Метод получения участника зависимости с проверкой: зависимости бывают только у задач и подзадач
+     *
+     * @param id id задачи (подзадачи)
+     * @return задача (подзадача)
+     */
+    private Task getDependencyTask(int id) {
+        Task task = findTaskOrSubtask(id);
+        if (task != null) {
+            return task;
+        }
+        if (epics.containsKey(id)) {
+            throw new InvalidTaskException("У эпика не может быть зависимостей: " + id);
+        }
+        throw new NotFoundException("Задача не найдена: " + id);
+    }
+
     /**
      * Метод получения истории просмотра задач (подзадач, эпиков) через назначенный {@link InMemoryTaskManager#historyManager}
      *
@@ -485,25 +1546,321 @@ public class InMemoryTaskManager implements TaskManager {
      */
     @Override
     public List<Task> getPrioritizedTasks() {
-        return tasksByStartTime.stream().toList();
+        List<Task> view = prioritizedView;
+        if (view == null) {
+            view = List.copyOf(tasksByStartTime);
+            prioritizedView = view;
+        }
+        return view;
+    }
+
+    /**
+     * Метод получения страницы списка задач и подзадач в порядке приоритета по датам начала выполнения
+     *
+     * @param after курсор - дата/время начала последней задачи предыдущей страницы; null - первая страница
+     * @param limit максимальное количество задач на странице
+     * @return List<Task> страница задач, подзадач
+     */
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime after, int limit) {
+        List<Task> page = TaskUtil.pageByStartTime(getPrioritizedTasks(), after, limit);
+        if (recurringTasks.isEmpty()) {
+            return page;
+        }
+        List<Task> merged = TaskUtil.mergeSorted(List.of(page, recurringTasks.getOccurrences(after, limit)),
+                Task::compareStartTo);
+        return List.copyOf((merged.size() > limit) ? merged.subList(0, limit) : merged);
+    }
+
+    /**
+     * Метод получения задач и подзадач расписания, начинающихся в заданном окне времени, в порядке приоритета.
+     * Окно вырезается из {@link InMemoryTaskManager#tasksByStartTime} по границам, а копируются только попавшие в него
+     * задачи, поэтому стоимость выборки не зависит от размера всего расписания. Повторения повторяющихся задач
+     * строятся только для этого окна, см. {@link RecurringSchedule#getOccurrences(LocalDateTime, LocalDateTime)}.
+     *
+     * @param from начало окна включительно; null - без ограничения
+     * @param to   конец окна не включительно; null - без ограничения
+     * @return List<Task> неизменяемый список задач, подзадач окна
+     */
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to) {
+        if (recurringTasks.isEmpty()) {
+            return List.copyOf(scheduleWindow(from, to));
+        }
+        return List.copyOf(TaskUtil.mergeSorted(List.of(new ArrayList<>(scheduleWindow(from, to)),
+                recurringTasks.getOccurrences(from, to)), Task::compareStartTo));
+    }
+
+    /**
+     * Метод получения окна расписания {@link InMemoryTaskManager#tasksByStartTime} по дате/времени начала
+     *
+     * @param from начало окна включительно; null - без ограничения
+     * @param to   конец окна не включительно; null - без ограничения
+     * @return NavigableSet<Task> представление окна без копирования
+     */
+    private NavigableSet<Task> scheduleWindow(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            return Collections.emptyNavigableSet();
+        }
+        NavigableSet<Task> window = tasksByStartTime;
+        if (from != null) {
+            window = window.tailSet(new Task("", "", null, from), true);
+        }
+        if (to != null) {
+            window = window.headSet(new Task("", "", null, to), false);
+        }
+        return window;
+    }
+
+    /**
+     * Метод поиска ближайших свободных промежутков расписания заданной продолжительности по индексу
+     * {@link InMemoryTaskManager#tasksByInterval}. Промежутки идут подряд: каждый следующий ищется с окончания
+     * предыдущего.
+     *
+     * @param notBefore       дата/время, раньше которой начинать нельзя
+     * @param durationMinutes продолжительность в минутах
+     * @param count           количество промежутков
+     * @return List<LocalDateTime> даты/время начала свободных промежутков
+     */
+    @Override
+    public List<LocalDateTime> findFreeSlots(LocalDateTime notBefore, long durationMinutes, int count) {
+        List<LocalDateTime> slots = new ArrayList<>(Math.max(count, 0));
+        LocalDateTime from = notBefore;
+        for (int i = 0; i < count; i++) {
+            LocalDateTime slot = findFreeSlot(from, durationMinutes);
+            slots.add(slot);
+            from = slot.plusMinutes(Math.max(durationMinutes, 1));
+        }
+        return slots;
+    }
+
+    /**
+     * Метод автоматического планирования задач (подзадач) без даты/времени начала. Задачи ставятся по порядку списка,
+     * каждая - в самый ранний свободный промежуток не раньше заданной даты/времени, который ищется по индексу
+     * {@link InMemoryTaskManager#tasksByInterval} за O(log n). Поставленная задача сразу попадает в индекс, поэтому
+     * n задач планируются за O(n log n) без перебора с проверками, а короткие задачи занимают промежутки, оставшиеся
+     * перед уже поставленными длинными. Все задачи проверяются заранее, и при ошибке не планируется ничего.
+     *
+     * @param ids       id задач (подзадач) с продолжительностью, но без даты/времени начала
+     * @param notBefore дата/время, раньше которой начинать нельзя
+     * @return List<Task> запланированные задачи (подзадачи) в порядке списка
+     */
+    @Override
+    public List<Task> scheduleTasks(List<Integer> ids, LocalDateTime notBefore) {
+        IntLinkedSet uniqueIds = new IntLinkedSet();
+        List<Task> unscheduled = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            if (!uniqueIds.add(id)) {
+                throw new InvalidTaskException("Задача повторяется в пакете: " + id);
+            }
+            unscheduled.add(getUnscheduledTask(id));
+        }
+        List<Task> scheduled = new ArrayList<>(unscheduled.size());
+        for (Task task : unscheduled) {
+            LocalDateTime slot = findFreeSlot(notBefore, task.getDuration().toMinutes());
+            scheduled.add(placeTask(task, slot));
+        }
+        return scheduled;
+    }
+
+    /**
+     * Метод поиска ближайшего свободного времени с учетом повторяющихся задач: промежуток из индекса
+     * {@link InMemoryTaskManager#tasksByInterval} проверяется по правилам повторения, и при пересечении с повторением
+     * поиск продолжается после него (или после всех повторений правила, если между ними время не помещается).
+     *
+     * @param notBefore       дата/время, раньше которой начинать нельзя
+     * @param durationMinutes продолжительность в минутах
+     * @return дата/время начала свободного времени
+     * @throws InvalidTaskException если бессрочная повторяющаяся задача не оставляет такого свободного времени
+     */
+    private LocalDateTime findFreeSlot(LocalDateTime notBefore, long durationMinutes) {
+        LocalDateTime from = notBefore;
+        while (true) {
+            LocalDateTime slot = tasksByInterval.findFreeSlot(from, durationMinutes);
+            Optional<Task> occurrence = recurringTasks.findCrossing(
+                    new Task("", "", 0, Math.max(durationMinutes, 0), slot));
+            if (occurrence.isEmpty()) {
+                return slot;
+            }
+            from = recurringTasks.skip(occurrence.get(), durationMinutes);
+        }
+    }
+
+    /**
+     * Метод добавления повторяющейся задачи. Правило проверяется на пересечения повторений с расписанием и с другими
+     * правилами, а сами повторения не создаются.
+     *
+     * @param task повторяющаяся задача с началом первого повторения, продолжительностью и периодом
+     * @return созданная повторяющаяся задача
+     */
+    @Override
+    public RecurringTask createRecurringTask(RecurringTask task) {
+        return createRecurringTask(task, false);
+    }
+
+    /**
+     * Метод добавления повторяющейся задачи с возможностью форсированного выставления заданного id
+     *
+     * @param task    повторяющаяся задача
+     * @param forceId флаг (true) использования заданного id, если он > 0, иначе (false) - генерация нового id
+     * @return созданная повторяющаяся задача
+     */
+    protected RecurringTask createRecurringTask(RecurringTask task, Boolean forceId) {
+        if (task != null) {
+            validateRecurringTask(task);
+            assignId(task, forceId);
+            recurringTasks.put(task);
+        }
+        return task;
+    }
+
+    /**
+     * Метод проверки правила повторяющейся задачи: заданы начало и продолжительность, период больше
+     * продолжительности, повторения не пересекаются с расписанием и с другими правилами. Задачи расписания
+     * не пересекаются между собой, поэтому из начавшихся до первого повторения проверяется только последняя.
+     * Доступен в пакете для {@link ShardedTaskManager}.
+     *
+     * @param rule повторяющаяся задача
+     * @throws InvalidTaskException если правило некорректно или пересекается с другими задачами
+     */
+    void validateRecurringTask(RecurringTask rule) {
+        if (!rule.hasStartTime() || rule.getDuration() == null) {
+            throw new InvalidTaskException("У повторяющейся задачи должны быть заданы начало и продолжительность: "
+                    + rule);
+        }
+        if (rule.getPeriodMinutes() <= rule.getDuration().toMinutes()) {
+            throw new InvalidTaskException("Период повторения должен быть больше продолжительности: " + rule);
+        }
+        if (rule.getOccurrenceCount() == 0) {
+            throw new InvalidTaskException("Повторения заканчиваются раньше, чем начинаются: " + rule);
+        }
+        Task first = new Task("", "", null, rule.getStartTime());
+        LocalDateTime lastEnd = rule.isEndless() ? null
+                : rule.getOccurrence(rule.getOccurrenceCount() - 1).getEndTime();
+        Task previous = tasksByStartTime.lower(first);
+        List<Task> candidates = new ArrayList<>();
+        if (previous != null) {
+            candidates.add(previous);
+        }
+        NavigableSet<Task> tail = tasksByStartTime.tailSet(first, true);
+        for (Task task : (lastEnd != null) ? tail.headSet(new Task("", "", null, lastEnd), true) : tail) {
+            candidates.add(task);
+        }
+        for (Task task : candidates) {
+            Task occurrence = RecurringSchedule.findCrossing(rule, task);
+            if (occurrence != null) {
+                throw new InvalidTaskException("Повторение " + occurrence.getStartTime()
+                        + " пересекается по времени с уже имеющейся задачей: " + task);
+            }
+        }
+        Optional<Task> crossing = recurringTasks.findCrossing(rule);
+        if (crossing.isPresent()) {
+            throw new InvalidTaskException("Повторяющаяся задача пересекается по времени с повторением: "
+                    + crossing.get());
+        }
+    }
+
+    /**
+     * Метод получения повторяющейся задачи по id
+     *
+     * @param id id повторяющейся задачи
+     * @return правило повторяющейся задачи
+     */
+    @Override
+    public RecurringTask getRecurringTask(int id) {
+        RecurringTask task = recurringTasks.get(id);
+        if (task == null) {
+            throw new NotFoundException("Повторяющаяся задача не найдена.");
+        }
+        return task;
+    }
+
+    /**
+     * Метод получения всех повторяющихся задач
+     *
+     * @return List<RecurringTask> правила по возрастанию id
+     */
+    @Override
+    public List<RecurringTask> getAllRecurringTasks() {
+        return recurringTasks.values();
+    }
+
+    /**
+     * Метод удаления повторяющейся задачи вместе со всеми ее повторениями
+     *
+     * @param id id повторяющейся задачи
+     */
+    @Override
+    public void removeRecurringTask(int id) {
+        if (recurringTasks.remove(id) == null) {
+            throw new NotFoundException("Повторяющаяся задача не найдена.");
+        }
+    }
+
+    /**
+     * Метод получения задачи (подзадачи) для автоматического планирования с проверкой, что ее можно планировать.
+     * Доступен в пакете для {@link ShardedTaskManager}.
+     *
+     * @param id id задачи (подзадачи)
+     * @return Task задача (подзадача) с продолжительностью, но без даты/времени начала
+     * @throws NotFoundException    если задача не найдена
+     * @throws InvalidTaskException если это эпик, задача уже в расписании или у нее нет продолжительности
+     */
+    Task getUnscheduledTask(int id) {
+        Task task = findTaskOrSubtask(id);
+        if (task == null) {
+            if (epics.containsKey(id)) {
+                throw new InvalidTaskException("Сроки эпика рассчитываются по подзадачам: " + id);
+            }
+            throw new NotFoundException("Задача не найдена: " + id);
+        }
+        if (task.hasStartTime()) {
+            throw new InvalidTaskException("Задача уже есть в расписании: " + task);
+        }
+        if (task.getDuration() == null) {
+            throw new InvalidTaskException("У задачи не задана продолжительность: " + task);
+        }
+        return task;
+    }
+
+    /**
+     * Метод постановки задачи (подзадачи) в расписание на найденное свободное время без повторной проверки.
+     * Доступен в пакете для {@link ShardedTaskManager}.
+     *
+     * @param task      задача (подзадача) без даты/времени начала
+     * @param startTime дата/время начала свободного промежутка
+     * @return Task запланированная версия задачи (подзадачи)
+     */
+    Task placeTask(Task task, LocalDateTime startTime) {
+        Task placed = TaskUtil.withStartTime(task, startTime);
+        if (placed instanceof Subtask subtask) {
+            replaceSubtask(subtask);
+        } else {
+            replaceTask(placed);
+        }
+        return placed;
     }
 
     /**
      * Метод валидации задачи. Проверяет:
-     * на пересечение по датам начала/окончания с другими задачами(подзадачами) согласно списку из {@link InMemoryTaskManager#tasksByStartTime}.
+     * на пересечение по датам начала/окончания с другими задачами(подзадачами) согласно индексу {@link InMemoryTaskManager#tasksByInterval}
+     * и с повторениями повторяющихся задач по их правилам {@link InMemoryTaskManager#recurringTasks}.
+     * При пересечении в исключении передается ближайшее свободное время не раньше начала задачи.
      *
      * @param taskToCheck объект {@link Task} задачи (подзадачи) для проверки.
      * @return true - задача прошла проверки; иначе генерация исключения.
      */
     @Override
     public boolean isValid(Task taskToCheck) throws InvalidTaskException {
-        List<Task> tasks = getPrioritizedTasks();
-        Optional<Task> taskCrossingWith = tasks.stream()
-                .filter(task -> task.getId() != taskToCheck.getId())
-                .filter(task -> TaskUtil.isCrossing(taskToCheck, task))
-                .findFirst();
+        Optional<Task> taskCrossingWith = tasksByInterval.findCrossing(taskToCheck);
+        if (taskCrossingWith.isEmpty()) {
+            taskCrossingWith = recurringTasks.findCrossing(taskToCheck);
+        }
         if (taskCrossingWith.isPresent()) {
-            throw new InvalidTaskException("Задача пересекается по времени с уже имеющейся: " + taskCrossingWith.get());
+            long durationMinutes = (taskToCheck.getDuration() != null) ? taskToCheck.getDuration().toMinutes() : 0;
+            LocalDateTime freeSlot = findFreeSlot(taskToCheck.getStartTime(), durationMinutes);
+            throw new InvalidTaskException("Задача пересекается по времени с уже имеющейся: " + taskCrossingWith.get()
+                    + ". Ближайшее свободное время: " + freeSlot, freeSlot);
         }
         return taskCrossingWith.isEmpty();
     }
@@ -0,0 +1,582 @@
+package manager;
+
+import task.Task;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * Индекс интервалов выполнения задач (подзадач) для проверки пересечений по времени.
+ * Реализован как дерамида (декартово дерево), упорядоченная по дате/времени начала и id, где каждый узел хранит
+ * максимальную дату/время окончания в своем поддереве. Это позволяет отсекать поддеревья, заведомо не пересекающиеся
+ * с проверяемым интервалом, и отвечать на запрос о пересечении за O(log n).
+ * Кроме того, узел хранит границы дат/времени начала своего поддерева и наибольший свободный промежуток между
+ * соседними интервалами внутри него, что позволяет так же за O(log n) находить ближайшее свободное время.
+ * Агрегаты хранятся примитивами - секундами и наносекундами от начала эпохи, промежуток - целыми секундами, -
+ * и пересчитываются по примитивным полям задач, поэтому повороты и перестройка дерева объектов не создают.
+ *
+ * @author Николаев Д.В.
+ * @version 1.4
+ */
+public class IntervalIndex {
+    /**
+     * Порядок узлов в индексе: по дате/времени начала, при совпадении - по id.
+     */
+    private static final Comparator<Task> ORDER = ((Comparator<Task>) Task::compareStartTo)
+            .thenComparingInt(Task::getId);
+
+    /**
+     * Поле корня дерева.
+     */
+    private Node root;
+
+    /**
+     * Поле количества интервалов в индексе.
+     */
+    private int size;
+
+    /**
+     * Поле генератора приоритетов узлов, обеспечивающих сбалансированность дерева.
+     */
+    private final Random random = new Random();
+
+    /**
+     * Значение секунд незаданной даты/времени в параметрах поиска
+     */
+    private static final long NONE = Long.MIN_VALUE;
+
+    /**
+     * Класс узлов дерева интервалов
+     */
+    private static class Node {
+        /**
+         * Поле задачи (подзадачи), чей интервал выполнения хранится в узле.
+         */
+        private final Task task;
+        /**
+         * Поле приоритета узла в куче.
+         */
+        private final int priority;
+        /**
+         * Поля максимальной даты/времени окончания среди задач поддерева - секунды от начала эпохи и наносекунды.
+         */
+        private long maxEndSecond;
+        private int maxEndNano;
+        /**
+         * Поля минимальной даты/времени начала среди задач поддерева.
+         */
+        private long minStartSecond;
+        private int minStartNano;
+        /**
+         * Поля максимальной даты/времени начала среди задач поддерева.
+         */
+        private long maxStartSecond;
+        private int maxStartNano;
+        /**
+         * Поле наибольшего свободного промежутка между соседними по порядку начала интервалами поддерева, в целых
+         * секундах. Промежуток сравнивается только с продолжительностями в целых минутах, поэтому отброшенная
+         * дробная часть на результат не влияет.
+         */
+        private long maxGapSeconds;
+        /**
+         * Поле-ссылка на левое поддерево.
+         */
+        private Node left;
+        /**
+         * Поле-ссылка на правое поддерево.
+         */
+        private Node right;
+
+        /**
+         * Конструктор узла
+         *
+         * @param task     задача (подзадача) с заполненной датой/временем начала
+         * @param priority приоритет узла
+         */
+        private Node(Task task, int priority) {
+            this.task = task;
+            this.priority = priority;
+            this.maxEndSecond = endSecondOf(task);
+            this.maxEndNano = endNanoOf(task);
+            this.minStartSecond = task.getStartSecond();
+            this.minStartNano = task.getStartNano();
+            this.maxStartSecond = task.getStartSecond();
+            this.maxStartNano = task.getStartNano();
+        }
+    }
+
+    /**
+     * Метод получения секунд даты/времени окончания задачи для целей индекса. Задача без продолжительности
+     * рассматривается как точка на своей дате/времени начала.
+     *
+     * @param task задача (подзадача)
+     * @return секунды от начала эпохи окончания или начала, если окончание не рассчитывается
+     */
+    private static long endSecondOf(Task task) {
+        return hasLength(task) ? task.getEndSecond() : task.getStartSecond();
+    }
+
+    /**
+     * Метод получения наносекунд даты/времени окончания задачи для целей индекса
+     *
+     * @param task задача (подзадача)
+     * @return наносекунды окончания или начала, если окончание не рассчитывается
+     */
+    private static int endNanoOf(Task task) {
+        return hasLength(task) ? task.getEndNano() : task.getStartNano();
+    }
+
+    /**
+     * Метод проверки, что окончание задачи рассчитывается и позже ее начала
+     *
+     * @param task задача (подзадача)
+     * @return true - задача не точка
+     */
+    private static boolean hasLength(Task task) {
+        return task.hasEndTime() && compare(task.getEndSecond(), task.getEndNano(), task.getStartSecond(),
+                task.getStartNano()) > 0;
+    }
+
+    /**
+     * Метод сравнения дат/времени, заданных секундами от начала эпохи и наносекундами
+     *
+     * @param second1 секунды первой даты/времени
+     * @param nano1   наносекунды первой даты/времени
+     * @param second2 секунды второй даты/времени
+     * @param nano2   наносекунды второй даты/времени
+     * @return отрицательное число, ноль или положительное - первая раньше, равна или позже второй
+     */
+    private static int compare(long second1, int nano1, long second2, int nano2) {
+        int result = Long.compare(second1, second2);
+        return (result != 0) ? result : Integer.compare(nano1, nano2);
+    }
+
+    /**
+     * Метод получения свободного промежутка между датами/временем в целых секундах (с округлением вниз)
+     *
+     * @param fromSecond секунды начала промежутка
+     * @param fromNano   наносекунды начала промежутка
+     * @param toSecond   секунды конца промежутка
+     * @param toNano     наносекунды конца промежутка
+     * @return продолжительность промежутка, 0 - если промежутка нет
+     */
+    private static long gapSeconds(long fromSecond, int fromNano, long toSecond, int toNano) {
+        if (compare(fromSecond, fromNano, toSecond, toNano) >= 0) {
+            return 0;
+        }
+        return toSecond - fromSecond - ((toNano < fromNano) ? 1 : 0);
+    }
+
+    /**
+     * Метод построения даты/времени по секундам от начала эпохи и наносекундам
+     *
+     * @param second секунды
+     * @param nano   наносекунды
+     * @return дата/время
+     */
+    private static LocalDateTime toDateTime(long second, int nano) {
+        return LocalDateTime.ofEpochSecond(second, nano, ZoneOffset.UTC);
+    }
+
+    /**
+     * Метод пересчета агрегатов узла (границ дат/времени и наибольшего промежутка) по его потомкам.
+     *
+     * @param node узел для пересчета
+     */
+    private static void update(Node node) {
+        long startSecond = node.task.getStartSecond();
+        int startNano = node.task.getStartNano();
+        long maxEndSecond = endSecondOf(node.task);
+        int maxEndNano = endNanoOf(node.task);
+        long maxGapSeconds = 0;
+        node.minStartSecond = startSecond;
+        node.minStartNano = startNano;
+        node.maxStartSecond = startSecond;
+        node.maxStartNano = startNano;
+        Node left = node.left;
+        if (left != null) {
+            node.minStartSecond = left.minStartSecond;
+            node.minStartNano = left.minStartNano;
+            maxGapSeconds = Math.max(left.maxGapSeconds,
+                    gapSeconds(left.maxEndSecond, left.maxEndNano, startSecond, startNano));
+            if (compare(left.maxEndSecond, left.maxEndNano, maxEndSecond, maxEndNano) > 0) {
+                maxEndSecond = left.maxEndSecond;
+                maxEndNano = left.maxEndNano;
+            }
+        }
+        Node right = node.right;
+        if (right != null) {
+            node.maxStartSecond = right.maxStartSecond;
+            node.maxStartNano = right.maxStartNano;
+            maxGapSeconds = Math.max(maxGapSeconds, Math.max(right.maxGapSeconds,
+                    gapSeconds(maxEndSecond, maxEndNano, right.minStartSecond, right.minStartNano)));
+            if (compare(right.maxEndSecond, right.maxEndNano, maxEndSecond, maxEndNano) > 0) {
+                maxEndSecond = right.maxEndSecond;
+                maxEndNano = right.maxEndNano;
+            }
+        }
+        node.maxEndSecond = maxEndSecond;
+        node.maxEndNano = maxEndNano;
+        node.maxGapSeconds = maxGapSeconds;
+    }
+
+    /**
+     * Метод правого поворота поддерева
+     *
+     * @param node корень поддерева
+     * @return новый корень поддерева
+     */
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    /**
+     * Метод левого поворота поддерева
+     *
+     * @param node корень поддерева
+     * @return новый корень поддерева
+     */
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    /**
+     * Метод добавления задачи (подзадачи) в индекс. Задачи без даты/времени начала не индексируются.
+     *
+     * @param task задача (подзадача) для добавления
+     */
+    public void add(Task task) {
+        if (task != null && task.hasStartTime()) {
+            root = insert(root, task);
+        }
+    }
+
+    /**
+     * Метод рекурсивной вставки в поддерево с восстановлением свойства кучи по приоритетам
+     *
+     * @param node корень поддерева
+     * @param task задача (подзадача) для вставки
+     * @return новый корень поддерева
+     */
+    private Node insert(Node node, Task task) {
+        if (node == null) {
+            size++;
+            return new Node(task, random.nextInt());
+        }
+        int cmp = ORDER.compare(task, node.task);
+        if (cmp < 0) {
+            node.left = insert(node.left, task);
+            if (node.left.priority > node.priority) {
+                return rotateRight(node);
+            }
+        } else if (cmp > 0) {
+            node.right = insert(node.right, task);
+            if (node.right.priority > node.priority) {
+                return rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    /**
+     * Метод удаления задачи (подзадачи) из индекса. Поиск ведется по дате/времени начала и id переданного объекта,
+     * поэтому передавать нужно именно проиндексированную ранее версию задачи.
+     *
+     * @param task задача (подзадача) для удаления
+     */
+    public void remove(Task task) {
+        if (task != null && task.hasStartTime()) {
+            root = delete(root, task);
+        }
+    }
+
+    /**
+     * Метод рекурсивного удаления из поддерева
+     *
+     * @param node корень поддерева
+     * @param task задача (подзадача) для удаления
+     * @return новый корень поддерева
+     */
+    private Node delete(Node node, Task task) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = ORDER.compare(task, node.task);
+        if (cmp < 0) {
+            node.left = delete(node.left, task);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, task);
+        } else {
+            size--;
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    /**
+     * Метод слияния двух поддеревьев, все ключи левого из которых меньше ключей правого.
+     *
+     * @param left  левое поддерево
+     * @param right правое поддерево
+     * @return корень объединенного дерева
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        } else {
+            right.left = merge(left, right.left);
+            update(right);
+            return right;
+        }
+    }
+
+    /**
+     * Метод удаления всех задач (подзадач), удовлетворяющих условию. Вместо поэлементного удаления с перестройкой
+     * поддеревьев оставшиеся задачи собираются за один обход и дерево строится из них заново за O(n).
+     *
+     * @param filter условие удаления
+     * @return количество удаленных задач
+     */
+    public int removeIf(Predicate<? super Task> filter) {
+        List<Task> kept = new ArrayList<>(size);
+        collect(root, filter, kept);
+        int removed = size - kept.size();
+        if (removed > 0) {
+            root = build(kept);
+            size = kept.size();
+        }
+        return removed;
+    }
+
+    /**
+     * Метод обхода поддерева по порядку с отбором задач, не удовлетворяющих условию удаления
+     *
+     * @param node   корень поддерева
+     * @param filter условие удаления
+     * @param kept   накопитель оставляемых задач
+     */
+    private static void collect(Node node, Predicate<? super Task> filter, List<Task> kept) {
+        if (node == null) {
+            return;
+        }
+        collect(node.left, filter, kept);
+        if (!filter.test(node.task)) {
+            kept.add(node.task);
+        }
+        collect(node.right, filter, kept);
+    }
+
+    /**
+     * Метод построения дерева из упорядоченных задач за O(n): узлы с новыми приоритетами добавляются на правую
+     * границу дерева, стек которой хранит путь от корня к последнему узлу.
+     *
+     * @param sorted задачи в порядке {@link IntervalIndex#ORDER}
+     * @return корень построенного дерева
+     */
+    private Node build(List<Task> sorted) {
+        Node[] rightSpine = new Node[sorted.size()];
+        int top = 0;
+        for (Task task : sorted) {
+            Node node = new Node(task, random.nextInt());
+            Node lastPopped = null;
+            while (top > 0 && rightSpine[top - 1].priority < node.priority) {
+                lastPopped = rightSpine[--top];
+            }
+            node.left = lastPopped;
+            if (top > 0) {
+                rightSpine[top - 1].right = node;
+            }
+            rightSpine[top++] = node;
+        }
+        Node built = (top > 0) ? rightSpine[0] : null;
+        updateAll(built);
+        return built;
+    }
+
+    /**
+     * Метод пересчета агрегатов всех узлов поддерева снизу вверх
+     *
+     * @param node корень поддерева
+     */
+    private static void updateAll(Node node) {
+        if (node != null) {
+            updateAll(node.left);
+            updateAll(node.right);
+            update(node);
+        }
+    }
+
+    /**
+     * Метод поиска задачи (подзадачи), пересекающейся по времени с проверяемой согласно {@link TaskUtil#isCrossing}.
+     * Задачи с тем же id, что и у проверяемой, не учитываются.
+     *
+     * @param taskToCheck задача (подзадача) для проверки
+     * @return Опционал первой найденной пересекающейся задачи
+     */
+    public Optional<Task> findCrossing(Task taskToCheck) {
+        if (taskToCheck == null || !taskToCheck.hasStartTime()) {
+            return Optional.empty();
+        }
+        Node node = findNode(root, taskToCheck, taskToCheck.getStartSecond(), taskToCheck.getStartNano(),
+                endSecondOf(taskToCheck), endNanoOf(taskToCheck));
+        return (node != null) ? Optional.of(node.task) : Optional.empty();
+    }
+
+    /**
+     * Метод рекурсивного поиска пересекающегося узла в поддереве
+     *
+     * @param node        корень поддерева
+     * @param taskToCheck задача (подзадача) для проверки
+     * @param fromSecond  секунды даты/времени начала проверяемой задачи
+     * @param fromNano    наносекунды даты/времени начала проверяемой задачи
+     * @param toSecond    секунды даты/времени окончания проверяемой задачи
+     * @param toNano      наносекунды даты/времени окончания проверяемой задачи
+     * @return узел пересекающейся задачи или null
+     */
+    private static Node findNode(Node node, Task taskToCheck, long fromSecond, int fromNano, long toSecond,
+                                 int toNano) {
+        // Пересечение возможно только с узлами, чье окончание не раньше начала проверяемой задачи
+        if (node == null || compare(node.maxEndSecond, node.maxEndNano, fromSecond, fromNano) < 0) {
+            return null;
+        }
+        Node result = findNode(node.left, taskToCheck, fromSecond, fromNano, toSecond, toNano);
+        if (result != null) {
+            return result;
+        }
+        if (node.task.getId() != taskToCheck.getId() && TaskUtil.isCrossing(taskToCheck, node.task)) {
+            return node;
+        }
+        // Правее лежат только задачи, начинающиеся не раньше текущей
+        if (compare(node.task.getStartSecond(), node.task.getStartNano(), toSecond, toNano) <= 0) {
+            return findNode(node.right, taskToCheck, fromSecond, fromNano, toSecond, toNano);
+        }
+        return null;
+    }
+
+    /**
+     * Метод поиска ближайшего свободного времени: самой ранней даты/времени начала не раньше заданной, с которой
+     * задача заданной продолжительности ни с чем не пересекается согласно {@link TaskUtil#isCrossing}.
+     * Задачи без продолжительности считаются занятыми точками, поэтому свободное время через них не проходит.
+     * Свободное время находится всегда - в крайнем случае это окончание последней задачи расписания.
+     *
+     * @param notBefore       дата/время, раньше которой начинать нельзя
+     * @param durationMinutes продолжительность в минутах
+     * @return дата/время начала свободного времени
+     */
+    public LocalDateTime findFreeSlot(LocalDateTime notBefore, long durationMinutes) {
+        long minutes = Math.max(durationMinutes, 0);
+        LocalDateTime from = notBefore;
+        while (true) {
+            long fromSecond = from.toEpochSecond(ZoneOffset.UTC);
+            int fromNano = from.getNano();
+            LocalDateTime slot = findGap(root, fromSecond, fromNano, minutes * 60, NONE, 0);
+            if (slot == null) {
+                slot = (root == null || compare(root.maxEndSecond, root.maxEndNano, fromSecond, fromNano) <= 0)
+                        ? from : toDateTime(root.maxEndSecond, root.maxEndNano);
+            }
+            // Промежуток может начаться ровно с задачи без продолжительности (или нулевой промежуток - с начала
+            // задачи), что по правилам пересечения запрещено: тогда ищем дальше, с окончания задачи или со следующей
+            // минуты - продолжительности в трекере задаются в минутах
+            Task probe = new Task("", "", 0, minutes, slot);
+            Optional<Task> crossing = findCrossing(probe);
+            if (crossing.isEmpty()) {
+                return slot;
+            }
+            Task crossingTask = crossing.get();
+            LocalDateTime crossingEnd = toDateTime(endSecondOf(crossingTask), endNanoOf(crossingTask));
+            from = crossingEnd.isAfter(slot) ? crossingEnd : slot.plusMinutes(1);
+        }
+    }
+
+    /**
+     * Метод рекурсивного поиска самого раннего подходящего промежутка перед интервалами поддерева.
+     * Поддерево пропускается, если все его интервалы начинаются слишком рано или ни один промежуток в нем
+     * не вмещает заданную продолжительность.
+     *
+     * @param node          корень поддерева
+     * @param fromSecond    секунды даты/времени, раньше которой начинать нельзя
+     * @param fromNano      наносекунды даты/времени, раньше которой начинать нельзя
+     * @param duration      требуемая продолжительность, сек.
+     * @param prevEndSecond секунды максимальной даты/времени окончания интервалов левее поддерева,
+     *                      {@link IntervalIndex#NONE} - таких нет
+     * @param prevEndNano   наносекунды максимальной даты/времени окончания интервалов левее поддерева
+     * @return дата/время начала промежутка или null, если в поддереве его нет
+     */
+    private static LocalDateTime findGap(Node node, long fromSecond, int fromNano, long duration, long prevEndSecond,
+                                         int prevEndNano) {
+        if (node == null || compare(node.maxStartSecond, node.maxStartNano, fromSecond + duration, fromNano) < 0) {
+            return null;
+        }
+        boolean afterPrev = prevEndSecond != NONE
+                && compare(prevEndSecond, prevEndNano, fromSecond, fromNano) > 0;
+        long firstGap = afterPrev
+                ? gapSeconds(prevEndSecond, prevEndNano, node.minStartSecond, node.minStartNano)
+                : gapSeconds(fromSecond, fromNano, node.minStartSecond, node.minStartNano);
+        if (Math.max(firstGap, node.maxGapSeconds) < duration) {
+            return null;
+        }
+        LocalDateTime result = findGap(node.left, fromSecond, fromNano, duration, prevEndSecond, prevEndNano);
+        if (result != null) {
+            return result;
+        }
+        long runEndSecond = prevEndSecond;
+        int runEndNano = prevEndNano;
+        Node left = node.left;
+        if (left != null && (runEndSecond == NONE
+                || compare(left.maxEndSecond, left.maxEndNano, runEndSecond, runEndNano) > 0)) {
+            runEndSecond = left.maxEndSecond;
+            runEndNano = left.maxEndNano;
+        }
+        boolean fromRunEnd = runEndSecond != NONE && compare(runEndSecond, runEndNano, fromSecond, fromNano) > 0;
+        long slotSecond = fromRunEnd ? runEndSecond : fromSecond;
+        int slotNano = fromRunEnd ? runEndNano : fromNano;
+        if (compare(slotSecond + duration, slotNano, node.task.getStartSecond(), node.task.getStartNano()) <= 0) {
+            return toDateTime(slotSecond, slotNano);
+        }
+        long nodeEndSecond = endSecondOf(node.task);
+        int nodeEndNano = endNanoOf(node.task);
+        if (runEndSecond == NONE || compare(nodeEndSecond, nodeEndNano, runEndSecond, runEndNano) > 0) {
+            runEndSecond = nodeEndSecond;
+            runEndNano = nodeEndNano;
+        }
+        return findGap(node.right, fromSecond, fromNano, duration, runEndSecond, runEndNano);
+    }
+
+    /**
+     * Метод очистки индекса
+     */
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+}
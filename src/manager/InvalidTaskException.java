@@ -1,7 +1,23 @@
 package manager;
 
+import java.time.LocalDateTime;
+
 public class InvalidTaskException extends RuntimeException {
+    /**
+     * Поле ближайшего свободного времени, на которое можно перенести задачу; null - не определено
+     */
+    private final LocalDateTime freeSlot;
+
     public InvalidTaskException(final String message) {
+        this(message, null);
+    }
+
+    public InvalidTaskException(final String message, final LocalDateTime freeSlot) {
         super(message);
+        this.freeSlot = freeSlot;
+    }
+
+    public LocalDateTime getFreeSlot() {
+        return freeSlot;
     }
 }
@@ -0,0 +1,170 @@
+package manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Генератор идентификаторов, арендующий диапазоны id блоками в общем служебном файле. В файле хранится первый еще
+ * не арендованный id: чтобы взять блок, генератор под блокировкой файла читает его и записывает сдвинутым на размер
+ * блока. Поэтому несколько менеджеров (в том числе в разных процессах) с одним файлом выдают непересекающиеся id,
+ * а при запуске не нужно искать максимальный id среди загруженных задач - следующий блок все равно начнется после
+ * всех арендованных ранее. Внутри блока id выдаются атомарным счетчиком без блокировок; блокировка берется только
+ * на аренду следующего блока. Неиспользованный остаток блока при остановке пропадает.
+ *
+ * @author Николаев Д.В.
+ * @version 1.1
+ */
+public class LeasedIdAllocator implements IdAllocator {
+    /**
+     * Размер блока по умолчанию
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1000;
+
+    /**
+     * Поле служебного файла аренды
+     */
+    private final File file;
+
+    /**
+     * Поле размера арендуемого блока
+     */
+    private final int blockSize;
+
+    /**
+     * Поле текущего арендованного блока; до первой выдачи - пустой
+     */
+    private volatile Lease lease = new Lease(0, 0);
+
+    /**
+     * Класс арендованного блока id [next, end)
+     */
+    private static final class Lease {
+        /**
+         * Поле следующего id к выдаче
+         */
+        private final AtomicInteger next;
+        /**
+         * Поле первого id за пределами блока
+         */
+        private final int end;
+
+        private Lease(int start, int end) {
+            this.next = new AtomicInteger(start);
+            this.end = end;
+        }
+    }
+
+    /**
+     * Конструктор генератора с блоком по умолчанию {@link LeasedIdAllocator#DEFAULT_BLOCK_SIZE}
+     *
+     * @param file служебный файл аренды; создается при первой аренде
+     */
+    public LeasedIdAllocator(File file) {
+        this(file, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Конструктор генератора
+     *
+     * @param file      служебный файл аренды; создается при первой аренде
+     * @param blockSize размер арендуемого блока
+     */
+    public LeasedIdAllocator(File file, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Размер блока id должен быть положительным: " + blockSize);
+        }
+        this.file = file;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public int nextId() {
+        while (true) {
+            Lease current = lease;
+            int id = current.next.getAndIncrement();
+            if (id < current.end) {
+                return id;
+            }
+            renew(current, 0);
+        }
+    }
+
+    /**
+     * Метод учета занятого id. Если он попадает в еще не выданную часть текущего блока, выдача сдвигается за него,
+     * если лежит за блоком - арендуется новый блок после него.
+     *
+     * @param id занятый id
+     */
+    @Override
+    public void reserve(int id) {
+        while (true) {
+            Lease current = lease;
+            if (id < current.end) {
+                current.next.accumulateAndGet(id + 1, Math::max);
+                return;
+            }
+            renew(current, id + 1);
+        }
+    }
+
+    /**
+     * Метод замены исчерпанного блока новым. Если блок уже заменил другой поток, ничего не делает.
+     *
+     * @param exhausted исчерпанный блок
+     * @param minStart  наименьшее допустимое начало нового блока
+     */
+    private synchronized void renew(Lease exhausted, int minStart) {
+        if (lease == exhausted) {
+            lease = leaseBlock(minStart);
+        }
+    }
+
+    /**
+     * Метод аренды блока в служебном файле. Блокировка файла защищает от других процессов, а блокировка класса -
+     * от генераторов этого же процесса, которым блокировка файла не помешала бы.
+     *
+     * @param minStart наименьшее допустимое начало блока
+     * @return арендованный блок
+     */
+    private Lease leaseBlock(int minStart) {
+        synchronized (LeasedIdAllocator.class) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.CREATE)) {
+                FileLock lock = channel.lock();
+                try {
+                    ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES);
+                    int start = 1;
+                    if (channel.read(buffer, 0) == Integer.BYTES) {
+                        start = buffer.getInt(0);
+                    }
+                    start = Math.max(start, minStart);
+                    int end = Math.addExact(start, blockSize);
+                    buffer.putInt(0, end);
+                    buffer.rewind();
+                    channel.write(buffer, 0);
+                    channel.force(true);
+                    return new Lease(start, end);
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException e) {
+                throw new ManagerSaveException("Произошла ошибка во время аренды блока id в файле " + file + ".");
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        Lease current = lease;
+        return "LeasedIdAllocator{" +
+                "file=" + file +
+                ", next=" + current.next +
+                ", end=" + current.end +
+                '}';
+    }
+}
@@ -1,10 +1,12 @@
 package manager;
 
+import java.nio.file.Path;
+
 /**
  * Утилитарный класс менеджеров
  *
  * @author Николаев Д.В.
- * @version 1.0
+ * @version 1.4
  */
 public class Managers {
     /**
@@ -16,6 +18,46 @@ public class Managers {
         return new InMemoryTaskManager();
     }
 
+    /**
+     * Метод получения менеджера {@link InMemoryTaskManager}, хранящего задачи и подзадачи вне кучи в
+     * {@link OffHeapTaskStore}
+     *
+     * @return Объект класса InMemoryTaskManager
+     */
+    public static TaskManager getOffHeap() {
+        return new InMemoryTaskManager(getDefaultHistory(), new OffHeapTaskStore<>(), new OffHeapTaskStore<>());
+    }
+
+    /**
+     * Метод получения менеджера {@link InMemoryTaskManager}, выгружающего холодные выполненные задачи и подзадачи
+     * на диск в {@link TieredTaskStore}
+     *
+     * @param directory каталог файлов сегментов
+     * @return Объект класса InMemoryTaskManager
+     */
+    public static TaskManager getTiered(Path directory) {
+        return new InMemoryTaskManager(getDefaultHistory(), new TieredTaskStore<>(directory.resolve("tasks.segment")),
+                new TieredTaskStore<>(directory.resolve("subtasks.segment")));
+    }
+
+    /**
+     * Метод получения потокобезопасного менеджера работы с объектами учета {@link ConcurrentTaskManager}
+     *
+     * @return Объект класса ConcurrentTaskManager
+     */
+    public static TaskManager getConcurrent() {
+        return new ConcurrentTaskManager();
+    }
+
+    /**
+     * Метод получения потокобезопасного менеджера {@link ShardedTaskManager}, разделенного на шарды по числу процессоров
+     *
+     * @return Объект класса ShardedTaskManager
+     */
+    public static TaskManager getSharded() {
+        return new ShardedTaskManager();
+    }
+
     /**
      * Метод получения менеджера истории просмотра объектов учета (задач, подзадач, эпиков) {@link InMemoryHistoryManager}
      *
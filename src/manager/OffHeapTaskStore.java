@@ -0,0 +1,506 @@
+package manager;
+
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+import util.IntObjectMap;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Хранилище задач (подзадач) вне кучи. Поля задачи фиксированной ширины (id, тип, статус, id эпика, продолжительность,
+ * дата/время начала, смещения и длины строк) лежат записями в прямом (direct) буфере, названия и описания - в UTF-8
+ * в отдельном буфере строк, а позиции записей по id - в хеш-таблице с открытой адресацией, тоже вне кучи.
+ * Объекты {@link Task}, {@link Subtask} создаются только при выдаче из хранилища, поэтому объем кучи не зависит
+ * от количества хранимых задач, а сборщику мусора нечего в них обходить.
+ * Порядок обхода и уплотнение удаленных записей - как в {@link util.IntObjectMap}. Освобожденное место в буфере
+ * строк переиспользуется при его уплотнении, когда больше половины буфера занято удаленными строками.
+ *
+ * @param <T> тип хранимых задач: {@link Task} или {@link Subtask}
+ * @author Николаев Д.В.
+ * @version 1.2
+ */
+public class OffHeapTaskStore<T extends Task> implements TaskStore<T> {
+    /**
+     * Начальная емкость буфера записей, записей
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Начальная емкость буфера строк, байт
+     */
+    private static final int INITIAL_STRINGS_CAPACITY = 1024;
+
+    /**
+     * Размер записи задачи, байт
+     */
+    private static final int RECORD_SIZE = 48;
+
+    /**
+     * Смещения полей в записи задачи
+     */
+    private static final int ID = 0;
+    private static final int TYPE = 4;
+    private static final int STATUS = 5;
+    private static final int EPIC_ID = 8;
+    private static final int START_NANO = 12;
+    private static final int START_SECOND = 16;
+    private static final int DURATION = 24;
+    private static final int NAME_OFFSET = 32;
+    private static final int NAME_LENGTH = 36;
+    private static final int DESCRIPTION_OFFSET = 40;
+    private static final int DESCRIPTION_LENGTH = 44;
+
+    /**
+     * Значения поля типа записи: удаленная запись, задача, подзадача
+     */
+    private static final byte TYPE_DELETED = 0;
+    private static final byte TYPE_TASK = 1;
+    private static final byte TYPE_SUBTASK = 2;
+
+    /**
+     * Значения полей для незаданных продолжительности, даты/времени начала и строк
+     */
+    private static final long NO_DURATION = Long.MIN_VALUE;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final int NO_STRING = -1;
+
+    /**
+     * Поле буфера записей в порядке добавления
+     */
+    private ByteBuffer records;
+
+    /**
+     * Поле хеш-таблицы позиций записей: позиция в {@link OffHeapTaskStore#records} + 1, 0 - свободная ячейка
+     */
+    private ByteBuffer slots;
+
+    /**
+     * Поле количества ячеек хеш-таблицы (степень двойки)
+     */
+    private int slotCount;
+
+    /**
+     * Поле буфера строк
+     */
+    private ByteBuffer strings;
+
+    /**
+     * Поле количества занятых позиций буфера записей, включая удаленные
+     */
+    private int used;
+
+    /**
+     * Поле количества задач в хранилище
+     */
+    private int size;
+
+    /**
+     * Поле количества занятых байт буфера строк, включая удаленные строки
+     */
+    private int stringsUsed;
+
+    /**
+     * Поле количества байт удаленных строк
+     */
+    private int stringsGarbage;
+
+    /**
+     * Конструктор пустого хранилища
+     */
+    public OffHeapTaskStore() {
+        reset();
+    }
+
+    private int capacity() {
+        return records.capacity() / RECORD_SIZE;
+    }
+
+    private int slotAt(int i) {
+        return slots.getInt(i * Integer.BYTES);
+    }
+
+    private void setSlot(int i, int value) {
+        slots.putInt(i * Integer.BYTES, value);
+    }
+
+    private int recordId(int position) {
+        return records.getInt(position * RECORD_SIZE + ID);
+    }
+
+    private boolean isLive(int position) {
+        return records.get(position * RECORD_SIZE + TYPE) != TYPE_DELETED;
+    }
+
+    /**
+     * Метод поиска ячейки хеш-таблицы, занятой записью с id
+     *
+     * @param id искомый id
+     * @return индекс ячейки или -1, если записи нет
+     */
+    private int findSlot(int id) {
+        int mask = slotCount - 1;
+        int i = IntObjectMap.hash(id) & mask;
+        while (slotAt(i) != 0) {
+            if (recordId(slotAt(i) - 1) == id) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Метод записи позиции записи в первую свободную ячейку хеш-таблицы
+     *
+     * @param position позиция записи в {@link OffHeapTaskStore#records}
+     */
+    private void insertSlot(int position) {
+        int mask = slotCount - 1;
+        int i = IntObjectMap.hash(recordId(position)) & mask;
+        while (slotAt(i) != 0) {
+            i = (i + 1) & mask;
+        }
+        setSlot(i, position + 1);
+    }
+
+    /**
+     * Метод перестроения буфера записей без удаленных и хеш-таблицы заданной емкости
+     *
+     * @param capacity новая емкость буфера записей
+     */
+    private void rebuild(int capacity) {
+        ByteBuffer newRecords = ByteBuffer.allocateDirect(capacity * RECORD_SIZE);
+        int position = 0;
+        for (int i = 0; i < used; i++) {
+            if (isLive(i)) {
+                newRecords.put(position * RECORD_SIZE, records, i * RECORD_SIZE, RECORD_SIZE);
+                position++;
+            }
+        }
+        records = newRecords;
+        used = position;
+        slotCount = capacity * 2;
+        slots = ByteBuffer.allocateDirect(slotCount * Integer.BYTES);
+        for (int i = 0; i < used; i++) {
+            insertSlot(i);
+        }
+    }
+
+    /**
+     * Метод резервирования места в буфере строк: сначала уплотнением, если удаленных строк больше половины,
+     * затем расширением
+     *
+     * @param length требуемое количество байт
+     */
+    private void ensureStrings(int length) {
+        if (stringsUsed + length <= strings.capacity()) {
+            return;
+        }
+        int live = stringsUsed - stringsGarbage;
+        int capacity = strings.capacity();
+        while (live + length > capacity / 2) {
+            capacity *= 2;
+        }
+        ByteBuffer newStrings = ByteBuffer.allocateDirect(capacity);
+        int offset = 0;
+        for (int i = 0; i < used; i++) {
+            if (isLive(i)) {
+                offset = moveString(newStrings, offset, i * RECORD_SIZE + NAME_OFFSET, i * RECORD_SIZE + NAME_LENGTH);
+                offset = moveString(newStrings, offset, i * RECORD_SIZE + DESCRIPTION_OFFSET,
+                        i * RECORD_SIZE + DESCRIPTION_LENGTH);
+            }
+        }
+        strings = newStrings;
+        stringsUsed = offset;
+        stringsGarbage = 0;
+    }
+
+    /**
+     * Метод переноса строки записи в новый буфер строк с обновлением ее смещения в записи
+     *
+     * @param target       новый буфер строк
+     * @param offset       смещение для строки в новом буфере
+     * @param offsetField  позиция поля смещения строки в буфере записей
+     * @param lengthField  позиция поля длины строки в буфере записей
+     * @return смещение после перенесенной строки
+     */
+    private int moveString(ByteBuffer target, int offset, int offsetField, int lengthField) {
+        int length = records.getInt(lengthField);
+        if (length > 0) {
+            target.put(offset, strings, records.getInt(offsetField), length);
+        }
+        records.putInt(offsetField, offset);
+        return offset + Math.max(length, 0);
+    }
+
+    /**
+     * Метод добавления строки в конец буфера строк
+     *
+     * @param bytes строка в UTF-8 или null
+     * @return смещение строки в буфере
+     */
+    private int appendString(byte[] bytes) {
+        int offset = stringsUsed;
+        if (bytes != null) {
+            strings.put(offset, bytes);
+            stringsUsed += bytes.length;
+        }
+        return offset;
+    }
+
+    /**
+     * Метод чтения строки из буфера строк
+     *
+     * @param offset смещение строки
+     * @param length длина строки в байтах или {@link OffHeapTaskStore#NO_STRING}
+     * @return строка или null
+     */
+    private String readString(int offset, int length) {
+        if (length == NO_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        strings.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Метод учета строк записи как удаленных
+     *
+     * @param position позиция записи
+     */
+    private void releaseStrings(int position) {
+        int base = position * RECORD_SIZE;
+        stringsGarbage += Math.max(records.getInt(base + NAME_LENGTH), 0)
+                + Math.max(records.getInt(base + DESCRIPTION_LENGTH), 0);
+    }
+
+    /**
+     * Метод записи полей задачи в запись буфера
+     *
+     * @param position позиция записи
+     * @param task     задача (подзадача)
+     */
+    private void write(int position, Task task) {
+        byte[] name = (task.getName() != null) ? task.getName().getBytes(StandardCharsets.UTF_8) : null;
+        byte[] description = (task.getDescription() != null)
+                ? task.getDescription().getBytes(StandardCharsets.UTF_8) : null;
+        ensureStrings(((name != null) ? name.length : 0) + ((description != null) ? description.length : 0));
+
+        int base = position * RECORD_SIZE;
+        records.putInt(base + NAME_OFFSET, appendString(name));
+        records.putInt(base + NAME_LENGTH, (name != null) ? name.length : NO_STRING);
+        records.putInt(base + DESCRIPTION_OFFSET, appendString(description));
+        records.putInt(base + DESCRIPTION_LENGTH, (description != null) ? description.length : NO_STRING);
+
+        records.putInt(base + ID, task.getId());
+        records.put(base + STATUS, (byte) task.getStatus().ordinal());
+        if (task instanceof Subtask subtask) {
+            records.put(base + TYPE, TYPE_SUBTASK);
+            records.putInt(base + EPIC_ID, subtask.getEpicId());
+        } else {
+            records.put(base + TYPE, TYPE_TASK);
+            records.putInt(base + EPIC_ID, 0);
+        }
+        records.putLong(base + DURATION, (task.getDuration() != null) ? task.getDuration().toMinutes() : NO_DURATION);
+        LocalDateTime startTime = task.getStartTime();
+        records.putLong(base + START_SECOND, (startTime != null) ? startTime.toEpochSecond(ZoneOffset.UTC) : NO_TIME);
+        records.putInt(base + START_NANO, (startTime != null) ? startTime.getNano() : 0);
+    }
+
+    /**
+     * Метод восстановления объекта задачи (подзадачи) из записи буфера
+     *
+     * @param position позиция записи
+     * @return новый объект задачи (подзадачи)
+     */
+    @SuppressWarnings("unchecked")
+    private T read(int position) {
+        int base = position * RECORD_SIZE;
+        String name = readString(records.getInt(base + NAME_OFFSET), records.getInt(base + NAME_LENGTH));
+        String description = readString(records.getInt(base + DESCRIPTION_OFFSET),
+                records.getInt(base + DESCRIPTION_LENGTH));
+        int id = records.getInt(base + ID);
+        TaskStatus status = TaskStatus.values()[records.get(base + STATUS)];
+        long duration = records.getLong(base + DURATION);
+        long startSecond = records.getLong(base + START_SECOND);
+        Long durationMinutes = (duration != NO_DURATION) ? duration : null;
+        LocalDateTime startTime = (startSecond != NO_TIME)
+                ? LocalDateTime.ofEpochSecond(startSecond, records.getInt(base + START_NANO), ZoneOffset.UTC) : null;
+
+        if (records.get(base + TYPE) == TYPE_SUBTASK) {
+            return (T) new Subtask(name, description, id, status, records.getInt(base + EPIC_ID), durationMinutes,
+                    startTime);
+        }
+        return (T) new Task(name, description, id, status, durationMinutes, startTime);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(int id) {
+        return findSlot(id) >= 0;
+    }
+
+    /**
+     * Метод получения задачи по id. Каждый вызов создает новый объект.
+     *
+     * @param id id задачи
+     * @return задача или null, если ее нет
+     */
+    @Override
+    public T get(int id) {
+        int i = findSlot(id);
+        return (i >= 0) ? read(slotAt(i) - 1) : null;
+    }
+
+    /**
+     * Метод добавления или замены задачи. Хранилище копирует поля задачи, сам объект не сохраняется.
+     *
+     * @param id   id задачи
+     * @param task задача, не null
+     * @return прежняя версия задачи или null, если ее не было
+     */
+    @Override
+    public T put(int id, T task) {
+        if (task == null) {
+            throw new NullPointerException("Задача хранилища не может быть null.");
+        }
+        int i = findSlot(id);
+        if (i >= 0) {
+            int position = slotAt(i) - 1;
+            T previous = read(position);
+            int garbage = stringsGarbage;
+            releaseStrings(position);
+            // Прежние строки еще живы на случай уплотнения буфера строк при записи новых
+            int released = stringsGarbage - garbage;
+            stringsGarbage = garbage;
+            write(position, task);
+            stringsGarbage += released;
+            return previous;
+        }
+        if (used == capacity()) {
+            // Если удаленных много, достаточно уплотнить буфер, иначе расширяем его
+            rebuild(size * 2 <= used ? capacity() : capacity() * 2);
+        }
+        write(used, task);
+        insertSlot(used);
+        used++;
+        size++;
+        return null;
+    }
+
+    /**
+     * Метод удаления задачи по id - со сдвигом ячеек цепочки хеш-таблицы, как в {@link util.IntObjectMap}
+     *
+     * @param id id задачи
+     * @return удаленная задача или null, если ее не было
+     */
+    @Override
+    public T remove(int id) {
+        int i = findSlot(id);
+        if (i < 0) {
+            return null;
+        }
+        int position = slotAt(i) - 1;
+        T previous = read(position);
+        releaseStrings(position);
+        records.put(position * RECORD_SIZE + TYPE, TYPE_DELETED);
+        size--;
+
+        int mask = slotCount - 1;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (slotAt(j) == 0) {
+                break;
+            }
+            int home = IntObjectMap.hash(recordId(slotAt(j) - 1)) & mask;
+            // Переносим ячейку j на место i, если ее исходная позиция не лежит циклически в (i, j]
+            boolean between = (i <= j) ? (i < home && home <= j) : (i < home || home <= j);
+            if (!between) {
+                setSlot(i, slotAt(j));
+                i = j;
+            }
+        }
+        setSlot(i, 0);
+
+        while (used > 0 && !isLive(used - 1)) {
+            used--;
+        }
+        if (used > INITIAL_CAPACITY && size * 4 < used) {
+            rebuild(capacity());
+        }
+        return previous;
+    }
+
+    /**
+     * Метод очистки хранилища с освобождением буферов
+     */
+    @Override
+    public void clear() {
+        reset();
+    }
+
+    /**
+     * Метод выделения пустых буферов - для конструктора и {@link OffHeapTaskStore#clear()}
+     */
+    private void reset() {
+        records = ByteBuffer.allocateDirect(INITIAL_CAPACITY * RECORD_SIZE);
+        slotCount = INITIAL_CAPACITY * 2;
+        slots = ByteBuffer.allocateDirect(slotCount * Integer.BYTES);
+        strings = ByteBuffer.allocateDirect(INITIAL_STRINGS_CAPACITY);
+        used = 0;
+        size = 0;
+        stringsUsed = 0;
+        stringsGarbage = 0;
+    }
+
+    /**
+     * Метод обхода задач в порядке добавления; для каждой создается новый объект
+     *
+     * @param action действие над каждой задачей
+     */
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        for (int i = 0; i < used; i++) {
+            if (isLive(i)) {
+                action.accept(read(i));
+            }
+        }
+    }
+
+    @Override
+    public List<T> values() {
+        List<T> result = new ArrayList<>(size);
+        forEach(result::add);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("{");
+        forEach(task -> {
+            if (result.length() > 1) {
+                result.append(", ");
+            }
+            result.append(task.getId()).append('=').append(task);
+        });
+        return result.append('}').toString();
+    }
+}
@@ -0,0 +1,321 @@
+package manager;
+
+import task.RecurringTask;
+import task.Task;
+import util.IntObjectMap;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Расписание повторяющихся задач {@link RecurringTask}. Хранятся только правила, а не повторения: ежедневная задача
+ * занимает одну запись, сколько бы повторений у нее ни было. Пересечение задачи с правилом проверяется за O(1) -
+ * по номеру ближайшего повторения, а повторения для окна времени строятся только при выборке и сливаются
+ * по порядку начала.
+ *
+ * @author Николаев Д.В.
+ * @version 1.0
+ */
+public class RecurringSchedule {
+    /**
+     * Поле правил по id
+     */
+    private final IntObjectMap<RecurringTask> rules = new IntObjectMap<>();
+
+    /**
+     * Метод занесения правила. Прежнее правило с тем же id заменяется.
+     *
+     * @param rule повторяющаяся задача
+     */
+    public void put(RecurringTask rule) {
+        rules.put(rule.getId(), rule);
+    }
+
+    /**
+     * Метод исключения правила
+     *
+     * @param id id повторяющейся задачи
+     * @return исключенное правило или null, если его не было
+     */
+    public RecurringTask remove(int id) {
+        return rules.remove(id);
+    }
+
+    /**
+     * Метод получения правила
+     *
+     * @param id id повторяющейся задачи
+     * @return правило или null
+     */
+    public RecurringTask get(int id) {
+        return rules.get(id);
+    }
+
+    /**
+     * Метод получения всех правил
+     *
+     * @return List<RecurringTask> правила по возрастанию id
+     */
+    public List<RecurringTask> values() {
+        List<RecurringTask> values = new ArrayList<>(rules.values());
+        values.sort(TaskUtil.BY_ID);
+        return values;
+    }
+
+    public boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    public int size() {
+        return rules.size();
+    }
+
+    /**
+     * Метод очистки расписания
+     */
+    public void clear() {
+        rules.clear();
+    }
+
+    /**
+     * Метод поиска повторения, пересекающегося с задачей согласно {@link TaskUtil#isCrossing}. Правило с тем же id,
+     * что и у задачи, не учитывается.
+     *
+     * @param task задача (подзадача)
+     * @return Опционал первого найденного пересекающегося повторения
+     */
+    public Optional<Task> findCrossing(Task task) {
+        if (task == null || !task.hasStartTime()) {
+            return Optional.empty();
+        }
+        Task[] found = new Task[1];
+        rules.forEach(rule -> {
+            if (found[0] == null && rule.getId() != task.getId()) {
+                found[0] = findCrossing(rule, task);
+            }
+        });
+        return Optional.ofNullable(found[0]);
+    }
+
+    /**
+     * Метод поиска повторения правила, пересекающегося с задачей. Повторения не пересекаются друг с другом, поэтому
+     * проверять нужно только первое, которое заканчивается не раньше начала задачи, и следующее за ним: если и оно
+     * не пересекается, то начинается не раньше окончания задачи, как и все дальнейшие.
+     *
+     * @param rule повторяющаяся задача
+     * @param task задача (подзадача) с датой/временем начала
+     * @return пересекающееся повторение или null
+     */
+    static Task findCrossing(RecurringTask rule, Task task) {
+        long count = rule.getOccurrenceCount();
+        long first = rule.firstEndingNotBefore(task.getStartTime());
+        for (long index = first; index < count && index <= first + 1; index++) {
+            Task occurrence = rule.getOccurrence(index);
+            if (TaskUtil.isCrossing(task, occurrence)) {
+                return occurrence;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Метод поиска повторения другого правила, пересекающегося с повторениями заданного. Если оба правила
+     * бессрочные, разности их начал пробегают все значения вида (разность первых начал + k * НОД периодов), и
+     * пересечение определяется по тому, попадает ли такое значение в допустимый промежуток. Иначе перебираются
+     * повторения ограниченного правила внутри общего промежутка времени обоих.
+     *
+     * @param rule повторяющаяся задача
+     * @return Опционал повторения другого правила, с которым есть пересечение
+     */
+    public Optional<Task> findCrossing(RecurringTask rule) {
+        Task[] found = new Task[1];
+        rules.forEach(other -> {
+            if (found[0] == null && other.getId() != rule.getId()) {
+                found[0] = (rule.isEndless() && other.isEndless()) ? findEndlessCrossing(rule, other)
+                        : findBoundedCrossing(rule, other);
+            }
+        });
+        return Optional.ofNullable(found[0]);
+    }
+
+    /**
+     * Метод поиска пересечения двух бессрочных правил
+     *
+     * @param rule  первое правило
+     * @param other второе правило
+     * @return повторение второго правила, пересекающееся с первым, или null
+     */
+    private static Task findEndlessCrossing(RecurringTask rule, RecurringTask other) {
+        long step = gcd(rule.getPeriodMinutes(), other.getPeriodMinutes()) * 60_000_000_000L;
+        long delta = Duration.between(rule.getStartTime(), other.getStartTime()).toNanos();
+        long ruleLength = durationNanos(rule);
+        long otherLength = durationNanos(other);
+        // Разность начал x пересекающихся повторений: x = 0, равные окончания или -otherLength < x < ruleLength
+        long smallest = -otherLength + 1 + Math.floorMod(delta - (-otherLength + 1), step);
+        boolean crossing = Math.floorMod(delta, step) == 0
+                || Math.floorMod(delta - (ruleLength - otherLength), step) == 0 || smallest < ruleLength;
+        if (!crossing) {
+            return null;
+        }
+        // Пример пересечения ищем у самого правила: первое повторение другого после начал обоих
+        LocalDateTime from = rule.getStartTime().isAfter(other.getStartTime()) ? rule.getStartTime()
+                : other.getStartTime();
+        for (long index = other.firstStartingNotBefore(from); ; index++) {
+            Task occurrence = other.getOccurrence(index);
+            if (findCrossing(rule, occurrence) != null) {
+                return occurrence;
+            }
+        }
+    }
+
+    /**
+     * Метод поиска пересечения правил, хотя бы одно из которых ограничено по времени
+     *
+     * @param rule  первое правило
+     * @param other второе правило
+     * @return повторение второго правила, пересекающееся с первым, или null
+     */
+    private static Task findBoundedCrossing(RecurringTask rule, RecurringTask other) {
+        // Перебираем повторения правила с меньшим их количеством и проверяем каждое по другому правилу за O(1)
+        boolean iterateRule = rule.getOccurrenceCount() <= other.getOccurrenceCount();
+        RecurringTask iterated = iterateRule ? rule : other;
+        RecurringTask checked = iterateRule ? other : rule;
+        long count = iterated.getOccurrenceCount();
+        LocalDateTime checkedEnd = checked.isEndless() ? null : lastEnd(checked);
+        for (long index = iterated.firstEndingNotBefore(checked.getStartTime()); index < count; index++) {
+            Task occurrence = iterated.getOccurrence(index);
+            if (checkedEnd != null && occurrence.getStartTime().isAfter(checkedEnd)) {
+                break;
+            }
+            Task crossing = findCrossing(checked, occurrence);
+            if (crossing != null) {
+                return iterateRule ? crossing : occurrence;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Метод выборки повторений, начинающихся в окне времени. Бессрочные правила при открытом конце окна
+     * не разворачиваются - их повторений бесконечно много.
+     *
+     * @param from начало окна включительно; null - без ограничения
+     * @param to   конец окна не включительно; null - без ограничения
+     * @return List<Task> повторения в порядке начала
+     */
+    public List<Task> getOccurrences(LocalDateTime from, LocalDateTime to) {
+        List<List<Task>> lists = new ArrayList<>();
+        rules.forEach(rule -> {
+            if (to == null && rule.isEndless()) {
+                return;
+            }
+            List<Task> occurrences = new ArrayList<>();
+            long count = rule.getOccurrenceCount();
+            for (long index = (from != null) ? rule.firstStartingNotBefore(from) : 0; index < count; index++) {
+                Task occurrence = rule.getOccurrence(index);
+                if (to != null && occurrence.compareStartTo(to) >= 0) {
+                    break;
+                }
+                occurrences.add(occurrence);
+            }
+            lists.add(occurrences);
+        });
+        return TaskUtil.mergeSorted(lists, Task::compareStartTo);
+    }
+
+    /**
+     * Метод выборки страницы повторений, начинающихся после заданной даты/времени. От каждого правила берется
+     * не больше limit повторений, поэтому страница строится без разворачивания бессрочных правил.
+     *
+     * @param after курсор - дата/время, после которой начинается страница; null - с начала
+     * @param limit максимальное количество повторений
+     * @return List<Task> повторения в порядке начала
+     */
+    public List<Task> getOccurrences(LocalDateTime after, int limit) {
+        List<List<Task>> lists = new ArrayList<>();
+        rules.forEach(rule -> {
+            List<Task> occurrences = new ArrayList<>();
+            long count = rule.getOccurrenceCount();
+            long index = (after != null) ? rule.firstStartingNotBefore(after) : 0;
+            for (; index < count && occurrences.size() < limit; index++) {
+                Task occurrence = rule.getOccurrence(index);
+                if (after == null || occurrence.compareStartTo(after) > 0) {
+                    occurrences.add(occurrence);
+                }
+            }
+            lists.add(occurrences);
+        });
+        List<Task> merged = TaskUtil.mergeSorted(lists, Task::compareStartTo);
+        return (merged.size() > limit) ? merged.subList(0, limit) : merged;
+    }
+
+    /**
+     * Метод выбора даты/времени, с которой продолжать поиск свободного времени заданной продолжительности после
+     * пересечения с повторением. Если между повторениями правила такое время не помещается, поиск продолжается
+     * после последнего повторения, а у бессрочного правила свободного времени дальше нет.
+     *
+     * @param occurrence      пересекающееся повторение
+     * @param durationMinutes продолжительность в минутах
+     * @return дата/время продолжения поиска
+     * @throws InvalidTaskException если свободного времени дальше нет
+     */
+    public LocalDateTime skip(Task occurrence, long durationMinutes) {
+        RecurringTask rule = rules.get(occurrence.getId());
+        long gap = rule.getPeriodMinutes() - ((rule.getDuration() != null) ? rule.getDuration().toMinutes() : 0);
+        if (gap >= Math.max(durationMinutes, 1)) {
+            return occurrence.getEndTime();
+        }
+        if (rule.isEndless()) {
+            throw new InvalidTaskException("Нет свободного времени продолжительностью " + durationMinutes
+                    + " мин.: его не оставляет повторяющаяся задача " + rule);
+        }
+        return lastEnd(rule);
+    }
+
+    /**
+     * Метод получения окончания последнего повторения ограниченного правила
+     *
+     * @param rule правило с датой/временем окончания повторений
+     * @return дата/время окончания последнего повторения
+     */
+    private static LocalDateTime lastEnd(RecurringTask rule) {
+        long count = rule.getOccurrenceCount();
+        return (count > 0) ? rule.getOccurrence(count - 1).getEndTime() : rule.getStartTime();
+    }
+
+    /**
+     * Метод получения продолжительности повторения в наносекундах
+     *
+     * @param rule правило
+     * @return продолжительность, 0 - если не задана
+     */
+    private static long durationNanos(RecurringTask rule) {
+        return (rule.getDuration() != null) ? rule.getDuration().toNanos() : 0;
+    }
+
+    /**
+     * Метод вычисления наибольшего общего делителя
+     *
+     * @param a первое число
+     * @param b второе число
+     * @return НОД
+     */
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    @Override
+    public String toString() {
+        return "RecurringSchedule{" +
+                "rules=" + rules.size() +
+                '}';
+    }
+}
@@ -0,0 +1,953 @@
+package manager;
+
+import task.Epic;
+import task.RecurringTask;
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+import util.IntLinkedSet;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Потокобезопасный менеджер задач, разделяющий объекты учета между несколькими независимыми шардами -
+ * {@link InMemoryTaskManager} под своей блокировкой чтения/записи каждый. Задачи и эпики распределяются по шардам
+ * по очереди, подзадачи живут в шарде своего эпика. Каждый шард выдает id своей полосы {@link StripedIdAllocator},
+ * поэтому шард объекта определяется по одному id без общего каталога.
+ * Операции над одним объектом блокируют только его шард, поэтому изменения разных эпиков идут параллельно.
+ * Списки, расписание, поиск и выборки собираются со всех шардов параллельно и сливаются из упорядоченных частей
+ * (k-way merge). История просмотра у шардов общая. Эпики шарды меняют на месте, поэтому читателям они отдаются
+ * копиями, снятыми под блокировкой своего шарда.
+ * Пересечения по времени проверяются по всем шардам: изменения с датой/временем начала идут под общей блокировкой
+ * расписания и сверяются с остальными шардами; изменения без времени пересечений не создают и этой блокировки не ждут.
+ * Зависимости задач могут связывать разные шарды, поэтому граф зависимостей {@link DependencyGraph} общий: шарды
+ * сообщают ему свои изменения событиями, а сам он защищен своим монитором.
+ *
+ * @author Николаев Д.В.
+ * @version 1.5
+ */
+public class ShardedTaskManager implements TaskManager {
+    /**
+     * Количество шардов по умолчанию - по числу процессоров
+     */
+    public static final int DEFAULT_SHARDS = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Поле шардов
+     */
+    private final Shard[] shards;
+
+    /**
+     * Поле общего менеджера истории шардов
+     */
+    private final HistoryManager historyManager;
+
+    /**
+     * Поле общего счетчика версий шардов
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Поле общего графа зависимостей задач и подзадач всех шардов
+     */
+    private final DependencyGraph dependencies = new DependencyGraph();
+
+    /**
+     * Поле блокировки расписания для изменений с датой/временем начала
+     */
+    private final Lock scheduleLock = new ReentrantLock();
+
+    /**
+     * Поле счетчика распределения новых задач и эпиков по шардам
+     */
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    /**
+     * Класс шарда: менеджер в памяти и его блокировка
+     */
+    private static final class Shard {
+        /**
+         * Поле номера шарда
+         */
+        private final int index;
+        /**
+         * Поле менеджера шарда
+         */
+        private final InMemoryTaskManager manager;
+        /**
+         * Поле блокировки шарда
+         */
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private Shard(int index, InMemoryTaskManager manager) {
+            this.index = index;
+            this.manager = manager;
+        }
+
+        private <T> T read(Supplier<T> operation) {
+            return locked(lock.readLock(), operation);
+        }
+
+        private <T> T write(Supplier<T> operation) {
+            return locked(lock.writeLock(), operation);
+        }
+
+        private void write(Runnable operation) {
+            locked(lock.writeLock(), () -> {
+                operation.run();
+                return null;
+            });
+        }
+
+        /**
+         * Метод получения опубликованного списка без блокировок, как в {@link ConcurrentTaskManager}
+         *
+         * @param published опубликованный список или null
+         * @param operation операция построения списка
+         * @return неизменяемый список
+         */
+        private <T> List<T> snapshot(List<T> published, Supplier<List<T>> operation) {
+            return (published != null) ? published : read(operation);
+        }
+
+        private static <T> T locked(Lock operationLock, Supplier<T> operation) {
+            operationLock.lock();
+            try {
+                return operation.get();
+            } finally {
+                operationLock.unlock();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return read(() -> "Shard{" +
+                    "index=" + index +
+                    ", manager=" + manager +
+                    '}');
+        }
+    }
+
+    /**
+     * Конструктор менеджера с количеством шардов по умолчанию {@link ShardedTaskManager#DEFAULT_SHARDS}
+     */
+    public ShardedTaskManager() {
+        this(DEFAULT_SHARDS);
+    }
+
+    /**
+     * Конструктор менеджера с заданным количеством шардов
+     *
+     * @param shardCount количество шардов
+     */
+    public ShardedTaskManager(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Количество шардов должно быть положительным: " + shardCount);
+        }
+        historyManager = new SynchronizedHistoryManager(Managers.getDefaultHistory());
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, new InMemoryTaskManager(historyManager, new HeapTaskStore<>(),
+                    new HeapTaskStore<>(), new StripedIdAllocator(i, shardCount), version));
+            shards[i].manager.addListener(event -> {
+                synchronized (dependencies) {
+                    dependencies.onEvent(event);
+                }
+            });
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ShardedTaskManager{" +
+                "shards=" + Arrays.toString(shards) +
+                '}';
+    }
+
+    /**
+     * Метод определения шарда объекта учета по id
+     *
+     * @param id id задачи, подзадачи или эпика; у подзадачи можно передать и id ее эпика
+     * @return шард
+     */
+    private Shard shardOf(int id) {
+        return shards[StripedIdAllocator.stripeOf(id, shards.length)];
+    }
+
+    /**
+     * Метод выбора шарда для новой задачи или эпика - по очереди
+     *
+     * @return шард
+     */
+    private Shard nextShard() {
+        return shards[Math.floorMod(nextShard.getAndIncrement(), shards.length)];
+    }
+
+    /**
+     * Метод параллельного выполнения операции на всех шардах
+     *
+     * @param operation операция над шардом
+     * @return List<R> результаты в порядке шардов
+     */
+    private <R> List<R> fanOut(Function<Shard, R> operation) {
+        return Arrays.stream(shards).parallel().map(operation).toList();
+    }
+
+    /**
+     * Метод параллельного выполнения операции без результата на всех шардах
+     *
+     * @param operation операция над шардом
+     */
+    private void forEachShard(Consumer<Shard> operation) {
+        Arrays.stream(shards).parallel().forEach(operation);
+    }
+
+    /**
+     * Метод слияния первых страниц шардов в общую страницу
+     *
+     * @param pages      страницы шардов, каждая упорядочена по comparator
+     * @param comparator порядок страниц
+     * @param limit      максимальное количество элементов страницы
+     * @return List<T> общая страница
+     */
+    private static <T> List<T> firstPage(List<? extends List<? extends T>> pages, Comparator<? super T> comparator,
+                                         int limit) {
+        List<T> merged = TaskUtil.mergeSorted(pages, comparator);
+        return merged.subList(0, Math.min(merged.size(), Math.max(limit, 0)));
+    }
+
+    /**
+     * Метод выполнения изменения задачи (подзадачи) в ее шарде. Если у задачи есть дата/время начала, изменение идет
+     * под блокировкой расписания после проверки пересечений с остальными шардами.
+     *
+     * @param task      задача (подзадача) - новая версия
+     * @param owner     шард задачи
+     * @param operation изменение
+     * @return результат изменения
+     */
+    private <T> T scheduled(Task task, Shard owner, Supplier<T> operation) {
+        if (task == null || !task.hasStartTime()) {
+            return owner.write(operation);
+        }
+        scheduleLock.lock();
+        try {
+            for (Shard shard : shards) {
+                if (shard != owner) {
+                    shard.read(() -> shard.manager.isValid(task));
+                }
+            }
+            return owner.write(operation);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+        return TaskUtil.mergeSorted(fanOut(shard -> shard.snapshot(shard.manager.getPublishedTasks(),
+                shard.manager::getAllTasks)), TaskUtil.BY_ID);
+    }
+
+    @Override
+    public List<Subtask> getAllSubtasks() {
+        return TaskUtil.mergeSorted(fanOut(shard -> shard.snapshot(shard.manager.getPublishedSubtasks(),
+                shard.manager::getAllSubtasks)), TaskUtil.BY_ID);
+    }
+
+    @Override
+    public List<Epic> getAllEpics() {
+        return TaskUtil.mergeSorted(fanOut(shard -> shard.snapshot(shard.manager.getPublishedEpics(),
+                shard.manager::getEpicCopies)), TaskUtil.BY_ID);
+    }
+
+    @Override
+    public List<Task> getAllTasks(int afterId, int limit) {
+        return firstPage(fanOut(shard -> shard.read(() -> shard.manager.getAllTasks(afterId, limit))),
+                TaskUtil.BY_ID, limit);
+    }
+
+    @Override
+    public List<Subtask> getAllSubtasks(int afterId, int limit) {
+        return firstPage(fanOut(shard -> shard.read(() -> shard.manager.getAllSubtasks(afterId, limit))),
+                TaskUtil.BY_ID, limit);
+    }
+
+    @Override
+    public List<Epic> getAllEpics(int afterId, int limit) {
+        return firstPage(fanOut(shard -> shard.read(() -> TaskUtil.detach(shard.manager.getAllEpics(afterId, limit)))),
+                TaskUtil.BY_ID, limit);
+    }
+
+    @Override
+    public void clearAllTasks() {
+        forEachShard(shard -> shard.write(shard.manager::clearAllTasks));
+    }
+
+    @Override
+    public void clearAllSubtasks() {
+        forEachShard(shard -> shard.write(shard.manager::clearAllSubtasks));
+    }
+
+    @Override
+    public void clearAllEpics() {
+        forEachShard(shard -> shard.write(shard.manager::clearAllEpics));
+    }
+
+    @Override
+    public Task getTask(int taskId) {
+        Shard shard = shardOf(taskId);
+        return shard.read(() -> shard.manager.getTask(taskId));
+    }
+
+    @Override
+    public Subtask getSubtask(int subtaskId) {
+        Shard shard = shardOf(subtaskId);
+        return shard.read(() -> shard.manager.getSubtask(subtaskId));
+    }
+
+    @Override
+    public Epic getEpic(int epicId) {
+        Shard shard = shardOf(epicId);
+        return shard.read(() -> new Epic(shard.manager.getEpic(epicId)));
+    }
+
+    @Override
+    public Task createTask(Task task) {
+        Shard shard = nextShard();
+        return scheduled(task, shard, () -> shard.manager.createTask(task));
+    }
+
+    @Override
+    public Subtask createSubtask(Subtask subtask) {
+        Shard shard = (subtask != null) ? shardOf(subtask.getEpicId()) : shards[0];
+        return scheduled(subtask, shard, () -> shard.manager.createSubtask(subtask));
+    }
+
+    @Override
+    public Epic createEpic(Epic epic) {
+        Shard shard = nextShard();
+        return shard.write(() -> shard.manager.createEpic(epic));
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        Shard shard = (task != null) ? shardOf(task.getId()) : shards[0];
+        scheduled(task, shard, () -> {
+            shard.manager.updateTask(task);
+            return null;
+        });
+    }
+
+    @Override
+    public void updateSubtask(Subtask subtask) {
+        Shard shard = (subtask != null) ? shardOf(subtask.getId()) : shards[0];
+        scheduled(subtask, shard, () -> {
+            shard.manager.updateSubtask(subtask);
+            return null;
+        });
+    }
+
+    @Override
+    public void updateEpic(Epic epic) {
+        Shard shard = (epic != null) ? shardOf(epic.getId()) : shards[0];
+        shard.write(() -> shard.manager.updateEpic(epic));
+    }
+
+    @Override
+    public void removeTask(int taskId) {
+        Shard shard = shardOf(taskId);
+        shard.write(() -> shard.manager.removeTask(taskId));
+    }
+
+    @Override
+    public void removeSubtask(int subtaskId) {
+        Shard shard = shardOf(subtaskId);
+        shard.write(() -> shard.manager.removeSubtask(subtaskId));
+    }
+
+    @Override
+    public void removeEpic(int epicId) {
+        Shard shard = shardOf(epicId);
+        shard.write(() -> shard.manager.removeEpic(epicId));
+    }
+
+    /**
+     * Метод пакетного добавления. Пакет раскладывается по шардам и проверяется целиком во всех затронутых шардах,
+     * а также на пересечения по времени между шардами, и только потом добавляется.
+     *
+     * @param batch задачи, подзадачи, эпики с атрибутами для добавления
+     * @return List<Task> созданные объекты в порядке пакета
+     */
+    @Override
+    public List<Task> createBatch(List<? extends Task> batch) {
+        Map<Shard, List<Task>> groups = new LinkedHashMap<>();
+        List<Task> created = new ArrayList<>(batch.size());
+        for (Task task : batch) {
+            if (task == null) {
+                continue;
+            }
+            Shard shard = (task instanceof Subtask subtask) ? shardOf(subtask.getEpicId()) : nextShard();
+            groups.computeIfAbsent(shard, key -> new ArrayList<>()).add(task);
+            created.add(task);
+        }
+        applyBatch(groups, false, InMemoryTaskManager::createBatch);
+        return created;
+    }
+
+    /**
+     * Метод пакетного изменения - аналог {@link ShardedTaskManager#createBatch(List)}. Прежнее время изменяемых
+     * задач не мешает проверке, поэтому задачи разных шардов можно поменять местами одним пакетом.
+     *
+     * @param batch задачи, подзадачи, эпики с обновленными атрибутами
+     */
+    @Override
+    public void updateBatch(List<? extends Task> batch) {
+        Map<Shard, List<Task>> groups = new LinkedHashMap<>();
+        for (Task task : batch) {
+            if (task != null) {
+                groups.computeIfAbsent(shardOf(task.getId()), key -> new ArrayList<>()).add(task);
+            }
+        }
+        applyBatch(groups, true, InMemoryTaskManager::updateBatch);
+    }
+
+    @Override
+    public void removeBatch(List<Integer> ids) {
+        Map<Shard, List<Integer>> groups = new LinkedHashMap<>();
+        for (int id : ids) {
+            groups.computeIfAbsent(shardOf(id), key -> new ArrayList<>()).add(id);
+        }
+        List<Lock> locks = new ArrayList<>();
+        for (Shard shard : shards) {
+            if (groups.containsKey(shard)) {
+                locks.add(shard.lock.writeLock());
+            }
+        }
+        lockAll(locks);
+        try {
+            for (Map.Entry<Shard, List<Integer>> group : groups.entrySet()) {
+                for (int id : group.getValue()) {
+                    if (!group.getKey().manager.contains(id)) {
+                        throw new NotFoundException("Задача не найдена: " + id);
+                    }
+                }
+            }
+            groups.forEach((shard, group) -> shard.manager.removeBatch(group));
+        } finally {
+            unlockAll(locks);
+        }
+    }
+
+    /**
+     * Метод проверки и выполнения пакета, разложенного по шардам. Затронутые шарды блокируются на запись, а если
+     * в пакете есть задачи с датой/временем начала - берется и блокировка расписания, а остальные шарды блокируются
+     * на чтение для проверки пересечений. Блокировки шардов берутся в порядке их номеров.
+     *
+     * @param groups    части пакета по шардам
+     * @param isUpdate  true - пакет изменений, false - пакет добавлений
+     * @param operation выполнение части пакета в шарде
+     */
+    private void applyBatch(Map<Shard, List<Task>> groups, boolean isUpdate,
+                            BiConsumer<InMemoryTaskManager, List<Task>> operation) {
+        boolean timed = groups.values().stream().flatMap(List::stream)
+                .anyMatch(task -> !(task instanceof Epic) && task.hasStartTime());
+        List<Lock> locks = new ArrayList<>();
+        for (Shard shard : shards) {
+            if (groups.containsKey(shard)) {
+                locks.add(shard.lock.writeLock());
+            } else if (timed) {
+                locks.add(shard.lock.readLock());
+            }
+        }
+        if (timed) {
+            scheduleLock.lock();
+        }
+        try {
+            lockAll(locks);
+            try {
+                groups.forEach((shard, group) -> shard.manager.validateBatch(group, isUpdate));
+                if (timed) {
+                    validateAcrossShards(groups, isUpdate);
+                }
+                groups.forEach((shard, group) -> operation.accept(shard.manager, group));
+            } finally {
+                unlockAll(locks);
+            }
+        } finally {
+            if (timed) {
+                scheduleLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Метод проверки задач пакета на пересечения по времени с расписанием других шардов и между частями пакета
+     * разных шардов. Вызывается под блокировками всех шардов.
+     *
+     * @param groups   части пакета по шардам
+     * @param isUpdate true - пакет изменений, false - пакет добавлений
+     */
+    private void validateAcrossShards(Map<Shard, List<Task>> groups, boolean isUpdate) {
+        Map<Shard, List<Task>> detached = new LinkedHashMap<>();
+        if (isUpdate) {
+            groups.forEach((shard, group) -> detached.put(shard, shard.manager.detachScheduled(group)));
+        }
+        try {
+            validateAcrossShards(groups, isUpdate, new IntervalIndex());
+        } finally {
+            detached.forEach((shard, tasks) -> shard.manager.attachScheduled(tasks));
+        }
+    }
+
+    /**
+     * Метод проверки задач пакета на пересечения при уже исключенных из расписания прежних версиях
+     *
+     * @param groups     части пакета по шардам
+     * @param isUpdate   true - пакет изменений, false - пакет добавлений
+     * @param batchIndex индекс задач пакета
+     */
+    private void validateAcrossShards(Map<Shard, List<Task>> groups, boolean isUpdate, IntervalIndex batchIndex) {
+        int probeId = 0;
+        for (Map.Entry<Shard, List<Task>> group : groups.entrySet()) {
+            for (Task task : group.getValue()) {
+                if (task instanceof Epic || !task.hasStartTime()) {
+                    continue;
+                }
+                for (Shard shard : shards) {
+                    if (shard != group.getKey()) {
+                        shard.manager.isValid(task);
+                    }
+                }
+                Long minutes = (task.getDuration() != null) ? task.getDuration().toMinutes() : null;
+                Task probe = new Task(task.getName(), task.getDescription(), isUpdate ? task.getId() : --probeId,
+                        minutes, task.getStartTime());
+                Optional<Task> crossing = batchIndex.findCrossing(probe);
+                if (crossing.isPresent()) {
+                    throw new InvalidTaskException("Задачи пакета пересекаются по времени: " + task + " и "
+                            + crossing.get());
+                }
+                batchIndex.add(probe);
+            }
+        }
+    }
+
+    private static void lockAll(List<Lock> locks) {
+        for (int i = 0; i < locks.size(); i++) {
+            try {
+                locks.get(i).lock();
+            } catch (RuntimeException e) {
+                unlockAll(locks.subList(0, i));
+                throw e;
+            }
+        }
+    }
+
+    private static void unlockAll(List<Lock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+
+    @Override
+    public List<Subtask> getSubtasksByEpicId(int epicId) {
+        Shard shard = shardOf(epicId);
+        return shard.read(() -> shard.manager.getSubtasksByEpicId(epicId));
+    }
+
+    @Override
+    public List<Subtask> getSubtasksByEpic(Epic epic) {
+        return (epic != null) ? getSubtasksByEpicId(epic.getId()) : new ArrayList<>();
+    }
+
+    @Override
+    public List<Task> getTasksByStatus(TaskStatus status) {
+        return TaskUtil.mergeSorted(fanOut(shard -> shard.read(() -> shard.manager.getTasksByStatus(status))),
+                TaskUtil.BY_ID);
+    }
+
+    @Override
+    public List<Subtask> getSubtasksByStatus(TaskStatus status) {
+        return TaskUtil.mergeSorted(fanOut(shard -> shard.read(() -> shard.manager.getSubtasksByStatus(status))),
+                TaskUtil.BY_ID);
+    }
+
+    @Override
+    public List<Epic> getEpicsByStatus(TaskStatus status) {
+        return TaskUtil.mergeSorted(fanOut(shard -> shard.read(() -> TaskUtil.detach(shard.manager.getEpicsByStatus(status)))),
+                TaskUtil.BY_ID);
+    }
+
+    @Override
+    public Map<TaskStatus, List<Task>> getBoard() {
+        List<Map<TaskStatus, List<Task>>> boards = fanOut(shard -> shard.read(() -> {
+            Map<TaskStatus, List<Task>> shardBoard = shard.manager.getBoard();
+            shardBoard.replaceAll((status, column) -> TaskUtil.detach(column));
+            return shardBoard;
+        }));
+        Map<TaskStatus, List<Task>> board = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            board.put(status, TaskUtil.mergeSorted(boards.stream().map(column -> column.get(status)).toList(),
+                    TaskUtil.BY_ID));
+        }
+        return board;
+    }
+
+    /**
+     * Метод полнотекстового поиска по всем шардам. Очки найденных объектов пересчитываются по их тексту, чтобы
+     * слить результаты шардов в общем порядке релевантности.
+     *
+     * @param query строка запроса
+     * @return List<Task> найденные объекты по убыванию релевантности, при равенстве - по id
+     */
+    @Override
+    public List<Task> search(String query) {
+        Set<String> terms = TextIndex.tokenize(query);
+        record Ranked(int score, Task task) {
+        }
+        List<List<Ranked>> found = fanOut(shard -> shard.read(() -> TaskUtil.detach(shard.manager.search(query)))
+                .stream()
+                .map(task -> new Ranked(TextIndex.score(task, terms), task))
+                .toList());
+        Comparator<Ranked> byRank = Comparator.comparingInt((Ranked ranked) -> -ranked.score())
+                .thenComparingInt(ranked -> ranked.task().getId());
+        return TaskUtil.mergeSorted(found, byRank).stream().map(Ranked::task).toList();
+    }
+
+    @Override
+    public List<Task> query(TaskQuery query) {
+        return TaskUtil.mergeSorted(fanOut(shard -> shard.read(() -> TaskUtil.detach(shard.manager.query(query)))),
+                query.isOrderByStartTime() ? TaskUtil.BY_START_TIME : TaskUtil.BY_ID);
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        List<Task> history = historyManager.getHistory();
+        List<Task> result = new ArrayList<>(history.size());
+        for (Task task : history) {
+            // Эпик копируется под блокировкой своего шарда, пока его подзадачи не меняются
+            Shard shard = shardOf(task.getId());
+            result.add((task instanceof Epic) ? shard.read(() -> TaskUtil.detach(task)) : task);
+        }
+        return result;
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return TaskUtil.mergeSorted(fanOut(shard -> shard.snapshot(shard.manager.getPublishedPrioritizedTasks(),
+                shard.manager::getPrioritizedTasks)), Task::compareStartTo);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime after, int limit) {
+        return firstPage(fanOut(shard -> shard.read(() -> shard.manager.getPrioritizedTasks(after, limit))),
+                Task::compareStartTo, limit);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to) {
+        return TaskUtil.mergeSorted(fanOut(shard -> shard.read(() -> shard.manager.getPrioritizedTasks(from, to))),
+                Task::compareStartTo);
+    }
+
+    /**
+     * Метод поиска свободных промежутков по всем шардам. Кандидат сдвигается к самому позднему из ближайших
+     * промежутков шардов, пока все шарды не согласятся с ним.
+     *
+     * @param notBefore       дата/время, раньше которой начинать нельзя
+     * @param durationMinutes продолжительность в минутах
+     * @param count           количество промежутков
+     * @return List<LocalDateTime> даты/время начала свободных промежутков
+     */
+    @Override
+    public List<LocalDateTime> findFreeSlots(LocalDateTime notBefore, long durationMinutes, int count) {
+        List<LocalDateTime> result = new ArrayList<>(Math.max(count, 0));
+        LocalDateTime from = notBefore;
+        while (result.size() < count) {
+            LocalDateTime slot = from;
+            boolean agreed = false;
+            while (!agreed) {
+                agreed = true;
+                for (Shard shard : shards) {
+                    LocalDateTime candidate = slot;
+                    LocalDateTime shardSlot = shard.read(() ->
+                            shard.manager.findFreeSlots(candidate, durationMinutes, 1)).getFirst();
+                    if (shardSlot.isAfter(slot)) {
+                        slot = shardSlot;
+                        agreed = false;
+                    }
+                }
+            }
+            result.add(slot);
+            from = slot.plusMinutes(Math.max(durationMinutes, 1));
+        }
+        return result;
+    }
+
+    /**
+     * Метод автоматического планирования - аналог {@link InMemoryTaskManager#scheduleTasks(List, LocalDateTime)}
+     * по общему расписанию: под блокировкой расписания шарды планируемых задач блокируются на запись, остальные -
+     * на чтение, и каждая задача ставится в промежуток, свободный во всех шардах.
+     *
+     * @param ids       id задач (подзадач) с продолжительностью, но без даты/времени начала
+     * @param notBefore дата/время, раньше которой начинать нельзя
+     * @return List<Task> запланированные задачи (подзадачи) в порядке списка
+     */
+    @Override
+    public List<Task> scheduleTasks(List<Integer> ids, LocalDateTime notBefore) {
+        Set<Shard> involved = new HashSet<>();
+        for (int id : ids) {
+            involved.add(shardOf(id));
+        }
+        List<Lock> locks = new ArrayList<>();
+        for (Shard shard : shards) {
+            locks.add(involved.contains(shard) ? shard.lock.writeLock() : shard.lock.readLock());
+        }
+        scheduleLock.lock();
+        try {
+            lockAll(locks);
+            try {
+                IntLinkedSet uniqueIds = new IntLinkedSet();
+                List<Task> unscheduled = new ArrayList<>(ids.size());
+                for (int id : ids) {
+                    if (!uniqueIds.add(id)) {
+                        throw new InvalidTaskException("Задача повторяется в пакете: " + id);
+                    }
+                    unscheduled.add(shardOf(id).manager.getUnscheduledTask(id));
+                }
+                List<Task> scheduled = new ArrayList<>(unscheduled.size());
+                for (Task task : unscheduled) {
+                    // Блокировки шардов уже взяты, повторное чтение под ними допустимо
+                    LocalDateTime slot = findFreeSlots(notBefore, task.getDuration().toMinutes(), 1).getFirst();
+                    scheduled.add(shardOf(task.getId()).manager.placeTask(task, slot));
+                }
+                return scheduled;
+            } finally {
+                unlockAll(locks);
+            }
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    /**
+     * Метод добавления повторяющейся задачи в очередной шард. Под блокировкой расписания правило проверяется
+     * во всех шардах - шард правила заблокирован на запись, остальные на чтение.
+     *
+     * @param task повторяющаяся задача с началом первого повторения, продолжительностью и периодом
+     * @return созданная повторяющаяся задача
+     */
+    @Override
+    public RecurringTask createRecurringTask(RecurringTask task) {
+        if (task == null) {
+            return null;
+        }
+        Shard owner = nextShard();
+        List<Lock> locks = new ArrayList<>();
+        for (Shard shard : shards) {
+            locks.add((shard == owner) ? shard.lock.writeLock() : shard.lock.readLock());
+        }
+        scheduleLock.lock();
+        try {
+            lockAll(locks);
+            try {
+                for (Shard shard : shards) {
+                    shard.manager.validateRecurringTask(task);
+                }
+                return owner.manager.createRecurringTask(task);
+            } finally {
+                unlockAll(locks);
+            }
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    @Override
+    public RecurringTask getRecurringTask(int id) {
+        Shard shard = shardOf(id);
+        return shard.read(() -> shard.manager.getRecurringTask(id));
+    }
+
+    @Override
+    public List<RecurringTask> getAllRecurringTasks() {
+        return TaskUtil.mergeSorted(fanOut(shard -> shard.read(shard.manager::getAllRecurringTasks)),
+                TaskUtil.BY_ID);
+    }
+
+    @Override
+    public void removeRecurringTask(int id) {
+        Shard shard = shardOf(id);
+        shard.write(() -> shard.manager.removeRecurringTask(id));
+    }
+
+    @Override
+    public boolean isValid(Task task) {
+        for (Shard shard : shards) {
+            shard.read(() -> shard.manager.isValid(task));
+        }
+        return true;
+    }
+
+    /**
+     * Метод добавления зависимости. Шарды обеих задач блокируются на чтение, чтобы задачи не были удалены, пока
+     * зависимость добавляется в общий граф.
+     *
+     * @param blockerId id блокирующей задачи (подзадачи)
+     * @param blockedId id заблокированной задачи (подзадачи)
+     */
+    @Override
+    public void addDependency(int blockerId, int blockedId) {
+        List<Lock> locks = new ArrayList<>();
+        for (Shard shard : shards) {
+            if (shard == shardOf(blockerId) || shard == shardOf(blockedId)) {
+                locks.add(shard.lock.readLock());
+            }
+        }
+        lockAll(locks);
+        try {
+            Task blocker = getDependencyTask(blockerId);
+            Task blocked = getDependencyTask(blockedId);
+            synchronized (dependencies) {
+                dependencies.addDependency(blocker, blocked);
+            }
+        } finally {
+            unlockAll(locks);
+        }
+    }
+
+    @Override
+    public void removeDependency(int blockerId, int blockedId) {
+        synchronized (dependencies) {
+            if (!dependencies.removeDependency(blockerId, blockedId)) {
+                throw new NotFoundException("Зависимость не найдена: " + blockerId + " -> " + blockedId);
+            }
+        }
+    }
+
+    @Override
+    public List<Task> getBlockers(int taskId) {
+        Shard shard = shardOf(taskId);
+        shard.read(() -> getDependencyTask(taskId));
+        int[] ids;
+        synchronized (dependencies) {
+            ids = dependencies.getBlockers(taskId);
+        }
+        return findTasks(ids);
+    }
+
+    @Override
+    public LocalDateTime getEarliestStart(int taskId) {
+        Shard shard = shardOf(taskId);
+        Task task = shard.read(() -> getDependencyTask(taskId));
+        synchronized (dependencies) {
+            return dependencies.contains(taskId) ? dependencies.getEarliestStart(taskId) : task.getStartTime();
+        }
+    }
+
+    @Override
+    public List<Task> getCriticalPath(int taskId) {
+        Shard shard = shardOf(taskId);
+        shard.read(() -> getDependencyTask(taskId));
+        int[] ids;
+        synchronized (dependencies) {
+            ids = dependencies.getCriticalPath(taskId);
+        }
+        return findTasks(ids);
+    }
+
+    @Override
+    public List<Task> getCriticalPath() {
+        int[] ids;
+        synchronized (dependencies) {
+            ids = dependencies.getCriticalPath();
+        }
+        return findTasks(ids);
+    }
+
+    /**
+     * Метод получения участника зависимости с проверкой - как в {@link InMemoryTaskManager}. Вызывается под
+     * блокировкой шарда задачи.
+     *
+     * @param id id задачи (подзадачи)
+     * @return задача (подзадача)
+     */
+    private Task getDependencyTask(int id) {
+        InMemoryTaskManager manager = shardOf(id).manager;
+        Task task = manager.findTaskOrSubtask(id);
+        if (task != null) {
+            return task;
+        }
+        if (manager.contains(id)) {
+            throw new InvalidTaskException("У эпика не может быть зависимостей: " + id);
+        }
+        throw new NotFoundException("Задача не найдена: " + id);
+    }
+
+    /**
+     * Метод получения задач (подзадач) по id из их шардов; удаленные за это время пропускаются
+     *
+     * @param ids id задач (подзадач)
+     * @return List<Task> найденные задачи в порядке переданных id
+     */
+    private List<Task> findTasks(int[] ids) {
+        List<Task> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Shard shard = shardOf(id);
+            Task task = shard.read(() -> shard.manager.findTaskOrSubtask(id));
+            if (task != null) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void clearHistory() {
+        historyManager.clear();
+    }
+
+    @Override
+    public void addListener(TaskListener listener) {
+        for (Shard shard : shards) {
+            shard.manager.addListener(listener);
+        }
+    }
+
+    @Override
+    public void removeListener(TaskListener listener) {
+        for (Shard shard : shards) {
+            shard.manager.removeListener(listener);
+        }
+    }
+
+    /**
+     * Метод получения версии - номера последнего события изменения. Шарды нумеруют события общим счетчиком, но
+     * рассылают их каждый под своей блокировкой, поэтому события разных шардов могут прийти не по порядку версий.
+     *
+     * @return версия
+     */
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+}
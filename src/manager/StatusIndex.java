@@ -0,0 +1,95 @@
+package manager;
+
+import task.TaskStatus;
+import util.IntLinkedSet;
+
+import java.util.Arrays;
+
+/**
+ * Вторичный индекс id объектов учета (задач, подзадач или эпиков) по статусу {@link TaskStatus}.
+ * Для каждого статуса ведется свое множество id, поэтому выборка по статусу не требует перебора всего хранилища,
+ * а смена статуса - это перенос id из одного множества в другое за O(1).
+ *
+ * @author Николаев Д.В.
+ * @version 1.0
+ */
+public class StatusIndex {
+    /**
+     * Поле множеств id по статусам, индекс - {@link TaskStatus#ordinal()}
+     */
+    private final IntLinkedSet[] idsByStatus = new IntLinkedSet[TaskStatus.values().length];
+
+    /**
+     * Конструктор пустого индекса
+     */
+    public StatusIndex() {
+        for (int i = 0; i < idsByStatus.length; i++) {
+            idsByStatus[i] = new IntLinkedSet();
+        }
+    }
+
+    /**
+     * Метод занесения id с текущим статусом. Если id уже числится под другим статусом, он оттуда переносится.
+     *
+     * @param id     id объекта учета
+     * @param status текущий статус объекта учета
+     */
+    public void put(int id, TaskStatus status) {
+        if (idsByStatus[status.ordinal()].contains(id)) {
+            return;
+        }
+        remove(id);
+        idsByStatus[status.ordinal()].add(id);
+    }
+
+    /**
+     * Метод исключения id из индекса
+     *
+     * @param id id объекта учета
+     */
+    public void remove(int id) {
+        for (IntLinkedSet ids : idsByStatus) {
+            if (ids.remove(id)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Метод очистки индекса
+     */
+    public void clear() {
+        for (IntLinkedSet ids : idsByStatus) {
+            ids.clear();
+        }
+    }
+
+    /**
+     * Метод получения id объектов учета с заданным статусом
+     *
+     * @param status статус
+     * @return int[] id по возрастанию
+     */
+    public int[] getIds(TaskStatus status) {
+        int[] ids = idsByStatus[status.ordinal()].toArray();
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /**
+     * Метод получения количества объектов учета с заданным статусом
+     *
+     * @param status статус
+     * @return количество
+     */
+    public int size(TaskStatus status) {
+        return idsByStatus[status.ordinal()].size();
+    }
+
+    @Override
+    public String toString() {
+        return "StatusIndex{" +
+                "idsByStatus=" + Arrays.toString(idsByStatus) +
+                '}';
+    }
+}
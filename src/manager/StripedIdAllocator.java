@@ -0,0 +1,72 @@
+package manager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Генератор идентификаторов одной полосы из нескольких: полоса stripe из stripes выдает id, дающие остаток stripe
+ * при делении (id - 1) на stripes. Так {@link ShardedTaskManager} по одному id определяет шард объекта, а шарды выдают
+ * id независимо друг от друга, без общего счетчика.
+ *
+ * @author Николаев Д.В.
+ * @version 1.0
+ */
+public class StripedIdAllocator implements IdAllocator {
+    /**
+     * Поле номера полосы
+     */
+    private final int stripe;
+
+    /**
+     * Поле количества полос
+     */
+    private final int stripes;
+
+    /**
+     * Поле номера следующего id внутри полосы
+     */
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Конструктор
+     *
+     * @param stripe  номер полосы от 0 до stripes - 1
+     * @param stripes количество полос
+     */
+    public StripedIdAllocator(int stripe, int stripes) {
+        if (stripe < 0 || stripe >= stripes) {
+            throw new IllegalArgumentException("Некорректный номер полосы id: " + stripe + " из " + stripes);
+        }
+        this.stripe = stripe;
+        this.stripes = stripes;
+    }
+
+    /**
+     * Метод определения полосы id
+     *
+     * @param id      id
+     * @param stripes количество полос
+     * @return номер полосы
+     */
+    public static int stripeOf(int id, int stripes) {
+        return Math.floorMod(id - 1, stripes);
+    }
+
+    @Override
+    public int nextId() {
+        return Math.addExact(Math.multiplyExact(next.getAndIncrement(), stripes), stripe + 1);
+    }
+
+    @Override
+    public void reserve(int id) {
+        next.accumulateAndGet(Math.floorDiv(id - 1 - stripe, stripes) + 1, Math::max);
+    }
+
+    @Override
+    public String toString() {
+        return "StripedIdAllocator{" +
+                "stripe=" + stripe +
+                ", stripes=" + stripes +
+                ", next=" + next +
+                '}';
+    }
+}
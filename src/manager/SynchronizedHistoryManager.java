@@ -0,0 +1,59 @@
+package manager;
+
+import task.Task;
+
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Потокобезопасная обертка менеджера истории просмотра - реализация интерфейса {@link HistoryManager}.
+ * Все обращения к обернутому менеджеру выполняются под монитором обертки.
+ *
+ * @author Николаев Д.В.
+ * @version 1.1
+ */
+public class SynchronizedHistoryManager implements HistoryManager {
+    /**
+     * Поле обернутого менеджера истории
+     */
+    private final HistoryManager historyManager;
+
+    /**
+     * Конструктор обертки
+     *
+     * @param historyManager обертываемый менеджер истории
+     */
+    public SynchronizedHistoryManager(HistoryManager historyManager) {
+        this.historyManager = historyManager;
+    }
+
+    @Override
+    public synchronized void add(Task task) {
+        historyManager.add(task);
+    }
+
+    @Override
+    public synchronized List<Task> getHistory() {
+        return historyManager.getHistory();
+    }
+
+    @Override
+    public synchronized void remove(int id) {
+        historyManager.remove(id);
+    }
+
+    @Override
+    public synchronized void removeIf(IntPredicate idFilter) {
+        historyManager.removeIf(idFilter);
+    }
+
+    @Override
+    public synchronized void clear() {
+        historyManager.clear();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return historyManager.toString();
+    }
+}
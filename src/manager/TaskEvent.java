@@ -0,0 +1,108 @@
+package manager;
+
+import task.Task;
+
+/**
+ * Событие изменения объекта учета (задачи, подзадачи, эпика) в менеджере. Рассылается слушателям
+ * {@link TaskListener} после того, как изменение выполнено.
+ *
+ * @author Николаев Д.В.
+ * @version 1.0
+ */
+public class TaskEvent {
+    /**
+     * Виды изменений: добавление, изменение, удаление объекта и очистка всего хранилища одного типа
+     */
+    public enum Kind {
+        CREATE,
+        UPDATE,
+        REMOVE,
+        CLEAR
+    }
+
+    /**
+     * Поле версии менеджера после изменения. Растет на единицу с каждым событием, поэтому по ней видно и порядок
+     * событий, и пропуски.
+     */
+    private final long version;
+
+    /**
+     * Поле вида изменения
+     */
+    private final Kind kind;
+
+    /**
+     * Поле типа измененного объекта (очищенного хранилища)
+     */
+    private final TaskType taskType;
+
+    /**
+     * Поле версии объекта до изменения; null - при добавлении и очистке
+     */
+    private final Task before;
+
+    /**
+     * Поле версии объекта после изменения; null - при удалении и очистке
+     */
+    private final Task after;
+
+    /**
+     * Конструктор
+     *
+     * @param version  версия менеджера после изменения
+     * @param kind     вид изменения
+     * @param taskType тип объекта
+     * @param before   версия объекта до изменения
+     * @param after    версия объекта после изменения
+     */
+    public TaskEvent(long version, Kind kind, TaskType taskType, Task before, Task after) {
+        this.version = version;
+        this.kind = kind;
+        this.taskType = taskType;
+        this.before = before;
+        this.after = after;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public TaskType getTaskType() {
+        return taskType;
+    }
+
+    public Task getBefore() {
+        return before;
+    }
+
+    public Task getAfter() {
+        return after;
+    }
+
+    /**
+     * Метод получения id измененного объекта
+     *
+     * @return id объекта или 0 для очистки хранилища
+     */
+    public int getId() {
+        if (after != null) {
+            return after.getId();
+        }
+        return (before != null) ? before.getId() : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskEvent{" +
+                "version=" + version +
+                ", kind=" + kind +
+                ", taskType=" + taskType +
+                ", before=" + before +
+                ", after=" + after +
+                '}';
+    }
+}
@@ -0,0 +1,53 @@
+package manager;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Слушатель, складывающий события в неблокирующую очередь {@link ConcurrentLinkedQueue}. Менеджер при изменении
+ * только ставит событие в очередь, а потребитель разбирает ее в своем потоке через
+ * {@link TaskEventQueue#poll()} или {@link TaskEventQueue#drainTo(TaskListener)}, не задерживая изменения.
+ *
+ * @author Николаев Д.В.
+ * @version 1.0
+ */
+public class TaskEventQueue implements TaskListener {
+    /**
+     * Поле очереди событий
+     */
+    private final Queue<TaskEvent> events = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void onEvent(TaskEvent event) {
+        events.offer(event);
+    }
+
+    /**
+     * Метод получения очередного события
+     *
+     * @return самое раннее событие или null, если очередь пуста
+     */
+    public TaskEvent poll() {
+        return events.poll();
+    }
+
+    /**
+     * Метод передачи всех накопленных событий потребителю в порядке их версий
+     *
+     * @param consumer потребитель событий
+     * @return количество переданных событий
+     */
+    public int drainTo(TaskListener consumer) {
+        int count = 0;
+        TaskEvent event;
+        while ((event = events.poll()) != null) {
+            consumer.onEvent(event);
+            count++;
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return events.isEmpty();
+    }
+}
@@ -0,0 +1,13 @@
+package manager;
+
+/**
+ * Интерфейс слушателей событий изменения объектов учета {@link TaskEvent}. Менеджер вызывает слушателя синхронно,
+ * в потоке изменения и под его блокировками, поэтому долгую обработку лучше вести через {@link TaskEventQueue}.
+ *
+ * @author Николаев Д.В.
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface TaskListener {
+    void onEvent(TaskEvent event);
+}
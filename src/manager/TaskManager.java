@@ -1,15 +1,20 @@
 package manager;
 
 import task.Epic;
+import task.RecurringTask;
 import task.Subtask;
 import task.Task;
+import task.TaskStatus;
+
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Интерфейс менеджеров работы с объектами учета (задачами, подзадачами, эпиками)
  *
  * @author Николаев Д.В.
- * @version 1.2
+ * @version 1.13
  */
 public interface TaskManager {
     List<Task> getAllTasks();
@@ -18,6 +23,12 @@ public interface TaskManager {
 
     List<Epic> getAllEpics();
 
+    List<Task> getAllTasks(int afterId, int limit);
+
+    List<Subtask> getAllSubtasks(int afterId, int limit);
+
+    List<Epic> getAllEpics(int afterId, int limit);
+
     void clearAllTasks();
 
     void clearAllSubtasks();
@@ -48,15 +59,67 @@ public interface TaskManager {
 
     void removeEpic(int epicId);
 
+    List<Task> createBatch(List<? extends Task> batch);
+
+    void updateBatch(List<? extends Task> batch);
+
+    void removeBatch(List<Integer> ids);
+
     List<Subtask> getSubtasksByEpicId(int epicId);
 
     List<Subtask> getSubtasksByEpic(Epic epic);
 
+    List<Task> getTasksByStatus(TaskStatus status);
+
+    List<Subtask> getSubtasksByStatus(TaskStatus status);
+
+    List<Epic> getEpicsByStatus(TaskStatus status);
+
+    Map<TaskStatus, List<Task>> getBoard();
+
+    List<Task> search(String query);
+
+    List<Task> query(TaskQuery query);
+
     List<Task> getHistory();
 
     List<Task> getPrioritizedTasks();
 
+    List<Task> getPrioritizedTasks(LocalDateTime after, int limit);
+
+    List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to);
+
+    List<LocalDateTime> findFreeSlots(LocalDateTime notBefore, long durationMinutes, int count);
+
+    List<Task> scheduleTasks(List<Integer> ids, LocalDateTime notBefore);
+
+    RecurringTask createRecurringTask(RecurringTask task);
+
+    RecurringTask getRecurringTask(int id);
+
+    List<RecurringTask> getAllRecurringTasks();
+
+    void removeRecurringTask(int id);
+
     boolean isValid(Task task);
 
+    void addDependency(int blockerId, int blockedId);
+
+    void removeDependency(int blockerId, int blockedId);
+
+    List<Task> getBlockers(int taskId);
+
+    LocalDateTime getEarliestStart(int taskId);
+
+    List<Task> getCriticalPath(int taskId);
+
+    List<Task> getCriticalPath();
+
     void clearHistory();
+
+    void addListener(TaskListener listener);
+
+    void removeListener(TaskListener listener);
+
+    long getVersion();
 }
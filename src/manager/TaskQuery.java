@@ -0,0 +1,189 @@
+package manager;
+
+import task.Epic;
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запрос на выборку объектов учета (задач, подзадач, эпиков) для {@link TaskManager#query(TaskQuery)}.
+ * Все заданные условия объединяются по "и", незаданное (null) условие не ограничивает выборку.
+ * Условия задаются цепочкой вызовов: {@code new TaskQuery().type(TaskType.SUBTASK).status(TaskStatus.IN_PROGRESS)}.
+ *
+ * @author Николаев Д.В.
+ * @version 1.0
+ */
+public class TaskQuery {
+    /**
+     * Поле типа объектов учета
+     */
+    private TaskType type;
+
+    /**
+     * Поле статуса
+     */
+    private TaskStatus status;
+
+    /**
+     * Поле id эпика - выбираются только его подзадачи
+     */
+    private Integer epicId;
+
+    /**
+     * Поле начала окна даты/времени начала выполнения, включительно
+     */
+    private LocalDateTime from;
+
+    /**
+     * Поле конца окна даты/времени начала выполнения, не включительно
+     */
+    private LocalDateTime to;
+
+    /**
+     * Поле текста: все его слова должны встречаться в названии или описании
+     */
+    private String text;
+
+    /**
+     * Поле признака упорядочивания по дате/времени начала выполнения (true) вместо id (false)
+     */
+    private boolean orderByStartTime;
+
+    public TaskType getType() {
+        return type;
+    }
+
+    public TaskQuery type(TaskType type) {
+        this.type = type;
+        return this;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public TaskQuery status(TaskStatus status) {
+        this.status = status;
+        return this;
+    }
+
+    public Integer getEpicId() {
+        return epicId;
+    }
+
+    public TaskQuery epicId(Integer epicId) {
+        this.epicId = epicId;
+        return this;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    /**
+     * Метод задания окна даты/времени начала выполнения. Объекты без даты/времени начала в окно не попадают.
+     *
+     * @param from начало окна включительно; null - без ограничения
+     * @param to   конец окна не включительно; null - без ограничения
+     * @return этот запрос
+     */
+    public TaskQuery startingBetween(LocalDateTime from, LocalDateTime to) {
+        this.from = from;
+        this.to = to;
+        return this;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public TaskQuery text(String text) {
+        this.text = text;
+        return this;
+    }
+
+    public boolean isOrderByStartTime() {
+        return orderByStartTime;
+    }
+
+    public TaskQuery orderByStartTime(boolean orderByStartTime) {
+        this.orderByStartTime = orderByStartTime;
+        return this;
+    }
+
+    /**
+     * Метод проверки, допускает ли запрос объекты заданного типа
+     *
+     * @param taskType тип объектов учета
+     * @return true - объекты этого типа могут попасть в выборку
+     */
+    public boolean includes(TaskType taskType) {
+        if (type != null && type != taskType) {
+            return false;
+        }
+        return epicId == null || taskType == TaskType.SUBTASK;
+    }
+
+    /**
+     * Метод проверки наличия окна даты/времени начала выполнения
+     *
+     * @return true - окно задано
+     */
+    public boolean hasWindow() {
+        return from != null || to != null;
+    }
+
+    /**
+     * Метод проверки объекта учета на все условия запроса, кроме текста (его проверяет менеджер по своим индексам)
+     *
+     * @param task задача, подзадача или эпик
+     * @return true - объект удовлетворяет условиям
+     */
+    public boolean matches(Task task) {
+        if (!includes(typeOf(task)) || (status != null && task.getStatus() != status)) {
+            return false;
+        }
+        if (epicId != null && ((Subtask) task).getEpicId() != epicId) {
+            return false;
+        }
+        if (hasWindow()) {
+            return task.hasStartTime() && (from == null || task.compareStartTo(from) >= 0)
+                    && (to == null || task.compareStartTo(to) < 0);
+        }
+        return true;
+    }
+
+    /**
+     * Метод определения типа объекта учета по его классу
+     *
+     * @param task задача, подзадача или эпик
+     * @return тип объекта учета
+     */
+    public static TaskType typeOf(Task task) {
+        if (task instanceof Subtask) {
+            return TaskType.SUBTASK;
+        } else if (task instanceof Epic) {
+            return TaskType.EPIC;
+        }
+        return TaskType.TASK;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskQuery{" +
+                "type=" + type +
+                ", status=" + status +
+                ", epicId=" + epicId +
+                ", from=" + from +
+                ", to=" + to +
+                ", text='" + text + '\'' +
+                ", orderByStartTime=" + orderByStartTime +
+                '}';
+    }
+}
@@ -0,0 +1,34 @@
+package manager;
+
+import task.Task;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Хранилище задач (подзадач) менеджера по id. Позволяет {@link InMemoryTaskManager} держать задачи как в куче,
+ * так и вне ее, восстанавливая объекты только при выдаче.
+ *
+ * @param <T> тип хранимых задач
+ * @author Николаев Д.В.
+ * @version 1.0
+ */
+public interface TaskStore<T extends Task> {
+    int size();
+
+    boolean isEmpty();
+
+    boolean containsKey(int id);
+
+    T get(int id);
+
+    T put(int id, T task);
+
+    T remove(int id);
+
+    void clear();
+
+    void forEach(Consumer<? super T> action);
+
+    List<T> values();
+}
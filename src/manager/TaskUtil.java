@@ -1,32 +1,317 @@
 package manager;
 
+import task.Epic;
+import task.Subtask;
 import task.Task;
 
 import java.time.LocalDateTime;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Predicate;
 
 public class TaskUtil {
+    /**
+     * Порядок по id - порядок опубликованных списков задач, подзадач и эпиков
+     */
+    public static final Comparator<Task> BY_ID = Comparator.comparingInt(Task::getId);
+
+    /**
+     * Порядок по дате/времени начала: сначала объекты с датой/временем начала, затем без нее; при совпадении - по id
+     */
+    public static final Comparator<Task> BY_START_TIME = ((Comparator<Task>) (first, second) ->
+            (first.hasStartTime() && second.hasStartTime()) ? first.compareStartTo(second)
+                    : Boolean.compare(second.hasStartTime(), first.hasStartTime()))
+            .thenComparing(BY_ID);
+
+    /**
+     * Метод проверки пересечения задач по времени выполнения: совпадают даты/время начала либо, если у обеих задач
+     * рассчитывается окончание, совпадают окончания или интервалы выполнения перекрываются. Сравнение ведется по
+     * примитивным полям задач, без создания объектов даты/времени.
+     *
+     * @param t1 первая задача
+     * @param t2 вторая задача
+     * @return true - задачи пересекаются
+     */
     public static boolean isCrossing(Task t1, Task t2) {
-        boolean result = false;
-        LocalDateTime t1StartTime = t1.getStartTime();
-        LocalDateTime t2StartTime = t2.getStartTime();
-        LocalDateTime t1EndTime = t1.getEndTime();
-        LocalDateTime t2EndTime = t2.getEndTime();
-
-        if (t1StartTime != null && t2StartTime != null) {
-            result = t1StartTime.equals(t2StartTime);
-
-            if (!result && t1EndTime != null && t2EndTime != null) {
-                result = t1EndTime.equals(t2EndTime);
-
-                if (!result) {
-                    if (t1StartTime.isBefore(t2StartTime)) {
-                        result = t1EndTime.isAfter(t2StartTime);
-                    } else {
-                        result = t1StartTime.isBefore(t2EndTime);
-                    }
-                }
+        if (!t1.hasStartTime() || !t2.hasStartTime()) {
+            return false;
+        }
+        int startCompare = t1.compareStartTo(t2);
+        if (startCompare == 0) {
+            return true;
+        }
+        if (!t1.hasEndTime() || !t2.hasEndTime()) {
+            return false;
+        }
+        if (t1.compareEndTo(t2) == 0) {
+            return true;
+        }
+        if (startCompare < 0) {
+            return t2.compareStartToEndOf(t1) < 0;
+        } else {
+            return t1.compareStartToEndOf(t2) < 0;
+        }
+    }
+
+    /**
+     * Метод получения копии задачи (подзадачи) с другой датой/временем начала
+     *
+     * @param task      задача (подзадача)
+     * @param startTime новая дата/время начала
+     * @return Task копия с тем же id, атрибутами и продолжительностью
+     */
+    public static Task withStartTime(Task task, LocalDateTime startTime) {
+        Long duration = (task.getDuration() != null) ? task.getDuration().toMinutes() : null;
+        if (task instanceof Subtask subtask) {
+            return new Subtask(subtask.getName(), subtask.getDescription(), subtask.getId(), subtask.getStatus(),
+                    subtask.getEpicId(), duration, startTime);
+        }
+        return new Task(task.getName(), task.getDescription(), task.getId(), task.getStatus(), duration, startTime);
+    }
+
+    /**
+     * Метод замены эпиков списка их копиями - для выдачи читателям потокобезопасных менеджеров: эпики менеджер
+     * меняет на месте при изменении их подзадач. Вызывается под блокировкой, пока эпики не могут меняться.
+     *
+     * @param tasks список объектов учета
+     * @return List<T> список с копиями эпиков в том же порядке
+     */
+    public static <T extends Task> List<T> detach(List<T> tasks) {
+        List<T> result = new ArrayList<>(tasks.size());
+        for (T task : tasks) {
+            result.add(detach(task));
+        }
+        return result;
+    }
+
+    /**
+     * Метод замены эпика его копией {@link Epic#Epic(Epic)}; задачи и подзадачи менеджер на месте не меняет,
+     * поэтому они возвращаются как есть
+     *
+     * @param task объект учета
+     * @return копия эпика или сам объект
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Task> T detach(T task) {
+        return (task instanceof Epic epic) ? (T) new Epic(epic) : task;
+    }
+
+    /**
+     * Метод выборки страницы из списка, упорядоченного по id. Поиск начала страницы - двоичный, а сама страница -
+     * представление исходного списка без копирования.
+     *
+     * @param sortedById список, упорядоченный по возрастанию id
+     * @param afterId    курсор - id, после которого начинается страница; 0 - с начала списка
+     * @param limit      максимальное количество элементов страницы
+     * @return List<T> страница списка
+     */
+    public static <T extends Task> List<T> pageById(List<T> sortedById, int afterId, int limit) {
+        int low = 0;
+        int high = sortedById.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedById.get(middle).getId() <= afterId) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return sortedById.subList(low, Math.min(sortedById.size(), low + Math.max(limit, 0)));
+    }
+
+    /**
+     * Метод выборки страницы из списка, упорядоченного по дате/времени начала, аналогично
+     * {@link TaskUtil#pageById(List, int, int)}.
+     *
+     * @param prioritized список, упорядоченный по возрастанию даты/времени начала
+     * @param after       курсор - дата/время начала, после которой начинается страница; null - с начала списка
+     * @param limit       максимальное количество элементов страницы
+     * @return List<Task> страница списка
+     */
+    public static List<Task> pageByStartTime(List<Task> prioritized, LocalDateTime after, int limit) {
+        int low = 0;
+        int high = prioritized.size();
+        while (after != null && low < high) {
+            int middle = (low + high) >>> 1;
+            if (!prioritized.get(middle).getStartTime().isAfter(after)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return prioritized.subList(low, Math.min(prioritized.size(), low + Math.max(limit, 0)));
+    }
+
+    /**
+     * Метод слияния нескольких упорядоченных списков в один (k-way merge) через кучу текущих голов списков:
+     * O(n log k) для n элементов k списков.
+     *
+     * @param sortedLists списки, каждый упорядочен по comparator
+     * @param comparator  порядок списков и результата
+     * @return ArrayList<T> общий упорядоченный список
+     */
+    public static <T> List<T> mergeSorted(List<? extends List<? extends T>> sortedLists, Comparator<? super T> comparator) {
+        int size = 0;
+        List<? extends T> single = null;
+        int nonEmpty = 0;
+        for (List<? extends T> list : sortedLists) {
+            size += list.size();
+            if (!list.isEmpty()) {
+                single = list;
+                nonEmpty++;
+            }
+        }
+        if (nonEmpty <= 1) {
+            return (single != null) ? new ArrayList<>(single) : new ArrayList<>();
+        }
+
+        // Голова списка - текущий элемент вместе с итератором по остатку
+        record Head<T>(T value, Iterator<? extends T> rest) {
+        }
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>(nonEmpty,
+                (first, second) -> comparator.compare(first.value(), second.value()));
+        for (List<? extends T> list : sortedLists) {
+            Iterator<? extends T> iterator = list.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Head<>(iterator.next(), iterator));
+            }
+        }
+        List<T> result = new ArrayList<>(size);
+        while (!heads.isEmpty()) {
+            Head<T> head = heads.poll();
+            result.add(head.value());
+            if (head.rest().hasNext()) {
+                heads.add(new Head<>(head.rest().next(), head.rest()));
             }
         }
         return result;
     }
+
+    /**
+     * Метод отбора элементов упорядоченного множества в новое {@link TreeSet} за один проход. Оставшиеся элементы
+     * уже упорядочены, поэтому дерево строится из них сразу сбалансированным за O(n) - без поэлементного удаления
+     * с перебалансировкой на каждом шаге.
+     *
+     * @param sorted исходное множество
+     * @param keep   условие, которому должны удовлетворять оставляемые элементы
+     * @return NavigableSet<T> новое множество с тем же порядком
+     */
+    public static <T> NavigableSet<T> filterSorted(SortedSet<T> sorted, Predicate<? super T> keep) {
+        List<T> kept = new ArrayList<>(sorted.size());
+        for (T element : sorted) {
+            if (keep.test(element)) {
+                kept.add(element);
+            }
+        }
+        TreeSet<T> result = new TreeSet<>(sorted.comparator());
+        // TreeSet.addAll строит дерево из упорядоченного множества с тем же компаратором за линейное время
+        result.addAll(new SortedRun<>(kept, sorted.comparator()));
+        return result;
+    }
+
+    /**
+     * Упорядоченный список без повторов, представленный как неизменяемое {@link SortedSet} - для передачи
+     * в {@link TreeSet#addAll}. Подмножества - представления соответствующих отрезков списка, границы которых
+     * находятся двоичным поиском.
+     *
+     * @param <T> тип элементов
+     */
+    private static final class SortedRun<T> extends AbstractSet<T> implements SortedSet<T> {
+        private final List<T> elements;
+        private final Comparator<? super T> comparator;
+
+        private SortedRun(List<T> elements, Comparator<? super T> comparator) {
+            this.elements = Collections.unmodifiableList(elements);
+            this.comparator = comparator;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return elements.iterator();
+        }
+
+        @Override
+        public int size() {
+            return elements.size();
+        }
+
+        @Override
+        public Comparator<? super T> comparator() {
+            return comparator;
+        }
+
+        @Override
+        public SortedSet<T> subSet(T fromElement, T toElement) {
+            if (comparator.compare(fromElement, toElement) > 0) {
+                throw new IllegalArgumentException("Начало подмножества больше его конца.");
+            }
+            return view(lowerBound(fromElement), lowerBound(toElement));
+        }
+
+        @Override
+        public SortedSet<T> headSet(T toElement) {
+            return view(0, lowerBound(toElement));
+        }
+
+        @Override
+        public SortedSet<T> tailSet(T fromElement) {
+            return view(lowerBound(fromElement), elements.size());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            int index = lowerBound((T) o);
+            return index < elements.size() && comparator.compare(elements.get(index), (T) o) == 0;
+        }
+
+        /**
+         * Метод получения индекса первого элемента, не меньшего заданного
+         *
+         * @param element элемент
+         * @return индекс, равный размеру списка, если таких элементов нет
+         */
+        private int lowerBound(T element) {
+            int low = 0;
+            int high = elements.size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (comparator.compare(elements.get(middle), element) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Метод получения подмножества - представления отрезка списка
+         *
+         * @param from начало отрезка включительно
+         * @param to   конец отрезка не включительно
+         * @return подмножество
+         */
+        private SortedSet<T> view(int from, int to) {
+            return new SortedRun<>(elements.subList(from, to), comparator);
+        }
+
+        @Override
+        public T first() {
+            return elements.getFirst();
+        }
+
+        @Override
+        public T last() {
+            return elements.getLast();
+        }
+    }
 }
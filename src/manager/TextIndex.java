@@ -0,0 +1,254 @@
+package manager;
+
+import task.Task;
+import util.IntLinkedSet;
+import util.IntObjectMap;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/**
+ * Инвертированный индекс слов названий и описаний объектов учета (задач, подзадач или эпиков) для полнотекстового
+ * поиска. Для каждого слова хранятся множества id объектов, в названии и в описании которых оно встречается, поэтому
+ * поиск обходит только объекты с искомыми словами, а не все хранилище. Слова каждого объекта запоминаются при
+ * занесении, чтобы исключить его из индекса независимо от того, что стало с самим объектом после этого.
+ * Слова - непрерывные последовательности букв (в том числе кириллических) и цифр, приведенные к нижнему регистру,
+ * с заменой "ё" на "е".
+ *
+ * @author Николаев Д.В.
+ * @version 1.2
+ */
+public class TextIndex {
+    /**
+     * Вес совпадения слова в названии
+     */
+    static final int NAME_WEIGHT = 2;
+
+    /**
+     * Вес совпадения слова в описании
+     */
+    static final int DESCRIPTION_WEIGHT = 1;
+
+    /**
+     * Поле множеств id объектов по словам названия
+     */
+    private final Map<String, IntLinkedSet> nameIndex = new HashMap<>();
+
+    /**
+     * Поле множеств id объектов по словам описания
+     */
+    private final Map<String, IntLinkedSet> descriptionIndex = new HashMap<>();
+
+    /**
+     * Поле слов названия по id объектов
+     */
+    private final IntObjectMap<String[]> nameTokens = new IntObjectMap<>();
+
+    /**
+     * Поле слов описания по id объектов
+     */
+    private final IntObjectMap<String[]> descriptionTokens = new IntObjectMap<>();
+
+    /**
+     * Метод разбиения текста на слова
+     *
+     * @param text текст или null
+     * @return Set<String> различные слова текста в порядке появления
+     */
+    public static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean letter = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Метод занесения слов названия и описания объекта в индекс. Прежняя версия объекта с тем же id заменяется.
+     *
+     * @param task задача, подзадача или эпик
+     */
+    public void put(Task task) {
+        remove(task.getId());
+        nameTokens.put(task.getId(), addTokens(nameIndex, task.getName(), task.getId()));
+        descriptionTokens.put(task.getId(), addTokens(descriptionIndex, task.getDescription(), task.getId()));
+    }
+
+    /**
+     * Метод исключения объекта из индекса
+     *
+     * @param id id задачи, подзадачи или эпика
+     */
+    public void remove(int id) {
+        removeTokens(nameIndex, nameTokens.remove(id), id);
+        removeTokens(descriptionIndex, descriptionTokens.remove(id), id);
+    }
+
+    /**
+     * Метод занесения id объекта в множества по словам текста
+     *
+     * @param index индекс названий или описаний
+     * @param text  текст объекта
+     * @param id    id объекта
+     * @return String[] занесенные слова
+     */
+    private static String[] addTokens(Map<String, IntLinkedSet> index, String text, int id) {
+        String[] tokens = tokenize(text).toArray(new String[0]);
+        for (String token : tokens) {
+            index.computeIfAbsent(token, key -> new IntLinkedSet()).add(id);
+        }
+        return tokens;
+    }
+
+    /**
+     * Метод исключения id объекта из множеств по словам с удалением опустевших множеств
+     *
+     * @param index  индекс названий или описаний
+     * @param tokens занесенные слова объекта или null
+     * @param id     id объекта
+     */
+    private static void removeTokens(Map<String, IntLinkedSet> index, String[] tokens, int id) {
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            IntLinkedSet ids = index.get(token);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                index.remove(token);
+            }
+        }
+    }
+
+    /**
+     * Метод очистки индекса
+     */
+    public void clear() {
+        nameIndex.clear();
+        descriptionIndex.clear();
+        nameTokens.clear();
+        descriptionTokens.clear();
+    }
+
+    /**
+     * Метод оценки количества объектов со словом - сверху, т.к. слово может быть и в названии, и в описании
+     *
+     * @param term слово
+     * @return количество объектов не больше этого
+     */
+    public int count(String term) {
+        IntLinkedSet names = nameIndex.get(term);
+        IntLinkedSet descriptions = descriptionIndex.get(term);
+        return ((names != null) ? names.size() : 0) + ((descriptions != null) ? descriptions.size() : 0);
+    }
+
+    /**
+     * Метод обхода id объектов, в названии или описании которых есть слово; каждый id - один раз
+     *
+     * @param term   слово
+     * @param action действие над каждым id
+     */
+    public void forEach(String term, IntConsumer action) {
+        IntLinkedSet names = nameIndex.get(term);
+        IntLinkedSet descriptions = descriptionIndex.get(term);
+        if (names != null) {
+            names.forEach(action);
+        }
+        if (descriptions != null) {
+            descriptions.forEach(id -> {
+                if (names == null || !names.contains(id)) {
+                    action.accept(id);
+                }
+            });
+        }
+    }
+
+    /**
+     * Метод проверки наличия слова в названии или описании объекта
+     *
+     * @param id   id объекта
+     * @param term слово
+     * @return true - слово есть у объекта
+     */
+    public boolean contains(int id, String term) {
+        IntLinkedSet names = nameIndex.get(term);
+        IntLinkedSet descriptions = descriptionIndex.get(term);
+        return (names != null && names.contains(id)) || (descriptions != null && descriptions.contains(id));
+    }
+
+    /**
+     * Метод подсчета очков одного объекта по его тексту - так же, как
+     * {@link TextIndex#score(Collection, IntObjectMap)}, но без индекса
+     *
+     * @param task  задача, подзадача или эпик
+     * @param terms слова запроса
+     * @return сумма очков объекта
+     */
+    public static int score(Task task, Collection<String> terms) {
+        Set<String> names = tokenize(task.getName());
+        Set<String> descriptions = tokenize(task.getDescription());
+        int score = 0;
+        for (String term : terms) {
+            score += (names.contains(term) ? NAME_WEIGHT : 0) + (descriptions.contains(term) ? DESCRIPTION_WEIGHT : 0);
+        }
+        return score;
+    }
+
+    /**
+     * Метод начисления очков объектам, содержащим слова запроса: {@link TextIndex#NAME_WEIGHT} за каждое слово
+     * в названии и {@link TextIndex#DESCRIPTION_WEIGHT} - в описании
+     *
+     * @param terms  слова запроса
+     * @param scores накопитель очков по id объектов; в ячейке массива - сумма очков
+     */
+    public void score(Collection<String> terms, IntObjectMap<int[]> scores) {
+        for (String term : terms) {
+            addScore(nameIndex.get(term), NAME_WEIGHT, scores);
+            addScore(descriptionIndex.get(term), DESCRIPTION_WEIGHT, scores);
+        }
+    }
+
+    /**
+     * Метод начисления очков всем объектам множества
+     *
+     * @param ids    множество id или null
+     * @param weight очки за совпадение
+     * @param scores накопитель очков по id объектов
+     */
+    private static void addScore(IntLinkedSet ids, int weight, IntObjectMap<int[]> scores) {
+        if (ids == null) {
+            return;
+        }
+        ids.forEach(id -> {
+            int[] score = scores.get(id);
+            if (score == null) {
+                scores.put(id, new int[]{weight});
+            } else {
+                score[0] += weight;
+            }
+        });
+    }
+
+    @Override
+    public String toString() {
+        return "TextIndex{" +
+                "documents=" + nameTokens.size() +
+                ", words=" + nameIndex.size() + "+" + descriptionIndex.size() +
+                '}';
+    }
+}
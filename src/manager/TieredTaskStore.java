@@ -0,0 +1,612 @@
+package manager;
+
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+import util.BloomFilter;
+import util.IntObjectMap;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Двухуровневое хранилище задач (подзадач): горячие задачи лежат в куче, а холодные - выполненные
+ * ({@link TaskStatus#DONE}) и не затронутые дольше заданного срока - выгружаются в файл сегмента и из кучи удаляются.
+ * В куче от холодной задачи остаются только id, смещение и длина ее записи в упорядоченных по id массивах,
+ * по которым запись находится двоичным поиском. Перед ними стоит фильтр Блума по id холодных задач, поэтому
+ * проверка отсутствующего id почти никогда не доходит до поиска, а прочитанные с диска задачи держит
+ * ограниченный LRU-кэш. Выгрузка выполняется {@link TieredTaskStore#evictCold()} - явно или сама через каждые
+ * {@link TieredTaskStore#EVICTION_PERIOD} записей. Записи выгруженных задач, которые затем изменены или удалены,
+ * становятся мусором сегмента; когда мусора больше половины, сегмент переписывается.
+ * Как и у {@link OffHeapTaskStore}, в куче остаются ссылки на задачи в расписании и истории менеджера, а полные
+ * списки ({@link TieredTaskStore#values()}) читают весь холодный уровень. Сегмент - рабочий файл хранилища, а не
+ * сохранение: при создании хранилища он очищается, при {@link TieredTaskStore#close()} удаляется.
+ * Изменения и выгрузка требуют внешней блокировки записи, чтение можно вести параллельно.
+ *
+ * @param <T> тип хранимых задач: {@link Task} или {@link Subtask}
+ * @author Николаев Д.В.
+ * @version 1.1
+ */
+public class TieredTaskStore<T extends Task> implements TaskStore<T>, Closeable {
+    /**
+     * Срок, после которого выполненная задача считается холодной, по умолчанию
+     */
+    public static final Duration DEFAULT_COLD_AFTER = Duration.ofDays(30);
+
+    /**
+     * Емкость кэша холодных задач по умолчанию
+     */
+    public static final int DEFAULT_CACHE_CAPACITY = 1024;
+
+    /**
+     * Количество записей в хранилище между автоматическими выгрузками
+     */
+    static final int EVICTION_PERIOD = 1024;
+
+    /**
+     * Значения поля типа записи: задача, подзадача
+     */
+    private static final byte TYPE_TASK = 1;
+    private static final byte TYPE_SUBTASK = 2;
+
+    /**
+     * Значения полей для незаданных продолжительности, даты/времени начала и строк - как в {@link OffHeapTaskStore}
+     */
+    private static final long NO_DURATION = Long.MIN_VALUE;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final int NO_STRING = -1;
+
+    /**
+     * Размер полей фиксированной ширины записи: тип, id, статус, id эпика, продолжительность, дата/время начала
+     * (секунды и наносекунды), длины названия и описания
+     */
+    private static final int FIXED_SIZE = 1 + 4 + 1 + 4 + 8 + 8 + 4 + 4 + 4;
+
+    /**
+     * Поле пути к файлу сегмента
+     */
+    private final Path segment;
+
+    /**
+     * Поле канала файла сегмента
+     */
+    private FileChannel channel;
+
+    /**
+     * Поле срока, после которого выполненная задача считается холодной
+     */
+    private final Duration coldAfter;
+
+    /**
+     * Поле часов для отметок обращений
+     */
+    private final Clock clock;
+
+    /**
+     * Поле горячих задач по id
+     */
+    private final IntObjectMap<Hot<T>> hot = new IntObjectMap<>();
+
+    /**
+     * Поле id холодных задач по возрастанию, включая удаленные
+     */
+    private int[] coldIds = new int[0];
+
+    /**
+     * Поле смещений записей холодных задач в сегменте; -1 - задача удалена из холодного уровня
+     */
+    private long[] coldOffsets = new long[0];
+
+    /**
+     * Поле длин записей холодных задач
+     */
+    private int[] coldLengths = new int[0];
+
+    /**
+     * Поле количества действующих холодных задач
+     */
+    private int coldSize;
+
+    /**
+     * Поле фильтра Блума по id холодных задач; удаленные id вычищаются из него при следующей выгрузке
+     */
+    private BloomFilter coldFilter = new BloomFilter(0);
+
+    /**
+     * Поле конца данных сегмента
+     */
+    private long segmentEnd;
+
+    /**
+     * Поле количества байт мусорных записей сегмента
+     */
+    private long garbageBytes;
+
+    /**
+     * Поле LRU-кэша прочитанных холодных задач
+     */
+    private final Map<Integer, T> cache;
+
+    /**
+     * Поле количества записей с последней выгрузки
+     */
+    private int putsSinceEviction;
+
+    /**
+     * Класс горячей задачи с отметкой последнего обращения
+     */
+    private static final class Hot<T> {
+        /**
+         * Поле задачи
+         */
+        private final T task;
+        /**
+         * Поле времени последнего обращения, мс
+         */
+        private volatile long touchedAt;
+
+        private Hot(T task, long touchedAt) {
+            this.task = task;
+            this.touchedAt = touchedAt;
+        }
+    }
+
+    /**
+     * Конструктор хранилища с параметрами по умолчанию
+     *
+     * @param segment путь к файлу сегмента
+     */
+    public TieredTaskStore(Path segment) {
+        this(segment, DEFAULT_COLD_AFTER, DEFAULT_CACHE_CAPACITY, Clock.systemUTC());
+    }
+
+    /**
+     * Конструктор хранилища
+     *
+     * @param segment       путь к файлу сегмента; файл создается или очищается
+     * @param coldAfter     срок без обращений, после которого выполненная задача выгружается
+     * @param cacheCapacity емкость кэша холодных задач
+     * @param clock         часы для отметок обращений
+     */
+    public TieredTaskStore(Path segment, Duration coldAfter, int cacheCapacity, Clock clock) {
+        if (coldAfter.isNegative()) {
+            throw new IllegalArgumentException("Срок выгрузки не может быть отрицательным: " + coldAfter);
+        }
+        if (cacheCapacity < 0) {
+            throw new IllegalArgumentException("Емкость кэша не может быть отрицательной: " + cacheCapacity);
+        }
+        this.segment = segment;
+        this.coldAfter = coldAfter;
+        this.clock = clock;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, T> eldest) {
+                return size() > cacheCapacity;
+            }
+        };
+        try {
+            channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Произошла ошибка во время открытия сегмента " + segment + ".");
+        }
+    }
+
+    @Override
+    public int size() {
+        return hot.size() + coldSize;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(int id) {
+        return hot.containsKey(id) || coldIndexOf(id) >= 0;
+    }
+
+    /**
+     * Метод получения задачи по id. Горячая задача отмечается как затронутая, холодная читается из кэша или сегмента
+     * и остается холодной.
+     *
+     * @param id id задачи
+     * @return задача или null, если ее нет
+     */
+    @Override
+    public T get(int id) {
+        Hot<T> entry = hot.get(id);
+        if (entry != null) {
+            entry.touchedAt = clock.millis();
+            return entry.task;
+        }
+        int i = coldIndexOf(id);
+        return (i >= 0) ? readCached(i) : null;
+    }
+
+    /**
+     * Метод добавления или замены задачи. Новая версия всегда горячая, прежняя холодная запись становится мусором.
+     *
+     * @param id   id задачи
+     * @param task задача, не null
+     * @return прежняя версия задачи или null, если ее не было
+     */
+    @Override
+    public T put(int id, T task) {
+        if (task == null) {
+            throw new NullPointerException("Задача хранилища не может быть null.");
+        }
+        Hot<T> previous = hot.put(id, new Hot<>(task, clock.millis()));
+        T result = (previous != null) ? previous.task : dropCold(id);
+        if (++putsSinceEviction >= EVICTION_PERIOD) {
+            evictCold();
+        }
+        return result;
+    }
+
+    @Override
+    public T remove(int id) {
+        Hot<T> previous = hot.remove(id);
+        return (previous != null) ? previous.task : dropCold(id);
+    }
+
+    @Override
+    public void clear() {
+        hot.clear();
+        coldIds = new int[0];
+        coldOffsets = new long[0];
+        coldLengths = new int[0];
+        coldSize = 0;
+        coldFilter = new BloomFilter(0);
+        segmentEnd = 0;
+        garbageBytes = 0;
+        synchronized (cache) {
+            cache.clear();
+        }
+        try {
+            channel.truncate(0);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Произошла ошибка во время очистки сегмента " + segment + ".");
+        }
+    }
+
+    /**
+     * Метод обхода всех задач: сначала горячих, затем холодных - чтением сегмента мимо кэша
+     *
+     * @param action действие над задачей
+     */
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        hot.forEach(entry -> action.accept(entry.task));
+        for (int i = 0; i < coldIds.length; i++) {
+            if (coldOffsets[i] >= 0) {
+                action.accept(read(i));
+            }
+        }
+    }
+
+    @Override
+    public List<T> values() {
+        List<T> values = new ArrayList<>(size());
+        forEach(values::add);
+        return values;
+    }
+
+    /**
+     * Метод получения количества холодных задач
+     *
+     * @return количество задач в сегменте
+     */
+    public int coldSize() {
+        return coldSize;
+    }
+
+    /**
+     * Метод выгрузки холодных задач: выполненных и не затронутых дольше срока выгрузки. Их записи дописываются
+     * в сегмент, а сами задачи удаляются из кучи.
+     *
+     * @return количество выгруженных задач
+     */
+    public int evictCold() {
+        putsSinceEviction = 0;
+        long threshold = clock.millis() - coldAfter.toMillis();
+        List<T> evicted = new ArrayList<>();
+        hot.forEach(entry -> {
+            if (entry.task.getStatus() == TaskStatus.DONE && entry.touchedAt <= threshold) {
+                evicted.add(entry.task);
+            }
+        });
+        if (evicted.isEmpty()) {
+            return 0;
+        }
+        evicted.sort(TaskUtil.BY_ID);
+
+        int[] ids = new int[evicted.size()];
+        long[] offsets = new long[evicted.size()];
+        int[] lengths = new int[evicted.size()];
+        long end = segmentEnd;
+        try {
+            for (int i = 0; i < ids.length; i++) {
+                ByteBuffer record = encode(evicted.get(i));
+                ids[i] = evicted.get(i).getId();
+                offsets[i] = end;
+                lengths[i] = record.remaining();
+                end += writeFully(record, end);
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Произошла ошибка во время выгрузки задач в сегмент " + segment + ".");
+        }
+        segmentEnd = end;
+        for (int id : ids) {
+            hot.remove(id);
+        }
+        mergeCold(ids, offsets, lengths);
+        if (garbageBytes > segmentEnd / 2) {
+            compact();
+        }
+        return ids.length;
+    }
+
+    /**
+     * Метод слияния новых холодных задач с действующими в новые упорядоченные массивы и перестройки фильтра Блума
+     *
+     * @param ids     id новых холодных задач по возрастанию
+     * @param offsets смещения их записей
+     * @param lengths длины их записей
+     */
+    private void mergeCold(int[] ids, long[] offsets, int[] lengths) {
+        int total = coldSize + ids.length;
+        int[] mergedIds = new int[total];
+        long[] mergedOffsets = new long[total];
+        int[] mergedLengths = new int[total];
+        BloomFilter filter = new BloomFilter(total);
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < total; k++) {
+            while (i < coldIds.length && coldOffsets[i] < 0) {
+                i++;
+            }
+            if (j == ids.length || (i < coldIds.length && coldIds[i] < ids[j])) {
+                mergedIds[k] = coldIds[i];
+                mergedOffsets[k] = coldOffsets[i];
+                mergedLengths[k] = coldLengths[i++];
+            } else {
+                mergedIds[k] = ids[j];
+                mergedOffsets[k] = offsets[j];
+                mergedLengths[k] = lengths[j++];
+            }
+            filter.add(mergedIds[k]);
+        }
+        coldIds = mergedIds;
+        coldOffsets = mergedOffsets;
+        coldLengths = mergedLengths;
+        coldSize = total;
+        coldFilter = filter;
+    }
+
+    /**
+     * Метод переписывания сегмента без мусорных записей через временный файл
+     */
+    private void compact() {
+        Path compacted = segment.resolveSibling(segment.getFileName() + ".compact");
+        try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long end = 0;
+            long[] offsets = new long[coldIds.length];
+            for (int i = 0; i < coldIds.length; i++) {
+                offsets[i] = end;
+                long copied = 0;
+                while (copied < coldLengths[i]) {
+                    copied += channel.transferTo(coldOffsets[i] + copied, coldLengths[i] - copied, target);
+                }
+                end += coldLengths[i];
+            }
+            channel.close();
+            Files.move(compacted, segment, StandardCopyOption.REPLACE_EXISTING);
+            channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            coldOffsets = offsets;
+            segmentEnd = end;
+            garbageBytes = 0;
+        } catch (IOException e) {
+            throw new ManagerSaveException("Произошла ошибка во время уплотнения сегмента " + segment + ".");
+        }
+    }
+
+    /**
+     * Метод поиска действующей холодной задачи: фильтр Блума, затем двоичный поиск по id
+     *
+     * @param id id задачи
+     * @return индекс в массивах холодных задач или -1, если задачи нет
+     */
+    private int coldIndexOf(int id) {
+        if (coldSize == 0 || !coldFilter.mightContain(id)) {
+            return -1;
+        }
+        int i = Arrays.binarySearch(coldIds, id);
+        return (i >= 0 && coldOffsets[i] >= 0) ? i : -1;
+    }
+
+    /**
+     * Метод исключения задачи из холодного уровня; ее запись становится мусором сегмента
+     *
+     * @param id id задачи
+     * @return прежняя версия задачи или null, если холодной задачи с таким id нет
+     */
+    private T dropCold(int id) {
+        int i = coldIndexOf(id);
+        if (i < 0) {
+            return null;
+        }
+        T previous = readCached(i);
+        synchronized (cache) {
+            cache.remove(id);
+        }
+        coldOffsets[i] = -1;
+        garbageBytes += coldLengths[i];
+        coldSize--;
+        return previous;
+    }
+
+    /**
+     * Метод чтения холодной задачи через кэш
+     *
+     * @param i индекс в массивах холодных задач
+     * @return задача
+     */
+    private T readCached(int i) {
+        synchronized (cache) {
+            T cached = cache.get(coldIds[i]);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        T task = read(i);
+        synchronized (cache) {
+            cache.put(task.getId(), task);
+        }
+        return task;
+    }
+
+    /**
+     * Метод чтения холодной задачи из сегмента
+     *
+     * @param i индекс в массивах холодных задач
+     * @return новый объект задачи
+     */
+    private T read(int i) {
+        ByteBuffer record = ByteBuffer.allocate(coldLengths[i]);
+        try {
+            while (record.hasRemaining()) {
+                if (channel.read(record, coldOffsets[i] + record.position()) < 0) {
+                    throw new IOException("Неожиданный конец сегмента.");
+                }
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Произошла ошибка во время чтения задачи " + coldIds[i] + " из сегмента "
+                    + segment + ".");
+        }
+        return decode(record.flip());
+    }
+
+    /**
+     * Метод записи буфера в сегмент целиком
+     *
+     * @param buffer   буфер записи
+     * @param position смещение в сегменте
+     * @return количество записанных байт
+     */
+    private int writeFully(ByteBuffer buffer, long position) throws IOException {
+        int length = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + length - buffer.remaining());
+        }
+        return length;
+    }
+
+    /**
+     * Метод кодирования задачи (подзадачи) в запись сегмента
+     *
+     * @param task задача (подзадача)
+     * @return буфер записи, готовый к чтению
+     */
+    private static ByteBuffer encode(Task task) {
+        byte[] name = (task.getName() != null) ? task.getName().getBytes(StandardCharsets.UTF_8) : null;
+        byte[] description = (task.getDescription() != null)
+                ? task.getDescription().getBytes(StandardCharsets.UTF_8) : null;
+        ByteBuffer record = ByteBuffer.allocate(FIXED_SIZE + ((name != null) ? name.length : 0)
+                + ((description != null) ? description.length : 0));
+        record.put((task instanceof Subtask) ? TYPE_SUBTASK : TYPE_TASK);
+        record.putInt(task.getId());
+        record.put((byte) task.getStatus().ordinal());
+        record.putInt((task instanceof Subtask subtask) ? subtask.getEpicId() : 0);
+        record.putLong((task.getDuration() != null) ? task.getDuration().toMinutes() : NO_DURATION);
+        LocalDateTime startTime = task.getStartTime();
+        record.putLong((startTime != null) ? startTime.toEpochSecond(ZoneOffset.UTC) : NO_TIME);
+        record.putInt((startTime != null) ? startTime.getNano() : 0);
+        putString(record, name);
+        putString(record, description);
+        return record.flip();
+    }
+
+    private static void putString(ByteBuffer record, byte[] bytes) {
+        record.putInt((bytes != null) ? bytes.length : NO_STRING);
+        if (bytes != null) {
+            record.put(bytes);
+        }
+    }
+
+    /**
+     * Метод восстановления задачи (подзадачи) из записи сегмента
+     *
+     * @param record буфер записи
+     * @return новый объект задачи (подзадачи)
+     */
+    @SuppressWarnings("unchecked")
+    private T decode(ByteBuffer record) {
+        byte type = record.get();
+        int id = record.getInt();
+        TaskStatus status = TaskStatus.values()[record.get()];
+        int epicId = record.getInt();
+        long duration = record.getLong();
+        long startSecond = record.getLong();
+        int startNano = record.getInt();
+        String name = getString(record);
+        String description = getString(record);
+        Long durationMinutes = (duration != NO_DURATION) ? duration : null;
+        LocalDateTime startTime = (startSecond != NO_TIME)
+                ? LocalDateTime.ofEpochSecond(startSecond, startNano, ZoneOffset.UTC) : null;
+
+        if (type == TYPE_SUBTASK) {
+            return (T) new Subtask(name, description, id, status, epicId, durationMinutes, startTime);
+        }
+        return (T) new Task(name, description, id, status, durationMinutes, startTime);
+    }
+
+    private static String getString(ByteBuffer record) {
+        int length = record.getInt();
+        if (length == NO_STRING) {
+            return null;
+        }
+        String value = new String(record.array(), record.position(), length, StandardCharsets.UTF_8);
+        record.position(record.position() + length);
+        return value;
+    }
+
+    /**
+     * Метод закрытия хранилища с удалением файла сегмента
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        Files.deleteIfExists(segment);
+    }
+
+    @Override
+    public String toString() {
+        return "TieredTaskStore{" +
+                "segment=" + segment +
+                ", hot=" + hot.size() +
+                ", cold=" + coldSize +
+                ", segmentEnd=" + segmentEnd +
+                ", garbageBytes=" + garbageBytes +
+                '}';
+    }
+}
@@ -3,9 +3,13 @@ package server;
 import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
 import manager.TaskManager;
+import task.TaskStatus;
 
 import java.io.IOException;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 public class BaseHttpHandler {
@@ -45,6 +49,53 @@ public class BaseHttpHandler {
         }
     }
 
+    /**
+     * Метод получения параметров строки запроса
+     *
+     * @param h объект обмена обслуживаемого запроса
+     * @return Map<String, String> значения параметров по именам, пустая таблица - параметров нет
+     */
+    protected Map<String, String> getQueryParams(HttpExchange h) {
+        Map<String, String> params = new HashMap<>();
+        String query = h.getRequestURI().getRawQuery();
+        if (query == null || query.isBlank()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = (eq >= 0) ? pair.substring(0, eq) : pair;
+            String value = (eq >= 0) ? pair.substring(eq + 1) : "";
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    /**
+     * Метод получения целочисленного параметра строки запроса
+     *
+     * @param params       параметры строки запроса
+     * @param name         имя параметра
+     * @param defaultValue значение, если параметр не передан
+     * @return значение параметра
+     * @throws NumberFormatException если значение параметра не целое число
+     */
+    protected int getIntParam(Map<String, String> params, String name, int defaultValue) {
+        String value = params.get(name);
+        return (value == null) ? defaultValue : Integer.parseInt(value);
+    }
+
+    /**
+     * Метод получения параметра строки запроса status
+     *
+     * @param params параметры строки запроса
+     * @return статус или null, если параметр не передан
+     * @throws IllegalArgumentException если значение параметра не статус {@link TaskStatus}
+     */
+    protected TaskStatus getStatusParam(Map<String, String> params) {
+        String value = params.get("status");
+        return (value == null) ? null : TaskStatus.valueOf(value);
+    }
+
     /** Метод отправки произвольного ответа с заданным кодом статуса
      * @param h объект обмена обслуживаемого запроса
      * @param text текст сообщения в теле ответа
@@ -79,6 +130,13 @@ public class BaseHttpHandler {
         h.close();
     }
 
+    /** Метод отправки ответа о некорректном запросе (ошибка в параметрах) - со статусом 400
+     * @param h объект обмена обслуживаемого запроса
+     * @param text текст сообщения в теле ответа */
+    protected void sendBadRequest(HttpExchange h, String text) throws IOException {
+        sendResponse(h, text, 400);
+    }
+
     /** Метод отправки ответа о ненайденном объекте - со статусом 404
      * @param h объект обмена обслуживаемого запроса
      * @param text текст сообщения в теле ответа */
@@ -0,0 +1,127 @@
+package server;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import manager.InvalidTaskException;
+import manager.NotFoundException;
+import manager.TaskManager;
+import task.Epic;
+import task.Subtask;
+import task.Task;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Обработчик эндпоинта пакетной обработки задач, подзадач и эпиков:
+ * POST /batch с телом {"tasks": [...], "subtasks": [...], "epics": [...]} - объекты с id > 0 изменяются,
+ * остальные добавляются; DELETE /batch?ids=1,2,3 - удаление по id.
+ *
+ * @author Николаев Д.В.
+ * @version 1.0
+ */
+public class BatchHandler extends BaseHttpHandler implements HttpHandler {
+
+    /**
+     * Класс тела пакетного запроса
+     */
+    private static class BatchRequest {
+        /**
+         * Поле задач пакета
+         */
+        private List<Task> tasks;
+        /**
+         * Поле подзадач пакета
+         */
+        private List<Subtask> subtasks;
+        /**
+         * Поле эпиков пакета
+         */
+        private List<Epic> epics;
+    }
+
+    /**
+     * Конструктор
+     *
+     * @param taskManager назначенный диспетчер задач
+     * @param gson        назначенный парсер
+     */
+    public BatchHandler(TaskManager taskManager, Gson gson) {
+        super(taskManager, gson);
+    }
+
+    /**
+     * Метод обработки
+     *
+     * @param exchange объект обмена обслуживаемого запроса
+     */
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            String requestMethod = exchange.getRequestMethod();
+            switch (requestMethod) {
+                case "POST" -> {
+                    String batchJson = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                    BatchRequest batch = gson.fromJson(batchJson, BatchRequest.class);
+                    if (batch == null) {
+                        throw new NotFoundException("Не передан пакет для обработки.");
+                    }
+                    List<Task> toCreate = new ArrayList<>();
+                    List<Task> toUpdate = new ArrayList<>();
+                    for (List<? extends Task> part : List.of(nonNull(batch.epics), nonNull(batch.tasks),
+                            nonNull(batch.subtasks))) {
+                        for (Task task : part) {
+                            if (task != null) {
+                                (task.getId() > 0 ? toUpdate : toCreate).add(task);
+                            }
+                        }
+                    }
+                    if (!toUpdate.isEmpty()) {
+                        taskManager.updateBatch(toUpdate);
+                    }
+                    if (!toCreate.isEmpty()) {
+                        taskManager.createBatch(toCreate);
+                    }
+                    sendConfirm(exchange, "Пакет обработан: добавлено " + toCreate.size()
+                            + ", обновлено " + toUpdate.size() + ".");
+                }
+                case "DELETE" -> {
+                    Map<String, String> params = getQueryParams(exchange);
+                    List<Integer> ids = new ArrayList<>();
+                    for (String id : params.getOrDefault("ids", "").split(",")) {
+                        if (!id.isBlank()) {
+                            ids.add(Integer.parseInt(id.trim()));
+                        }
+                    }
+                    taskManager.removeBatch(ids);
+                    sendText(exchange, "Пакет удален: " + ids.size() + ".");
+                }
+                default -> sendNotFound(exchange, "Некорректный эндпоинт.");
+            }
+        } catch (NumberFormatException e) {
+            sendBadRequest(exchange, "Некорректный параметр запроса: " + e.getMessage());
+        } catch (NotFoundException e) {
+            sendNotFound(exchange, e.getMessage());
+        } catch (InvalidTaskException e) {
+            sendHasInteractions(exchange, e.getMessage());
+        } catch (Exception e) {
+            sendInternalError(exchange, e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Метод замены отсутствующей части пакета пустым списком
+     *
+     * @param part часть пакета или null
+     * @return List<T> часть пакета
+     */
+    private static <T> List<T> nonNull(List<T> part) {
+        return (part != null) ? part : List.of();
+    }
+}
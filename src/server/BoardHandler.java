@@ -0,0 +1,47 @@
+package server;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import manager.TaskManager;
+
+import java.io.IOException;
+
+/**
+ * Обработчик эндпоинта канбан-доски: задачи, подзадачи и эпики по колонкам NEW / IN_PROGRESS / DONE
+ *
+ * @author Николаев Д.В.
+ * @version 1.0
+ */
+public class BoardHandler extends BaseHttpHandler implements HttpHandler {
+
+    /**
+     * Конструктор
+     *
+     * @param taskManager назначенный диспетчер задач
+     * @param gson        назначенный парсер
+     */
+    public BoardHandler(TaskManager taskManager, Gson gson) {
+        super(taskManager, gson);
+    }
+
+    /**
+     * Метод обработки
+     *
+     * @param exchange объект обмена обслуживаемого запроса
+     */
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (exchange.getRequestMethod().equals("GET")) {
+                sendText(exchange, gson.toJson(taskManager.getBoard()));
+            } else {
+                sendNotFound(exchange, "Некорректный эндпоинт.");
+            }
+        } catch (Exception e) {
+            sendInternalError(exchange, e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+}
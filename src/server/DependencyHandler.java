@@ -0,0 +1,132 @@
+package server;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import manager.InvalidTaskException;
+import manager.NotFoundException;
+import manager.TaskManager;
+import task.Task;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Обработчик эндпоинта зависимостей задач и подзадач:
+ * GET /dependencies - критический путь всех зависимостей;
+ * GET /dependencies/{id} - раннее начало, блокирующие задачи и критический путь задачи;
+ * POST /dependencies с телом {"blockerId": 1, "blockedId": 2} - добавление зависимости;
+ * DELETE /dependencies?blocker=1&amp;blocked=2 - удаление зависимости.
+ *
+ * @author Николаев Д.В.
+ * @version 1.0
+ */
+public class DependencyHandler extends BaseHttpHandler implements HttpHandler {
+
+    /**
+     * Класс тела запроса на добавление зависимости
+     */
+    private static class DependencyRequest {
+        /**
+         * Поле id блокирующей задачи
+         */
+        private int blockerId;
+        /**
+         * Поле id заблокированной задачи
+         */
+        private int blockedId;
+    }
+
+    /**
+     * Класс ответа о зависимостях задачи
+     */
+    private static class DependencyResponse {
+        /**
+         * Поле раннего начала задачи
+         */
+        private final LocalDateTime earliestStart;
+        /**
+         * Поле блокирующих задач
+         */
+        private final List<Task> blockers;
+        /**
+         * Поле критического пути задачи
+         */
+        private final List<Task> criticalPath;
+
+        private DependencyResponse(LocalDateTime earliestStart, List<Task> blockers, List<Task> criticalPath) {
+            this.earliestStart = earliestStart;
+            this.blockers = blockers;
+            this.criticalPath = criticalPath;
+        }
+    }
+
+    /**
+     * Конструктор
+     *
+     * @param taskManager назначенный диспетчер задач
+     * @param gson        назначенный парсер
+     */
+    public DependencyHandler(TaskManager taskManager, Gson gson) {
+        super(taskManager, gson);
+    }
+
+    /**
+     * Метод обработки
+     *
+     * @param exchange объект обмена обслуживаемого запроса
+     */
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            String requestMethod = exchange.getRequestMethod();
+            switch (requestMethod) {
+                case "GET" -> {
+                    Optional<Integer> taskId = getTaskId(exchange);
+                    if (taskId.isPresent()) {
+                        int id = taskId.get();
+                        sendText(exchange, gson.toJson(new DependencyResponse(taskManager.getEarliestStart(id),
+                                taskManager.getBlockers(id), taskManager.getCriticalPath(id))));
+                    } else {
+                        sendText(exchange, gson.toJson(taskManager.getCriticalPath()));
+                    }
+                }
+                case "POST" -> {
+                    String requestJson = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                    DependencyRequest request = gson.fromJson(requestJson, DependencyRequest.class);
+                    if (request == null) {
+                        throw new NotFoundException("Не передана зависимость для обработки.");
+                    }
+                    taskManager.addDependency(request.blockerId, request.blockedId);
+                    sendConfirm(exchange, "Зависимость добавлена.");
+                }
+                case "DELETE" -> {
+                    Map<String, String> params = getQueryParams(exchange);
+                    int blocker = getIntParam(params, "blocker", -1);
+                    int blocked = getIntParam(params, "blocked", -1);
+                    if (blocker < 0 || blocked < 0) {
+                        sendBadRequest(exchange, "Не заданы задачи зависимости.");
+                    } else {
+                        taskManager.removeDependency(blocker, blocked);
+                        sendText(exchange, "Зависимость удалена.");
+                    }
+                }
+                default -> sendNotFound(exchange, "Некорректный эндпоинт.");
+            }
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, "Некорректный параметр запроса: " + e.getMessage());
+        } catch (NotFoundException e) {
+            sendNotFound(exchange, e.getMessage());
+        } catch (InvalidTaskException e) {
+            sendHasInteractions(exchange, e.getMessage());
+        } catch (Exception e) {
+            sendInternalError(exchange, e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -6,17 +6,20 @@ import com.sun.net.httpserver.HttpHandler;
 import manager.InvalidTaskException;
 import manager.NotFoundException;
 import manager.TaskManager;
+import manager.TaskUtil;
 import task.Epic;
+import task.TaskStatus;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
 import java.util.Optional;
 
 /**
  * Обработчик эндпоинта по эпикам трекера
  *
  * @author Николаев Д.В.
- * @version 1.0
+ * @version 1.2
  */
 public class EpicHandler extends BaseHttpHandler implements HttpHandler {
 
@@ -61,7 +64,19 @@ public class EpicHandler extends BaseHttpHandler implements HttpHandler {
                             responseText = gson.toJson(taskManager.getEpic(reqEpicId));
                         }
                     } else {
-                        responseText = gson.toJson(taskManager.getAllEpics());
+                        Map<String, String> params = getQueryParams(exchange);
+                        TaskStatus status = getStatusParam(params);
+                        if (status != null && params.containsKey("limit")) {
+                            responseText = gson.toJson(TaskUtil.pageById(taskManager.getEpicsByStatus(status),
+                                    getIntParam(params, "after", 0), getIntParam(params, "limit", 0)));
+                        } else if (status != null) {
+                            responseText = gson.toJson(taskManager.getEpicsByStatus(status));
+                        } else if (params.containsKey("limit")) {
+                            responseText = gson.toJson(taskManager.getAllEpics(getIntParam(params, "after", 0),
+                                    getIntParam(params, "limit", 0)));
+                        } else {
+                            responseText = gson.toJson(taskManager.getAllEpics());
+                        }
                     }
                     sendText(exchange, responseText);
                 }
@@ -86,6 +101,8 @@ public class EpicHandler extends BaseHttpHandler implements HttpHandler {
                 }
                 default -> sendNotFound(exchange, "Некорректный эндпоинт.");
             }
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, "Некорректный параметр запроса: " + e.getMessage());
         } catch (NotFoundException e) {
             sendNotFound(exchange, e.getMessage());
         } catch (InvalidTaskException e) {
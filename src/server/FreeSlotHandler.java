@@ -0,0 +1,92 @@
+package server;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import manager.InvalidTaskException;
+import manager.NotFoundException;
+import manager.TaskManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Обработчик эндпоинта поиска свободного времени в расписании:
+ * GET /slots?duration=[минуты]&from=[дата/время ISO-8601]&count=[количество];
+ * и автоматического планирования задач без даты/времени начала в свободное время:
+ * POST /slots?from=[дата/время ISO-8601] с массивом id задач (подзадач) в теле
+ *
+ * @author Николаев Д.В.
+ * @version 1.1
+ */
+public class FreeSlotHandler extends BaseHttpHandler implements HttpHandler {
+
+    /**
+     * Класс токена типа списка id
+     */
+    private static class IdListTypeToken extends TypeToken<List<Integer>> {
+    }
+
+    /**
+     * Конструктор
+     *
+     * @param taskManager назначенный диспетчер задач
+     * @param gson        назначенный парсер
+     */
+    public FreeSlotHandler(TaskManager taskManager, Gson gson) {
+        super(taskManager, gson);
+    }
+
+    /**
+     * Метод обработки
+     *
+     * @param exchange объект обмена обслуживаемого запроса
+     */
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            String requestMethod = exchange.getRequestMethod();
+            if (requestMethod.equals("POST")) {
+                String from = getQueryParams(exchange).get("from");
+                String requestJson = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                List<Integer> ids = gson.fromJson(requestJson, new IdListTypeToken().getType());
+                if (ids == null || ids.isEmpty() || ids.contains(null)) {
+                    sendBadRequest(exchange, "Не переданы id задач для планирования.");
+                } else {
+                    sendText(exchange, gson.toJson(taskManager.scheduleTasks(ids,
+                            (from == null) ? LocalDateTime.now() : LocalDateTime.parse(from))));
+                }
+            } else if (requestMethod.equals("GET")) {
+                Map<String, String> params = getQueryParams(exchange);
+                String from = params.get("from");
+                int duration = getIntParam(params, "duration", -1);
+                int count = getIntParam(params, "count", 1);
+                if (duration < 0 || count < 1) {
+                    sendBadRequest(exchange, "Не задана продолжительность или количество промежутков.");
+                } else {
+                    String responseText = gson.toJson(taskManager.findFreeSlots(
+                            (from == null) ? LocalDateTime.now() : LocalDateTime.parse(from), duration, count));
+                    sendText(exchange, responseText);
+                }
+            } else {
+                sendNotFound(exchange, "Некорректный эндпоинт.");
+            }
+        } catch (NumberFormatException | DateTimeParseException | JsonParseException e) {
+            sendBadRequest(exchange, "Некорректный параметр запроса: " + e.getMessage());
+        } catch (NotFoundException e) {
+            sendNotFound(exchange, e.getMessage());
+        } catch (InvalidTaskException e) {
+            sendHasInteractions(exchange, e.getMessage());
+        } catch (Exception e) {
+            sendInternalError(exchange, e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -5,16 +5,19 @@ import com.google.gson.GsonBuilder;
 import com.sun.net.httpserver.HttpServer;
 import manager.Managers;
 import manager.TaskManager;
+import util.IntLinkedSet;
 
 import java.net.InetSocketAddress;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Веб-сервер для работы с трекером задач
  *
  * @author Николаев Д.В.
- * @version 1.0
+ * @version 1.9
  */
 public class HttpTaskServer {
     /**
@@ -32,6 +35,16 @@ public class HttpTaskServer {
      */
     private TaskManager taskManager;
 
+    /**
+     * Поле количества потоков обработки запросов. При значении больше 1 диспетчер задач должен быть потокобезопасным.
+     */
+    private final int threads;
+
+    /**
+     * Поле пула потоков обработки запросов, если их больше одного
+     */
+    private ExecutorService executor;
+
     /**
      * Поле JSON-парсера. Назначается обработачикам эндпоинтов для единообразной обработки
      */
@@ -51,22 +64,38 @@ public class HttpTaskServer {
      */
     private DurationTypeAdapter durationTypeAdapter = new DurationTypeAdapter();
 
-    /** Конструктор
+    /**
+     * Адаптер типа IntLinkedSet
+     */
+    private IntLinkedSetTypeAdapter intLinkedSetTypeAdapter = new IntLinkedSetTypeAdapter();
+
+    /** Конструктор сервера с обработкой запросов в одном потоке
      * @param manager используемый диспетчер задач
      * */
     public HttpTaskServer(TaskManager manager) {
+        this(manager, 1);
+    }
+
+    /** Конструктор сервера с обработкой запросов в пуле потоков
+     * @param manager используемый диспетчер задач, потокобезопасный при threads > 1
+     * @param threads количество потоков обработки запросов
+     * */
+    public HttpTaskServer(TaskManager manager, int threads) {
         taskManager = manager;
+        this.threads = threads;
         gson = new GsonBuilder()
                 .serializeNulls()
                 .setPrettyPrinting()
                 .registerTypeAdapter(LocalDateTime.class, localDateTimeTypeAdapter)
                 .registerTypeAdapter(Duration.class, durationTypeAdapter)
+                .registerTypeAdapter(IntLinkedSet.class, intLinkedSetTypeAdapter)
+                .registerTypeAdapterFactory(new TaskTypeAdapterFactory())
                 .create();
     }
 
     public static void main(String[] args) {
-        TaskManager manager = Managers.getDefault();
-        HttpTaskServer httpTaskServer = new HttpTaskServer(manager);
+        TaskManager manager = Managers.getConcurrent();
+        HttpTaskServer httpTaskServer = new HttpTaskServer(manager, Runtime.getRuntime().availableProcessors());
         httpTaskServer.start();
     }
 
@@ -81,6 +110,17 @@ public class HttpTaskServer {
             httpServer.createContext("/epics", new EpicHandler(taskManager, gson));
             httpServer.createContext("/history", new HistoryHandler(taskManager, gson));
             httpServer.createContext("/prioritized", new PriorityHandler(taskManager, gson));
+            httpServer.createContext("/slots", new FreeSlotHandler(taskManager, gson));
+            httpServer.createContext("/batch", new BatchHandler(taskManager, gson));
+            httpServer.createContext("/board", new BoardHandler(taskManager, gson));
+            httpServer.createContext("/search", new SearchHandler(taskManager, gson));
+            httpServer.createContext("/query", new QueryHandler(taskManager, gson));
+            httpServer.createContext("/dependencies", new DependencyHandler(taskManager, gson));
+            httpServer.createContext("/recurring", new RecurringTaskHandler(taskManager, gson));
+            if (threads > 1) {
+                executor = Executors.newFixedThreadPool(threads);
+                httpServer.setExecutor(executor);
+            }
 
             httpServer.start();
         } catch (Exception e) {
@@ -92,5 +132,9 @@ public class HttpTaskServer {
     /** Метод остановки веб-сервера */
     public void stop() {
         httpServer.stop(0);
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
     }
 }
@@ -0,0 +1,58 @@
+package server;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import task.Epic;
+import util.IntLinkedSet;
+
+import java.io.IOException;
+
+/**
+ * Адаптер типа IntLinkedSet для обработки сериализации и десериализации списка подзадач {@link Epic#getSubtaskList()}
+ * в виде массива JSON
+ * @version 1.0
+ * @author Николаев Д.В.
+ */
+public class IntLinkedSetTypeAdapter extends TypeAdapter<IntLinkedSet> {
+    /**
+     * Метод записи в формате JSON
+     *
+     * @param jsonWriter объект писателя
+     * @param set записываемое множество id
+     */
+    @Override
+    public void write(final JsonWriter jsonWriter, final IntLinkedSet set) throws IOException {
+        if (set == null) {
+            jsonWriter.nullValue();
+        } else {
+            jsonWriter.beginArray();
+            for (int value : set.toArray()) {
+                jsonWriter.value(value);
+            }
+            jsonWriter.endArray();
+        }
+    }
+
+    /**
+     * Метод чтения в формате JSON, чтобы распарсить объект класса IntLinkedSet
+     *
+     * @param jsonReader объект читателя
+     */
+    @Override
+    public IntLinkedSet read(final JsonReader jsonReader) throws IOException {
+        if (jsonReader.peek() == JsonToken.NULL) {
+            jsonReader.nextNull();
+            return null;
+        } else {
+            IntLinkedSet set = new IntLinkedSet();
+            jsonReader.beginArray();
+            while (jsonReader.hasNext()) {
+                set.add(jsonReader.nextInt());
+            }
+            jsonReader.endArray();
+            return set;
+        }
+    }
+}
@@ -6,12 +6,15 @@ import com.sun.net.httpserver.HttpHandler;
 import manager.TaskManager;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
 
 /**
  * Обработчик эндпоинта по приоретизированному списку задач/подзадач
  *
  * @author Николаев Д.В.
- * @version 1.0
+ * @version 1.2
  */
 public class PriorityHandler extends BaseHttpHandler implements HttpHandler {
 
@@ -35,11 +38,27 @@ public class PriorityHandler extends BaseHttpHandler implements HttpHandler {
         try {
             String requestMethod = exchange.getRequestMethod();
             if (requestMethod.equals("GET")) {
-                String responseText = gson.toJson(taskManager.getPrioritizedTasks());
+                Map<String, String> params = getQueryParams(exchange);
+                String responseText;
+                if (params.containsKey("limit")) {
+                    String after = params.get("after");
+                    responseText = gson.toJson(taskManager.getPrioritizedTasks(
+                            (after == null) ? null : LocalDateTime.parse(after), getIntParam(params, "limit", 0)));
+                } else if (params.containsKey("from") || params.containsKey("to")) {
+                    String from = params.get("from");
+                    String to = params.get("to");
+                    responseText = gson.toJson(taskManager.getPrioritizedTasks(
+                            (from == null) ? null : LocalDateTime.parse(from),
+                            (to == null) ? null : LocalDateTime.parse(to)));
+                } else {
+                    responseText = gson.toJson(taskManager.getPrioritizedTasks());
+                }
                 sendText(exchange, responseText);
             } else {
                 sendNotFound(exchange, "Некорректный эндпоинт.");
             }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            sendBadRequest(exchange, "Некорректный параметр запроса: " + e.getMessage());
         } catch (Exception e) {
             sendInternalError(exchange, e.getMessage());
         } finally {
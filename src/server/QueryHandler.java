@@ -0,0 +1,68 @@
+package server;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import manager.TaskManager;
+import manager.TaskQuery;
+import manager.TaskType;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * Обработчик эндпоинта составных запросов по задачам, подзадачам и эпикам. Параметры строки запроса:
+ * type, status, epic, from, to (дата/время начала в ISO-8601), text, sort=start (упорядочить по дате/времени начала).
+ *
+ * @author Николаев Д.В.
+ * @version 1.0
+ */
+public class QueryHandler extends BaseHttpHandler implements HttpHandler {
+
+    /**
+     * Конструктор
+     *
+     * @param taskManager назначенный диспетчер задач
+     * @param gson        назначенный парсер
+     */
+    public QueryHandler(TaskManager taskManager, Gson gson) {
+        super(taskManager, gson);
+    }
+
+    /**
+     * Метод обработки
+     *
+     * @param exchange объект обмена обслуживаемого запроса
+     */
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (exchange.getRequestMethod().equals("GET")) {
+                Map<String, String> params = getQueryParams(exchange);
+                String type = params.get("type");
+                String epic = params.get("epic");
+                String from = params.get("from");
+                String to = params.get("to");
+                TaskQuery query = new TaskQuery()
+                        .type((type == null) ? null : TaskType.valueOf(type))
+                        .status(getStatusParam(params))
+                        .epicId((epic == null) ? null : Integer.valueOf(epic))
+                        .startingBetween((from == null) ? null : LocalDateTime.parse(from),
+                                (to == null) ? null : LocalDateTime.parse(to))
+                        .text(params.get("text"))
+                        .orderByStartTime("start".equals(params.get("sort")));
+                sendText(exchange, gson.toJson(taskManager.query(query)));
+            } else {
+                sendNotFound(exchange, "Некорректный эндпоинт.");
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            sendBadRequest(exchange, "Некорректный параметр запроса: " + e.getMessage());
+        } catch (Exception e) {
+            sendInternalError(exchange, e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+}
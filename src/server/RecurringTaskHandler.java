@@ -0,0 +1,79 @@
+package server;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import manager.InvalidTaskException;
+import manager.NotFoundException;
+import manager.TaskManager;
+import task.RecurringTask;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Обработчик эндпоинта по повторяющимся задачам трекера: правила создаются и удаляются целиком, а их повторения
+ * выдаются выборками расписания по окну времени (/prioritized?from=...&amp;to=...)
+ *
+ * @author Николаев Д.В.
+ * @version 1.0
+ */
+public class RecurringTaskHandler extends BaseHttpHandler implements HttpHandler {
+
+    /**
+     * Конструктор
+     *
+     * @param taskManager назначенный диспетчер задач
+     * @param gson        назначенный парсер
+     */
+    public RecurringTaskHandler(TaskManager taskManager, Gson gson) {
+        super(taskManager, gson);
+    }
+
+    /**
+     * Метод обработки
+     *
+     * @param exchange объект обмена обслуживаемого запроса
+     */
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            Optional<Integer> taskId = getTaskId(exchange);
+            String requestMethod = exchange.getRequestMethod();
+            switch (requestMethod) {
+                case "GET" -> {
+                    if (taskId.isPresent()) {
+                        sendText(exchange, gson.toJson(taskManager.getRecurringTask(taskId.get())));
+                    } else {
+                        sendText(exchange, gson.toJson(taskManager.getAllRecurringTasks()));
+                    }
+                }
+                case "DELETE" -> {
+                    taskManager.removeRecurringTask(taskId.orElse(0));
+                    sendText(exchange, "Повторяющаяся задача удалена.");
+                }
+                case "POST" -> {
+                    String taskJson = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                    RecurringTask reqTask = gson.fromJson(taskJson, RecurringTask.class);
+                    if (reqTask == null) {
+                        throw new NotFoundException("Не передана повторяющаяся задача для обработки.");
+                    }
+                    taskManager.createRecurringTask(reqTask);
+                    sendConfirm(exchange, "Повторяющаяся задача добавлена.");
+                }
+                default -> sendNotFound(exchange, "Некорректный эндпоинт.");
+            }
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, "Некорректный параметр запроса: " + e.getMessage());
+        } catch (NotFoundException e) {
+            sendNotFound(exchange, e.getMessage());
+        } catch (InvalidTaskException e) {
+            sendHasInteractions(exchange, e.getMessage());
+        } catch (Exception e) {
+            sendInternalError(exchange, e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package server;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import manager.TaskManager;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Обработчик эндпоинта полнотекстового поиска задач, подзадач и эпиков по словам названия и описания
+ *
+ * @author Николаев Д.В.
+ * @version 1.0
+ */
+public class SearchHandler extends BaseHttpHandler implements HttpHandler {
+
+    /**
+     * Конструктор
+     *
+     * @param taskManager назначенный диспетчер задач
+     * @param gson        назначенный парсер
+     */
+    public SearchHandler(TaskManager taskManager, Gson gson) {
+        super(taskManager, gson);
+    }
+
+    /**
+     * Метод обработки
+     *
+     * @param exchange объект обмена обслуживаемого запроса
+     */
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (exchange.getRequestMethod().equals("GET")) {
+                Map<String, String> params = getQueryParams(exchange);
+                String query = params.get("q");
+                if (query == null || query.isBlank()) {
+                    sendBadRequest(exchange, "Не передан параметр запроса q.");
+                } else {
+                    sendText(exchange, gson.toJson(taskManager.search(query)));
+                }
+            } else {
+                sendNotFound(exchange, "Некорректный эндпоинт.");
+            }
+        } catch (Exception e) {
+            sendInternalError(exchange, e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+}
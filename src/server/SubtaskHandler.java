@@ -6,17 +6,20 @@ import com.sun.net.httpserver.HttpHandler;
 import manager.InvalidTaskException;
 import manager.NotFoundException;
 import manager.TaskManager;
+import manager.TaskUtil;
 import task.Subtask;
+import task.TaskStatus;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
 import java.util.Optional;
 
 /**
  * Обработчик эндпоинта по подзадачам трекера
  *
  * @author Николаев Д.В.
- * @version 1.0
+ * @version 1.2
  */
 public class SubtaskHandler extends BaseHttpHandler implements HttpHandler {
 
@@ -51,7 +54,19 @@ public class SubtaskHandler extends BaseHttpHandler implements HttpHandler {
                     if (reqSubtaskId > 0) {
                         responseText = gson.toJson(taskManager.getSubtask(reqSubtaskId));
                     } else {
-                        responseText = gson.toJson(taskManager.getAllSubtasks());
+                        Map<String, String> params = getQueryParams(exchange);
+                        TaskStatus status = getStatusParam(params);
+                        if (status != null && params.containsKey("limit")) {
+                            responseText = gson.toJson(TaskUtil.pageById(taskManager.getSubtasksByStatus(status),
+                                    getIntParam(params, "after", 0), getIntParam(params, "limit", 0)));
+                        } else if (status != null) {
+                            responseText = gson.toJson(taskManager.getSubtasksByStatus(status));
+                        } else if (params.containsKey("limit")) {
+                            responseText = gson.toJson(taskManager.getAllSubtasks(getIntParam(params, "after", 0),
+                                    getIntParam(params, "limit", 0)));
+                        } else {
+                            responseText = gson.toJson(taskManager.getAllSubtasks());
+                        }
                     }
                     sendText(exchange, responseText);
                 }
@@ -76,6 +91,8 @@ public class SubtaskHandler extends BaseHttpHandler implements HttpHandler {
                 }
                 default -> sendNotFound(exchange, "Некорректный эндпоинт.");
             }
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, "Некорректный параметр запроса: " + e.getMessage());
         } catch (NotFoundException e) {
             sendNotFound(exchange, e.getMessage());
         } catch (InvalidTaskException e) {
@@ -6,17 +6,20 @@ import com.sun.net.httpserver.HttpHandler;
 import manager.InvalidTaskException;
 import manager.NotFoundException;
 import manager.TaskManager;
+import manager.TaskUtil;
 import task.Task;
+import task.TaskStatus;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
 import java.util.Optional;
 
 /**
  * Обработчик эндпоинта по задачам трекера
  *
  * @author Николаев Д.В.
- * @version 1.0
+ * @version 1.2
  */
 public class TaskHandler extends BaseHttpHandler implements HttpHandler {
 
@@ -51,7 +54,19 @@ public class TaskHandler extends BaseHttpHandler implements HttpHandler {
                     if (reqTaskId > 0) {
                         responseText = gson.toJson(taskManager.getTask(reqTaskId));
                     } else {
-                        responseText = gson.toJson(taskManager.getAllTasks());
+                        Map<String, String> params = getQueryParams(exchange);
+                        TaskStatus status = getStatusParam(params);
+                        if (status != null && params.containsKey("limit")) {
+                            responseText = gson.toJson(TaskUtil.pageById(taskManager.getTasksByStatus(status),
+                                    getIntParam(params, "after", 0), getIntParam(params, "limit", 0)));
+                        } else if (status != null) {
+                            responseText = gson.toJson(taskManager.getTasksByStatus(status));
+                        } else if (params.containsKey("limit")) {
+                            responseText = gson.toJson(taskManager.getAllTasks(getIntParam(params, "after", 0),
+                                    getIntParam(params, "limit", 0)));
+                        } else {
+                            responseText = gson.toJson(taskManager.getAllTasks());
+                        }
                     }
                     sendText(exchange, responseText);
                 }
@@ -76,6 +91,8 @@ public class TaskHandler extends BaseHttpHandler implements HttpHandler {
                 }
                 default -> sendNotFound(exchange, "Некорректный эндпоинт.");
             }
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, "Некорректный параметр запроса: " + e.getMessage());
         } catch (NotFoundException e) {
             sendNotFound(exchange, e.getMessage());
         } catch (InvalidTaskException e) {
@@ -0,0 +1,93 @@
+package server;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import task.Epic;
+import task.Task;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Фабрика адаптеров задач, подзадач и эпиков. Атрибуты времени хранятся в задаче примитивами и не сериализуются
+ * рефлексией, поэтому адаптер дописывает их в json-объект как прежние поля duration, startTime (и endTime у эпика)
+ * и восстанавливает их при чтении. Остальные поля обрабатываются стандартным адаптером Gson.
+ *
+ * @author Николаев Д.В.
+ * @version 1.0
+ */
+public class TaskTypeAdapterFactory implements TypeAdapterFactory {
+    /**
+     * Метод создания адаптера для классов задач
+     *
+     * @param gson экземпляр Gson
+     * @param type тип сериализуемого объекта
+     * @return адаптер или null, если тип - не задача
+     */
+    @Override
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (!Task.class.isAssignableFrom(type.getRawType())) {
+            return null;
+        }
+        TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+        TypeAdapter<JsonElement> elementAdapter = gson.getAdapter(JsonElement.class);
+        TypeAdapter<Duration> durationAdapter = gson.getAdapter(Duration.class);
+        TypeAdapter<LocalDateTime> timeAdapter = gson.getAdapter(LocalDateTime.class);
+
+        return new TypeAdapter<>() {
+            @Override
+            public void write(JsonWriter jsonWriter, T value) throws IOException {
+                if (value == null) {
+                    jsonWriter.nullValue();
+                    return;
+                }
+                Task task = (Task) value;
+                JsonObject jsonObject = delegate.toJsonTree(value).getAsJsonObject();
+                jsonObject.add("duration", durationAdapter.toJsonTree(task.getDuration()));
+                jsonObject.add("startTime", timeAdapter.toJsonTree(task.getStartTime()));
+                if (task instanceof Epic) {
+                    jsonObject.add("endTime", timeAdapter.toJsonTree(task.getEndTime()));
+                }
+                elementAdapter.write(jsonWriter, jsonObject);
+            }
+
+            @Override
+            public T read(JsonReader jsonReader) throws IOException {
+                JsonElement jsonElement = elementAdapter.read(jsonReader);
+                if (jsonElement == null || !jsonElement.isJsonObject()) {
+                    return null;
+                }
+                JsonObject jsonObject = jsonElement.getAsJsonObject();
+                T value = delegate.fromJsonTree(jsonObject);
+                Task task = (Task) value;
+                Duration duration = durationAdapter.fromJsonTree(member(jsonObject, "duration"));
+                task.setDuration((duration != null) ? duration.toMinutes() : null);
+                task.setStartTime(timeAdapter.fromJsonTree(member(jsonObject, "startTime")));
+                if (task instanceof Epic epic) {
+                    epic.setEndTime(timeAdapter.fromJsonTree(member(jsonObject, "endTime")));
+                }
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Метод получения поля json-объекта
+     *
+     * @param jsonObject json-объект
+     * @param name       имя поля
+     * @return значение поля, JsonNull - если поля нет
+     */
+    private static JsonElement member(JsonObject jsonObject, String name) {
+        JsonElement member = jsonObject.get(name);
+        return (member != null) ? member : JsonNull.INSTANCE;
+    }
+}
@@ -1,21 +1,42 @@
 package task;
 
+import util.IntLinkedSet;
+
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
 
 /**
  * Класс эпиков
- * @version 2.7
+ * @version 3.3
  * @author Николаев Д.В.
  */
 public class Epic extends Task {
-    /** Поле список id подзадач эпика */
-    private List<Integer> subtaskList;
+    /** Порядок подзадач по дате и времени начала выполнения, при совпадении - по id */
+    private static final Comparator<Subtask> BY_START_TIME = ((Comparator<Subtask>) Task::compareStartTo)
+            .thenComparingInt(Subtask::getId);
+
+    /** Поле множество id подзадач эпика в порядке их добавления */
+    private IntLinkedSet subtaskList;
+
+    /** Поле счетчиков подзадач эпика по статусам, индекс - порядковый номер {@link TaskStatus}.
+     * Не сериализуется: восстанавливается при создании эпика у менеджера через {@link Epic#clearSubtasks()} */
+    private transient int[] statusCounters;
+
+    /** Поле подзадач эпика с заполненной датой начала, упорядоченных по ней.
+     * Не сериализуется: восстанавливается при создании эпика у менеджера через {@link Epic#clearSubtasks()} */
+    private transient NavigableSet<Subtask> subtasksByStartTime;
+
+    /**
+     * Расчетное поле даты и времени окончания выполнения - секунды от начала эпохи (по UTC); {@link Task#NO_TIME} -
+     * не определено. В json пишется как endTime, см. server.TaskTypeAdapterFactory
+     */
+    private transient long endSecond = NO_TIME;
 
     /**
-     * Расчетное поле даты и времени окончания выполнения
+     * Расчетное поле наносекунд даты и времени окончания выполнения
      */
-    private LocalDateTime endTime;
+    private transient int endNano;
 
     /** Конструктор эпика с параметрами.
      * @param name название
@@ -24,7 +45,9 @@ public class Epic extends Task {
      */
     public Epic(String name, String description, int id) {
         super(name, description, id, TaskStatus.NEW);
-        subtaskList = new ArrayList<>();
+        subtaskList = new IntLinkedSet();
+        statusCounters = new int[TaskStatus.values().length];
+        subtasksByStartTime = new TreeSet<>(BY_START_TIME);
     }
 
     /** Конструктор эпика с параметрами, но без id для прикладных целей
@@ -33,7 +56,26 @@ public class Epic extends Task {
      */
     public Epic(String name, String description) {
         super(name, description, TaskStatus.NEW);
-        subtaskList = new ArrayList<>();
+        subtaskList = new IntLinkedSet();
+        statusCounters = new int[TaskStatus.values().length];
+        subtasksByStartTime = new TreeSet<>(BY_START_TIME);
+    }
+
+    /** Конструктор копии эпика - снимка его состояния, не связанного с оригиналом: последующие изменения подзадач
+     * оригинала копию не затрагивают
+     * @param epic эпик, заведенный у менеджера
+     */
+    public Epic(Epic epic) {
+        super(epic.name, epic.description, epic.id, epic.status);
+        subtaskList = new IntLinkedSet();
+        epic.subtaskList.forEach(subtaskList::add);
+        statusCounters = epic.statusCounters.clone();
+        subtasksByStartTime = new TreeSet<>(epic.subtasksByStartTime);
+        durationMinutes = epic.durationMinutes;
+        startSecond = epic.startSecond;
+        startNano = epic.startNano;
+        endSecond = epic.endSecond;
+        endNano = epic.endNano;
     }
 
     @Override
@@ -44,114 +86,174 @@ public class Epic extends Task {
                 ", id=" + id +
                 ", status=" + status +
                 ", subtaskList=" + subtaskList +
-                ", duration=" + (duration != null ? duration.toMinutes() : null) +
-                ", startTime=" + startTime +
-                ", endTime=" + endTime +
+                ", duration=" + (durationMinutes != NO_DURATION ? durationMinutes : null) +
+                ", startTime=" + getStartTime() +
+                ", endTime=" + getEndTime() +
                 "}";
     }
 
     public ArrayList<Integer> getSubtaskList() {
-        return new ArrayList<>(subtaskList);
+        ArrayList<Integer> result = new ArrayList<>(subtaskList.size());
+        subtaskList.forEach(result::add);
+        return result;
+    }
+
+    /** Метод получения id подзадач эпика без упаковки в {@link Integer}
+     * @return int[] копия id подзадач в порядке их добавления */
+    public int[] getSubtaskIds() {
+        return subtaskList.toArray();
+    }
+
+    /** Метод проверки принадлежности подзадачи эпику
+     * @param subtaskId идентификатор подзадачи
+     * @return true - подзадача есть в списке эпика */
+    public boolean hasSubtask(int subtaskId) {
+        return subtaskList.contains(subtaskId);
     }
 
     @Override
     public LocalDateTime getEndTime() {
-        return endTime;
+        return toDateTime(endSecond, endNano);
+    }
+
+    /** Метод установки даты и времени окончания - для восстановления эпика из внешнего представления (json).
+     * У эпика, заведенного у менеджера, окончание пересчитывается по подзадачам.
+     * @param endTime дата и время окончания выполнения; null - не определено */
+    public void setEndTime(LocalDateTime endTime) {
+        if (endTime != null) {
+            endSecond = endTime.toEpochSecond(ZoneOffset.UTC);
+            endNano = endTime.getNano();
+        } else {
+            endSecond = NO_TIME;
+            endNano = 0;
+        }
+    }
+
+    @Override
+    public boolean hasEndTime() {
+        return endSecond != NO_TIME;
+    }
+
+    @Override
+    public long getEndSecond() {
+        return endSecond;
+    }
+
+    @Override
+    public int getEndNano() {
+        return endNano;
     }
 
-    /** Метод обновления статуса эпика согласно статусам его подзадач
-     * @param subtasks общее хранилище подзадач, среди которых перебираются свои согласно {@link Epic#subtaskList}*/
-    private void refreshStatus(Map<Integer, Subtask> subtasks) {
+    /** Метод обновления статуса эпика согласно счетчикам {@link Epic#statusCounters} статусов его подзадач.
+     * Эпик в статусе NEW, если подзадач нет; в статусе всех подзадач, если он у них общий; иначе IN_PROGRESS. */
+    private void refreshStatus() {
         TaskStatus newStatus = TaskStatus.NEW;
         int numberOfSubtasks = subtaskList.size();
-        if (numberOfSubtasks > 0 && subtasks != null) {
-            HashMap<TaskStatus, Integer> statusCounterMap = new HashMap<>();
-            for (Subtask subtask : subtasks.values()) {
-                if (subtask.getEpicId() == id) { // Перебираем подзадачи нашего эпика
-                    TaskStatus status = subtask.getStatus();
-                    Integer statusCounter = statusCounterMap.get(status);
-                    if (statusCounter == null) {
-                        statusCounter = 0;
-                    }
-                    statusCounter++;
-                    statusCounterMap.put(status, statusCounter);
-                }
-            }
-            for (TaskStatus status : statusCounterMap.keySet()) {
-                if (statusCounterMap.get(status) == numberOfSubtasks) {
+        if (numberOfSubtasks > 0) {
+            newStatus = TaskStatus.IN_PROGRESS;
+            for (TaskStatus status : TaskStatus.values()) {
+                if (statusCounters[status.ordinal()] == numberOfSubtasks) {
                     newStatus = status;
                     break;
-                } else {
-                    newStatus = TaskStatus.IN_PROGRESS;
                 }
             }
         }
         status = newStatus;
     }
 
-    /** Метод обновления атрибутов времени выполнения эпика согласно его подзадач
-     * @param subtasks общее хранилище подзадач, среди которых перебираются свои согласно {@link Epic#subtaskList}*/
-    private void refreshTimes(Map<Integer, Subtask> subtasks) {
-        duration = null;
-        startTime = null;
-        endTime = null;
-        int numberOfSubtasks = subtaskList.size();
-        if (numberOfSubtasks > 0 && subtasks != null) {
-            List<Subtask> subtaskSortedByTime = new ArrayList<>();
-            for (int id : subtaskList) {
-                Subtask subtask = subtasks.get(id);
-                if (subtask.getStartTime() != null) {
-                    subtaskSortedByTime.add(subtask);
-                }
+    /** Метод учета подзадачи в атрибутах времени выполнения эпика: она включается в {@link Epic#subtasksByStartTime},
+     * а ее продолжительность прибавляется к суммарной
+     * @param subtask подзадача эпика */
+    private void addTimes(Subtask subtask) {
+        if (subtask.hasStartTime()) {
+            subtasksByStartTime.add(subtask);
+            if (durationMinutes == NO_DURATION) {
+                durationMinutes = 0;
             }
-            if (!subtaskSortedByTime.isEmpty()) {
-                subtaskSortedByTime.sort(Comparator.comparing(Subtask::getStartTime));
-
-                Subtask firstSubtask = subtaskSortedByTime.getFirst();
-                startTime = firstSubtask.getStartTime();
-
-                Subtask lastSubtask = subtaskSortedByTime.getLast();
-                endTime = lastSubtask.getEndTime();
+            if (subtask.durationMinutes != NO_DURATION) {
+                durationMinutes += subtask.durationMinutes;
+            }
+            refreshTimes();
+        }
+    }
 
-                duration = firstSubtask.getDuration();
-                subtaskSortedByTime.removeFirst();
-                subtaskSortedByTime.forEach(subtask -> duration = duration.plus(subtask.getDuration()));
+    /** Метод исключения подзадачи из атрибутов времени выполнения эпика - обратный {@link Epic#addTimes(Subtask)}
+     * @param subtask ранее учтенная версия подзадачи эпика */
+    private void removeTimes(Subtask subtask) {
+        if (subtask.hasStartTime() && subtasksByStartTime.remove(subtask)) {
+            if (subtask.durationMinutes != NO_DURATION) {
+                durationMinutes -= subtask.durationMinutes;
+            }
+            if (subtasksByStartTime.isEmpty()) {
+                durationMinutes = NO_DURATION;
             }
+            refreshTimes();
         }
     }
 
-    /** Метод удаления подзадачи из списка у эпика с обновлением его статуса
-     * @param subtaskId идентификатор подзадачи
-     * @param subtasks общее хранилище подзадач
+    /** Метод обновления дат начала и окончания выполнения эпика по первой и последней из его подзадач
+     * в {@link Epic#subtasksByStartTime} */
+    private void refreshTimes() {
+        if (subtasksByStartTime.isEmpty()) {
+            startSecond = NO_TIME;
+            startNano = 0;
+            endSecond = NO_TIME;
+            endNano = 0;
+        } else {
+            Subtask first = subtasksByStartTime.first();
+            Subtask last = subtasksByStartTime.last();
+            startSecond = first.startSecond;
+            startNano = first.startNano;
+            endSecond = last.hasEndTime() ? last.getEndSecond() : NO_TIME;
+            endNano = last.hasEndTime() ? last.getEndNano() : 0;
+        }
+    }
+
+    /** Метод удаления подзадачи из списка у эпика с обновлением его статуса и времени выполнения
+     * @param subtask удаляемая подзадача
      */
-    public void removeSubtask(Integer subtaskId, Map<Integer, Subtask> subtasks) {
-        if (subtasks != null && subtaskList.contains(subtaskId)) {
-            subtaskList.remove(subtaskId);
-            refreshStatus(subtasks);
-            refreshTimes(subtasks);
+    public void removeSubtask(Subtask subtask) {
+        if (subtask != null && subtaskList.remove(subtask.getId())) {
+            statusCounters[subtask.getStatus().ordinal()]--;
+            refreshStatus();
+            removeTimes(subtask);
         }
     }
 
     /** Метод очистки списка подзадач у эпика
      */
     public void clearSubtasks() {
-        subtaskList.clear();
-        refreshStatus(null);
-        refreshTimes(null);
+        subtaskList = new IntLinkedSet();
+        statusCounters = new int[TaskStatus.values().length];
+        subtasksByStartTime = new TreeSet<>(BY_START_TIME);
+        durationMinutes = NO_DURATION;
+        refreshStatus();
+        refreshTimes();
     }
 
-    /** Метод добавления подзадачи в список у эпика с обновлением его статуса.
+    /** Метод добавления подзадачи в список у эпика с обновлением его статуса и времени выполнения.
      * Добавляется в случае ее отсутствия в списке.
      * @param subtask объект подзадачи
-     * @param subtasks общее хранилище подзадач
      */
-    public void addSubtask(Subtask subtask, Map<Integer, Subtask> subtasks) {
-        if (subtask != null && subtasks != null) {
-            if (!subtaskList.contains(subtask.getId())) {
-                subtaskList.add(subtask.getId());
-            }
-            refreshStatus(subtasks);
-            refreshTimes(subtasks);
+    public void addSubtask(Subtask subtask) {
+        if (subtask != null && subtaskList.add(subtask.getId())) {
+            statusCounters[subtask.getStatus().ordinal()]++;
+            refreshStatus();
+            addTimes(subtask);
+        }
+    }
+
+    /** Метод замены подзадачи эпика ее новой версией с обновлением его статуса и времени выполнения
+     * @param subtaskPrev прежняя версия подзадачи
+     * @param subtask новая версия подзадачи
+     */
+    public void updateSubtask(Subtask subtaskPrev, Subtask subtask) {
+        if (subtaskPrev != null && subtask != null && subtaskList.contains(subtask.getId())) {
+            statusCounters[subtaskPrev.getStatus().ordinal()]--;
+            statusCounters[subtask.getStatus().ordinal()]++;
+            refreshStatus();
+            removeTimes(subtaskPrev);
+            addTimes(subtask);
         }
     }
 }
@@ -0,0 +1,135 @@
+package task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Класс повторяющихся задач - правило, по которому задача заданной продолжительности повторяется с заданным периодом
+ * от даты и времени начала первого повторения до заданной даты и времени или бессрочно.
+ * Повторения не хранятся, а строятся по номеру методом {@link RecurringTask#getOccurrence(long)}: это обычные задачи
+ * с id, названием, описанием, статусом и продолжительностью правила. Номер нужного повторения вычисляется
+ * по дате и времени за O(1), без перебора предыдущих.
+ * @version 1.1
+ * @author Николаев Д.В.
+ */
+public class RecurringTask extends Task {
+    /** Поле периода повторения, в минутах */
+    private long periodMinutes;
+    /** Поле даты и времени, позже которых повторения не начинаются; null - повторения бессрочные */
+    private LocalDateTime until;
+
+    /** Конструктор повторяющейся задачи без указания id и статуса. Создается как NEW.
+     * @param name название
+     * @param description описание
+     * @param duration продолжительность каждого повторения, мин.
+     * @param startTime дата и время начала первого повторения
+     * @param periodMinutes период повторения, мин.
+     * @param until дата и время, позже которых повторения не начинаются; null - бессрочно
+     */
+    public RecurringTask(String name, String description, Long duration, LocalDateTime startTime, long periodMinutes,
+                         LocalDateTime until) {
+        super(name, description, TaskStatus.NEW, duration, startTime);
+        this.periodMinutes = periodMinutes;
+        this.until = until;
+    }
+
+    /** Конструктор повторяющейся задачи со всеми параметрами
+     * @param name название
+     * @param description описание
+     * @param id идентификатор
+     * @param status статус
+     * @param duration продолжительность каждого повторения, мин.
+     * @param startTime дата и время начала первого повторения
+     * @param periodMinutes период повторения, мин.
+     * @param until дата и время, позже которых повторения не начинаются; null - бессрочно
+     */
+    public RecurringTask(String name, String description, int id, TaskStatus status, Long duration,
+                         LocalDateTime startTime, long periodMinutes, LocalDateTime until) {
+        super(name, description, id, status, duration, startTime);
+        this.periodMinutes = periodMinutes;
+        this.until = until;
+    }
+
+    public Duration getPeriod() {
+        return Duration.ofMinutes(periodMinutes);
+    }
+
+    public long getPeriodMinutes() {
+        return periodMinutes;
+    }
+
+    public LocalDateTime getUntil() {
+        return until;
+    }
+
+    /** Метод проверки бессрочности правила
+     * @return true - повторения не ограничены датой и временем */
+    public boolean isEndless() {
+        return until == null;
+    }
+
+    /** Метод получения количества повторений
+     * @return количество повторений; {@link Long#MAX_VALUE} - бессрочно */
+    public long getOccurrenceCount() {
+        if (until == null) {
+            return Long.MAX_VALUE;
+        }
+        long last = Math.floorDiv(until.toEpochSecond(ZoneOffset.UTC) - startSecond, periodMinutes * 60);
+        if (startSecond + last * periodMinutes * 60 == until.toEpochSecond(ZoneOffset.UTC)
+                && startNano > until.getNano()) {
+            last--;
+        }
+        return Math.max(last + 1, 0);
+    }
+
+    /** Метод построения повторения по номеру
+     * @param index номер повторения, с 0
+     * @return задача повторения с id правила */
+    public Task getOccurrence(long index) {
+        Long duration = (durationMinutes != NO_DURATION) ? durationMinutes : null;
+        return new Task(name, description, id, status, duration,
+                toDateTime(startSecond + index * periodMinutes * 60, startNano));
+    }
+
+    /** Метод получения номера первого повторения, которое начинается не раньше заданных даты и времени
+     * @param dateTime дата и время
+     * @return номер повторения; если он не меньше {@link RecurringTask#getOccurrenceCount()}, таких повторений нет */
+    public long firstStartingNotBefore(LocalDateTime dateTime) {
+        return firstIndex(dateTime, 0);
+    }
+
+    /** Метод получения номера первого повторения, которое заканчивается не раньше заданных даты и времени
+     * @param dateTime дата и время
+     * @return номер повторения; если он не меньше {@link RecurringTask#getOccurrenceCount()}, таких повторений нет */
+    public long firstEndingNotBefore(LocalDateTime dateTime) {
+        return firstIndex(dateTime, (durationMinutes != NO_DURATION) ? durationMinutes * 60L : 0);
+    }
+
+    /** Метод получения наименьшего номера повторения, у которого начало плюс сдвиг не раньше заданных даты и времени
+     * @param dateTime дата и время
+     * @param offsetSeconds сдвиг от начала повторения, сек.
+     * @return номер повторения, не меньше 0 */
+    private long firstIndex(LocalDateTime dateTime, long offsetSeconds) {
+        long seconds = dateTime.toEpochSecond(ZoneOffset.UTC) - startSecond - offsetSeconds;
+        // При равенстве секунд повторение подходит, только если его наносекунды не меньше
+        if (startNano < dateTime.getNano()) {
+            seconds++;
+        }
+        return Math.max(Math.ceilDiv(seconds, periodMinutes * 60), 0);
+    }
+
+    @Override
+    public String toString() {
+        return "task.RecurringTask{" +
+                "name='" + name + '\'' +
+                ", description='" + description + '\'' +
+                ", id=" + id +
+                ", status=" + status +
+                ", duration=" + (durationMinutes != NO_DURATION ? durationMinutes : null) +
+                ", startTime=" + getStartTime() +
+                ", periodMinutes=" + periodMinutes +
+                ", until=" + until +
+                '}';
+    }
+}
@@ -4,7 +4,7 @@ import java.time.LocalDateTime;
 
 /**
  * Класс подзадач
- * @version 2.1
+ * @version 2.2
  * @author Николаев Д.В.
  */
 public class Subtask extends Task {
@@ -129,8 +129,8 @@ public class Subtask extends Task {
                 ", id=" + id +
                 ", status=" + status +
                 ", epicId=" + epicId +
-                ", duration=" + (duration != null ? duration.toMinutes() : null) +
-                ", startTime=" + startTime +
+                ", duration=" + (durationMinutes != NO_DURATION ? durationMinutes : null) +
+                ", startTime=" + getStartTime() +
                 '}';
     }
 }
\ No newline at end of file
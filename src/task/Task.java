@@ -2,14 +2,23 @@ package task;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Objects;
 
 /**
- * Класс задач
- * @version 2.1
+ * Класс задач.
+ * Атрибуты времени хранятся примитивами - секундами и наносекундами от начала эпохи и минутами продолжительности, а
+ * {@link Task#getStartTime()}, {@link Task#getDuration()} и {@link Task#getEndTime()} строят объекты java.time по ним.
+ * Сравнения по времени ({@link Task#compareStartTo(Task)} и подобные) объектов не создают.
+ * @version 3.1
  * @author Николаев Д.В.
  */
 public class Task {
+    /** Значение {@link Task#startSecond} для незаданной даты и времени начала */
+    protected static final long NO_TIME = Long.MIN_VALUE;
+    /** Значение {@link Task#durationMinutes} для незаданной продолжительности */
+    protected static final long NO_DURATION = Long.MIN_VALUE;
+
     /** Поле названия */
     protected String name;
     /** Поле описания */
@@ -19,11 +28,16 @@ public class Task {
     /** Поле статуса перечисляемого типа {@link TaskStatus} */
     protected TaskStatus status;
 
-    /** Поле продолжительности задания, в минутах */
-    protected Duration duration;
+    /** Поле продолжительности задания, в минутах; {@link Task#NO_DURATION} - не задана.
+     * В json пишется как duration, см. server.TaskTypeAdapterFactory */
+    protected transient long durationMinutes = NO_DURATION;
+
+    /** Поле даты и времени начала выполнения - секунды от начала эпохи (по UTC); {@link Task#NO_TIME} - не задано.
+     * В json пишется как startTime, см. server.TaskTypeAdapterFactory */
+    protected transient long startSecond = NO_TIME;
 
-    /** Поле даты и времени начала выполнения */
-    protected LocalDateTime startTime;
+    /** Поле наносекунд даты и времени начала выполнения */
+    protected transient int startNano;
 
     /** Конструктор задачи с параметрами без указания статуса. Создается как NEW.
      * @param name название
@@ -89,8 +103,8 @@ public class Task {
         this.description = description;
         this.id = id;
         this.status = TaskStatus.NEW;
-        this.duration = (duration != null) ? Duration.ofMinutes(duration) : null;
-        this.startTime = startTime;
+        assignDuration(duration);
+        assignStartTime(startTime);
     }
 
     /**
@@ -108,8 +122,8 @@ public class Task {
         this.description = description;
         this.id = id;
         this.status = status;
-        this.duration = (duration != null) ? Duration.ofMinutes(duration) : null;
-        this.startTime = startTime;
+        assignDuration(duration);
+        assignStartTime(startTime);
     }
 
     /**
@@ -125,8 +139,8 @@ public class Task {
         this.description = description;
         this.id = 0;
         this.status = TaskStatus.NEW;
-        this.duration = (duration != null) ? Duration.ofMinutes(duration) : null;
-        this.startTime = startTime;
+        assignDuration(duration);
+        assignStartTime(startTime);
     }
 
     /**
@@ -143,8 +157,8 @@ public class Task {
         this.description = description;
         this.id = 0;
         this.status = status;
-        this.duration = (duration != null) ? Duration.ofMinutes(duration) : null;
-        this.startTime = startTime;
+        assignDuration(duration);
+        assignStartTime(startTime);
     }
 
     public String getName() {
@@ -176,11 +190,44 @@ public class Task {
     }
 
     public Duration getDuration() {
-        return duration;
+        return (durationMinutes != NO_DURATION) ? Duration.ofMinutes(durationMinutes) : null;
+    }
+
+    /** Метод установки продолжительности - для восстановления задачи из внешнего представления (json).
+     * Задачу, уже заведенную у менеджера, так менять нельзя: ее положение в расписании не пересчитается.
+     * @param duration продолжительность задачи, мин. - целое число; null - не задана */
+    public void setDuration(Long duration) {
+        assignDuration(duration);
+    }
+
+    /** Метод занесения продолжительности в примитивное поле - для конструкторов и {@link Task#setDuration(Long)}
+     * @param duration продолжительность задачи, мин.; null - не задана */
+    private void assignDuration(Long duration) {
+        this.durationMinutes = (duration != null) ? duration : NO_DURATION;
     }
 
     public LocalDateTime getStartTime() {
-        return startTime;
+        return toDateTime(startSecond, startNano);
+    }
+
+    /** Метод установки даты и времени начала - для восстановления задачи из внешнего представления (json),
+     * с тем же ограничением, что и {@link Task#setDuration(Long)}
+     * @param startTime дата и время начала выполнения; null - не задано */
+    public void setStartTime(LocalDateTime startTime) {
+        assignStartTime(startTime);
+    }
+
+    /** Метод занесения даты и времени начала в примитивные поля - для конструкторов и
+     * {@link Task#setStartTime(LocalDateTime)}
+     * @param startTime дата и время начала выполнения; null - не задано */
+    private void assignStartTime(LocalDateTime startTime) {
+        if (startTime != null) {
+            this.startSecond = startTime.toEpochSecond(ZoneOffset.UTC);
+            this.startNano = startTime.getNano();
+        } else {
+            this.startSecond = NO_TIME;
+            this.startNano = 0;
+        }
     }
 
     /**
@@ -188,11 +235,83 @@ public class Task {
      * @return startTime + duration
      */
     public LocalDateTime getEndTime() {
-       LocalDateTime result = null;
-        if (startTime != null && duration != null) {
-            result = startTime.plus(duration);
-        }
-        return result;
+        return hasEndTime() ? toDateTime(getEndSecond(), getEndNano()) : null;
+    }
+
+    /** Метод построения даты и времени по секундам и наносекундам от начала эпохи
+     * @param epochSecond секунды от начала эпохи (по UTC) или {@link Task#NO_TIME}
+     * @param nano наносекунды
+     * @return дата и время или null, если не заданы */
+    protected static LocalDateTime toDateTime(long epochSecond, int nano) {
+        return (epochSecond != NO_TIME) ? LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC) : null;
+    }
+
+    /** Метод проверки наличия даты и времени начала
+     * @return true - дата и время начала заданы */
+    public boolean hasStartTime() {
+        return startSecond != NO_TIME;
+    }
+
+    /** Метод проверки наличия расчетной даты и времени окончания
+     * @return true - заданы и начало, и продолжительность */
+    public boolean hasEndTime() {
+        return startSecond != NO_TIME && durationMinutes != NO_DURATION;
+    }
+
+    /** Метод получения секунд от начала эпохи для даты и времени начала, при {@link Task#hasStartTime()}
+     * @return секунды от начала эпохи (по UTC) */
+    public long getStartSecond() {
+        return startSecond;
+    }
+
+    /** Метод получения наносекунд даты и времени начала, при {@link Task#hasStartTime()}
+     * @return наносекунды */
+    public int getStartNano() {
+        return startNano;
+    }
+
+    /** Метод получения секунд от начала эпохи для даты и времени окончания, при {@link Task#hasEndTime()}
+     * @return секунды от начала эпохи (по UTC) */
+    public long getEndSecond() {
+        return startSecond + durationMinutes * 60L;
+    }
+
+    /** Метод получения наносекунд даты и времени окончания, при {@link Task#hasEndTime()}
+     * @return наносекунды */
+    public int getEndNano() {
+        return startNano;
+    }
+
+    /** Метод сравнения дат и времени начала двух задач, у обеих они должны быть заданы
+     * @param other задача для сравнения
+     * @return отрицательное число, ноль или положительное - эта задача начинается раньше, одновременно или позже */
+    public int compareStartTo(Task other) {
+        int result = Long.compare(startSecond, other.startSecond);
+        return (result != 0) ? result : Integer.compare(startNano, other.startNano);
+    }
+
+    /** Метод сравнения даты и времени начала задачи с заданными, у задачи они должны быть заданы
+     * @param dateTime дата и время для сравнения
+     * @return отрицательное число, ноль или положительное - задача начинается раньше, одновременно или позже */
+    public int compareStartTo(LocalDateTime dateTime) {
+        int result = Long.compare(startSecond, dateTime.toEpochSecond(ZoneOffset.UTC));
+        return (result != 0) ? result : Integer.compare(startNano, dateTime.getNano());
+    }
+
+    /** Метод сравнения дат и времени окончания двух задач, у обеих они должны быть заданы
+     * @param other задача для сравнения
+     * @return отрицательное число, ноль или положительное - эта задача заканчивается раньше, одновременно или позже */
+    public int compareEndTo(Task other) {
+        int result = Long.compare(getEndSecond(), other.getEndSecond());
+        return (result != 0) ? result : Integer.compare(getEndNano(), other.getEndNano());
+    }
+
+    /** Метод сравнения даты и времени начала задачи с окончанием другой, у обеих они должны быть заданы
+     * @param other задача, с окончанием которой сравнивается начало этой
+     * @return отрицательное число, ноль или положительное - эта задача начинается раньше, одновременно или позже */
+    public int compareStartToEndOf(Task other) {
+        int result = Long.compare(startSecond, other.getEndSecond());
+        return (result != 0) ? result : Integer.compare(startNano, other.getEndNano());
     }
 
     @Override
@@ -215,8 +334,8 @@ public class Task {
                 ", description='" + description + '\'' +
                 ", id=" + id +
                 ", status=" + status +
-                ", duration=" + (duration != null ? duration.toMinutes() : null) +
-                ", startTime=" + startTime +
+                ", duration=" + (durationMinutes != NO_DURATION ? durationMinutes : null) +
+                ", startTime=" + getStartTime() +
                 '}';
     }
 }
\ No newline at end of file
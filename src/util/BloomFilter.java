@@ -0,0 +1,96 @@
+package util;
+
+/**
+ * Фильтр Блума для целых чисел: компактное вероятностное множество без удаления. Ответ "нет" точный, ответ
+ * "возможно" ошибочен с вероятностью около 1% при заявленном количестве элементов (10 бит и 7 хешей на элемент).
+ * Позиции битов получаются двойным хешированием от двух перемешанных вариантов числа.
+ *
+ * @author Николаев Д.В.
+ * @version 1.0
+ */
+public class BloomFilter {
+    /**
+     * Количество бит на ожидаемый элемент
+     */
+    private static final int BITS_PER_ELEMENT = 10;
+
+    /**
+     * Количество хешей (битов) на элемент
+     */
+    private static final int HASHES = 7;
+
+    /**
+     * Поле битового массива
+     */
+    private final long[] bits;
+
+    /**
+     * Поле количества бит
+     */
+    private final int bitCount;
+
+    /**
+     * Конструктор пустого фильтра
+     *
+     * @param expectedElements ожидаемое количество элементов
+     */
+    public BloomFilter(int expectedElements) {
+        long wanted = Math.max(64L, (long) Math.max(expectedElements, 0) * BITS_PER_ELEMENT);
+        bits = new long[(int) Math.min((wanted + 63) / 64, Integer.MAX_VALUE / 64)];
+        bitCount = bits.length * 64;
+    }
+
+    /**
+     * Метод перемешивания битов числа (финализатор MurmurHash3)
+     *
+     * @param value число
+     * @return перемешанное число
+     */
+    private static int mix(int value) {
+        value ^= value >>> 16;
+        value *= 0x85ebca6b;
+        value ^= value >>> 13;
+        value *= 0xc2b2ae35;
+        value ^= value >>> 16;
+        return value;
+    }
+
+    /**
+     * Метод добавления числа
+     *
+     * @param value число
+     */
+    public void add(int value) {
+        int h1 = mix(value);
+        int h2 = mix(h1 ^ 0x9e3779b9) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Метод проверки числа
+     *
+     * @param value число
+     * @return false - числа точно нет; true - число, возможно, добавлялось
+     */
+    public boolean mightContain(int value) {
+        int h1 = mix(value);
+        int h2 = mix(h1 ^ 0x9e3779b9) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "BloomFilter{" +
+                "bitCount=" + bitCount +
+                '}';
+    }
+}
@@ -0,0 +1,233 @@
+package util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Множество целых чисел без упаковки в {@link Integer}, сохраняющее порядок добавления элементов.
+ * Элементы хранятся в плотном массиве в порядке добавления, а их позиции - в хеш-таблице с открытой адресацией
+ * (линейное пробирование). Проверка наличия, добавление и удаление выполняются за O(1), обход - в порядке добавления.
+ * Удаленные элементы помечаются в плотном массиве и вычищаются при очередном расширении.
+ *
+ * @author Николаев Д.В.
+ * @version 1.2
+ */
+public class IntLinkedSet {
+    /**
+     * Начальная емкость плотного массива элементов
+     */
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * Поле плотного массива элементов в порядке добавления
+     */
+    private int[] elements;
+
+    /**
+     * Поле признаков действующих (не удаленных) элементов плотного массива
+     */
+    private boolean[] live;
+
+    /**
+     * Поле хеш-таблицы позиций элементов: позиция в {@link IntLinkedSet#elements} + 1, 0 - свободная ячейка
+     */
+    private int[] slots;
+
+    /**
+     * Поле количества занятых позиций плотного массива, включая удаленные
+     */
+    private int used;
+
+    /**
+     * Поле количества элементов множества
+     */
+    private int size;
+
+    /**
+     * Конструктор пустого множества
+     */
+    public IntLinkedSet() {
+        elements = new int[INITIAL_CAPACITY];
+        live = new boolean[INITIAL_CAPACITY];
+        slots = new int[INITIAL_CAPACITY * 2];
+    }
+
+    /**
+     * Метод поиска ячейки хеш-таблицы, занятой элементом
+     *
+     * @param value искомый элемент
+     * @return индекс ячейки или -1, если элемента нет
+     */
+    private int findSlot(int value) {
+        int mask = slots.length - 1;
+        int i = IntObjectMap.hash(value) & mask;
+        while (slots[i] != 0) {
+            if (elements[slots[i] - 1] == value) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Метод записи позиции элемента в первую свободную ячейку хеш-таблицы
+     *
+     * @param position позиция элемента в {@link IntLinkedSet#elements}
+     */
+    private void insertSlot(int position) {
+        int mask = slots.length - 1;
+        int i = IntObjectMap.hash(elements[position]) & mask;
+        while (slots[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        slots[i] = position + 1;
+    }
+
+    /**
+     * Метод перестроения плотного массива без удаленных элементов и хеш-таблицы заданной емкости
+     *
+     * @param capacity новая емкость плотного массива
+     */
+    private void rebuild(int capacity) {
+        int[] newElements = new int[capacity];
+        boolean[] newLive = new boolean[capacity];
+        int position = 0;
+        for (int i = 0; i < used; i++) {
+            if (live[i]) {
+                newElements[position] = elements[i];
+                newLive[position] = true;
+                position++;
+            }
+        }
+        elements = newElements;
+        live = newLive;
+        used = position;
+        slots = new int[capacity * 2];
+        for (int i = 0; i < used; i++) {
+            insertSlot(i);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Метод проверки наличия элемента
+     *
+     * @param value элемент
+     * @return true - элемент есть в множестве
+     */
+    public boolean contains(int value) {
+        return findSlot(value) >= 0;
+    }
+
+    /**
+     * Метод добавления элемента в конец порядка обхода. Повторное добавление имеющегося элемента игнорируется.
+     *
+     * @param value элемент
+     * @return true - элемент добавлен; false - уже был в множестве
+     */
+    public boolean add(int value) {
+        if (contains(value)) {
+            return false;
+        }
+        if (used == elements.length) {
+            // Если удаленных много, достаточно уплотнить массив, иначе расширяем его
+            rebuild(size * 2 <= used ? elements.length : elements.length * 2);
+        }
+        elements[used] = value;
+        live[used] = true;
+        insertSlot(used);
+        used++;
+        size++;
+        return true;
+    }
+
+    /**
+     * Метод удаления элемента. Ячейка хеш-таблицы освобождается со сдвигом последующих ячеек цепочки,
+     * чтобы не накапливать в ней удаленные метки.
+     *
+     * @param value элемент
+     * @return true - элемент удален; false - его не было в множестве
+     */
+    public boolean remove(int value) {
+        int i = findSlot(value);
+        if (i < 0) {
+            return false;
+        }
+        int position = slots[i] - 1;
+        live[position] = false;
+        size--;
+        while (used > 0 && !live[used - 1]) {
+            used--;
+        }
+
+        int mask = slots.length - 1;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (slots[j] == 0) {
+                break;
+            }
+            int home = IntObjectMap.hash(elements[slots[j] - 1]) & mask;
+            // Переносим ячейку j на место i, если ее исходная позиция не лежит циклически в (i, j]
+            boolean between = (i <= j) ? (i < home && home <= j) : (i < home || home <= j);
+            if (!between) {
+                slots[i] = slots[j];
+                i = j;
+            }
+        }
+        slots[i] = 0;
+        return true;
+    }
+
+    /**
+     * Метод очистки множества
+     */
+    public void clear() {
+        Arrays.fill(live, 0, used, false);
+        Arrays.fill(slots, 0);
+        used = 0;
+        size = 0;
+    }
+
+    /**
+     * Метод обхода элементов в порядке добавления
+     *
+     * @param action действие над каждым элементом
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < used; i++) {
+            if (live[i]) {
+                action.accept(elements[i]);
+            }
+        }
+    }
+
+    /**
+     * Метод получения элементов массивом в порядке добавления
+     *
+     * @return int[] копия элементов множества
+     */
+    public int[] toArray() {
+        int[] result = new int[size];
+        int position = 0;
+        for (int i = 0; i < used; i++) {
+            if (live[i]) {
+                result[position++] = elements[i];
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
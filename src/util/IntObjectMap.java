@@ -0,0 +1,299 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Таблица с ключами-целыми числами без упаковки в {@link Integer}, сохраняющая порядок добавления записей.
+ * Ключи и значения хранятся в плотных массивах в порядке добавления, а их позиции - в хеш-таблице с открытой
+ * адресацией (линейное пробирование). В отличие от {@link java.util.HashMap} не создает объектов на каждую запись:
+ * вся таблица - это три массива, размер которых удваивается по мере заполнения.
+ * Удаленные записи помечаются в плотных массивах и вычищаются при расширении или когда их становится большинство.
+ *
+ * @param <V> тип значений
+ * @author Николаев Д.В.
+ * @version 1.2
+ */
+public class IntObjectMap<V> {
+    /**
+     * Начальная емкость плотных массивов
+     */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * Поле плотного массива ключей в порядке добавления
+     */
+    private int[] keys;
+
+    /**
+     * Поле плотного массива значений в порядке добавления, null - удаленная запись
+     */
+    private Object[] values;
+
+    /**
+     * Поле хеш-таблицы позиций записей: позиция в {@link IntObjectMap#keys} + 1, 0 - свободная ячейка
+     */
+    private int[] slots;
+
+    /**
+     * Поле количества занятых позиций плотных массивов, включая удаленные
+     */
+    private int used;
+
+    /**
+     * Поле количества записей
+     */
+    private int size;
+
+    /**
+     * Конструктор пустой таблицы
+     */
+    public IntObjectMap() {
+        keys = new int[INITIAL_CAPACITY];
+        values = new Object[INITIAL_CAPACITY];
+        slots = new int[INITIAL_CAPACITY * 2];
+    }
+
+    /**
+     * Метод получения хеша ключа. Ключ умножается на нечетную константу золотого сечения, а старшие биты
+     * произведения подмешиваются к младшим. Последовательные id рассеиваются по таблице: иначе плотный диапазон id
+     * занимает подряд идущие ячейки, и линейное пробирование при удалении со сдвигом проходит этот кластер целиком.
+     * Общий для хеш-таблиц с ключами-id: {@link IntLinkedSet}, {@code manager.OffHeapTaskStore}.
+     *
+     * @param key ключ
+     * @return хеш ключа
+     */
+    public static int hash(int key) {
+        int h = key * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Метод поиска ячейки хеш-таблицы, занятой записью с ключом
+     *
+     * @param key искомый ключ
+     * @return индекс ячейки или -1, если записи нет
+     */
+    private int findSlot(int key) {
+        int mask = slots.length - 1;
+        int i = hash(key) & mask;
+        while (slots[i] != 0) {
+            if (keys[slots[i] - 1] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Метод записи позиции записи в первую свободную ячейку хеш-таблицы
+     *
+     * @param position позиция записи в плотных массивах
+     */
+    private void insertSlot(int position) {
+        int mask = slots.length - 1;
+        int i = hash(keys[position]) & mask;
+        while (slots[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        slots[i] = position + 1;
+    }
+
+    /**
+     * Метод перестроения плотных массивов без удаленных записей и хеш-таблицы заданной емкости
+     *
+     * @param capacity новая емкость плотных массивов
+     */
+    private void rebuild(int capacity) {
+        int[] newKeys = new int[capacity];
+        Object[] newValues = new Object[capacity];
+        int position = 0;
+        for (int i = 0; i < used; i++) {
+            if (values[i] != null) {
+                newKeys[position] = keys[i];
+                newValues[position] = values[i];
+                position++;
+            }
+        }
+        keys = newKeys;
+        values = newValues;
+        used = position;
+        slots = new int[capacity * 2];
+        for (int i = 0; i < used; i++) {
+            insertSlot(i);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Метод проверки наличия записи с ключом
+     *
+     * @param key ключ
+     * @return true - запись есть в таблице
+     */
+    public boolean containsKey(int key) {
+        return findSlot(key) >= 0;
+    }
+
+    /**
+     * Метод получения значения по ключу
+     *
+     * @param key ключ
+     * @return значение или null, если записи нет
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int i = findSlot(key);
+        return (i >= 0) ? (V) values[slots[i] - 1] : null;
+    }
+
+    /**
+     * Метод добавления или замены записи. Новая запись встает в конец порядка обхода, замененная сохраняет свое место.
+     *
+     * @param key   ключ
+     * @param value значение, не null
+     * @return прежнее значение или null, если записи не было
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new NullPointerException("Значение таблицы не может быть null.");
+        }
+        int i = findSlot(key);
+        if (i >= 0) {
+            int position = slots[i] - 1;
+            V previous = (V) values[position];
+            values[position] = value;
+            return previous;
+        }
+        if (used == keys.length) {
+            // Если удаленных много, достаточно уплотнить массивы, иначе расширяем их
+            rebuild(size * 2 <= used ? keys.length : keys.length * 2);
+        }
+        keys[used] = key;
+        values[used] = value;
+        insertSlot(used);
+        used++;
+        size++;
+        return null;
+    }
+
+    /**
+     * Метод удаления записи по ключу. Ячейка хеш-таблицы освобождается со сдвигом последующих ячеек цепочки,
+     * чтобы не накапливать в ней удаленные метки.
+     *
+     * @param key ключ
+     * @return удаленное значение или null, если записи не было
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int i = findSlot(key);
+        if (i < 0) {
+            return null;
+        }
+        int position = slots[i] - 1;
+        V previous = (V) values[position];
+        values[position] = null;
+        size--;
+
+        int mask = slots.length - 1;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (slots[j] == 0) {
+                break;
+            }
+            int home = hash(keys[slots[j] - 1]) & mask;
+            // Переносим ячейку j на место i, если ее исходная позиция не лежит циклически в (i, j]
+            boolean between = (i <= j) ? (i < home && home <= j) : (i < home || home <= j);
+            if (!between) {
+                slots[i] = slots[j];
+                i = j;
+            }
+        }
+        slots[i] = 0;
+
+        while (used > 0 && values[used - 1] == null) {
+            used--;
+        }
+        if (used > INITIAL_CAPACITY && size * 4 < used) {
+            rebuild(keys.length);
+        }
+        return previous;
+    }
+
+    /**
+     * Метод очистки таблицы
+     */
+    public void clear() {
+        Arrays.fill(values, 0, used, null);
+        Arrays.fill(slots, 0);
+        used = 0;
+        size = 0;
+    }
+
+    /**
+     * Метод обхода значений в порядке добавления записей
+     *
+     * @param action действие над каждым значением
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super V> action) {
+        for (int i = 0; i < used; i++) {
+            if (values[i] != null) {
+                action.accept((V) values[i]);
+            }
+        }
+    }
+
+    /**
+     * Метод получения значений списком в порядке добавления записей
+     *
+     * @return ArrayList<V> копия значений таблицы
+     */
+    public List<V> values() {
+        List<V> result = new ArrayList<>(size);
+        forEach(result::add);
+        return result;
+    }
+
+    /**
+     * Метод получения ключей массивом в порядке добавления записей
+     *
+     * @return int[] копия ключей таблицы
+     */
+    public int[] keys() {
+        int[] result = new int[size];
+        int position = 0;
+        for (int i = 0; i < used; i++) {
+            if (values[i] != null) {
+                result[position++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("{");
+        for (int i = 0; i < used; i++) {
+            if (values[i] != null) {
+                if (result.length() > 1) {
+                    result.append(", ");
+                }
+                result.append(keys[i]).append('=').append(values[i]);
+            }
+        }
+        return result.append('}').toString();
+    }
+}
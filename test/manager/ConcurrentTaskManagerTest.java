@@ -0,0 +1,159 @@
+package manager;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server.HttpTaskServer;
+import task.Epic;
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentTaskManagerTest extends TaskManagerTest<ConcurrentTaskManager> {
+    private static final int THREADS = 8;
+    private static final int TASKS_PER_THREAD = 500;
+
+    @BeforeEach
+    void beforeEach() {
+        taskManager = new ConcurrentTaskManager();
+    }
+
+    @Test
+    void epicReadsAreSnapshots() {
+        Epic epic = taskManager.createEpic(new Epic("Эпик 1", "Описание эпика 1"));
+        Epic read = taskManager.getEpic(epic.getId());
+        List<Epic> byStatus = taskManager.getEpicsByStatus(TaskStatus.NEW);
+        taskManager.createSubtask(new Subtask("Подзадача", "Описание подзадачи", TaskStatus.DONE, epic.getId(), 5L,
+                LocalDateTime.of(2024, 5, 20, 9, 0)));
+
+        assertTrue(read.getSubtaskList().isEmpty(), "Прочитанный эпик изменился вместе с хранимым.");
+        assertEquals(TaskStatus.NEW, byStatus.getFirst().getStatus(), "Эпик выборки изменился вместе с хранимым.");
+        assertNotSame(read, taskManager.getEpic(epic.getId()), "Читателю отдан хранимый эпик.");
+        assertEquals(TaskStatus.DONE, taskManager.getEpic(epic.getId()).getStatus(), "Копия эпика устарела.");
+        assertEquals(TaskStatus.DONE, ((Epic) taskManager.getHistory().getFirst()).getStatus(),
+                "Эпик истории устарел.");
+    }
+
+    @Test
+    void epicsAreSerializedWhileSubtasksAreAdded() throws Exception {
+        Epic epic = taskManager.createEpic(new Epic("Эпик 1", "Описание эпика 1"));
+        LocalDateTime start = LocalDateTime.of(2024, 5, 20, 0, 0);
+        Gson gson = new HttpTaskServer(taskManager).getGson();
+        AtomicBoolean writing = new AtomicBoolean(true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> {
+                try {
+                    for (int i = 0; i < TASKS_PER_THREAD * 10; i++) {
+                        TaskStatus status = (i % 2 == 0) ? TaskStatus.NEW : TaskStatus.DONE;
+                        taskManager.createSubtask(new Subtask("Подзадача", "Описание подзадачи", status,
+                                epic.getId(), 5L, start.plusMinutes(10L * i)));
+                    }
+                } finally {
+                    writing.set(false);
+                }
+            }));
+            for (int thread = 1; thread < THREADS; thread++) {
+                futures.add(executor.submit(() -> {
+                    while (writing.get()) {
+                        // Копия эпика не меняется, пока ее сериализуют и проверяют: сроки и статус - одного состояния
+                        List<Epic> reads = List.of(taskManager.getAllEpics().getFirst(),
+                                taskManager.getEpic(epic.getId()));
+                        for (Epic read : reads) {
+                            assertFalse(gson.toJson(read).isEmpty(), "Эпик не сериализован.");
+                            int count = read.getSubtaskIds().length;
+                            assertEquals(count, read.getSubtaskList().size(), "Список подзадач эпика поврежден.");
+                            if (count == 0) {
+                                assertNull(read.getStartTime(), "Начало эпика без подзадач.");
+                                continue;
+                            }
+                            assertEquals(5L * count, read.getDuration().toMinutes(),
+                                    "Продолжительность эпика из другого состояния.");
+                            assertEquals(start.plusMinutes(10L * (count - 1) + 5), read.getEndTime(),
+                                    "Окончание эпика из другого состояния.");
+                            assertEquals((count == 1) ? TaskStatus.NEW : TaskStatus.IN_PROGRESS, read.getStatus(),
+                                    "Статус эпика из другого состояния.");
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            writing.set(false);
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS), "Потоки не завершились.");
+        }
+        assertEquals(TASKS_PER_THREAD * 10, taskManager.getAllEpics().getFirst().getSubtaskIds().length,
+                "Опубликованный список эпиков устарел.");
+    }
+
+    @Test
+    void createFromManyThreads() throws Exception {
+        Epic epic = taskManager.createEpic(new Epic("Эпик 1", "Описание эпика 1"));
+        LocalDateTime start = LocalDateTime.of(2024, 5, 20, 0, 0);
+        AtomicInteger crossings = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int threadNumber = thread;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < TASKS_PER_THREAD; i++) {
+                        // Каждая пара потоков претендует на одни и те же интервалы - успеть должен только один
+                        LocalDateTime startTime = start.plusMinutes(10L * (threadNumber / 2 * TASKS_PER_THREAD + i));
+                        try {
+                            if (i % 2 == 0) {
+                                taskManager.createTask(new Task("Задача", "Описание задачи", 5L, startTime));
+                            } else {
+                                taskManager.createSubtask(new Subtask("Подзадача", "Описание подзадачи",
+                                        TaskStatus.DONE, epic.getId(), 5L, startTime));
+                            }
+                        } catch (InvalidTaskException e) {
+                            crossings.incrementAndGet();
+                        }
+                        taskManager.getEpic(epic.getId());
+                        taskManager.getPrioritizedTasks();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS), "Потоки не завершились.");
+        }
+
+        int created = THREADS * TASKS_PER_THREAD - crossings.get();
+        assertEquals(THREADS * TASKS_PER_THREAD / 2, created, "Пересекающиеся задачи созданы параллельно.");
+        assertEquals(created, taskManager.getPrioritizedTasks().size(), "Расписание не совпадает с созданным.");
+
+        Set<Integer> ids = new HashSet<>();
+        taskManager.getAllTasks().forEach(task -> ids.add(task.getId()));
+        taskManager.getAllSubtasks().forEach(subtask -> ids.add(subtask.getId()));
+        assertEquals(created, ids.size(), "Выданы повторяющиеся id.");
+        assertEquals(taskManager.getAllSubtasks().size(), epic.getSubtaskList().size(),
+                "Список подзадач эпика расходится с хранилищем.");
+        assertEquals(TaskStatus.DONE, epic.getStatus(), "Статус эпика рассчитан неверно.");
+        assertEquals(1, taskManager.getHistory().size(), "История просмотров повреждена.");
+    }
+}
@@ -0,0 +1,120 @@
+package manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import task.Task;
+import task.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencyGraphTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 5, 20, 9, 0);
+
+    private DependencyGraph graph;
+
+    @BeforeEach
+    void beforeEach() {
+        graph = new DependencyGraph();
+    }
+
+    private static Task task(int id, long duration, int startHour) {
+        return new Task("Задача " + id, "Описание", id, TaskStatus.NEW, duration, START.plusHours(startHour));
+    }
+
+    @Test
+    void cycleRejectedWithoutChanges() {
+        Task a = task(1, 60, 0);
+        Task b = task(2, 60, 0);
+        Task c = task(3, 60, 0);
+        graph.addDependency(b, c);
+        graph.addDependency(a, b);
+        assertThrows(InvalidTaskException.class, () -> graph.addDependency(c, a), "Цикл не обнаружен.");
+        assertThrows(InvalidTaskException.class, () -> graph.addDependency(a, a), "Петля не обнаружена.");
+        assertArrayEquals(new int[0], graph.getBlockers(1), "Отклоненная зависимость осталась в графе.");
+        assertArrayEquals(new int[]{1, 2, 3}, graph.getCriticalPath(), "Неверный критический путь.");
+        assertEquals(START.plusHours(2), graph.getEarliestStart(3), "Неверное раннее начало.");
+    }
+
+    @Test
+    void incrementalMatchesFullRecalculation() {
+        Random random = new Random(42);
+        int count = 60;
+        Task[] tasks = new Task[count + 1];
+        for (int id = 1; id <= count; id++) {
+            tasks[id] = task(id, 10 + random.nextInt(50), random.nextInt(24));
+        }
+        Map<Integer, List<Integer>> blockers = new HashMap<>();
+        for (int i = 0; i < 400; i++) {
+            int from = 1 + random.nextInt(count);
+            int to = 1 + random.nextInt(count);
+            boolean reachable = from == to || reaches(blockers, to, from);
+            if (reachable) {
+                assertThrows(InvalidTaskException.class, () -> graph.addDependency(tasks[from], tasks[to]),
+                        "Цикл не обнаружен: " + from + " -> " + to);
+            } else {
+                graph.addDependency(tasks[from], tasks[to]);
+                List<Integer> list = blockers.computeIfAbsent(to, key -> new ArrayList<>());
+                if (!list.contains(from)) {
+                    list.add(from);
+                }
+            }
+            if (i % 50 == 49) {
+                int id = 1 + random.nextInt(count);
+                tasks[id] = task(id, 10 + random.nextInt(50), random.nextInt(24));
+                graph.onEvent(new TaskEvent(0, TaskEvent.Kind.UPDATE, TaskType.TASK, tasks[id], tasks[id]));
+            }
+        }
+        Map<Integer, LocalDateTime> finishes = new HashMap<>();
+        for (int id = 1; id <= count; id++) {
+            if (graph.contains(id)) {
+                assertEquals(earliestStart(blockers, tasks, finishes, id), graph.getEarliestStart(id),
+                        "Раннее начало расходится с полным пересчетом: " + id);
+            }
+        }
+    }
+
+    private static boolean reaches(Map<Integer, List<Integer>> blockers, int from, int target) {
+        Set<Integer> visited = new HashSet<>(List.of(from));
+        Deque<Integer> stack = new ArrayDeque<>(visited);
+        while (!stack.isEmpty()) {
+            int id = stack.pop();
+            for (Map.Entry<Integer, List<Integer>> entry : blockers.entrySet()) {
+                if (entry.getValue().contains(id) && visited.add(entry.getKey())) {
+                    if (entry.getKey() == target) {
+                        return true;
+                    }
+                    stack.push(entry.getKey());
+                }
+            }
+        }
+        return false;
+    }
+
+    private static LocalDateTime earliestStart(Map<Integer, List<Integer>> blockers, Task[] tasks,
+                                               Map<Integer, LocalDateTime> finishes, int id) {
+        LocalDateTime start = tasks[id].getStartTime();
+        for (int blocker : blockers.getOrDefault(id, List.of())) {
+            LocalDateTime finish = finishes.get(blocker);
+            if (finish == null) {
+                finish = earliestStart(blockers, tasks, finishes, blocker)
+                        .plus(tasks[blocker].getDuration());
+                finishes.put(blocker, finish);
+            }
+            if (finish.isAfter(start)) {
+                start = finish;
+            }
+        }
+        return start;
+    }
+}
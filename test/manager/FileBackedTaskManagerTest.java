@@ -3,6 +3,7 @@ package manager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import task.Epic;
+import task.RecurringTask;
 import task.Subtask;
 import task.Task;
 import task.TaskStatus;
@@ -80,7 +81,7 @@ public class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskMan
             int counter = 0;
             if (fileReader.ready()) {
                 String line = fileReader.readLine();
-                assertEquals("id,type,name,status,description,epic,duration,startTime", line, "Неверный формат CSV в начале файла.");
+                assertEquals("id,type,name,status,description,epic,duration,startTime,period,until", line, "Неверный формат CSV в начале файла.");
                 counter++;
             }
             while (fileReader.ready()) {
@@ -207,6 +208,59 @@ public class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskMan
         }
     }
 
+    @Test
+    void checkBatchSaved() {
+        Task batchTask = new Task("Задача пакета", "Описание задачи пакета", 10L,
+                LocalDateTime.of(2024, 5, 21, 9, 0));
+        Subtask batchSubtask = new Subtask("Подзадача пакета", "Описание подзадачи пакета", epic2.getId(), 10L,
+                LocalDateTime.of(2024, 5, 21, 9, 30));
+        taskManager.createBatch(List.of(batchTask, batchSubtask));
+
+        FileBackedTaskManager managerBacked2 = FileBackedTaskManager.loadFromFile(testFileTasks);
+        assertEquals(batchTask, managerBacked2.getTask(batchTask.getId()), "Задача пакета не сохранена в файл.");
+        assertEquals(batchSubtask, managerBacked2.getSubtask(batchSubtask.getId()),
+                "Подзадача пакета не сохранена в файл.");
+    }
+
+    @Test
+    void checkRecurringTaskSaved() {
+        RecurringTask rule = taskManager.createRecurringTask(new RecurringTask("Повторяющаяся задача",
+                "Описание повторяющейся задачи", 30L, LocalDateTime.of(2024, 5, 21, 8, 0), 24 * 60,
+                LocalDateTime.of(2024, 6, 21, 8, 0)));
+        RecurringTask endless = taskManager.createRecurringTask(new RecurringTask("Бессрочная задача",
+                "Описание бессрочной задачи", 15L, LocalDateTime.of(2024, 5, 21, 7, 0), 24 * 60, null));
+
+        FileBackedTaskManager managerBacked2 = FileBackedTaskManager.loadFromFile(testFileTasks);
+        RecurringTask loaded = managerBacked2.getRecurringTask(rule.getId());
+        assertEquals(rule.getStartTime(), loaded.getStartTime(), "Не верно загружено начало повторяющейся задачи.");
+        assertEquals(rule.getPeriodMinutes(), loaded.getPeriodMinutes(), "Не верно загружен период.");
+        assertEquals(rule.getUntil(), loaded.getUntil(), "Не верно загружена дата окончания повторений.");
+        assertTrue(managerBacked2.getRecurringTask(endless.getId()).isEndless(),
+                "Бессрочная задача загружена с датой окончания.");
+
+        Task created = managerBacked2.createTask(new Task("Новая задача", "Описание новой задачи"));
+        assertTrue(created.getId() > endless.getId(), "Id повторяющихся задач не учтены при загрузке.");
+    }
+
+    @Test
+    void checkDependenciesSaved() {
+        taskManager.addDependency(task3.getId(), task4.getId());
+        taskManager.addDependency(subtask13.getId(), task4.getId());
+        taskManager.addDependency(task4.getId(), subtask15.getId());
+
+        FileBackedTaskManager managerBacked2 = FileBackedTaskManager.loadFromFile(testFileTasks);
+        assertEquals(List.of(task3, subtask13), managerBacked2.getBlockers(task4.getId()),
+                "Зависимости не сохранены в файл.");
+        assertEquals(taskManager.getEarliestStart(subtask15.getId()),
+                managerBacked2.getEarliestStart(subtask15.getId()), "Раннее начало не восстановлено.");
+        assertEquals(taskManager.getCriticalPath(), managerBacked2.getCriticalPath(),
+                "Критический путь не восстановлен.");
+
+        taskManager.removeDependency(task3.getId(), task4.getId());
+        assertEquals(List.of(subtask13), FileBackedTaskManager.loadFromFile(testFileTasks).getBlockers(task4.getId()),
+                "Удаление зависимости не сохранено в файл.");
+    }
+
     @Test
     void checkLoadFromFile() {
         FileBackedTaskManager managerBacked2 = FileBackedTaskManager.loadFromFile(testFileTasks);
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import task.Epic;
 import task.Subtask;
 import task.Task;
+import task.TaskStatus;
 import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -120,4 +121,23 @@ class InMemoryHistoryManagerTest {
         assertEquals(task1.getId(), history.getFirst().getId(), "В истории первой идет запись о задаче 1.");
         assertEquals(task1.getId(), history.getLast().getId(), "В истории последней идет запись о задаче 1.");
     }
+
+    @Test
+    void removeIf() {
+        HistoryManager historyManager = new InMemoryHistoryManager();
+        for (int id = 1; id <= 6; id++) {
+            historyManager.add(new Task("Тестовая задача " + id, "Описание тестовой задачи " + id, id,
+                    TaskStatus.NEW));
+        }
+
+        historyManager.removeIf(id -> id == 1 || id % 2 == 0);
+        assertEquals(List.of(3, 5), historyManager.getHistory().stream().map(Task::getId).toList(),
+                "После удаления по условию в истории остались не те записи.");
+
+        historyManager.add(new Task("Тестовая задача 7", "Описание тестовой задачи 7", 7, TaskStatus.NEW));
+        historyManager.removeIf(id -> true);
+        assertEquals(0, historyManager.getHistory().size(), "История не очищена.");
+        historyManager.add(new Task("Тестовая задача 8", "Описание тестовой задачи 8", 8, TaskStatus.NEW));
+        assertEquals(1, historyManager.getHistory().size(), "После очистки в истории 1 запись.");
+    }
 }
\ No newline at end of file
@@ -100,4 +100,22 @@ class InMemoryTaskManagerTest extends TaskManagerTest<InMemoryTaskManager> {
         Subtask subtaskAfterUpd = taskManager.getSubtask(subtask.getId());
         assertNotEquals(subtaskAfterUpd.getId(), subtaskAfterUpd.getEpicId(), "Подзадача стала своим эпиком.");
     }
+
+    @Test
+    void publishedViewsChangeOnlyOnWrite() {
+        List<Task> tasks = taskManager.getAllTasks();
+        assertSame(tasks, taskManager.getAllTasks(), "Список задач построен заново без изменений.");
+        assertThrows(UnsupportedOperationException.class, () -> tasks.add(task), "Опубликованный список изменяем.");
+
+        List<Subtask> subtasks = taskManager.getAllSubtasks();
+        taskManager.createTask(new Task("Тестовая задача 2", "Описание тестовой задачи 2"));
+        assertNotSame(tasks, taskManager.getAllTasks(), "Список задач не обновлен после добавления.");
+        assertEquals(1, tasks.size(), "Ранее выданный список изменился.");
+        assertSame(subtasks, taskManager.getAllSubtasks(), "Список подзадач сброшен при добавлении задачи.");
+
+        List<Epic> epics = taskManager.getAllEpics();
+        taskManager.removeEpic(savedEpic.getId());
+        assertNotSame(epics, taskManager.getAllEpics(), "Список эпиков не обновлен после удаления.");
+        assertNotSame(subtasks, taskManager.getAllSubtasks(), "Список подзадач не обновлен после удаления эпика.");
+    }
 }
\ No newline at end of file
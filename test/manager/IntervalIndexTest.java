@@ -0,0 +1,159 @@
+package manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import task.Task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervalIndexTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 5, 20, 9, 0);
+
+    private IntervalIndex index;
+
+    @BeforeEach
+    void beforeEach() {
+        index = new IntervalIndex();
+    }
+
+    @Test
+    void findCrossingWithNeighbours() {
+        Task task1 = new Task("Задача 1", "Описание задачи 1", 1, 30L, START);
+        Task task2 = new Task("Задача 2", "Описание задачи 2", 2, 30L, START.plusMinutes(60));
+        index.add(task1);
+        index.add(task2);
+        assertEquals(2, index.size(), "Неверное количество интервалов в индексе.");
+
+        Task between = new Task("Задача 3", "Описание задачи 3", 3, 30L, START.plusMinutes(30));
+        assertTrue(index.findCrossing(between).isEmpty(), "Задача встык к соседям не пересекается с ними.");
+
+        Task overlapping = new Task("Задача 4", "Описание задачи 4", 4, 40L, START.plusMinutes(25));
+        Optional<Task> crossing = index.findCrossing(overlapping);
+        assertTrue(crossing.isPresent(), "Пересечение не найдено.");
+        assertEquals(task1, crossing.get(), "Найдено пересечение не с той задачей.");
+
+        Task sameStartNoDuration = new Task("Задача 5", "Описание задачи 5", 5, null, START.plusMinutes(60));
+        assertEquals(task2, index.findCrossing(sameStartNoDuration).orElse(null),
+                "Совпадение дат начала не признано пересечением.");
+    }
+
+    @Test
+    void findCrossingExcludesSameId() {
+        Task task1 = new Task("Задача 1", "Описание задачи 1", 1, 30L, START);
+        index.add(task1);
+
+        Task task1Moved = new Task("Задача 1", "Описание задачи 1", 1, 30L, START.plusMinutes(10));
+        assertTrue(index.findCrossing(task1Moved).isEmpty(), "Задача пересеклась сама с собой.");
+
+        index.remove(task1);
+        assertEquals(0, index.size(), "Интервал не удален из индекса.");
+    }
+
+    @Test
+    void findCrossingMatchesTaskUtil() {
+        Random random = new Random(42);
+        List<Task> indexed = new ArrayList<>();
+        for (int id = 1; id <= 300; id++) {
+            Long duration = random.nextInt(10) == 0 ? null : (long) random.nextInt(120);
+            Task task = new Task("Задача " + id, "Описание задачи " + id, id, duration,
+                    START.plusMinutes(random.nextInt(10_000)));
+            indexed.add(task);
+            index.add(task);
+        }
+        for (int i = 0; i < 50; i++) {
+            index.remove(indexed.remove(random.nextInt(indexed.size())));
+        }
+        assertEquals(indexed.size(), index.size(), "Неверное количество интервалов после удаления.");
+
+        for (int id = 1_000; id < 2_000; id++) {
+            Long duration = random.nextInt(10) == 0 ? null : (long) random.nextInt(120);
+            Task check = new Task("Проверка", "Проверка", id, duration, START.plusMinutes(random.nextInt(10_000)));
+            boolean expected = indexed.stream().anyMatch(task -> TaskUtil.isCrossing(check, task));
+            assertEquals(expected, index.findCrossing(check).isPresent(),
+                    "Результат индекса расходится с полным перебором для " + check);
+        }
+    }
+
+    @Test
+    void findFreeSlotBetweenNeighbours() {
+        index.add(new Task("Задача 1", "Описание задачи 1", 1, 30L, START));
+        index.add(new Task("Задача 2", "Описание задачи 2", 2, 30L, START.plusMinutes(60)));
+        index.add(new Task("Задача 3", "Описание задачи 3", 3, 30L, START.plusMinutes(100)));
+
+        assertEquals(START.minusMinutes(30), index.findFreeSlot(START.minusMinutes(30), 30),
+                "Свободное время до первой задачи не найдено.");
+        assertEquals(START.plusMinutes(30), index.findFreeSlot(START.minusMinutes(20), 30),
+                "Не найден промежуток между первой и второй задачами.");
+        assertEquals(START.plusMinutes(130), index.findFreeSlot(START.plusMinutes(10), 40),
+                "Промежутки короче продолжительности не пропущены.");
+        assertEquals(START.plusMinutes(90), index.findFreeSlot(START.plusMinutes(85), 10),
+                "Начало не раньше заданного не учтено.");
+        assertEquals(START.plusMinutes(30), new IntervalIndex().findFreeSlot(START.plusMinutes(30), 30),
+                "В пустом индексе свободно любое время.");
+    }
+
+    @Test
+    void findFreeSlotMatchesBruteForce() {
+        Random random = new Random(17);
+        List<Task> indexed = new ArrayList<>();
+        for (int id = 1; id <= 300; id++) {
+            Long duration = random.nextInt(10) == 0 ? null : (long) random.nextInt(60);
+            Task task = new Task("Задача " + id, "Описание задачи " + id, id, duration,
+                    START.plusMinutes(random.nextInt(20_000)));
+            if (index.findCrossing(task).isEmpty()) {
+                indexed.add(task);
+                index.add(task);
+            }
+        }
+
+        for (int i = 0; i < 300; i++) {
+            long duration = random.nextInt(90);
+            LocalDateTime from = START.plusMinutes(random.nextInt(21_000) - 500);
+            LocalDateTime expected = from;
+            while (true) {
+                Task probe = new Task("Проверка", "Проверка", 0, duration, expected);
+                LocalDateTime probeStart = expected;
+                // Задачи без продолжительности индекс считает занятыми точками
+                if (indexed.stream().noneMatch(task -> TaskUtil.isCrossing(probe, task)
+                        || (task.getDuration() == null && task.getStartTime().isAfter(probeStart)
+                        && task.getStartTime().isBefore(probeStart.plusMinutes(duration))))) {
+                    break;
+                }
+                expected = expected.plusMinutes(1);
+            }
+            assertEquals(expected, index.findFreeSlot(from, duration),
+                    "Свободное время расходится с полным перебором для " + from + " на " + duration + " мин.");
+        }
+    }
+
+    @Test
+    void removeIfRebuildsIndex() {
+        List<Task> kept = new ArrayList<>();
+        for (int id = 1; id <= 200; id++) {
+            Task task = new Task("Задача " + id, "Описание задачи " + id, id, 30L, START.plusMinutes(60L * id));
+            index.add(task);
+            if (id % 3 != 0) {
+                kept.add(task);
+            }
+        }
+
+        assertEquals(66, index.removeIf(task -> task.getId() % 3 == 0), "Удалено неверное количество задач.");
+        assertEquals(kept.size(), index.size(), "Неверное количество интервалов после удаления.");
+        for (Task task : kept) {
+            Task probe = new Task("Проверка", "Проверка", 0, 10L, task.getStartTime().plusMinutes(5));
+            assertEquals(task, index.findCrossing(probe).orElse(null), "Оставшаяся задача потеряна в индексе.");
+        }
+        assertEquals(START.plusMinutes(150), index.findFreeSlot(START.plusMinutes(60), 60),
+                "Освобожденное время не найдено.");
+        assertEquals(0, index.removeIf(task -> task.getId() % 3 == 0), "Повторное удаление что-то удалило.");
+
+        index.add(new Task("Задача 3", "Описание задачи 3", 3, 30L, START.plusMinutes(180)));
+        assertEquals(kept.size() + 1, index.size(), "Перестроенный индекс не принимает новые задачи.");
+    }
+}
@@ -0,0 +1,171 @@
+package manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import task.Epic;
+import task.RecurringTask;
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournaledFileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
+    private File testFileTasks;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        testFileTasks = File.createTempFile("testJournalTasks", null);
+        taskManager = new FileBackedTaskManager(testFileTasks, new AtomicIdAllocator(), true);
+    }
+
+    private FileBackedTaskManager reload() {
+        return FileBackedTaskManager.loadFromFile(testFileTasks, new AtomicIdAllocator(), true);
+    }
+
+    private List<String> lines() throws IOException {
+        return Files.readAllLines(testFileTasks.toPath(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void changesAreAppendedToJournal() throws IOException {
+        Task task = taskManager.createTask(new Task("Задача", "Описание задачи"));
+        int linesAfterCreate = lines().size();
+
+        taskManager.updateTask(new Task("Задача", "Описание задачи", task.getId(), TaskStatus.DONE));
+        List<String> lines = lines();
+        assertEquals(linesAfterCreate + 1, lines.size(), "Изменение должно дописать одну запись журнала.");
+        assertEquals("PUT," + task.getId() + ",TASK,Задача,DONE,Описание задачи,,,", lines.getLast(),
+                "Неверная запись журнала.");
+
+        taskManager.removeTask(task.getId());
+        assertEquals("REMOVE,TASK," + task.getId(), lines().getLast(), "Неверная запись журнала удаления.");
+    }
+
+    @Test
+    void journalIsReplayedOnLoad() {
+        LocalDateTime start = LocalDateTime.of(2024, 5, 20, 9, 0);
+        Task task1 = taskManager.createTask(new Task("Задача 1", "Описание", TaskStatus.NEW, 30L, start));
+        Task task2 = taskManager.createTask(new Task("Задача 2", "Описание", TaskStatus.NEW, 30L,
+                start.plusHours(1)));
+        Epic epic = taskManager.createEpic(new Epic("Эпик", "Описание эпика"));
+        Subtask subtask = taskManager.createSubtask(new Subtask("Подзадача", "Описание", epic.getId(), 15L,
+                start.plusHours(2)));
+        taskManager.updateSubtask(new Subtask("Подзадача", "Описание", subtask.getId(), TaskStatus.DONE,
+                epic.getId(), 15L, start.plusHours(2)));
+        Epic removedEpic = taskManager.createEpic(new Epic("Удаляемый эпик", "Описание эпика"));
+        taskManager.createSubtask(new Subtask("Удаляемая подзадача", "Описание", removedEpic.getId()));
+        taskManager.removeEpic(removedEpic.getId());
+        // Задачи меняются местами: по отдельности такие изменения пересекаются
+        taskManager.updateBatch(List.of(
+                new Task("Задача 1", "Описание", task1.getId(), TaskStatus.NEW, 30L, start.plusHours(1)),
+                new Task("Задача 2", "Описание", task2.getId(), TaskStatus.IN_PROGRESS, 30L, start)));
+        RecurringTask rule = taskManager.createRecurringTask(new RecurringTask("Зарядка", "Описание", 15L,
+                start.minusHours(1), 24 * 60, null));
+
+        FileBackedTaskManager loaded = reload();
+        assertEquals(taskManager.getAllTasks(), loaded.getAllTasks(), "Задачи не восстановлены по журналу.");
+        assertEquals(taskManager.getAllSubtasks(), loaded.getAllSubtasks(), "Подзадачи не восстановлены.");
+        assertEquals(taskManager.getAllEpics(), loaded.getAllEpics(), "Эпики не восстановлены.");
+        assertEquals(TaskStatus.DONE, loaded.getEpic(epic.getId()).getStatus(), "Статус эпика не пересчитан.");
+        assertEquals(start.plusHours(1), loaded.getTask(task1.getId()).getStartTime(),
+                "Изменение пакета не восстановлено.");
+        assertEquals(rule.getPeriodMinutes(), loaded.getRecurringTask(rule.getId()).getPeriodMinutes(),
+                "Повторяющаяся задача не восстановлена.");
+        assertEquals(taskManager.getPrioritizedTasks(), loaded.getPrioritizedTasks(), "Расписание не восстановлено.");
+    }
+
+    @Test
+    void clearIsReplayedOnLoad() {
+        Epic epic = taskManager.createEpic(new Epic("Эпик", "Описание эпика"));
+        taskManager.createSubtask(new Subtask("Подзадача", "Описание", epic.getId()));
+        taskManager.createTask(new Task("Задача", "Описание задачи"));
+        taskManager.clearAllEpics();
+        taskManager.clearAllTasks();
+        Task task = taskManager.createTask(new Task("Новая задача", "Описание задачи"));
+
+        FileBackedTaskManager loaded = reload();
+        assertEquals(List.of(task), loaded.getAllTasks(), "Очистка задач не восстановлена.");
+        assertTrue(loaded.getAllEpics().isEmpty(), "Очистка эпиков не восстановлена.");
+        assertTrue(loaded.getAllSubtasks().isEmpty(), "Очистка подзадач не восстановлена.");
+    }
+
+    @Test
+    void dependenciesAreReplayedOnLoad() throws IOException {
+        LocalDateTime start = LocalDateTime.of(2024, 5, 20, 9, 0);
+        Task task1 = taskManager.createTask(new Task("Задача 1", "Описание", TaskStatus.NEW, 30L, start));
+        Task task2 = taskManager.createTask(new Task("Задача 2", "Описание", TaskStatus.NEW, 30L,
+                start.minusHours(1)));
+        Task task3 = taskManager.createTask(new Task("Задача 3", "Описание", TaskStatus.NEW, 30L,
+                start.minusHours(2)));
+        taskManager.addDependency(task1.getId(), task2.getId());
+        assertEquals("DEPENDS," + task1.getId() + "," + task2.getId(), lines().getLast(),
+                "Неверная запись журнала зависимости.");
+        taskManager.addDependency(task2.getId(), task3.getId());
+        taskManager.addDependency(task1.getId(), task3.getId());
+        taskManager.removeDependency(task1.getId(), task3.getId());
+        assertEquals("UNDEPENDS," + task1.getId() + "," + task3.getId(), lines().getLast(),
+                "Неверная запись журнала удаления зависимости.");
+
+        FileBackedTaskManager loaded = reload();
+        assertEquals(List.of(task2), loaded.getBlockers(task3.getId()), "Зависимости не восстановлены по журналу.");
+        assertEquals(start.plusHours(1), loaded.getEarliestStart(task3.getId()), "Раннее начало не восстановлено.");
+
+        // Снимок после загрузки хранит зависимости строками DEPENDS
+        assertEquals(List.of(task1, task2, task3), reload().getCriticalPath(), "Зависимости не попали в снимок.");
+    }
+
+    @Test
+    void tornRecordsAreDiscarded() throws IOException {
+        Task task = taskManager.createTask(new Task("Задача", "Описание задачи"));
+        Files.writeString(testFileTasks.toPath(), "BEGIN,2\nREMOVE,TASK," + task.getId() + "\n",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        assertEquals(List.of(task), reload().getAllTasks(), "Неполная группа записей повторена частично.");
+
+        Files.writeString(testFileTasks.toPath(), "PUT," + task.getId() + ",TASK,Зада",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        FileBackedTaskManager loaded = reload();
+        assertEquals(task.getName(), loaded.getTask(task.getId()).getName(), "Оборванная запись повторена.");
+        assertFalse(lines().contains("BEGIN,2"), "Файл не заменен снимком после загрузки.");
+    }
+
+    @Test
+    void failedAppendIsFollowedBySnapshot() throws IOException {
+        Task task = taskManager.createTask(new Task("Задача", "Описание задачи"));
+        // Каталог на месте файла: дописать журнал не удастся
+        Files.delete(testFileTasks.toPath());
+        Files.createDirectory(testFileTasks.toPath());
+        assertThrows(ManagerSaveException.class, () -> taskManager.updateTask(new Task("Задача 1", "Описание задачи",
+                task.getId(), TaskStatus.IN_PROGRESS)), "Сбой записи журнала не передан вызывающему.");
+        Files.delete(testFileTasks.toPath());
+
+        taskManager.updateTask(new Task("Задача 2", "Описание задачи", task.getId(), TaskStatus.DONE));
+        List<String> lines = lines();
+        assertEquals(2, lines.size(), "После сбоя изменение должно сохраниться снимком.");
+        assertTrue(lines.stream().noneMatch(line -> line.startsWith("BEGIN") || line.startsWith("PUT")),
+                "Записи сбойного изменения дописаны к следующему.");
+        assertEquals("Задача 2", reload().getTask(task.getId()).getName(), "Последнее изменение не сохранено.");
+
+        taskManager.updateTask(new Task("Задача 3", "Описание задачи", task.getId(), TaskStatus.DONE));
+        assertEquals("PUT," + task.getId() + ",TASK,Задача 3,DONE,Описание задачи,,,", lines().getLast(),
+                "После снимка журнал не возобновлен.");
+    }
+
+    @Test
+    void journalIsCompacted() throws IOException {
+        Task task = taskManager.createTask(new Task("Задача", "Описание задачи"));
+        for (int i = 0; i < 3000; i++) {
+            taskManager.updateTask(new Task("Задача " + i, "Описание задачи", task.getId(), TaskStatus.NEW));
+        }
+        assertTrue(lines().size() <= 1100, "Журнал не заменяется снимком.");
+        assertEquals("Задача 2999", reload().getTask(task.getId()).getName(), "Последнее изменение не сохранено.");
+    }
+}
@@ -0,0 +1,99 @@
+package manager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import task.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeasedIdAllocatorTest {
+    private File leaseFile;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        leaseFile = File.createTempFile("testIdLease", null);
+    }
+
+    @AfterEach
+    void afterEach() {
+        leaseFile.delete();
+    }
+
+    @Test
+    void nodesLeaseDisjointBlocks() {
+        LeasedIdAllocator node1 = new LeasedIdAllocator(leaseFile, 10);
+        LeasedIdAllocator node2 = new LeasedIdAllocator(leaseFile, 10);
+
+        assertEquals(1, node1.nextId(), "Первый блок должен начинаться с 1.");
+        assertEquals(11, node2.nextId(), "Второй узел получил пересекающийся блок.");
+        for (int i = 2; i <= 10; i++) {
+            assertEquals(i, node1.nextId(), "Id внутри блока выдаются не подряд.");
+        }
+        assertEquals(21, node1.nextId(), "После исчерпания блока арендован не следующий свободный.");
+
+        LeasedIdAllocator restarted = new LeasedIdAllocator(leaseFile, 10);
+        assertEquals(31, restarted.nextId(), "После перезапуска блок начался не после арендованных.");
+    }
+
+    @Test
+    void reserveSkipsTakenIds() {
+        LeasedIdAllocator allocator = new LeasedIdAllocator(leaseFile, 10);
+        allocator.reserve(3);
+        assertEquals(4, allocator.nextId(), "Занятый id внутри блока не пропущен.");
+        allocator.reserve(2);
+        assertEquals(5, allocator.nextId(), "Учет меньшего id сдвинул выдачу назад.");
+        allocator.reserve(57);
+        assertEquals(58, allocator.nextId(), "Занятый id за блоком не учтен.");
+    }
+
+    @Test
+    void concurrentIdsAreUnique() throws Exception {
+        LeasedIdAllocator allocator = new LeasedIdAllocator(leaseFile, 16);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<List<Integer>>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            futures.add(executor.submit(() -> {
+                List<Integer> ids = new ArrayList<>();
+                for (int i = 0; i < 1000; i++) {
+                    ids.add(allocator.nextId());
+                }
+                return ids;
+            }));
+        }
+        Set<Integer> ids = new HashSet<>();
+        for (Future<List<Integer>> future : futures) {
+            ids.addAll(future.get());
+        }
+        executor.shutdown();
+        assertEquals(4000, ids.size(), "Выданы повторяющиеся id.");
+    }
+
+    @Test
+    void fileBackedManagerContinuesAfterLoad() throws IOException {
+        File tasksFile = File.createTempFile("testFileTasks", null);
+        try {
+            FileBackedTaskManager manager = new FileBackedTaskManager(tasksFile,
+                    new LeasedIdAllocator(leaseFile, 5));
+            Task task = manager.createTask(new Task("Задача", "Описание задачи"));
+
+            FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tasksFile,
+                    new LeasedIdAllocator(leaseFile, 5));
+            assertEquals(task, loaded.getTask(task.getId()), "Задача не загружена.");
+            Task newTask = loaded.createTask(new Task("Новая задача", "Описание новой задачи"));
+            assertTrue(newTask.getId() > task.getId(), "Новый id не больше загруженных.");
+        } finally {
+            tasksFile.delete();
+        }
+    }
+}
@@ -31,6 +31,34 @@ class ManagersTest {
         assertEquals(0, epics.size(), "Менеджер не готов к работе.");
     }
 
+    @Test
+    void getConcurrent() {
+        TaskManager taskManager = Managers.getConcurrent();
+        assertNotNull(taskManager, "Потокобезопасный менеджер задач не создан.");
+
+        List<Task> tasks = taskManager.getAllTasks();
+        assertNotNull(tasks, "Менеджер не возвращает список задач.");
+        assertEquals(0, tasks.size(), "Менеджер не готов к работе.");
+    }
+
+    @Test
+    void getOffHeap() {
+        TaskManager taskManager = Managers.getOffHeap();
+        assertNotNull(taskManager, "Менеджер задач вне кучи не создан.");
+
+        Task task = taskManager.createTask(new Task("Задача", "Описание задачи"));
+        assertEquals(task.getName(), taskManager.getTask(task.getId()).getName(), "Задача не сохранена.");
+    }
+
+    @Test
+    void getSharded() {
+        TaskManager taskManager = Managers.getSharded();
+        assertNotNull(taskManager, "Менеджер задач с шардами не создан.");
+
+        Task task = taskManager.createTask(new Task("Задача", "Описание задачи"));
+        assertEquals(task, taskManager.getTask(task.getId()), "Задача не сохранена.");
+    }
+
     @Test
     void getDefaultHistory() {
         HistoryManager historyManager = Managers.getDefaultHistory();
@@ -0,0 +1,51 @@
+package manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import task.Epic;
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapTaskManagerTest extends TaskManagerTest<InMemoryTaskManager> {
+
+    @BeforeEach
+    void beforeEach() {
+        taskManager = new InMemoryTaskManager(Managers.getDefaultHistory(), new OffHeapTaskStore<>(),
+                new OffHeapTaskStore<>());
+    }
+
+    @Test
+    void storedTaskIsNotChangedWithoutUpdate() {
+        Task task = taskManager.createTask(new Task("Задача", "Описание", 15L, LocalDateTime.of(2024, 5, 1, 10, 0)));
+        Task received = taskManager.getTask(task.getId());
+        received.setName("Новое название");
+
+        assertEquals("Задача", taskManager.getTask(task.getId()).getName(),
+                "Изменение полученной задачи без обновления попало в хранилище.");
+
+        taskManager.updateTask(received);
+        assertEquals("Новое название", taskManager.getTask(task.getId()).getName(), "Задача не обновлена.");
+        assertEquals(task.getStartTime(), taskManager.getTask(task.getId()).getStartTime(),
+                "Не сохранено время начала задачи.");
+    }
+
+    @Test
+    void subtaskKeepsEpicAndTimes() {
+        Epic epic = taskManager.createEpic(new Epic("Эпик", "Описание эпика"));
+        Subtask subtask = taskManager.createSubtask(new Subtask("Подзадача", null, TaskStatus.IN_PROGRESS,
+                epic.getId(), 30L, LocalDateTime.of(2024, 5, 1, 12, 0, 5, 123_000)));
+
+        Subtask received = taskManager.getSubtask(subtask.getId());
+        assertEquals(epic.getId(), received.getEpicId(), "Не сохранен эпик подзадачи.");
+        assertNull(received.getDescription(), "Не сохранено пустое описание подзадачи.");
+        assertEquals(subtask.getDuration(), received.getDuration(), "Не сохранена продолжительность подзадачи.");
+        assertEquals(subtask.getStartTime(), received.getStartTime(), "Не сохранено время начала подзадачи.");
+        assertEquals(TaskStatus.IN_PROGRESS, taskManager.getEpic(epic.getId()).getStatus(),
+                "Не пересчитан статус эпика.");
+    }
+}
@@ -0,0 +1,112 @@
+package manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapTaskStoreTest {
+    private OffHeapTaskStore<Task> store;
+
+    @BeforeEach
+    void beforeEach() {
+        store = new OffHeapTaskStore<>();
+    }
+
+    @Test
+    void longDurationIsStored() {
+        long minutes = Integer.MAX_VALUE + 10L;
+        store.put(1, new Task("Задача", "Описание задачи", 1, TaskStatus.NEW, minutes,
+                LocalDateTime.of(2024, 3, 1, 9, 30, 15, 500)));
+        Task received = store.get(1);
+        assertEquals(minutes, received.getDuration().toMinutes(), "Большая продолжительность искажена.");
+        assertEquals(LocalDateTime.of(2024, 3, 1, 9, 30, 15, 500), received.getStartTime(),
+                "Не совпадает время начала.");
+    }
+
+    @Test
+    void putGetRemove() {
+        Task task = new Task("Задача", "Описание задачи", 1, TaskStatus.IN_PROGRESS, 45L,
+                LocalDateTime.of(2024, 3, 1, 9, 30));
+        Subtask subtask = new Subtask("Подзадача", null, 2, TaskStatus.DONE, 7, null, null);
+
+        assertNull(store.put(1, task), "У новой задачи есть прежняя версия.");
+        store.put(2, subtask);
+        assertEquals(2, store.size(), "Неверный размер хранилища.");
+
+        Task received = store.get(1);
+        assertNotSame(task, received, "Хранилище выдало исходный объект.");
+        assertEquals(task.getName(), received.getName(), "Не совпадает название.");
+        assertEquals(task.getDescription(), received.getDescription(), "Не совпадает описание.");
+        assertEquals(task.getStatus(), received.getStatus(), "Не совпадает статус.");
+        assertEquals(task.getDuration(), received.getDuration(), "Не совпадает продолжительность.");
+        assertEquals(task.getStartTime(), received.getStartTime(), "Не совпадает время начала.");
+
+        Task receivedSubtask = store.get(2);
+        assertInstanceOf(Subtask.class, receivedSubtask, "Подзадача восстановлена не подзадачей.");
+        assertEquals(7, ((Subtask) receivedSubtask).getEpicId(), "Не совпадает эпик подзадачи.");
+        assertNull(receivedSubtask.getDescription(), "Пустое описание не сохранено.");
+        assertNull(receivedSubtask.getStartTime(), "Пустое время начала не сохранено.");
+
+        Task previous = store.put(1, new Task("Новая задача", "Новое описание", 1));
+        assertEquals("Задача", previous.getName(), "Не возвращена прежняя версия.");
+        assertEquals("Новая задача", store.get(1).getName(), "Задача не заменена.");
+        assertEquals(List.of(1, 2), store.values().stream().map(Task::getId).toList(),
+                "Замена нарушила порядок добавления.");
+
+        assertEquals("Новая задача", store.remove(1).getName(), "Не возвращена удаленная задача.");
+        assertNull(store.remove(1), "Удалена отсутствующая задача.");
+        assertFalse(store.containsKey(1), "Удаленная задача найдена.");
+
+        store.clear();
+        assertTrue(store.isEmpty(), "Хранилище не очищено.");
+        assertNull(store.get(2), "После очистки найдена задача.");
+    }
+
+    @Test
+    void sequentialIdsAreRemovedQuickly() {
+        int count = 200_000;
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (int id = 1; id <= count; id++) {
+                store.put(id, new Task("Задача", "", id, TaskStatus.NEW, null, null));
+            }
+            // Удаление по возрастанию id: при слабом хеше каждое удаление сдвигает весь кластер id
+            for (int id = 1; id < count; id++) {
+                assertNotNull(store.remove(id), "Задача не найдена при удалении " + id);
+            }
+        }, "Удаление последовательных id не должно зависеть от их числа квадратично.");
+        assertEquals(1, store.size(), "Неверный размер хранилища.");
+        assertEquals(count, store.get(count).getId(), "Оставшаяся задача не найдена.");
+    }
+
+    @Test
+    void matchesLinkedHashMap() {
+        Random random = new Random(11);
+        LinkedHashMap<Integer, String> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            int id = random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                String removed = expected.remove(id);
+                Task task = store.remove(id);
+                assertEquals(removed, (task != null) ? task.getName() : null, "Расхождение при удалении " + id);
+            } else {
+                String name = "Задача №" + id + " " + "ж".repeat(random.nextInt(40));
+                String previous = expected.put(id, name);
+                Task task = store.put(id, new Task(name, null, id));
+                assertEquals(previous, (task != null) ? task.getName() : null, "Расхождение при добавлении " + id);
+            }
+        }
+        assertEquals(expected.size(), store.size(), "Расхождение по размеру.");
+        assertEquals(List.copyOf(expected.values()), store.values().stream().map(Task::getName).toList(),
+                "Расхождение по порядку обхода.");
+    }
+}
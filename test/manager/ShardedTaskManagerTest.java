@@ -0,0 +1,78 @@
+package manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import task.Epic;
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedTaskManagerTest extends TaskManagerTest<ShardedTaskManager> {
+    private static final int SHARDS = 4;
+
+    @BeforeEach
+    void beforeEach() {
+        taskManager = new ShardedTaskManager(SHARDS);
+    }
+
+    @Test
+    void subtasksLiveInEpicShard() {
+        Epic epic = taskManager.createEpic(new Epic("Эпик", "Описание эпика"));
+        for (int i = 0; i < SHARDS * 2; i++) {
+            Subtask subtask = taskManager.createSubtask(new Subtask("Подзадача " + i, "Описание подзадачи",
+                    TaskStatus.NEW, epic.getId()));
+            assertEquals(StripedIdAllocator.stripeOf(epic.getId(), SHARDS),
+                    StripedIdAllocator.stripeOf(subtask.getId(), SHARDS), "Подзадача попала в чужой шард.");
+        }
+        assertEquals(SHARDS * 2, taskManager.getSubtasksByEpicId(epic.getId()).size(),
+                "Подзадачи эпика не найдены.");
+    }
+
+    @Test
+    void epicReadsAreSnapshots() {
+        Epic epic = taskManager.createEpic(new Epic("Эпик", "Описание эпика"));
+        Epic read = taskManager.getEpic(epic.getId());
+        List<Epic> all = taskManager.getAllEpics();
+        taskManager.createSubtask(new Subtask("Подзадача", "Описание подзадачи", TaskStatus.DONE, epic.getId()));
+
+        assertTrue(read.getSubtaskList().isEmpty(), "Прочитанный эпик изменился вместе с хранимым.");
+        assertEquals(TaskStatus.NEW, all.getFirst().getStatus(), "Опубликованный эпик изменился вместе с хранимым.");
+        assertEquals(TaskStatus.DONE, taskManager.getAllEpics().getFirst().getStatus(),
+                "Опубликованный список эпиков устарел.");
+        assertEquals(TaskStatus.DONE, ((Epic) taskManager.getHistory().getFirst()).getStatus(),
+                "Эпик истории устарел.");
+        assertNotSame(taskManager.getHistory().getFirst(), taskManager.getHistory().getFirst(),
+                "Из истории отдан хранимый эпик.");
+    }
+
+    @Test
+    void crossingsCheckedAcrossShards() {
+        taskManager.clearAllTasks();
+        taskManager.clearAllEpics();
+        LocalDateTime start = LocalDateTime.of(2024, 6, 1, 10, 0);
+        Task first = taskManager.createTask(new Task("Задача 1", "Описание задачи 1", 60L, start));
+        for (int i = 0; i < SHARDS; i++) {
+            Task crossing = new Task("Задача", "Описание задачи", 30L, start.plusMinutes(15));
+            assertThrows(InvalidTaskException.class, () -> taskManager.createTask(crossing),
+                    "Пересечение с задачей другого шарда не обнаружено.");
+        }
+        Task second = taskManager.createTask(new Task("Задача 2", "Описание задачи 2", 30L, start.plusMinutes(60)));
+        assertNotEquals(StripedIdAllocator.stripeOf(first.getId(), SHARDS),
+                StripedIdAllocator.stripeOf(second.getId(), SHARDS), "Задачи не распределены по шардам.");
+        assertEquals(List.of(first, second), taskManager.getPrioritizedTasks(),
+                "Расписание шардов слито неверно.");
+        assertEquals(List.of(start.plusMinutes(90)), taskManager.findFreeSlots(start, 30, 1),
+                "Свободный промежуток найден без учета всех шардов.");
+
+        List<Task> batch = List.of(new Task("Задача 3", "Описание задачи 3", 30L, start.plusHours(3)),
+                new Task("Задача 4", "Описание задачи 4", 30L, start.plusHours(3).plusMinutes(10)));
+        assertThrows(InvalidTaskException.class, () -> taskManager.createBatch(batch),
+                "Пересечение задач пакета в разных шардах не обнаружено.");
+        assertEquals(2, taskManager.getAllTasks().size(), "Отклоненный пакет частично применен.");
+    }
+}
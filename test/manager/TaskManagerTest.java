@@ -5,6 +5,7 @@ import task.*;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -288,6 +289,112 @@ abstract class TaskManagerTest<T extends TaskManager> {
         assertEquals("Подзадача 1_1 для проверки приоритетов по StartTime", allTasks.getLast().getName(), "Последней в списке задач по приоритетам должна быть 'Подзадача 1_1'");
     }
 
+    @Test
+    void getAllTasksByPages() {
+        taskManager.clearAllTasks();
+        for (int i = 1; i <= 5; i++) {
+            taskManager.createTask(new Task("Задача " + i, "Описание задачи " + i, 10L,
+                    LocalDateTime.of(2024, 5, 20, 9, 0).minusHours(i)));
+        }
+        List<Task> allTasks = taskManager.getAllTasks();
+
+        List<Task> page1 = taskManager.getAllTasks(0, 2);
+        assertEquals(allTasks.subList(0, 2), page1, "Первая страница задач не совпадает с началом списка.");
+        List<Task> page2 = taskManager.getAllTasks(page1.getLast().getId(), 2);
+        assertEquals(allTasks.subList(2, 4), page2, "Вторая страница задач не продолжает первую.");
+        List<Task> page3 = taskManager.getAllTasks(page2.getLast().getId(), 2);
+        assertEquals(allTasks.subList(4, 5), page3, "Последняя страница задач неполная.");
+        assertTrue(taskManager.getAllTasks(page3.getLast().getId(), 2).isEmpty(), "Страница после последней не пуста.");
+
+        taskManager.removeTask(page2.getFirst().getId());
+        assertEquals(page2.getLast(), taskManager.getAllTasks(page1.getLast().getId(), 1).getFirst(),
+                "Курсор не пропускает удаленную задачу.");
+
+        List<Task> prioritized = taskManager.getPrioritizedTasks();
+        List<Task> prioritizedPage = taskManager.getPrioritizedTasks(prioritized.getFirst().getStartTime(), 2);
+        assertEquals(prioritized.subList(1, 3), prioritizedPage, "Страница расписания не продолжает курсор.");
+    }
+
+    @Test
+    void getPrioritizedTasksInWindow() {
+        LocalDateTime start = LocalDateTime.of(2024, 6, 3, 9, 0);
+        Task task1 = taskManager.createTask(new Task("Задача 1 окна", "Описание задачи 1 окна", 15L, start));
+        Task task2 = taskManager.createTask(new Task("Задача 2 окна", "Описание задачи 2 окна", 15L,
+                start.plusHours(1)));
+        Task task3 = taskManager.createTask(new Task("Задача 3 окна", "Описание задачи 3 окна", 15L,
+                start.plusHours(2)));
+
+        assertEquals(List.of(task1, task2), taskManager.getPrioritizedTasks(start, start.plusHours(2)),
+                "Окно должно включать начало и исключать конец.");
+        assertEquals(List.of(task2, task3), taskManager.getPrioritizedTasks(start.plusMinutes(1), null),
+                "Окно без конца должно продолжаться до конца расписания.");
+        assertEquals(task1, taskManager.getPrioritizedTasks(null, start.plusMinutes(1)).getLast(),
+                "Окно без начала должно начинаться с начала расписания.");
+        assertTrue(taskManager.getPrioritizedTasks(start.plusHours(2), start).isEmpty(),
+                "Окно с концом раньше начала должно быть пустым.");
+    }
+
+    @Test
+    void findFreeSlots() {
+        LocalDateTime start = LocalDateTime.of(2024, 6, 10, 9, 0);
+        taskManager.createTask(new Task("Задача 1 расписания", "Описание задачи 1 расписания", 30L, start));
+        taskManager.createTask(new Task("Задача 2 расписания", "Описание задачи 2 расписания", 30L,
+                start.plusMinutes(45)));
+
+        assertEquals(List.of(start.plusMinutes(75), start.plusMinutes(95)),
+                taskManager.findFreeSlots(start.plusMinutes(10), 20, 2),
+                "Неверные свободные промежутки после занятого времени.");
+
+        InvalidTaskException exception = assertThrows(InvalidTaskException.class,
+                () -> taskManager.createTask(new Task("Пересекающаяся задача", "Описание пересекающейся задачи",
+                        15L, start.plusMinutes(20))),
+                "Пересечение по времени должно приводить к исключению.");
+        assertEquals(start.plusMinutes(30), exception.getFreeSlot(), "Неверное ближайшее свободное время.");
+        assertTrue(exception.getMessage().contains(start.plusMinutes(30).toString()),
+                "Ближайшее свободное время не указано в сообщении.");
+    }
+
+    @Test
+    void createUpdateAndRemoveBatch() {
+        taskManager.clearAllTasks();
+        LocalDateTime start = LocalDateTime.of(2024, 6, 17, 9, 0);
+        Epic epic = taskManager.createEpic(new Epic("Эпик пакета", "Описание эпика пакета"));
+        Task task1 = new Task("Задача 1 пакета", "Описание задачи 1 пакета", 30L, start);
+        Task task2 = new Task("Задача 2 пакета", "Описание задачи 2 пакета", 30L, start.plusMinutes(30));
+        Subtask subtask = new Subtask("Подзадача пакета", "Описание подзадачи пакета", epic.getId(), 30L,
+                start.plusMinutes(60));
+
+        List<Task> created = taskManager.createBatch(List.of(task1, task2, subtask));
+        assertEquals(3, created.size(), "Создан не весь пакет.");
+        assertTrue(task1.getId() > 0 && task2.getId() > 0 && subtask.getId() > 0, "Задачам пакета не выданы id.");
+        assertEquals(List.of(subtask), taskManager.getSubtasksByEpicId(epic.getId()), "Подзадача не попала в эпик.");
+
+        Task crossing = new Task("Задача 3 пакета", "Описание задачи 3 пакета", 30L, start.plusMinutes(100));
+        Task crossingInBatch = new Task("Задача 4 пакета", "Описание задачи 4 пакета", 30L, start.plusMinutes(110));
+        assertThrows(InvalidTaskException.class, () -> taskManager.createBatch(List.of(crossing, crossingInBatch)),
+                "Пересечение внутри пакета должно приводить к исключению.");
+        assertEquals(2, taskManager.getAllTasks().size(), "При ошибке пакета часть задач добавлена.");
+
+        Task task1Moved = new Task(task1.getName(), task1.getDescription(), task1.getId(), 30L,
+                task2.getStartTime());
+        Task task2Moved = new Task(task2.getName(), task2.getDescription(), task2.getId(), 30L,
+                task1.getStartTime());
+        taskManager.updateBatch(List.of(task1Moved, task2Moved));
+        assertEquals(start.plusMinutes(30), taskManager.getTask(task1.getId()).getStartTime(),
+                "Задачи пакета не поменялись местами.");
+        assertEquals(task2Moved, taskManager.getPrioritizedTasks(start, start.plusMinutes(1)).getFirst(),
+                "Расписание не обновлено после пакета.");
+        assertEquals(List.of(task2Moved, task1Moved, subtask), taskManager.getPrioritizedTasks(start, null),
+                "Задачи пакета потеряны в расписании.");
+
+        assertThrows(NotFoundException.class, () -> taskManager.removeBatch(List.of(task1.getId(), 999_999)),
+                "Удаление пакета с неизвестным id должно приводить к исключению.");
+        assertEquals(2, taskManager.getAllTasks().size(), "При ошибке пакета часть задач удалена.");
+        taskManager.removeBatch(List.of(task1.getId(), epic.getId(), subtask.getId()));
+        assertEquals(List.of(task2Moved), taskManager.getAllTasks(), "Задача пакета не удалена.");
+        assertThrows(NotFoundException.class, () -> taskManager.getEpic(epic.getId()), "Эпик пакета не удален.");
+    }
+
     @Test
     void checkValid() {
         Epic epic1 = new Epic("Эпик 1 для проверки валидации",
@@ -328,6 +435,37 @@ abstract class TaskManagerTest<T extends TaskManager> {
         assertTrue(history.size() == 0, "Пустая история просмотра задач после очистки");
     }
 
+    @Test
+    void clearsKeepOtherKinds() {
+        taskManager.clearAllTasks();
+        taskManager.clearAllEpics();
+        taskManager.clearHistory();
+        LocalDateTime start = LocalDateTime.of(2024, 7, 1, 9, 0);
+        Task task = taskManager.createTask(new Task("Задача", "Описание задачи", 30L, start));
+        Epic epic = taskManager.createEpic(new Epic("Эпик", "Описание эпика"));
+        Subtask subtask = taskManager.createSubtask(new Subtask("Подзадача", "Описание подзадачи", epic.getId(),
+                30L, start.plusHours(1)));
+        taskManager.getTask(task.getId());
+        taskManager.getEpic(epic.getId());
+        taskManager.getSubtask(subtask.getId());
+
+        taskManager.clearAllSubtasks();
+        assertEquals(List.of(task, epic), taskManager.getHistory(), "Очистка подзадач затронула историю задач.");
+        assertEquals(List.of(task), taskManager.getPrioritizedTasks(), "Очистка подзадач затронула расписание задач.");
+        assertDoesNotThrow(() -> taskManager.createSubtask(new Subtask("Подзадача", "Описание подзадачи",
+                epic.getId(), 30L, start.plusHours(1))), "Время удаленной подзадачи не освобождено.");
+
+        taskManager.clearAllTasks();
+        assertEquals(List.of(epic), taskManager.getHistory(), "Очистка задач затронула историю эпиков.");
+        assertEquals(1, taskManager.getPrioritizedTasks().size(), "Очистка задач затронула расписание подзадач.");
+        assertDoesNotThrow(() -> taskManager.createTask(new Task("Задача", "Описание задачи", 30L, start)),
+                "Время удаленной задачи не освобождено.");
+
+        taskManager.clearAllEpics();
+        assertTrue(taskManager.getHistory().isEmpty(), "История эпиков не очищена.");
+        assertEquals(1, taskManager.getPrioritizedTasks().size(), "Очистка эпиков затронула расписание задач.");
+    }
+
     @Test
     void checkEpicStatusBySubtaskStatus() {
         Epic epic1 = new Epic("Эпик для проверки расчета статуса",
@@ -418,4 +556,286 @@ abstract class TaskManagerTest<T extends TaskManager> {
         assertThrows(InvalidTaskException.class, () -> {taskManager.createTask(task1Err);},
                 "Пересечение подзадачи 2_2 с задачей 1 по времени исполнения");
     }
+
+    @Test
+    void getByStatusAndBoard() {
+        taskManager.clearAllTasks();
+        taskManager.clearAllEpics();
+        Task task = taskManager.createTask(new Task("Задача", "Описание задачи", TaskStatus.IN_PROGRESS));
+        Epic epic = taskManager.createEpic(new Epic("Эпик", "Описание эпика"));
+        assertEquals(List.of(epic), taskManager.getEpicsByStatus(TaskStatus.NEW), "Новый эпик не в статусе NEW.");
+
+        Subtask subtask = taskManager.createSubtask(new Subtask("Подзадача", "Описание подзадачи", TaskStatus.DONE,
+                epic.getId()));
+        assertEquals(List.of(epic), taskManager.getEpicsByStatus(TaskStatus.DONE),
+                "Индекс не учел пересчет статуса эпика.");
+        assertTrue(taskManager.getEpicsByStatus(TaskStatus.NEW).isEmpty(), "Эпик остался в прежнем статусе.");
+        assertEquals(List.of(subtask), taskManager.getSubtasksByStatus(TaskStatus.DONE), "Подзадача не найдена.");
+
+        taskManager.updateTask(new Task(task.getName(), task.getDescription(), task.getId(), TaskStatus.DONE));
+        assertTrue(taskManager.getTasksByStatus(TaskStatus.IN_PROGRESS).isEmpty(),
+                "Задача осталась в прежнем статусе.");
+        assertEquals(List.of(task, epic, subtask), taskManager.getBoard().get(TaskStatus.DONE),
+                "Неверная колонка DONE на доске.");
+
+        taskManager.removeSubtask(subtask.getId());
+        assertTrue(taskManager.getSubtasksByStatus(TaskStatus.DONE).isEmpty(), "Удаленная подзадача в индексе.");
+        assertEquals(List.of(epic), taskManager.getEpicsByStatus(TaskStatus.NEW),
+                "Эпик без подзадач не вернулся в статус NEW.");
+
+        taskManager.clearAllTasks();
+        assertTrue(taskManager.getBoard().get(TaskStatus.DONE).isEmpty(), "Очищенные задачи остались на доске.");
+    }
+
+    @Test
+    void searchByWords() {
+        taskManager.clearAllTasks();
+        taskManager.clearAllEpics();
+        Task task = taskManager.createTask(new Task("Купить молоко", "Зайти в магазин после работы"));
+        Epic epic = taskManager.createEpic(new Epic("Ремонт", "Купить обои и клей"));
+        Subtask subtask = taskManager.createSubtask(new Subtask("Клей для обоев", "Ещё купить кисть", epic.getId()));
+
+        assertEquals(List.of(task, epic, subtask), taskManager.search("КУПИТЬ"),
+                "Совпадение в названии должно стоять выше, при равенстве - порядок по id.");
+        assertEquals(List.of(subtask, epic), taskManager.search("клей, кисть"),
+                "Неверный порядок по числу совпадений.");
+        assertEquals(List.of(subtask), taskManager.search("еще"), "Буква ё не приведена к е.");
+        assertTrue(taskManager.search("велосипед").isEmpty(), "Найдено отсутствующее слово.");
+
+        taskManager.updateTask(new Task("Купить хлеб", null, task.getId()));
+        assertTrue(taskManager.search("молоко").isEmpty(), "Изменение задачи не учтено в индексе.");
+        assertEquals(List.of(task), taskManager.search("хлеб"), "Новое слово задачи не найдено.");
+
+        taskManager.removeEpic(epic.getId());
+        assertEquals(List.of(task), taskManager.search("купить клей"), "Удаленные эпик и подзадача найдены.");
+    }
+
+    @Test
+    void queryCombinesConditions() {
+        taskManager.clearAllTasks();
+        taskManager.clearAllEpics();
+        LocalDateTime monday = LocalDateTime.of(2024, 6, 3, 9, 0);
+        Epic epic = taskManager.createEpic(new Epic("Релиз", "Подготовка релиза"));
+        Epic otherEpic = taskManager.createEpic(new Epic("Отпуск", "Планирование отпуска"));
+        Subtask late = taskManager.createSubtask(new Subtask("Сборка", "Собрать дистрибутив",
+                TaskStatus.IN_PROGRESS, epic.getId(), 60L, monday.plusDays(2)));
+        Subtask early = taskManager.createSubtask(new Subtask("Тесты", "Прогнать тесты: дистрибутив",
+                TaskStatus.IN_PROGRESS, epic.getId(), 60L, monday));
+        taskManager.createSubtask(new Subtask("Заметки", "Написать заметки", TaskStatus.NEW, epic.getId(),
+                30L, monday.plusDays(1)));
+        taskManager.createSubtask(new Subtask("Билеты", "Купить билеты", TaskStatus.IN_PROGRESS,
+                otherEpic.getId(), 30L, monday.plusDays(3)));
+        taskManager.createSubtask(new Subtask("Выпуск", "Опубликовать дистрибутив", TaskStatus.IN_PROGRESS,
+                epic.getId(), 30L, monday.plusWeeks(1)));
+        Task task = taskManager.createTask(new Task("Дистрибутив на сайт", "Выложить", TaskStatus.IN_PROGRESS,
+                15L, monday.plusHours(3)));
+
+        TaskQuery query = new TaskQuery().epicId(epic.getId()).status(TaskStatus.IN_PROGRESS)
+                .startingBetween(monday, monday.plusWeeks(1)).orderByStartTime(true);
+        assertEquals(List.of(early, late), taskManager.query(query), "Неверная выборка подзадач эпика за неделю.");
+
+        assertEquals(List.of(late, early), taskManager.query(new TaskQuery().type(TaskType.SUBTASK)
+                .text("ДИСТРИБУТИВ").startingBetween(null, monday.plusWeeks(1))), "Неверная выборка по тексту.");
+        assertEquals(List.of(early, task), taskManager.query(new TaskQuery().text("дистрибутив")
+                .startingBetween(monday, monday.plusDays(1)).orderByStartTime(true)), "Неверная выборка по окну разных типов.");
+        assertEquals(List.of(otherEpic), taskManager.query(new TaskQuery().type(TaskType.EPIC).text("отпуска")),
+                "Неверная выборка эпиков.");
+        assertTrue(taskManager.query(new TaskQuery().type(TaskType.TASK).epicId(epic.getId())).isEmpty(),
+                "Задачи не могут относиться к эпику.");
+        assertEquals(8, taskManager.query(new TaskQuery()).size(), "Пустой запрос должен выбрать все.");
+    }
+
+    @Test
+    void listenersReceiveChangeEvents() {
+        taskManager.clearAllTasks();
+        taskManager.clearAllEpics();
+        List<TaskEvent> events = new ArrayList<>();
+        TaskEventQueue queue = new TaskEventQueue();
+        taskManager.addListener(events::add);
+        taskManager.addListener(queue);
+        long startVersion = taskManager.getVersion();
+
+        Task task = taskManager.createTask(new Task("Задача", "Описание задачи"));
+        taskManager.updateTask(new Task("Новая задача", "Описание задачи", task.getId(), TaskStatus.DONE));
+        Epic epic = taskManager.createEpic(new Epic("Эпик", "Описание эпика"));
+        taskManager.createSubtask(new Subtask("Подзадача", "Описание подзадачи", epic.getId()));
+        taskManager.removeEpic(epic.getId());
+        taskManager.removeTask(task.getId());
+        taskManager.clearAllTasks();
+
+        assertEquals(List.of(TaskEvent.Kind.CREATE, TaskEvent.Kind.UPDATE, TaskEvent.Kind.CREATE,
+                        TaskEvent.Kind.CREATE, TaskEvent.Kind.REMOVE, TaskEvent.Kind.REMOVE, TaskEvent.Kind.REMOVE),
+                events.stream().map(TaskEvent::getKind).toList(), "Неверная последовательность событий.");
+        assertEquals(startVersion + events.size(), taskManager.getVersion(),
+                "Версия не совпадает с событиями, очистка пустого хранилища не должна давать событие.");
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(startVersion + i + 1, events.get(i).getVersion(), "Версии событий идут не подряд.");
+        }
+
+        TaskEvent update = events.get(1);
+        assertEquals(TaskType.TASK, update.getTaskType(), "Неверный тип объекта события.");
+        assertEquals("Задача", update.getBefore().getName(), "Неверная версия до изменения.");
+        assertEquals("Новая задача", update.getAfter().getName(), "Неверная версия после изменения.");
+        assertEquals(TaskType.SUBTASK, events.get(4).getTaskType(), "Подзадача удаляется раньше эпика.");
+        assertEquals(epic.getId(), events.get(5).getId(), "Неверный id удаленного эпика.");
+
+        List<TaskEvent> drained = new ArrayList<>();
+        assertEquals(events.size(), queue.drainTo(drained::add), "Очередь получила не все события.");
+        assertEquals(events, drained, "Очередь изменила порядок событий.");
+        assertTrue(queue.isEmpty(), "Очередь не разобрана.");
+
+        taskManager.removeListener(queue);
+        taskManager.createTask(new Task("Еще задача", "Описание"));
+        assertNull(queue.poll(), "Отписанный слушатель получил событие.");
+    }
+
+    @Test
+    void dependenciesTrackCriticalPath() {
+        taskManager.clearAllTasks();
+        taskManager.clearAllEpics();
+        LocalDateTime start = LocalDateTime.of(2024, 5, 20, 9, 0);
+        Task design = taskManager.createTask(new Task("Проект", "Описание", 0, TaskStatus.NEW, 60L, start));
+        Task build = taskManager.createTask(new Task("Сборка", "Описание", 0, TaskStatus.NEW, 30L, null));
+        Epic epic = taskManager.createEpic(new Epic("Эпик", "Описание эпика"));
+        Subtask check = taskManager.createSubtask(new Subtask("Проверка", "Описание", 0, TaskStatus.NEW,
+                epic.getId(), 15L, null));
+        Task notes = taskManager.createTask(new Task("Заметки", "Описание"));
+
+        taskManager.addDependency(build.getId(), check.getId());
+        taskManager.addDependency(design.getId(), build.getId());
+        taskManager.addDependency(design.getId(), notes.getId());
+        assertEquals(start.plusMinutes(90), taskManager.getEarliestStart(check.getId()),
+                "Подзадача должна начинаться после блокирующей задачи.");
+        assertEquals(start.plusHours(1), taskManager.getEarliestStart(notes.getId()),
+                "Задача без сроков должна начинаться после блокирующей.");
+        assertEquals(List.of(design.getId(), build.getId(), check.getId()),
+                taskManager.getCriticalPath().stream().map(Task::getId).toList(), "Неверный критический путь.");
+        assertEquals(List.of(build), taskManager.getBlockers(check.getId()), "Неверные блокирующие задачи.");
+
+        assertThrows(InvalidTaskException.class, () -> taskManager.addDependency(check.getId(), design.getId()),
+                "Цикл зависимостей не обнаружен.");
+        assertThrows(InvalidTaskException.class, () -> taskManager.addDependency(epic.getId(), build.getId()),
+                "Эпик не может участвовать в зависимостях.");
+        assertThrows(NotFoundException.class, () -> taskManager.removeDependency(check.getId(), design.getId()),
+                "Удалена несуществующая зависимость.");
+
+        taskManager.updateTask(new Task("Проект", "Описание", design.getId(), TaskStatus.NEW, 240L, start));
+        assertEquals(start.plusHours(4), taskManager.getEarliestStart(build.getId()),
+                "Изменение сроков не сдвинуло заблокированную задачу.");
+        assertEquals(start.plusHours(4).plusMinutes(30), taskManager.getEarliestStart(check.getId()),
+                "Изменение сроков не дошло до задач ниже.");
+
+        taskManager.removeDependency(design.getId(), build.getId());
+        assertNull(taskManager.getEarliestStart(check.getId()),
+                "После удаления зависимости сроки задач ниже не определены.");
+        taskManager.addDependency(design.getId(), check.getId());
+        taskManager.removeTask(build.getId());
+        assertEquals(List.of(design, check), taskManager.getCriticalPath(check.getId()),
+                "Удаление задачи не сняло ее зависимости.");
+        taskManager.addDependency(check.getId(), notes.getId());
+        assertEquals(start.plusHours(4).plusMinutes(15), taskManager.getEarliestStart(notes.getId()),
+                "Неверное раннее начало после перестройки порядка.");
+    }
+
+    @Test
+    void scheduleTasksFillsFreeTime() {
+        taskManager.clearAllTasks();
+        taskManager.clearAllEpics();
+        LocalDateTime start = LocalDateTime.of(2024, 5, 20, 9, 0);
+        Task morning = taskManager.createTask(new Task("Утро", "Описание", TaskStatus.NEW, 60L, start));
+        taskManager.createTask(new Task("Встреча", "Описание", TaskStatus.NEW, 30L, start.plusMinutes(90)));
+        Epic epic = taskManager.createEpic(new Epic("Эпик", "Описание эпика"));
+        Task longTask = taskManager.createTask(new Task("Долгая", "Описание", TaskStatus.NEW, 60L, null));
+        Task shortTask = taskManager.createTask(new Task("Короткая", "Описание", TaskStatus.NEW, 30L, null));
+        Subtask subtask = taskManager.createSubtask(new Subtask("Подзадача", "Описание", epic.getId(), 15L, null));
+        Task noDuration = taskManager.createTask(new Task("Без срока", "Описание"));
+
+        assertThrows(InvalidTaskException.class, () -> taskManager.scheduleTasks(
+                List.of(longTask.getId(), morning.getId()), start), "Запланирована задача из расписания.");
+        assertThrows(InvalidTaskException.class, () -> taskManager.scheduleTasks(
+                List.of(noDuration.getId()), start), "Запланирована задача без продолжительности.");
+        assertThrows(InvalidTaskException.class, () -> taskManager.scheduleTasks(
+                List.of(epic.getId()), start), "Запланирован эпик.");
+        assertThrows(InvalidTaskException.class, () -> taskManager.scheduleTasks(
+                List.of(shortTask.getId(), shortTask.getId()), start), "Повтор задачи не отклонен.");
+        assertThrows(NotFoundException.class, () -> taskManager.scheduleTasks(
+                List.of(longTask.getId(), 1000), start), "Запланирована несуществующая задача.");
+        assertNull(taskManager.getTask(longTask.getId()).getStartTime(),
+                "Пакет с ошибкой запланирован частично.");
+
+        List<Task> scheduled = taskManager.scheduleTasks(
+                List.of(longTask.getId(), shortTask.getId(), subtask.getId()), start);
+        assertEquals(List.of(start.plusHours(2), start.plusHours(1), start.plusHours(3)),
+                scheduled.stream().map(Task::getStartTime).toList(),
+                "Задачи должны занять самые ранние подходящие промежутки.");
+        assertEquals(start.plusHours(2), taskManager.getTask(longTask.getId()).getStartTime(),
+                "Запланированное время не сохранено.");
+        assertEquals(start.plusHours(3), taskManager.getEpic(epic.getId()).getStartTime(),
+                "Сроки эпика не пересчитаны по запланированной подзадаче.");
+        assertEquals(5, taskManager.getPrioritizedTasks().size(), "Запланированные задачи не попали в расписание.");
+    }
+
+    @Test
+    void prioritizedPageIncludesRecurrences() {
+        taskManager.clearAllTasks();
+        taskManager.clearAllEpics();
+        LocalDateTime start = LocalDateTime.of(2024, 5, 20, 9, 0);
+        RecurringTask daily = taskManager.createRecurringTask(new RecurringTask("Зарядка", "Описание", 30L, start,
+                24 * 60, null));
+        Task task = taskManager.createTask(new Task("Встреча", "Описание", TaskStatus.NEW, 60L,
+                start.plusDays(1).plusHours(3)));
+
+        List<Task> page = taskManager.getPrioritizedTasks(null, 3);
+        assertEquals(List.of(start, start.plusDays(1), task.getStartTime()),
+                page.stream().map(Task::getStartTime).toList(), "Повторения не попали в страницу расписания.");
+        assertEquals(daily.getName(), page.getFirst().getName(), "Неверное первое повторение страницы.");
+        assertEquals(List.of(start.plusDays(2), start.plusDays(3)),
+                taskManager.getPrioritizedTasks(page.getLast().getStartTime(), 2).stream()
+                        .map(Task::getStartTime).toList(), "Неверная следующая страница повторений.");
+    }
+
+    @Test
+    void recurringTasksExpandLazily() {
+        taskManager.clearAllTasks();
+        taskManager.clearAllEpics();
+        LocalDateTime start = LocalDateTime.of(2024, 5, 20, 9, 0);
+        RecurringTask daily = taskManager.createRecurringTask(new RecurringTask("Зарядка", "Описание", 30L, start,
+                24 * 60, null));
+        assertEquals(daily, taskManager.getRecurringTask(daily.getId()), "Повторяющаяся задача не сохранена.");
+
+        List<Task> week = taskManager.getPrioritizedTasks(start.minusDays(1), start.plusDays(7));
+        assertEquals(7, week.size(), "Неверное количество повторений в окне.");
+        assertEquals(start.plusDays(6), week.get(6).getStartTime(), "Неверное начало последнего повторения.");
+        assertTrue(taskManager.getPrioritizedTasks().isEmpty(), "Бессрочное правило развернуто без окна.");
+
+        assertThrows(InvalidTaskException.class, () -> taskManager.createTask(new Task("Встреча", "Описание",
+                TaskStatus.NEW, 60L, start.plusDays(100).minusMinutes(30))), "Принята задача поверх повторения.");
+        assertThrows(InvalidTaskException.class, () -> taskManager.createRecurringTask(new RecurringTask("Обед",
+                "Описание", 60L, start.minusMinutes(15), 7 * 24 * 60, null)), "Принято пересекающееся правило.");
+        assertThrows(InvalidTaskException.class, () -> taskManager.createRecurringTask(new RecurringTask("Частая",
+                "Описание", 60L, start.plusHours(1), 30, null)), "Принят период короче продолжительности.");
+        Task afternoon = taskManager.createTask(new Task("Встреча", "Описание", TaskStatus.NEW, 60L,
+                start.plusDays(100).plusHours(3)));
+        assertThrows(InvalidTaskException.class, () -> taskManager.createRecurringTask(new RecurringTask("Обед",
+                "Описание", 60L, start.plusHours(3).plusMinutes(30), 24 * 60, start.plusDays(200))),
+                "Принято правило, пересекающееся с задачей.");
+
+        RecurringTask lunch = taskManager.createRecurringTask(new RecurringTask("Обед", "Описание", 60L,
+                start.plusHours(4), 24 * 60, start.plusDays(1).plusHours(4)));
+        assertEquals(List.of(start.plusMinutes(30)), taskManager.findFreeSlots(start, 30, 1),
+                "Свободное время не должно пересекаться с повторением.");
+        assertEquals(List.of(start.plusHours(5)), taskManager.findFreeSlots(start.plusHours(3).plusMinutes(45), 30, 1),
+                "Свободное время должно начинаться после повторения.");
+        assertEquals(List.of(start.plusDays(100).plusHours(4)),
+                taskManager.findFreeSlots(start.plusDays(100).plusHours(3), 30, 1),
+                "Свободное время должно начинаться после задачи.");
+        assertEquals(List.of(daily, lunch), taskManager.getAllRecurringTasks(), "Неверный список правил.");
+        assertEquals(List.of(afternoon), taskManager.getPrioritizedTasks(), "Повторения попали в расписание без окна.");
+
+        taskManager.removeRecurringTask(daily.getId());
+        assertThrows(NotFoundException.class, () -> taskManager.getRecurringTask(daily.getId()),
+                "Удаленное правило найдено.");
+        assertEquals(2, taskManager.getPrioritizedTasks(start, start.plusDays(7)).size(),
+                "Повторения удаленного правила остались в расписании.");
+    }
 }
@@ -0,0 +1,167 @@
+package manager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TieredTaskStoreTest {
+    private static final Duration COLD_AFTER = Duration.ofDays(7);
+
+    private final TestClock clock = new TestClock();
+    private File segmentFile;
+    private TieredTaskStore<Task> store;
+
+    /**
+     * Часы, которые тест переводит вручную
+     */
+    private static class TestClock extends Clock {
+        private Instant now = Instant.parse("2024-06-01T09:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        segmentFile = File.createTempFile("testSegment", null);
+        store = new TieredTaskStore<>(segmentFile.toPath(), COLD_AFTER, 2, clock);
+    }
+
+    @AfterEach
+    void afterEach() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void evictOnlyColdDoneTasks() {
+        Task done = new Task("Задача", "Описание задачи", 1, TaskStatus.DONE, 45L,
+                LocalDateTime.of(2024, 3, 1, 9, 30));
+        Subtask doneSubtask = new Subtask("Подзадача", null, 2, TaskStatus.DONE, 7, null, null);
+        store.put(1, done);
+        store.put(2, doneSubtask);
+        store.put(3, new Task("Задача в работе", "Описание", 3, TaskStatus.IN_PROGRESS));
+        store.put(4, new Task("Просмотренная задача", "Описание", 4, TaskStatus.DONE));
+
+        assertEquals(0, store.evictCold(), "Выгружены задачи моложе срока.");
+        clock.advance(COLD_AFTER.minusDays(1));
+        store.get(4);
+        clock.advance(Duration.ofDays(1));
+        assertEquals(2, store.evictCold(), "Выгружены не те задачи.");
+        assertEquals(2, store.coldSize(), "Неверное количество холодных задач.");
+        assertEquals(4, store.size(), "Выгрузка изменила размер хранилища.");
+
+        Task received = store.get(1);
+        assertNotSame(done, received, "Холодная задача не прочитана из сегмента.");
+        assertEquals(done.getName(), received.getName(), "Не совпадает название.");
+        assertEquals(done.getStatus(), received.getStatus(), "Не совпадает статус.");
+        assertEquals(done.getDuration(), received.getDuration(), "Не совпадает продолжительность.");
+        assertEquals(done.getStartTime(), received.getStartTime(), "Не совпадает время начала.");
+        assertSame(received, store.get(1), "Повторное чтение не попало в кэш.");
+
+        Task receivedSubtask = store.get(2);
+        assertInstanceOf(Subtask.class, receivedSubtask, "Подзадача восстановлена не подзадачей.");
+        assertEquals(7, ((Subtask) receivedSubtask).getEpicId(), "Не совпадает эпик подзадачи.");
+        assertNull(receivedSubtask.getDescription(), "Пустое описание не сохранено.");
+
+        assertTrue(store.containsKey(2), "Холодная задача не найдена.");
+        assertFalse(store.containsKey(5), "Найдена отсутствующая задача.");
+        assertEquals(List.of(1, 2, 3, 4), store.values().stream().map(Task::getId).sorted().toList(),
+                "Обход пропустил задачи одного из уровней.");
+    }
+
+    @Test
+    void coldTaskKeepsLongDuration() {
+        long minutes = Integer.MAX_VALUE + 10L;
+        store.put(1, new Task("Задача", "Описание задачи", 1, TaskStatus.DONE, minutes,
+                LocalDateTime.of(2024, 3, 1, 9, 30)));
+        clock.advance(COLD_AFTER);
+        assertEquals(1, store.evictCold(), "Задача не выгружена.");
+        assertEquals(minutes, store.get(1).getDuration().toMinutes(), "Большая продолжительность искажена.");
+    }
+
+    @Test
+    void replaceAndRemoveColdTasks() {
+        for (int id = 1; id <= 10; id++) {
+            store.put(id, new Task("Задача " + id, "Описание задачи " + id, id, TaskStatus.DONE));
+        }
+        clock.advance(COLD_AFTER);
+        assertEquals(10, store.evictCold(), "Выгружены не все задачи.");
+
+        Task previous = store.put(3, new Task("Новая задача 3", "Новое описание", 3, TaskStatus.NEW));
+        assertEquals("Задача 3", previous.getName(), "Не возвращена прежняя холодная версия.");
+        assertEquals("Новая задача 3", store.get(3).getName(), "Холодная задача не заменена.");
+        assertEquals("Задача 4", store.remove(4).getName(), "Не возвращена удаленная холодная задача.");
+        assertNull(store.get(4), "Удаленная холодная задача найдена.");
+        assertEquals(9, store.size(), "Неверный размер после замены и удаления.");
+
+        // Большая часть сегмента становится мусором, и следующая выгрузка его уплотняет
+        for (int id = 5; id <= 10; id++) {
+            store.put(id, new Task("Задача " + id, "Еще описание " + id, id, TaskStatus.DONE));
+        }
+        clock.advance(COLD_AFTER);
+        assertEquals(6, store.evictCold(), "Измененные задачи не выгружены повторно.");
+        assertEquals(List.of("Задача 1", "Задача 2", "Новая задача 3", "Задача 5", "Задача 6", "Задача 7",
+                        "Задача 8", "Задача 9", "Задача 10"),
+                store.values().stream().sorted(TaskUtil.BY_ID).map(Task::getName).toList(),
+                "После уплотнения сегмента задачи прочитаны неверно.");
+        assertEquals("Еще описание 10", store.get(10).getDescription(), "Прочитана старая версия задачи.");
+
+        store.clear();
+        assertTrue(store.isEmpty(), "Хранилище не очищено.");
+        assertNull(store.get(1), "После очистки найдена холодная задача.");
+    }
+
+    @Test
+    void managerReadsColdTasks() throws IOException {
+        File subtaskSegment = File.createTempFile("testSubtaskSegment", null);
+        try (TieredTaskStore<Subtask> subtasks = new TieredTaskStore<>(subtaskSegment.toPath(), COLD_AFTER, 2,
+                clock)) {
+            InMemoryTaskManager taskManager = new InMemoryTaskManager(Managers.getDefaultHistory(), store, subtasks);
+            Task done = taskManager.createTask(new Task("Готово", "Описание", TaskStatus.DONE));
+            Task active = taskManager.createTask(new Task("В работе", "Описание", TaskStatus.IN_PROGRESS));
+            clock.advance(COLD_AFTER);
+            store.evictCold();
+
+            assertEquals(1, store.coldSize(), "Выполненная задача не выгружена.");
+            assertEquals(done.getName(), taskManager.getTask(done.getId()).getName(), "Холодная задача не найдена.");
+            assertEquals(List.of(done, active), taskManager.getAllTasks(), "В списке задач нет холодной.");
+            assertEquals(List.of(done), taskManager.getTasksByStatus(TaskStatus.DONE),
+                    "Холодная задача пропала из индекса статусов.");
+
+            taskManager.removeTask(done.getId());
+            assertThrows(NotFoundException.class, () -> taskManager.getTask(done.getId()),
+                    "Удаленная холодная задача найдена.");
+        }
+    }
+}
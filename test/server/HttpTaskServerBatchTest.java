@@ -0,0 +1,85 @@
+package server;
+
+import com.google.gson.Gson;
+import manager.InMemoryTaskManager;
+import manager.TaskManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import task.Epic;
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpTaskServerBatchTest {
+    TaskManager manager = new InMemoryTaskManager();
+    HttpTaskServer taskServer = new HttpTaskServer(manager);
+    Gson gson = taskServer.getGson();
+
+    @BeforeEach
+    public void setUp() {
+        manager.clearAllTasks();
+        manager.clearAllSubtasks();
+        manager.clearAllEpics();
+        taskServer.start();
+    }
+
+    @AfterEach
+    public void shutDown() {
+        taskServer.stop();
+    }
+
+    @Test
+    public void postBatch() throws IOException, InterruptedException {
+        LocalDateTime start = LocalDateTime.of(2024, 5, 20, 9, 0);
+        Epic epic = manager.createEpic(new Epic("Эпик для пакета", "Тестовый эпик для пакета"));
+        Task taskToUpdate = manager.createTask(new Task("Задача для изменения пакетом",
+                "Тестовая задача для изменения пакетом", TaskStatus.NEW, 10L, start));
+
+        Task taskUpdated = new Task(taskToUpdate.getName(), taskToUpdate.getDescription(), taskToUpdate.getId(),
+                TaskStatus.DONE, 10L, start.plusMinutes(30));
+        Task taskNew = new Task("Задача для добавления пакетом", "Тестовая задача для добавления пакетом",
+                TaskStatus.NEW, 10L, start);
+        Subtask subtaskNew = new Subtask("Подзадача для добавления пакетом",
+                "Тестовая подзадача для добавления пакетом", epic.getId(), 10L, start.plusMinutes(15));
+        String batchJson = gson.toJson(Map.of("tasks", List.of(taskUpdated, taskNew),
+                "subtasks", List.of(subtaskNew)));
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/batch");
+        HttpRequest request = HttpRequest.newBuilder().uri(url)
+                .POST(HttpRequest.BodyPublishers.ofString(batchJson)).build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, response.statusCode(), "Неверный код статуса в ответе");
+
+        assertEquals(2, manager.getAllTasks().size(), "Неверное количество задач после пакета");
+        assertEquals(TaskStatus.DONE, manager.getTask(taskToUpdate.getId()).getStatus(), "Задача не изменена");
+        assertEquals(1, manager.getSubtasksByEpicId(epic.getId()).size(), "Подзадача пакета не добавлена");
+
+        Task taskCrossing = new Task("Пересекающаяся задача", "Тестовая пересекающаяся задача",
+                TaskStatus.NEW, 10L, start.plusMinutes(35));
+        request = HttpRequest.newBuilder().uri(url)
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(Map.of("tasks", List.of(taskCrossing)))))
+                .build();
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(406, response.statusCode(), "Пересечение в пакете не отклонено");
+
+        url = URI.create("http://localhost:8080/batch?ids=" + taskToUpdate.getId() + "," + epic.getId());
+        request = HttpRequest.newBuilder().uri(url).DELETE().build();
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "Неверный код статуса в ответе");
+        assertEquals(1, manager.getAllTasks().size(), "Задача пакета не удалена");
+        assertTrue(manager.getAllSubtasks().isEmpty(), "Подзадачи удаленного эпика не удалены");
+    }
+}
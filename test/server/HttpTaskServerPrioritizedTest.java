@@ -1,6 +1,8 @@
 package server;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.google.gson.reflect.TypeToken;
 import manager.InMemoryTaskManager;
 import manager.TaskManager;
@@ -8,6 +10,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import task.Epic;
+import task.RecurringTask;
 import task.Subtask;
 import task.Task;
 import task.TaskStatus;
@@ -83,4 +86,184 @@ public class HttpTaskServerPrioritizedTest {
         assertEquals(task.getName(), parsedList.getLast().getName(),
                 "Неверное наименование свежей задачи(подзадачи) в списке по приоритетам");
     }
+
+    @Test
+    public void getPrioritizedInWindow() throws IOException, InterruptedException {
+        LocalDateTime start = LocalDateTime.of(2024, 5, 20, 9, 0);
+        Task task = manager.createTask(new Task("Задача 1",
+                "Тестовая задача 1 для проверки окна", TaskStatus.NEW, 5L, start));
+        Task task2 = manager.createTask(new Task("Задача 2",
+                "Тестовая задача 2 для проверки окна", TaskStatus.NEW, 5L, start.plusMinutes(10)));
+        manager.createTask(new Task("Задача 3",
+                "Тестовая задача 3 для проверки окна", TaskStatus.NEW, 5L, start.plusMinutes(20)));
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/prioritized?from=" + start + "&to=" + start.plusMinutes(20));
+        HttpRequest request = HttpRequest.newBuilder().uri(url).GET().build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "Неверный код статуса в ответе");
+
+        List<Task> parsedList = gson.fromJson(response.body(), new TaskListTypeToken().getType());
+        assertEquals(2, parsedList.size(), "Получено неверное количесто записей в окне");
+        assertEquals(task.getId(), parsedList.getFirst().getId(), "Неверный id первой задачи окна");
+        assertEquals(task2.getId(), parsedList.getLast().getId(), "Неверный id последней задачи окна");
+
+        url = URI.create("http://localhost:8080/prioritized?from=вчера");
+        request = HttpRequest.newBuilder().uri(url).GET().build();
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode(), "Некорректная дата не отклонена");
+    }
+
+    @Test
+    public void getQuery() throws IOException, InterruptedException {
+        LocalDateTime start = LocalDateTime.of(2024, 5, 20, 9, 0);
+        Epic epic = manager.createEpic(new Epic("Эпик", "Тестовый эпик для запроса"));
+        manager.createSubtask(new Subtask("Подзадача 1", "Тестовая подзадача 1", TaskStatus.NEW, epic.getId(), 5L,
+                start));
+        Subtask subtask2 = manager.createSubtask(new Subtask("Подзадача 2", "Тестовая подзадача 2", TaskStatus.DONE,
+                epic.getId(), 5L, start.plusMinutes(10)));
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/query?type=SUBTASK&status=DONE&epic=" + epic.getId()
+                + "&from=" + start + "&sort=start");
+        HttpRequest request = HttpRequest.newBuilder().uri(url).GET().build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "Неверный код статуса в ответе");
+
+        List<Task> parsedList = gson.fromJson(response.body(), new TaskListTypeToken().getType());
+        assertEquals(1, parsedList.size(), "Получено неверное количесто записей по запросу");
+        assertEquals(subtask2.getId(), parsedList.getFirst().getId(), "Неверный id подзадачи по запросу");
+
+        url = URI.create("http://localhost:8080/query?type=STORY");
+        request = HttpRequest.newBuilder().uri(url).GET().build();
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode(), "Некорректный тип не отклонен");
+    }
+
+    @Test
+    public void getFreeSlots() throws IOException, InterruptedException {
+        LocalDateTime start = LocalDateTime.of(2024, 5, 20, 9, 0);
+        manager.createTask(new Task("Задача 1",
+                "Тестовая задача 1 для поиска свободного времени", TaskStatus.NEW, 30L, start));
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/slots?duration=15&count=2&from=" + start.plusMinutes(10));
+        HttpRequest request = HttpRequest.newBuilder().uri(url).GET().build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "Неверный код статуса в ответе");
+
+        List<LocalDateTime> slots = gson.fromJson(response.body(), new TypeToken<List<LocalDateTime>>() {
+        }.getType());
+        assertEquals(List.of(start.plusMinutes(30), start.plusMinutes(45)), slots, "Неверные свободные промежутки");
+
+        url = URI.create("http://localhost:8080/slots");
+        request = HttpRequest.newBuilder().uri(url).GET().build();
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode(), "Запрос без продолжительности не отклонен");
+    }
+
+    @Test
+    public void postAndGetDependencies() throws IOException, InterruptedException {
+        LocalDateTime start = LocalDateTime.of(2024, 5, 20, 9, 0);
+        Task task1 = manager.createTask(new Task("Задача 1", "Блокирующая задача", TaskStatus.NEW, 60L, start));
+        Task task2 = manager.createTask(new Task("Задача 2", "Заблокированная задача", TaskStatus.NEW, 30L,
+                start.minusHours(2)));
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/dependencies");
+        String body = "{\"blockerId\": " + task1.getId() + ", \"blockedId\": " + task2.getId() + "}";
+        HttpRequest request = HttpRequest.newBuilder().uri(url).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, response.statusCode(), "Неверный код статуса в ответе");
+
+        String cycle = "{\"blockerId\": " + task2.getId() + ", \"blockedId\": " + task1.getId() + "}";
+        request = HttpRequest.newBuilder().uri(url).POST(HttpRequest.BodyPublishers.ofString(cycle)).build();
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(406, response.statusCode(), "Цикл зависимостей не отклонен");
+
+        request = HttpRequest.newBuilder().uri(url).GET().build();
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "Неверный код статуса в ответе");
+        List<Task> path = gson.fromJson(response.body(), new TaskListTypeToken().getType());
+        assertEquals(List.of(task1.getId(), task2.getId()), path.stream().map(Task::getId).toList(),
+                "Неверный критический путь");
+
+        url = URI.create("http://localhost:8080/dependencies/" + task2.getId());
+        request = HttpRequest.newBuilder().uri(url).GET().build();
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "Неверный код статуса в ответе");
+        JsonObject dependencies = JsonParser.parseString(response.body()).getAsJsonObject();
+        assertEquals(start.plusHours(1), gson.fromJson(dependencies.get("earliestStart"), LocalDateTime.class),
+                "Неверное раннее начало");
+        assertEquals(1, dependencies.getAsJsonArray("blockers").size(), "Неверное количество блокирующих задач");
+
+        url = URI.create("http://localhost:8080/dependencies?blocker=" + task1.getId() + "&blocked=" + task2.getId());
+        request = HttpRequest.newBuilder().uri(url).DELETE().build();
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "Неверный код статуса в ответе");
+        assertEquals(start.minusHours(2), manager.getEarliestStart(task2.getId()), "Зависимость не удалена");
+
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(404, response.statusCode(), "Удалена несуществующая зависимость");
+    }
+
+    @Test
+    public void postScheduleTasks() throws IOException, InterruptedException {
+        LocalDateTime start = LocalDateTime.of(2024, 5, 20, 9, 0);
+        manager.createTask(new Task("Задача 1", "Задача в расписании", TaskStatus.NEW, 30L, start));
+        Task task2 = manager.createTask(new Task("Задача 2", "Задача без начала", TaskStatus.NEW, 15L, null));
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/slots?from=" + start);
+        HttpRequest request = HttpRequest.newBuilder().uri(url)
+                .POST(HttpRequest.BodyPublishers.ofString("[" + task2.getId() + "]")).build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "Неверный код статуса в ответе");
+
+        List<Task> scheduled = gson.fromJson(response.body(), new TaskListTypeToken().getType());
+        assertEquals(start.plusMinutes(30), scheduled.getFirst().getStartTime(), "Неверное время планирования");
+        assertEquals(2, manager.getPrioritizedTasks().size(), "Задача не попала в расписание");
+
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(406, response.statusCode(), "Повторное планирование не отклонено");
+
+        request = HttpRequest.newBuilder().uri(url).POST(HttpRequest.BodyPublishers.ofString("[]")).build();
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode(), "Пустой список не отклонен");
+    }
+
+    @Test
+    public void postAndGetRecurringTasks() throws IOException, InterruptedException {
+        LocalDateTime start = LocalDateTime.of(2024, 5, 20, 9, 0);
+        String ruleJson = gson.toJson(new RecurringTask("Зарядка", "Ежедневная задача", 30L, start, 24 * 60,
+                start.plusDays(2)));
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/recurring");
+        HttpRequest request = HttpRequest.newBuilder().uri(url)
+                .POST(HttpRequest.BodyPublishers.ofString(ruleJson)).build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, response.statusCode(), "Неверный код статуса в ответе");
+        RecurringTask rule = manager.getAllRecurringTasks().getFirst();
+        assertEquals(24 * 60, rule.getPeriodMinutes(), "Неверный период повторяющейся задачи");
+        assertEquals(3, manager.getPrioritizedTasks(start, start.plusDays(7)).size(), "Неверное количество повторений");
+
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(406, response.statusCode(), "Пересекающееся правило не отклонено");
+
+        request = HttpRequest.newBuilder().uri(URI.create("http://localhost:8080/recurring/" + rule.getId()))
+                .GET().build();
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "Неверный код статуса в ответе");
+        assertEquals(start.plusDays(2), gson.fromJson(response.body(), RecurringTask.class).getUntil(),
+                "Неверная дата окончания повторений");
+
+        request = HttpRequest.newBuilder().uri(URI.create("http://localhost:8080/recurring/" + rule.getId()))
+                .DELETE().build();
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "Неверный код статуса в ответе");
+        assertEquals(0, manager.getAllRecurringTasks().size(), "Повторяющаяся задача не удалена");
+    }
 }
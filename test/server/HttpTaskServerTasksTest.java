@@ -14,9 +14,11 @@ import org.junit.jupiter.api.AfterEach;
 
 import java.io.IOException;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 
 import task.Task;
 import task.TaskStatus;
@@ -74,6 +76,114 @@ public class HttpTaskServerTasksTest {
         assertEquals(taskInManager3.getName(), parsedList.getLast().getName(), "Не совпали названия последних задач");
     }
 
+    @Test
+    public void getTasksByPages() throws IOException, InterruptedException {
+        Task taskInManager = manager.createTask(new Task("Задача 1 для получения страницами",
+                "Тестовая задача 1 для проверки получения страницами", TaskStatus.NEW, 5L, LocalDateTime.now()));
+        Task taskInManager2 = manager.createTask(new Task("Задача 2 для получения страницами",
+                "Тестовая задача 2 для проверки получения страницами", TaskStatus.NEW, 5L,
+                LocalDateTime.now().plusMinutes(10)));
+        Task taskInManager3 = manager.createTask(new Task("Задача 3 для получения страницами",
+                "Тестовая задача 3 для проверки получения страницами", TaskStatus.NEW, 5L,
+                LocalDateTime.now().plusMinutes(20)));
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/tasks?limit=2&after=" + taskInManager.getId());
+        HttpRequest request = HttpRequest.newBuilder().uri(url).GET().build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "Неверный код статуса в ответе");
+
+        List<Task> parsedList = gson.fromJson(response.body(), new TaskListTypeToken().getType());
+        assertEquals(2, parsedList.size(), "Получено неверное количесто записей о задачах на странице");
+        assertEquals(taskInManager2.getId(), parsedList.getFirst().getId(), "Страница начинается не после курсора");
+        assertEquals(taskInManager3.getId(), parsedList.getLast().getId(), "Не совпали id последних задач");
+
+        url = URI.create("http://localhost:8080/tasks?limit=два");
+        request = HttpRequest.newBuilder().uri(url).GET().build();
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode(), "Некорректный параметр не отклонен");
+    }
+
+    @Test
+    public void getTasksByStatus() throws IOException, InterruptedException {
+        manager.createTask(new Task("Задача 1 для отбора по статусу", "Тестовая задача 1", TaskStatus.NEW));
+        Task taskInManager2 = manager.createTask(new Task("Задача 2 для отбора по статусу", "Тестовая задача 2",
+                TaskStatus.IN_PROGRESS));
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/tasks?status=IN_PROGRESS");
+        HttpRequest request = HttpRequest.newBuilder().uri(url).GET().build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "Неверный код статуса в ответе");
+
+        List<Task> parsedList = gson.fromJson(response.body(), new TaskListTypeToken().getType());
+        assertEquals(1, parsedList.size(), "Получено неверное количесто задач со статусом");
+        assertEquals(taskInManager2.getId(), parsedList.getFirst().getId(), "Получена задача с другим статусом");
+
+        url = URI.create("http://localhost:8080/tasks?status=CLOSED");
+        request = HttpRequest.newBuilder().uri(url).GET().build();
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode(), "Некорректный статус не отклонен");
+    }
+
+    @Test
+    public void getBoard() throws IOException, InterruptedException {
+        Task taskInManager = manager.createTask(new Task("Задача для доски", "Тестовая задача для доски",
+                TaskStatus.DONE));
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/board");
+        HttpRequest request = HttpRequest.newBuilder().uri(url).GET().build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "Неверный код статуса в ответе");
+
+        JsonObject board = JsonParser.parseString(response.body()).getAsJsonObject();
+        assertEquals(0, board.getAsJsonArray("NEW").size(), "Колонка NEW не пуста");
+        assertEquals(0, board.getAsJsonArray("IN_PROGRESS").size(), "Колонка IN_PROGRESS не пуста");
+        assertEquals(taskInManager.getId(), board.getAsJsonArray("DONE").get(0).getAsJsonObject().get("id").getAsInt(),
+                "Задача не в своей колонке");
+    }
+
+    @Test
+    public void searchTasks() throws IOException, InterruptedException {
+        Task taskInManager = manager.createTask(new Task("Позвонить в банк", "Уточнить реквизиты"));
+        manager.createTask(new Task("Написать отчёт", "Квартальный отчёт"));
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/search?q="
+                + URLEncoder.encode("банк реквизиты", StandardCharsets.UTF_8));
+        HttpRequest request = HttpRequest.newBuilder().uri(url).GET().build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "Неверный код статуса в ответе");
+
+        List<Task> parsedList = gson.fromJson(response.body(), new TaskListTypeToken().getType());
+        assertEquals(1, parsedList.size(), "Найдено неверное количество задач");
+        assertEquals(taskInManager.getId(), parsedList.getFirst().getId(), "Найдена не та задача");
+
+        url = URI.create("http://localhost:8080/search");
+        request = HttpRequest.newBuilder().uri(url).GET().build();
+        response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode(), "Поиск без запроса не отклонен");
+    }
+
+    @Test
+    public void taskJsonKeepsTimeFields() {
+        Task task = new Task("Задача для json", "Тестовая задача для json", 7, TaskStatus.NEW, 15L,
+                LocalDateTime.of(2024, 5, 20, 9, 0, 30));
+        JsonObject jsonObject = JsonParser.parseString(gson.toJson(task)).getAsJsonObject();
+        assertEquals(15, jsonObject.get("duration").getAsInt(), "Неверная продолжительность в json");
+        assertEquals("20.05.2024 09:00:30", jsonObject.get("startTime").getAsString(), "Неверная дата начала в json");
+
+        Task parsed = gson.fromJson(jsonObject, Task.class);
+        assertEquals(task.getStartTime(), parsed.getStartTime(), "Дата начала не восстановлена из json");
+        assertEquals(task.getDuration(), parsed.getDuration(), "Продолжительность не восстановлена из json");
+
+        Task parsedWithoutTimes = gson.fromJson("{\"name\": \"Задача\", \"id\": 8}", Task.class);
+        assertFalse(parsedWithoutTimes.hasStartTime(), "У задачи без времени в json появилась дата начала");
+        assertNull(parsedWithoutTimes.getDuration(), "У задачи без времени в json появилась продолжительность");
+    }
+
     @Test
     public void getTask() throws IOException, InterruptedException {
         Task taskInManager = manager.createTask(new Task("Задача 1 для получения",
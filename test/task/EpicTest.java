@@ -2,8 +2,9 @@ package task;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import static org.junit.jupiter.api.Assertions.*;
 
 class EpicTest {
@@ -36,9 +37,7 @@ class EpicTest {
     @Test
     void addSubtask() {
         Subtask subtask = new Subtask("Подзадача 1", "Описание подзадачи 1", 3, epic.getId());
-        HashMap<Integer, Subtask> subtasks = new HashMap<>();
-        subtasks.put(subtask.getId(), subtask);
-        epic.addSubtask(subtask, subtasks);
+        epic.addSubtask(subtask);
         ArrayList<Integer> subtaskList = epic.getSubtaskList();
         assertNotNull(subtaskList, "Создан список подзадач.");
         assertTrue(subtaskList.contains(subtask.getId()), "В списке подзадач есть добавленная подзадача");
@@ -47,9 +46,7 @@ class EpicTest {
     @Test
     void getSubtaskList() {
         Subtask subtask = new Subtask("Подзадача 1", "Описание подзадачи 1", 4, epic.getId());
-        HashMap<Integer, Subtask> subtasks = new HashMap<>();
-        subtasks.put(subtask.getId(), subtask);
-        epic.addSubtask(subtask, subtasks);
+        epic.addSubtask(subtask);
         ArrayList<Integer> subtaskList = epic.getSubtaskList();
         assertNotNull(subtaskList, "Создан список подзадач.");
     }
@@ -57,13 +54,11 @@ class EpicTest {
     @Test
     void removeSubtask() {
         Subtask subtask = new Subtask("Подзадача 1", "Описание подзадачи 1", 5, epic.getId());
-        HashMap<Integer, Subtask> subtasks = new HashMap<>();
-        subtasks.put(subtask.getId(), subtask);
-        epic.addSubtask(subtask, subtasks);
+        epic.addSubtask(subtask);
         ArrayList<Integer> subtaskList = epic.getSubtaskList();
         assertNotNull(subtaskList, "Создан список подзадач.");
         assertEquals(1, subtaskList.size(), "В списке 1 подзадача.");
-        epic.removeSubtask(subtask.getId(), subtasks);
+        epic.removeSubtask(subtask);
         subtaskList = epic.getSubtaskList();
         assertEquals(0, subtaskList.size(), "В списке 0 подзадач.");
     }
@@ -71,9 +66,7 @@ class EpicTest {
     @Test
     void clearSubtasks() {
         Subtask subtask = new Subtask("Подзадача 1", "Описание подзадачи 1", 6, epic.getId());
-        HashMap<Integer, Subtask> subtasks = new HashMap<>();
-        subtasks.put(subtask.getId(), subtask);
-        epic.addSubtask(subtask, subtasks);
+        epic.addSubtask(subtask);
         ArrayList<Integer> subtaskList = epic.getSubtaskList();
         assertNotNull(subtaskList, "Создан список подзадач.");
         assertEquals(1, subtaskList.size(), "В списке 1 подзадача.");
@@ -82,4 +75,72 @@ class EpicTest {
         assertEquals(0, subtaskList.size(), "В списке 0 подзадач.");
     }
 
+    @Test
+    void copyIsIndependent() {
+        Subtask subtask1 = new Subtask("Подзадача 1", "Описание подзадачи 1", 9, TaskStatus.DONE, epic.getId(),
+                30L, LocalDateTime.of(2024, 5, 20, 9, 0));
+        epic.addSubtask(subtask1);
+        Epic copy = new Epic(epic);
+        assertEquals(epic.getSubtaskList(), copy.getSubtaskList(), "Список подзадач не скопирован.");
+        assertEquals(TaskStatus.DONE, copy.getStatus(), "Статус не скопирован.");
+        assertEquals(epic.getEndTime(), copy.getEndTime(), "Окончание не скопировано.");
+
+        Subtask subtask2 = new Subtask("Подзадача 2", "Описание подзадачи 2", 10, TaskStatus.NEW, epic.getId(),
+                30L, LocalDateTime.of(2024, 5, 20, 10, 0));
+        epic.addSubtask(subtask2);
+        assertEquals(1, copy.getSubtaskList().size(), "Копия изменилась вместе с эпиком.");
+        assertEquals(TaskStatus.DONE, copy.getStatus(), "Статус копии изменился вместе с эпиком.");
+        assertEquals(Duration.ofMinutes(30), copy.getDuration(), "Продолжительность копии изменилась вместе с эпиком.");
+
+        copy.addSubtask(subtask2);
+        assertEquals(epic.getStatus(), copy.getStatus(), "Копия не пересчитывает статус по своим подзадачам.");
+        assertEquals(epic.getEndTime(), copy.getEndTime(), "Копия не пересчитывает окончание по своим подзадачам.");
+    }
+
+    @Test
+    void refreshStatusOnSubtaskChanges() {
+        Subtask subtask1 = new Subtask("Подзадача 1", "Описание подзадачи 1", 7, TaskStatus.DONE, epic.getId());
+        Subtask subtask2 = new Subtask("Подзадача 2", "Описание подзадачи 2", 8, TaskStatus.NEW, epic.getId());
+        epic.addSubtask(subtask1);
+        assertEquals(TaskStatus.DONE, epic.getStatus(), "Эпик с единственной завершенной подзадачей не DONE.");
+        epic.addSubtask(subtask2);
+        assertEquals(TaskStatus.IN_PROGRESS, epic.getStatus(), "Эпик с подзадачами NEW и DONE не IN_PROGRESS.");
+
+        Subtask subtask2Done = new Subtask(subtask2.getName(), subtask2.getDescription(), subtask2.getId(),
+                TaskStatus.DONE, epic.getId());
+        epic.updateSubtask(subtask2, subtask2Done);
+        assertEquals(TaskStatus.DONE, epic.getStatus(), "Эпик со всеми завершенными подзадачами не DONE.");
+
+        epic.removeSubtask(subtask1);
+        epic.removeSubtask(subtask2Done);
+        assertEquals(TaskStatus.NEW, epic.getStatus(), "Эпик без подзадач не NEW.");
+    }
+
+    @Test
+    void refreshTimesOnSubtaskChanges() {
+        LocalDateTime start = LocalDateTime.of(2024, 5, 20, 9, 0);
+        Subtask subtask1 = new Subtask("Подзадача 1", "Описание подзадачи 1", 9, epic.getId(), 30L, start);
+        Subtask subtask2 = new Subtask("Подзадача 2", "Описание подзадачи 2", 10, epic.getId(), 15L,
+                start.plusHours(2));
+        Subtask subtask3 = new Subtask("Подзадача 3", "Описание подзадачи 3", 11, epic.getId());
+        epic.addSubtask(subtask1);
+        epic.addSubtask(subtask2);
+        epic.addSubtask(subtask3);
+        assertEquals(start, epic.getStartTime(), "Неверная дата начала эпика.");
+        assertEquals(start.plusHours(2).plusMinutes(15), epic.getEndTime(), "Неверная дата окончания эпика.");
+        assertEquals(Duration.ofMinutes(45), epic.getDuration(), "Неверная продолжительность эпика.");
+
+        Subtask subtask1Moved = new Subtask(subtask1.getName(), subtask1.getDescription(), subtask1.getId(),
+                epic.getId(), 10L, start.plusHours(3));
+        epic.updateSubtask(subtask1, subtask1Moved);
+        assertEquals(start.plusHours(2), epic.getStartTime(), "Дата начала эпика не сдвинулась.");
+        assertEquals(start.plusHours(3).plusMinutes(10), epic.getEndTime(), "Дата окончания эпика не сдвинулась.");
+        assertEquals(Duration.ofMinutes(25), epic.getDuration(), "Продолжительность эпика не пересчитана.");
+
+        epic.removeSubtask(subtask2);
+        epic.removeSubtask(subtask1Moved);
+        assertNull(epic.getStartTime(), "У эпика без подзадач со временем осталась дата начала.");
+        assertNull(epic.getEndTime(), "У эпика без подзадач со временем осталась дата окончания.");
+        assertNull(epic.getDuration(), "У эпика без подзадач со временем осталась продолжительность.");
+    }
 }
\ No newline at end of file
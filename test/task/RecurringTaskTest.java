@@ -0,0 +1,42 @@
+package task;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecurringTaskTest {
+    private final LocalDateTime start = LocalDateTime.of(2024, 5, 20, 9, 0);
+
+    @Test
+    void occurrenceCount() {
+        RecurringTask daily = new RecurringTask("Зарядка", "Описание", 30L, start, 24 * 60,
+                start.plusDays(6));
+        assertEquals(7, daily.getOccurrenceCount(), "Повторение в дату окончания должно учитываться.");
+        RecurringTask bounded = new RecurringTask("Зарядка", "Описание", 30L, start, 24 * 60,
+                start.plusDays(6).minusMinutes(1));
+        assertEquals(6, bounded.getOccurrenceCount(), "Повторение после даты окончания учтено.");
+        RecurringTask endless = new RecurringTask("Зарядка", "Описание", 30L, start, 24 * 60, null);
+        assertTrue(endless.isEndless(), "Правило без даты окончания должно быть бессрочным.");
+        assertEquals(Long.MAX_VALUE, endless.getOccurrenceCount(), "Неверное количество бессрочных повторений.");
+    }
+
+    @Test
+    void occurrenceByIndex() {
+        RecurringTask rule = new RecurringTask("Зарядка", "Описание", 7, TaskStatus.NEW, 30L, start, 24 * 60, null);
+        Task occurrence = rule.getOccurrence(3);
+        assertEquals(7, occurrence.getId(), "Повторение должно иметь id правила.");
+        assertEquals(start.plusDays(3), occurrence.getStartTime(), "Неверное начало повторения.");
+        assertEquals(30, occurrence.getDuration().toMinutes(), "Неверная продолжительность повторения.");
+
+        assertEquals(0, rule.firstStartingNotBefore(start.minusDays(5)), "Номер до начала правила должен быть 0.");
+        assertEquals(3, rule.firstStartingNotBefore(start.plusDays(3)), "Повторение в заданное время не найдено.");
+        assertEquals(4, rule.firstStartingNotBefore(start.plusDays(3).plusSeconds(1)),
+                "Найдено повторение, начавшееся раньше заданного времени.");
+        assertEquals(3, rule.firstEndingNotBefore(start.plusDays(3).plusMinutes(30)),
+                "Повторение, заканчивающееся в заданное время, не найдено.");
+        assertEquals(4, rule.firstEndingNotBefore(start.plusDays(3).plusMinutes(31)),
+                "Найдено повторение, закончившееся раньше заданного времени.");
+    }
+}
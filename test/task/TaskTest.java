@@ -2,6 +2,10 @@ package task;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class TaskTest {
@@ -29,4 +33,35 @@ class TaskTest {
         assertEquals("Описание задачи 2", task.getDescription(), "Описание изменено успешно.");
         assertEquals(2, task.getId(), "Идентификатор изменен успешно.");
     }
+
+    @Test
+    void timeAttributes() {
+        assertNull(task.getStartTime(), "Дата начала задачи без времени должна быть пустой.");
+        assertNull(task.getDuration(), "Продолжительность задачи без времени должна быть пустой.");
+        assertNull(task.getEndTime(), "Окончание задачи без времени должно быть пустым.");
+        assertFalse(task.hasStartTime(), "У задачи без времени нет даты начала.");
+
+        LocalDateTime start = LocalDateTime.of(2024, 5, 20, 9, 0, 15, 123_456_789);
+        Task timed = new Task("Задача 2", "Описание задачи 2", 2, 90L, start);
+        assertEquals(start, timed.getStartTime(), "Дата начала должна сохраняться точно.");
+        assertEquals(Duration.ofMinutes(90), timed.getDuration(), "Неверная продолжительность.");
+        assertEquals(start.plusMinutes(90), timed.getEndTime(), "Неверная дата окончания.");
+
+        Task later = new Task("Задача 3", "Описание задачи 3", 3, 30L, start.plusNanos(1));
+        assertTrue(timed.compareStartTo(later) < 0, "Неверное сравнение дат начала.");
+        assertEquals(0, timed.compareStartTo(start), "Неверное сравнение даты начала с датой.");
+        assertTrue(later.compareEndTo(timed) < 0, "Неверное сравнение дат окончания.");
+        assertTrue(later.compareStartToEndOf(timed) < 0, "Неверное сравнение начала с окончанием.");
+    }
+
+    @Test
+    void longDuration() {
+        long minutes = Integer.MAX_VALUE + 10L;
+        LocalDateTime start = LocalDateTime.of(2024, 5, 20, 9, 0);
+        Task longTask = new Task("Задача 2", "Описание задачи 2", 2, minutes, start);
+        assertEquals(Duration.ofMinutes(minutes), longTask.getDuration(), "Большая продолжительность искажена.");
+        assertEquals(start.plusMinutes(minutes), longTask.getEndTime(), "Неверная дата окончания.");
+        longTask.setDuration(minutes + 1);
+        assertEquals(Duration.ofMinutes(minutes + 1), longTask.getDuration(), "Продолжительность не изменена.");
+    }
 }
\ No newline at end of file
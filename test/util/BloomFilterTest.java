@@ -0,0 +1,27 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+    @Test
+    void noFalseNegativesAndFewFalsePositives() {
+        BloomFilter filter = new BloomFilter(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(i * 3);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain(i * 3), "Добавленное число не найдено: " + i * 3);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain(-1 - i * 3)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "Слишком много ложных срабатываний: " + falsePositives);
+        assertFalse(new BloomFilter(0).mightContain(1), "Пустой фильтр нашел число.");
+    }
+}
@@ -0,0 +1,58 @@
+package util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntLinkedSetTest {
+    private IntLinkedSet set;
+
+    @BeforeEach
+    void beforeEach() {
+        set = new IntLinkedSet();
+    }
+
+    @Test
+    void addContainsRemove() {
+        assertTrue(set.isEmpty(), "Новое множество не пустое.");
+        assertTrue(set.add(5), "Элемент не добавлен.");
+        assertFalse(set.add(5), "Повторный элемент добавлен.");
+        set.add(3);
+        set.add(9);
+        assertEquals(3, set.size(), "Неверный размер множества.");
+        assertTrue(set.contains(3), "Добавленный элемент не найден.");
+
+        assertTrue(set.remove(3), "Элемент не удален.");
+        assertFalse(set.remove(3), "Удален отсутствующий элемент.");
+        assertFalse(set.contains(3), "Удаленный элемент найден.");
+        assertArrayEquals(new int[]{5, 9}, set.toArray(), "Нарушен порядок добавления.");
+
+        set.add(3);
+        assertArrayEquals(new int[]{5, 9, 3}, set.toArray(), "Повторно добавленный элемент не в конце.");
+
+        set.clear();
+        assertEquals(0, set.size(), "Множество не очищено.");
+        assertFalse(set.contains(5), "После очистки найден элемент.");
+    }
+
+    @Test
+    void matchesLinkedHashSet() {
+        Random random = new Random(7);
+        LinkedHashSet<Integer> expected = new LinkedHashSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            int value = random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), set.remove(value), "Расхождение при удалении " + value);
+            } else {
+                assertEquals(expected.add(value), set.add(value), "Расхождение при добавлении " + value);
+            }
+        }
+        assertEquals(expected.size(), set.size(), "Расхождение по размеру.");
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), set.toArray(),
+                "Расхождение по порядку обхода.");
+    }
+}
@@ -0,0 +1,73 @@
+package util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Сравнение {@link IntObjectMap} и {@link HashMap} по занимаемой памяти и скорости поиска на id задач.
+ * Запускается вручную: java util.IntObjectMapBenchmark [количество записей]
+ *
+ * @author Николаев Д.В.
+ * @version 1.0
+ */
+public class IntObjectMapBenchmark {
+    private static final int LOOKUP_ROUNDS = 20;
+
+    public static void main(String[] args) {
+        int count = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+        Object value = new Object();
+
+        long before = usedMemory();
+        Map<Integer, Object> hashMap = new HashMap<>();
+        for (int id = 1; id <= count; id++) {
+            hashMap.put(id, value);
+        }
+        long hashMapBytes = usedMemory() - before;
+
+        before = usedMemory();
+        IntObjectMap<Object> intMap = new IntObjectMap<>();
+        for (int id = 1; id <= count; id++) {
+            intMap.put(id, value);
+        }
+        long intMapBytes = usedMemory() - before;
+
+        System.out.printf("Записей: %d%n", count);
+        System.out.printf("HashMap<Integer, V>: %,d байт (%.1f на запись)%n", hashMapBytes,
+                (double) hashMapBytes / count);
+        System.out.printf("IntObjectMap<V>:     %,d байт (%.1f на запись)%n", intMapBytes,
+                (double) intMapBytes / count);
+
+        long hashMapNanos = Long.MAX_VALUE;
+        long intMapNanos = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int round = 0; round < LOOKUP_ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int id = count; id > 0; id--) {
+                checksum += (hashMap.get(id) != null) ? 1 : 0;
+            }
+            hashMapNanos = Math.min(hashMapNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int id = count; id > 0; id--) {
+                checksum += (intMap.get(id) != null) ? 1 : 0;
+            }
+            intMapNanos = Math.min(intMapNanos, System.nanoTime() - start);
+        }
+        System.out.printf("Поиск HashMap<Integer, V>: %.1f нс/операция%n", (double) hashMapNanos / count);
+        System.out.printf("Поиск IntObjectMap<V>:     %.1f нс/операция%n", (double) intMapNanos / count);
+        System.out.println("Контрольная сумма: " + checksum);
+    }
+
+    /**
+     * Метод оценки занятой памяти кучи после сборки мусора
+     *
+     * @return количество занятых байт
+     */
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,58 @@
+package util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntObjectMapTest {
+    private IntObjectMap<String> map;
+
+    @BeforeEach
+    void beforeEach() {
+        map = new IntObjectMap<>();
+    }
+
+    @Test
+    void putGetRemove() {
+        assertTrue(map.isEmpty(), "Новая таблица не пустая.");
+        assertNull(map.put(1, "один"), "При добавлении возвращено прежнее значение.");
+        assertNull(map.put(-7, "минус семь"), "При добавлении возвращено прежнее значение.");
+        assertEquals("один", map.put(1, "раз"), "При замене не возвращено прежнее значение.");
+        assertEquals(2, map.size(), "Неверный размер таблицы.");
+        assertEquals("раз", map.get(1), "Значение не заменено.");
+        assertTrue(map.containsKey(-7), "Запись с отрицательным ключом не найдена.");
+
+        assertEquals("раз", map.remove(1), "Не возвращено удаленное значение.");
+        assertNull(map.remove(1), "Удалена отсутствующая запись.");
+        assertNull(map.get(1), "Найдена удаленная запись.");
+        assertThrows(NullPointerException.class, () -> map.put(2, null), "Добавлено значение null.");
+
+        map.clear();
+        assertEquals(0, map.size(), "Таблица не очищена.");
+        assertFalse(map.containsKey(-7), "После очистки найдена запись.");
+    }
+
+    @Test
+    void matchesLinkedHashMap() {
+        Random random = new Random(11);
+        LinkedHashMap<Integer, String> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(2_000);
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(expected.remove(key), map.remove(key), "Расхождение при удалении " + key);
+                case 1 -> assertEquals(expected.get(key), map.get(key), "Расхождение при поиске " + key);
+                default -> assertEquals(expected.put(key, "v" + i), map.put(key, "v" + i),
+                        "Расхождение при добавлении " + key);
+            }
+        }
+        assertEquals(expected.size(), map.size(), "Расхождение по размеру.");
+        assertEquals(new ArrayList<>(expected.values()), map.values(), "Расхождение по порядку обхода.");
+        assertArrayEquals(expected.keySet().stream().mapToInt(Integer::intValue).toArray(), map.keys(),
+                "Расхождение по ключам.");
+    }
+}